@@ -0,0 +1,101 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.io.stream;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the transport serialization primitives of {@link BytesStreamOutput} and {@link StreamInput} using a mix of
+ * variable-length numbers, fixed-length numbers and strings as they are found in typical transport messages.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class StreamBenchmark {
+
+    @Param({"1000", "100000"})
+    private int numValues;
+
+    private long[] longs;
+    private int[] ints;
+    private String[] strings;
+    private BytesReference serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        longs = new long[numValues];
+        ints = new int[numValues];
+        strings = new String[numValues];
+        for (int i = 0; i < numValues; i++) {
+            longs[i] = random.nextLong();
+            ints[i] = random.nextInt(1 << (1 + random.nextInt(30)));
+            strings[i] = "value-" + random.nextInt(1000) + "-éléphant";
+        }
+        serialized = write();
+    }
+
+    @Benchmark
+    public BytesReference write() throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            for (int i = 0; i < numValues; i++) {
+                out.writeVInt(ints[i]);
+                out.writeLong(longs[i]);
+                out.writeVLong(longs[i] >>> 1);
+                out.writeString(strings[i]);
+            }
+            return out.bytes();
+        }
+    }
+
+    @Benchmark
+    public long read() throws IOException {
+        long checksum = 0;
+        try (StreamInput in = serialized.streamInput()) {
+            for (int i = 0; i < numValues; i++) {
+                checksum += in.readVInt();
+                checksum += in.readLong();
+                checksum += in.readVLong();
+                checksum += in.readString().length();
+            }
+        }
+        return checksum;
+    }
+}
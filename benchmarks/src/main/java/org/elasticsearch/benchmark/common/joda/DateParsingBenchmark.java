@@ -0,0 +1,163 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.benchmark.common.joda;
+
+import org.elasticsearch.common.joda.FastDateParser;
+import org.elasticsearch.common.joda.FormatDateTimeFormatter;
+import org.elasticsearch.common.joda.Joda;
+import org.elasticsearch.ingest.core.IngestDocument;
+import org.elasticsearch.ingest.processor.DateProcessor;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing dates with the default date format of the date mapper and with the ISO8601 format of the date
+ * processor, each with the fast parsers and with the joda parsers they stand in for.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class DateParsingBenchmark {
+
+    private static final int NUM_DATES = 1000;
+
+    @Param({"date", "date_time", "date_time_offset", "epoch_millis"})
+    private String layout;
+
+    private String[] dates;
+    private FormatDateTimeFormatter mapperFormatter;
+    private DateTimeFormatter jodaIso8601Parser;
+    private DateProcessor dateProcessor;
+    private IngestDocument ingestDocument;
+
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        dates = new String[NUM_DATES];
+        for (int i = 0; i < NUM_DATES; i++) {
+            // sometime between 2000 and 2030
+            long millis = 946684800000L + (long) (random.nextDouble() * 946684800000L);
+            switch (layout) {
+                case "date":
+                    dates[i] = ISODateTimeFormat.date().withZoneUTC().print(millis);
+                    break;
+                case "date_time":
+                    dates[i] = ISODateTimeFormat.dateHourMinuteSecondMillis().withZoneUTC().print(millis);
+                    break;
+                case "date_time_offset":
+                    dates[i] = ISODateTimeFormat.dateTime().withZone(DateTimeZone.forOffsetHours(2)).print(millis);
+                    break;
+                case "epoch_millis":
+                    dates[i] = Long.toString(millis);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown layout [" + layout + "]");
+            }
+        }
+        mapperFormatter = Joda.forPattern("strict_date_optional_time||epoch_millis");
+        jodaIso8601Parser = ISODateTimeFormat.dateTimeParser().withZone(DateTimeZone.UTC);
+
+        Map<String, Object> config = new HashMap<>();
+        config.put("field", "date");
+        config.put("formats", Collections.singletonList("ISO8601"));
+        dateProcessor = new DateProcessor.Factory().create(config);
+        ingestDocument = new IngestDocument(new HashMap<>(), new HashMap<>());
+    }
+
+    @Benchmark
+    public long mapperParse() {
+        long sum = 0;
+        for (String date : dates) {
+            sum += mapperFormatter.parseMillis(date);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long mapperParseJoda() {
+        long sum = 0;
+        for (String date : dates) {
+            sum += mapperFormatter.parser().parseMillis(date);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long ingestIso8601() {
+        if (layout.equals("epoch_millis")) {
+            return 0;
+        }
+        long sum = 0;
+        for (String date : dates) {
+            // what the ISO8601 format of the date processor does for the common layouts
+            long millis = FastDateParser.parseDateOptionalTime(date, DateTimeZone.UTC);
+            sum += new DateTime(millis, DateTimeZone.UTC).getMillis();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Object ingestDateProcessor() throws Exception {
+        if (layout.equals("epoch_millis")) {
+            // not an ISO8601 date
+            return null;
+        }
+        for (String date : dates) {
+            ingestDocument.setFieldValue("date", date);
+            dateProcessor.execute(ingestDocument);
+        }
+        return ingestDocument.getFieldValue("@timestamp", String.class);
+    }
+
+    @Benchmark
+    public long ingestIso8601Joda() {
+        if (layout.equals("epoch_millis")) {
+            return 0;
+        }
+        long sum = 0;
+        for (String date : dates) {
+            sum += jodaIso8601Parser.parseDateTime(date).getMillis();
+        }
+        return sum;
+    }
+}
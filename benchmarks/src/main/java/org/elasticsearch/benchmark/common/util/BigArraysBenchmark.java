@@ -0,0 +1,121 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.util;
+
+import org.elasticsearch.cache.recycler.PageCacheRecycler;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.LongArray;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures allocation, growth and random access of paged {@link BigArrays}, with and without page recycling.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class BigArraysBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    @Param({"true", "false"})
+    private boolean recycling;
+
+    private ThreadPool threadPool;
+    private BigArrays bigArrays;
+    private LongArray values;
+    private long[] indices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (recycling) {
+            threadPool = new ThreadPool("benchmark");
+            bigArrays = new BigArrays(new PageCacheRecycler(Settings.EMPTY, threadPool), null);
+        } else {
+            bigArrays = BigArrays.NON_RECYCLING_INSTANCE;
+        }
+        values = bigArrays.newLongArray(size);
+        indices = new long[1024];
+        // a cheap LCG keeps the access pattern reproducible across runs
+        long seed = 42;
+        for (int i = 0; i < indices.length; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            indices[i] = (seed >>> 1) % size;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        values.close();
+        if (threadPool != null) {
+            ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Benchmark
+    public long allocateAndFill() {
+        try (LongArray array = bigArrays.newLongArray(size)) {
+            array.fill(0, size, 1L);
+            return array.get(size - 1);
+        }
+    }
+
+    @Benchmark
+    public long grow() {
+        LongArray array = bigArrays.newLongArray(1);
+        try {
+            for (long i = 0; i < size; i++) {
+                array = bigArrays.grow(array, i + 1);
+                array.set(i, i);
+            }
+            return array.get(size - 1);
+        } finally {
+            array.close();
+        }
+    }
+
+    @Benchmark
+    public long randomIncrement() {
+        long sum = 0;
+        for (long index : indices) {
+            sum += values.increment(index, 1);
+        }
+        return sum;
+    }
+}
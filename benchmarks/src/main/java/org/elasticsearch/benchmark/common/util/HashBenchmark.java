@@ -0,0 +1,93 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.util;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.BytesRefHash;
+import org.elasticsearch.common.util.LongHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LongHash} and {@link BytesRefHash} inserts with a configurable ratio of distinct keys, which is
+ * what terms aggregations do for every collected document.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class HashBenchmark {
+
+    @Param({"100000"})
+    private int numKeys;
+
+    @Param({"100", "10000", "100000"})
+    private int cardinality;
+
+    private long[] longKeys;
+    private BytesRef[] bytesKeys;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        longKeys = new long[numKeys];
+        bytesKeys = new BytesRef[numKeys];
+        for (int i = 0; i < numKeys; i++) {
+            long key = random.nextInt(cardinality);
+            longKeys[i] = key * 31;
+            bytesKeys[i] = new BytesRef("term-" + key);
+        }
+    }
+
+    @Benchmark
+    public long longHashAdd() {
+        try (LongHash hash = new LongHash(1, BigArrays.NON_RECYCLING_INSTANCE)) {
+            for (long key : longKeys) {
+                hash.add(key);
+            }
+            return hash.size();
+        }
+    }
+
+    @Benchmark
+    public long bytesRefHashAdd() {
+        try (BytesRefHash hash = new BytesRefHash(1, BigArrays.NON_RECYCLING_INSTANCE)) {
+            for (BytesRef key : bytesKeys) {
+                hash.add(key);
+            }
+            return hash.size();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.xcontent;
+
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares filtering a wide document of about 50KB by parsing it into a map and rendering the map again, which is what the
+ * fetch phase used to do for source filtering, with filtering it while streaming the stored bytes.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class SourceFilteringBenchmark {
+
+    @Param({"JSON", "SMILE"})
+    private XContentType contentType;
+
+    @Param({"field_17", "object_3.*", "field_*"})
+    private String include;
+
+    private BytesReference source;
+
+    private String[] includes;
+
+    @Setup
+    public void setUp() throws IOException {
+        XContentBuilder builder = XContentFactory.contentBuilder(contentType);
+        builder.startObject();
+        // 200 string fields of 100 chars and 10 objects of 20 numeric fields, about 50KB in JSON
+        for (int i = 0; i < 200; i++) {
+            builder.field("field_" + i, Strings.padStart(Integer.toString(i), 100, 'x'));
+        }
+        for (int i = 0; i < 10; i++) {
+            builder.startObject("object_" + i);
+            for (int j = 0; j < 20; j++) {
+                builder.field("value_" + j, 1000000L * i + j);
+            }
+            builder.endObject();
+        }
+        builder.endObject();
+        source = builder.bytes();
+        includes = new String[] {include};
+    }
+
+    @Benchmark
+    public BytesReference filterMap() throws IOException {
+        Map<String, Object> map = XContentHelper.convertToMap(source, false).v2();
+        Map<String, Object> filtered = XContentMapValues.filter(map, includes, Strings.EMPTY_ARRAY);
+        return XContentFactory.contentBuilder(contentType).value(filtered).bytes();
+    }
+
+    @Benchmark
+    public BytesReference filterStream() throws IOException {
+        XContentBuilder builder = XContentFactory.contentBuilder(contentType);
+        try (XContentParser parser = XContentHelper.createParser(source)) {
+            XContentMapValues.filter(parser, builder, includes, Strings.EMPTY_ARRAY);
+        }
+        return builder.bytes();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.common.xcontent;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering of search-hit-like objects through {@link XContentBuilder} in the different content types.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class XContentBuilderBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private XContentType contentType;
+
+    @Param({"100"})
+    private int numHits;
+
+    @Benchmark
+    public BytesReference renderHits() throws IOException {
+        XContentBuilder builder = XContentFactory.contentBuilder(contentType);
+        builder.startObject();
+        builder.startObject("hits");
+        builder.field("total", 1000000);
+        builder.field("max_score", 1.0f);
+        builder.startArray("hits");
+        for (int i = 0; i < numHits; i++) {
+            builder.startObject();
+            builder.field("_index", "logs-2016.05.01");
+            builder.field("_type", "event");
+            builder.field("_id", "AVRlJ8rzq2Aoz3xLPlaG" + i);
+            builder.field("_score", 1.0f);
+            builder.startObject("_source");
+            builder.field("@timestamp", 1462060800000L + i);
+            builder.field("message", "GET /search?q=elasticsearch HTTP/1.1");
+            builder.field("status", 200);
+            builder.field("bytes", 4096L + i);
+            builder.array("tags", "web", "production", "eu-west");
+            builder.endObject();
+            builder.endObject();
+        }
+        builder.endArray();
+        builder.endObject();
+        builder.endObject();
+        return builder.bytes();
+    }
+}
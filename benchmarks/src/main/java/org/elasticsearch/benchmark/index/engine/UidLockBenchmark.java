@@ -0,0 +1,112 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.benchmark.index.engine;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.util.concurrent.KeyedLock;
+import org.elasticsearch.common.util.concurrent.StripedLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulates what the engine does for every index operation: lock the uid, look up and replace its entry in the
+ * version map and account for the RAM used by the map. Compares the per-uid {@link KeyedLock} and an
+ * {@link AtomicLong} counter with the {@link StripedLock} and {@link LongAdder} the engine uses.
+ *
+ * Run with several thread counts to see how throughput scales with the number of indexing threads, e.g.
+ * <code>gradle :benchmarks:jmh -Pargs="UidLockBenchmark -t 1"</code>, then <code>-t 8</code>, <code>-t 40</code>.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class UidLockBenchmark {
+
+    @Param({"1000000"})
+    private int numUids;
+
+    private BytesRef[] uids;
+    private Map<BytesRef, Long> versionMap;
+
+    private KeyedLock<BytesRef> keyedLock;
+    private AtomicLong atomicRamBytesUsed;
+
+    private StripedLock<BytesRef> stripedLock;
+    private LongAdder adderRamBytesUsed;
+
+    @Setup
+    public void setUp() {
+        uids = new BytesRef[numUids];
+        for (int i = 0; i < numUids; i++) {
+            uids[i] = new BytesRef("type#" + i);
+        }
+        versionMap = ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
+        keyedLock = new KeyedLock<>();
+        atomicRamBytesUsed = new AtomicLong();
+        stripedLock = new StripedLock<>(8 * Runtime.getRuntime().availableProcessors());
+        adderRamBytesUsed = new LongAdder();
+    }
+
+    @Benchmark
+    public Long keyedLock() {
+        BytesRef uid = uids[ThreadLocalRandom.current().nextInt(numUids)];
+        try (Releasable ignored = keyedLock.acquire(uid)) {
+            Long prev = versionMap.get(uid);
+            long version = prev == null ? 1 : prev + 1;
+            versionMap.put(uid, version);
+            atomicRamBytesUsed.addAndGet(prev == null ? uid.length : 0);
+            return prev;
+        }
+    }
+
+    @Benchmark
+    public Long stripedLock() {
+        BytesRef uid = uids[ThreadLocalRandom.current().nextInt(numUids)];
+        try (Releasable ignored = stripedLock.acquire(uid)) {
+            Long prev = versionMap.get(uid);
+            long version = prev == null ? 1 : prev + 1;
+            versionMap.put(uid, version);
+            adderRamBytesUsed.add(prev == null ? uid.length : 0);
+            return prev;
+        }
+    }
+}
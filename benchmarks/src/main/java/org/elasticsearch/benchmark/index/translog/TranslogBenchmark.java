@@ -0,0 +1,111 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.index.translog;
+
+import org.apache.lucene.util.IOUtils;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.index.translog.TranslogConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures adding operations to the {@link Translog}, with and without fsyncing after every operation as it is done
+ * for {@code index.translog.durability: request}. Run with {@code -t <threads>} to measure concurrent writers.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class TranslogBenchmark {
+
+    @Param({"100", "4096"})
+    private int sourceSize;
+
+    private final AtomicLong idGenerator = new AtomicLong();
+    private Path path;
+    private Translog translog;
+    private byte[] source;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        path = Files.createTempDirectory("translog-benchmark");
+        Settings settings = Settings.builder()
+            .put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT)
+            .put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1)
+            .put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 0)
+            .build();
+        IndexMetaData metaData = IndexMetaData.builder("index").settings(settings).build();
+        IndexSettings indexSettings = new IndexSettings(metaData, Settings.EMPTY);
+        ShardId shardId = new ShardId(metaData.getIndex(), 0);
+        translog = new Translog(new TranslogConfig(shardId, path, indexSettings, BigArrays.NON_RECYCLING_INSTANCE), null);
+        String json = "{\"message\":\"" + new String(filler(sourceSize), StandardCharsets.UTF_8) + "\"}";
+        source = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] filler(int length) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) 'a');
+        return bytes;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        IOUtils.close(translog);
+        IOUtils.rm(path);
+    }
+
+    @Benchmark
+    public Translog.Location add() throws IOException {
+        return translog.add(new Translog.Index("type", Long.toString(idGenerator.incrementAndGet()), source));
+    }
+
+    @Benchmark
+    public boolean addAndSync() throws IOException {
+        Translog.Location location = translog.add(new Translog.Index("type", Long.toString(idGenerator.incrementAndGet()), source));
+        return translog.ensureSynced(location);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.search;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.search.internal.InternalSearchHit;
+import org.elasticsearch.search.internal.InternalSearchHits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering a page of search hits with JSON sources in the different response formats, with and without
+ * {@link InternalSearchHit#BINARY_SOURCE_PARAM}.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class SearchHitsRenderingBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private XContentType contentType;
+
+    @Param({"false", "true"})
+    private boolean binarySource;
+
+    @Param({"10000"})
+    private int numHits;
+
+    private InternalSearchHits hits;
+
+    private ToXContent.Params params;
+
+    @Setup
+    public void setUp() throws IOException {
+        InternalSearchHit[] searchHits = new InternalSearchHit[numHits];
+        for (int i = 0; i < numHits; i++) {
+            XContentBuilder source = XContentFactory.jsonBuilder();
+            source.startObject();
+            source.field("@timestamp", 1462060800000L + i);
+            source.field("message", "GET /search?q=elasticsearch HTTP/1.1");
+            source.field("status", 200);
+            source.field("bytes", 4096L + i);
+            source.array("tags", "web", "production", "eu-west");
+            source.endObject();
+            searchHits[i] = new InternalSearchHit(i, "AVRlJ8rzq2Aoz3xLPlaG" + i, new Text("event"), null);
+            searchHits[i].score(1.0f);
+            searchHits[i].sourceRef(source.bytes());
+        }
+        hits = new InternalSearchHits(searchHits, 1000000, 1.0f);
+        params = new ToXContent.MapParams(Collections.singletonMap(InternalSearchHit.BINARY_SOURCE_PARAM, Boolean.toString(binarySource)));
+    }
+
+    @Benchmark
+    public BytesReference renderHits() throws IOException {
+        XContentBuilder builder = XContentFactory.contentBuilder(contentType);
+        builder.startObject();
+        hits.toXContent(builder, params);
+        builder.endObject();
+        return builder.bytes();
+    }
+}
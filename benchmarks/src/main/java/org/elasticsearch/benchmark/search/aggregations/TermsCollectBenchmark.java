@@ -0,0 +1,145 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.search.aggregations;
+
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.lease.Releasables;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.BytesRefHash;
+import org.elasticsearch.common.util.LongArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the collect phase of a terms aggregation on a keyword field over an in-memory Lucene index. The two
+ * benchmarks mirror the {@code map} execution hint (hashing the term bytes of every document) and the
+ * {@code global_ordinals} execution hint (counting directly on global ordinals).
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class TermsCollectBenchmark {
+
+    private static final String FIELD = "tag";
+
+    @Param({"100000"})
+    private int numDocs;
+
+    @Param({"10", "1000", "50000"})
+    private int cardinality;
+
+    private Directory directory;
+    private DirectoryReader reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        directory = new RAMDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new KeywordAnalyzer()))) {
+            for (int i = 0; i < numDocs; i++) {
+                Document document = new Document();
+                document.add(new SortedSetDocValuesField(FIELD, new BytesRef("tag-" + random.nextInt(cardinality))));
+                writer.addDocument(document);
+                if (i % 10000 == 0) {
+                    // create several segments so that global ordinals have to be mapped
+                    writer.commit();
+                }
+            }
+        }
+        reader = DirectoryReader.open(directory);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Benchmark
+    public long collectWithBytesRefHash() throws IOException {
+        final BigArrays bigArrays = BigArrays.NON_RECYCLING_INSTANCE;
+        BytesRefHash bucketOrds = new BytesRefHash(1, bigArrays);
+        LongArray counts = bigArrays.newLongArray(1, true);
+        try {
+            for (LeafReaderContext ctx : reader.leaves()) {
+                SortedSetDocValues values = ctx.reader().getSortedSetDocValues(FIELD);
+                for (int doc = 0; doc < ctx.reader().maxDoc(); doc++) {
+                    values.setDocument(doc);
+                    for (long ord = values.nextOrd(); ord != SortedSetDocValues.NO_MORE_ORDS; ord = values.nextOrd()) {
+                        BytesRef term = values.lookupOrd(ord);
+                        long bucketOrd = bucketOrds.add(term);
+                        if (bucketOrd < 0) {
+                            bucketOrd = -1 - bucketOrd;
+                        } else {
+                            counts = bigArrays.grow(counts, bucketOrd + 1);
+                        }
+                        counts.increment(bucketOrd, 1);
+                    }
+                }
+            }
+            return bucketOrds.size();
+        } finally {
+            Releasables.close(bucketOrds, counts);
+        }
+    }
+
+    @Benchmark
+    public long collectWithGlobalOrdinals() throws IOException {
+        final BigArrays bigArrays = BigArrays.NON_RECYCLING_INSTANCE;
+        final SortedSetDocValues globalValues = MultiDocValues.getSortedSetValues(reader, FIELD);
+        try (LongArray counts = bigArrays.newLongArray(globalValues.getValueCount(), true)) {
+            for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                globalValues.setDocument(doc);
+                for (long ord = globalValues.nextOrd(); ord != SortedSetDocValues.NO_MORE_ORDS; ord = globalValues.nextOrd()) {
+                    counts.increment(ord, 1);
+                }
+            }
+            return counts.get(0);
+        }
+    }
+}
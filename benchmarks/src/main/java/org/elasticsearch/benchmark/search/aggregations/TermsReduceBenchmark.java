@@ -0,0 +1,113 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.search.aggregations;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.aggregations.InternalAggregation;
+import org.elasticsearch.search.aggregations.InternalAggregation.ReduceContext;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.bucket.terms.InternalTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.LongTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.StringTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the coordinating node reduce of string and long terms aggregations returned by many shards via
+ * {@link InternalAggregations#reduce(List, ReduceContext)}.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class TermsReduceBenchmark {
+
+    @Param({"5", "100", "1000"})
+    private int numShards;
+
+    @Param({"10", "1000"})
+    private int shardSize;
+
+    @Param({"10000"})
+    private int cardinality;
+
+    private final ReduceContext reduceContext = new ReduceContext(BigArrays.NON_RECYCLING_INSTANCE, null, null);
+
+    private List<InternalAggregations> stringTerms;
+    private List<InternalAggregations> longTerms;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        stringTerms = new ArrayList<>(numShards);
+        longTerms = new ArrayList<>(numShards);
+        for (int shard = 0; shard < numShards; shard++) {
+            List<InternalTerms.Bucket> stringBuckets = new ArrayList<>(shardSize);
+            List<InternalTerms.Bucket> longBuckets = new ArrayList<>(shardSize);
+            int start = random.nextInt(cardinality);
+            for (int i = 0; i < shardSize; i++) {
+                long term = (start + i) % cardinality;
+                // shard level buckets are sorted by descending doc count
+                long docCount = shardSize - i;
+                stringBuckets.add(new StringTerms.Bucket(new BytesRef("term-" + term), docCount, InternalAggregations.EMPTY,
+                        false, 0, DocValueFormat.RAW));
+                longBuckets.add(new LongTerms.Bucket(term, docCount, InternalAggregations.EMPTY, false, 0, DocValueFormat.RAW));
+            }
+            stringTerms.add(aggregations(new StringTerms("terms", Terms.Order.count(false), DocValueFormat.RAW, 10, shardSize, 1,
+                    stringBuckets, false, 0, 0, Collections.emptyList(), Collections.emptyMap())));
+            longTerms.add(aggregations(new LongTerms("terms", Terms.Order.count(false), DocValueFormat.RAW, 10, shardSize, 1,
+                    longBuckets, false, 0, 0, Collections.emptyList(), Collections.emptyMap())));
+        }
+    }
+
+    private static InternalAggregations aggregations(InternalAggregation aggregation) {
+        return new InternalAggregations(Collections.singletonList(aggregation));
+    }
+
+    @Benchmark
+    public InternalAggregations reduceStringTerms() {
+        return InternalAggregations.reduce(stringTerms, reduceContext);
+    }
+
+    @Benchmark
+    public InternalAggregations reduceLongTerms() {
+        return InternalAggregations.reduce(longTerms, reduceContext);
+    }
+}
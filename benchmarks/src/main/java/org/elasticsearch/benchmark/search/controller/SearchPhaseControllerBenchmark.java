@@ -0,0 +1,128 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.search.controller;
+
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.concurrent.AtomicArray;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.controller.SearchPhaseController;
+import org.elasticsearch.search.fetch.FetchSearchResult;
+import org.elasticsearch.search.internal.InternalSearchHit;
+import org.elasticsearch.search.internal.InternalSearchHits;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SearchPhaseController#sortDocs(boolean, AtomicArray)} and
+ * {@link SearchPhaseController#merge(ScoreDoc[], AtomicArray, AtomicArray)} for searches that hit many shards.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class SearchPhaseControllerBenchmark {
+
+    @Param({"5", "100", "2000"})
+    private int numShards;
+
+    @Param({"10", "100"})
+    private int size;
+
+    private SearchPhaseController controller;
+    private AtomicArray<QuerySearchResult> queryResults;
+    private AtomicArray<FetchSearchResult> fetchResults;
+    private ScoreDoc[] sortedDocs;
+
+    @Setup
+    public void setUp() throws IOException {
+        // neither the script service nor the cluster service are needed as long as there are no aggregations to reduce
+        controller = new SearchPhaseController(Settings.EMPTY, BigArrays.NON_RECYCLING_INSTANCE, null, null);
+        Random random = new Random(42);
+        Index index = new Index("index", "_na_");
+        queryResults = new AtomicArray<>(numShards);
+        for (int shard = 0; shard < numShards; shard++) {
+            SearchShardTarget target = new SearchShardTarget("node", index, shard);
+            ScoreDoc[] scoreDocs = new ScoreDoc[size];
+            float score = 10f;
+            for (int i = 0; i < size; i++) {
+                score -= random.nextFloat() / size;
+                scoreDocs[i] = new ScoreDoc(random.nextInt(1000000), score);
+            }
+            QuerySearchResult result = new QuerySearchResult(shard, target);
+            result.topDocs(new TopDocs(1000 + random.nextInt(1000), scoreDocs, scoreDocs[0].score));
+            result.from(0).size(size);
+            queryResults.set(shard, result);
+        }
+
+        sortedDocs = controller.sortDocs(false, queryResults);
+        List<List<InternalSearchHit>> hitsPerShard = new ArrayList<>(numShards);
+        for (int shard = 0; shard < numShards; shard++) {
+            hitsPerShard.add(new ArrayList<>());
+        }
+        for (ScoreDoc doc : sortedDocs) {
+            hitsPerShard.get(doc.shardIndex).add(new InternalSearchHit(doc.doc, Integer.toString(doc.doc), new Text("type"),
+                    Collections.emptyMap()));
+        }
+        fetchResults = new AtomicArray<>(numShards);
+        for (int shard = 0; shard < numShards; shard++) {
+            List<InternalSearchHit> hits = hitsPerShard.get(shard);
+            if (hits.isEmpty() == false) {
+                FetchSearchResult result = new FetchSearchResult(shard, new SearchShardTarget("node", index, shard));
+                result.hits(new InternalSearchHits(hits.toArray(new InternalSearchHit[hits.size()]), hits.size(), 1f));
+                fetchResults.set(shard, result);
+            }
+        }
+    }
+
+    @Benchmark
+    public ScoreDoc[] sortDocs() throws IOException {
+        return controller.sortDocs(false, queryResults);
+    }
+
+    @Benchmark
+    public InternalSearchResponse merge() {
+        return controller.merge(sortedDocs, queryResults, fetchResults);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.bulk;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Merges the replica requests of concurrent bulk shard requests that target the same replica copy into a single
+ * {@link BulkShardRequest}. A batch is sent once it holds more than <code>maxSize</code> bytes of document sources
+ * or once <code>maxDelay</code> has elapsed since its first request was added, whichever comes first. All requests
+ * of a batch share the outcome of the merged request. The merged request is sent in the thread context of the first
+ * request of the batch and each listener is notified in the thread context of its own request.
+ */
+final class BulkShardReplicaBatcher {
+
+    /**
+     * Sends a (possibly merged) replica request to the node holding the replica.
+     */
+    interface Sender {
+        void send(DiscoveryNode node, ShardRouting replica, BulkShardRequest request, ActionListener<TransportResponse.Empty> listener);
+    }
+
+    private final ThreadPool threadPool;
+    private final Sender sender;
+    private final long maxSizeInBytes;
+    private final TimeValue maxDelay;
+
+    private final Map<BatchKey, Batch> pending = new HashMap<>();
+
+    BulkShardReplicaBatcher(ThreadPool threadPool, Sender sender, ByteSizeValue maxSize, TimeValue maxDelay) {
+        this.threadPool = threadPool;
+        this.sender = sender;
+        this.maxSizeInBytes = maxSize.bytes();
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Adds the request for the given replica copy to the pending batch of that copy.
+     */
+    void add(DiscoveryNode node, ShardRouting replica, BulkShardRequest request, ActionListener<TransportResponse.Empty> listener) {
+        final BatchKey key = new BatchKey(node.getId(), replica.allocationId().getId(), request.primaryTerm());
+        final ThreadContext.StoredContext context = threadPool.getThreadContext().newStoredContext();
+        final Batch toSend;
+        final boolean schedule;
+        synchronized (pending) {
+            Batch batch = pending.get(key);
+            schedule = batch == null;
+            if (batch == null) {
+                batch = new Batch(node, replica);
+                pending.put(key, batch);
+            }
+            batch.add(request, listener, context);
+            if (batch.sizeInBytes >= maxSizeInBytes) {
+                pending.remove(key);
+                toSend = batch;
+            } else {
+                toSend = null;
+            }
+        }
+        if (toSend != null) {
+            send(toSend);
+        } else if (schedule) {
+            // the generic pool never rejects, a rejected flush would leave the replication operations hanging
+            threadPool.schedule(maxDelay, ThreadPool.Names.GENERIC, () -> flush(key));
+        }
+    }
+
+    /**
+     * Returns the number of batches that have not been sent yet.
+     */
+    int pendingBatches() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private void flush(BatchKey key) {
+        final Batch batch;
+        synchronized (pending) {
+            batch = pending.remove(key);
+        }
+        // the batch might already have been sent because it grew too large
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    private void send(Batch batch) {
+        final ThreadContext threadContext = threadPool.getThreadContext();
+        final BulkShardRequest request = batch.merge();
+        final List<ActionListener<TransportResponse.Empty>> listeners = batch.listeners;
+        final List<ThreadContext.StoredContext> contexts = batch.contexts;
+        // delayed batches are sent from a generic thread, which does not carry the headers of the requests
+        try (ThreadContext.StoredContext ignore = threadContext.stashContext()) {
+            contexts.get(0).restore();
+            sender.send(batch.node, batch.replica, request, new ActionListener<TransportResponse.Empty>() {
+                @Override
+                public void onResponse(TransportResponse.Empty empty) {
+                    for (int i = 0; i < listeners.size(); i++) {
+                        try (ThreadContext.StoredContext ignore = threadContext.stashContext()) {
+                            contexts.get(i).restore();
+                            listeners.get(i).onResponse(empty);
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    for (int i = 0; i < listeners.size(); i++) {
+                        try (ThreadContext.StoredContext ignore = threadContext.stashContext()) {
+                            contexts.get(i).restore();
+                            listeners.get(i).onFailure(e);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    static long sizeInBytes(BulkShardRequest request) {
+        long size = 0;
+        for (BulkItemRequest item : request.items()) {
+            if (item != null && item.request() instanceof IndexRequest) {
+                IndexRequest indexRequest = (IndexRequest) item.request();
+                if (indexRequest.source() != null) {
+                    size += indexRequest.source().length();
+                }
+            }
+        }
+        return size;
+    }
+
+    private static final class Batch {
+        private final DiscoveryNode node;
+        private final ShardRouting replica;
+        private final List<BulkShardRequest> requests = new ArrayList<>();
+        private final List<ActionListener<TransportResponse.Empty>> listeners = new ArrayList<>();
+        private final List<ThreadContext.StoredContext> contexts = new ArrayList<>();
+        private long sizeInBytes;
+
+        Batch(DiscoveryNode node, ShardRouting replica) {
+            this.node = node;
+            this.replica = replica;
+        }
+
+        void add(BulkShardRequest request, ActionListener<TransportResponse.Empty> listener, ThreadContext.StoredContext context) {
+            requests.add(request);
+            listeners.add(listener);
+            contexts.add(context);
+            sizeInBytes += sizeInBytes(request);
+        }
+
+        BulkShardRequest merge() {
+            if (requests.size() == 1) {
+                return requests.get(0);
+            }
+            final BulkShardRequest first = requests.get(0);
+            int numItems = 0;
+            boolean refresh = false;
+            for (BulkShardRequest request : requests) {
+                numItems += request.items().length;
+                refresh |= request.refresh();
+            }
+            final BulkItemRequest[] items = new BulkItemRequest[numItems];
+            int offset = 0;
+            for (BulkShardRequest request : requests) {
+                System.arraycopy(request.items(), 0, items, offset, request.items().length);
+                offset += request.items().length;
+            }
+            final BulkShardRequest merged = new BulkShardRequest(first.shardId(), refresh, items);
+            merged.timeout(first.timeout());
+            merged.primaryTerm(first.primaryTerm());
+            merged.setParentTask(first.getParentTask());
+            return merged;
+        }
+    }
+
+    private static final class BatchKey {
+        private final String nodeId;
+        private final String allocationId;
+        private final long primaryTerm;
+
+        BatchKey(String nodeId, String allocationId, long primaryTerm) {
+            this.nodeId = nodeId;
+            this.allocationId = allocationId;
+            this.primaryTerm = primaryTerm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey batchKey = (BatchKey) o;
+            return primaryTerm == batchKey.primaryTerm &&
+                Objects.equals(nodeId, batchKey.nodeId) &&
+                Objects.equals(allocationId, batchKey.allocationId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeId, allocationId, primaryTerm);
+        }
+    }
+}
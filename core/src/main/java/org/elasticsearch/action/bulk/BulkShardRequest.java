@@ -41,6 +41,10 @@ public class BulkShardRequest extends ReplicationRequest<BulkShardRequest> {
     }
 
     BulkShardRequest(BulkRequest bulkRequest, ShardId shardId, boolean refresh, BulkItemRequest[] items) {
+        this(shardId, refresh, items);
+    }
+
+    BulkShardRequest(ShardId shardId, boolean refresh, BulkItemRequest[] items) {
         super(shardId);
         this.items = items;
         this.refresh = refresh;
@@ -65,6 +69,15 @@ public class BulkShardRequest extends ReplicationRequest<BulkShardRequest> {
         return indices.toArray(new String[indices.size()]);
     }
 
+    @Override
+    public void onRetry() {
+        for (BulkItemRequest item : items) {
+            if (item != null && item.request() instanceof ReplicationRequest) {
+                ((ReplicationRequest<?>) item.request()).onRetry();
+            }
+        }
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         super.writeTo(out);
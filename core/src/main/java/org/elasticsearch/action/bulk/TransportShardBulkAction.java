@@ -21,6 +21,7 @@ package org.elasticsearch.action.bulk;
 
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRequest;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.delete.DeleteResponse;
@@ -39,11 +40,18 @@ import org.elasticsearch.cluster.action.shard.ShardStateAction;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.metadata.MappingMetaData;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.IndexService;
@@ -57,6 +65,7 @@ import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportRequestOptions;
+import org.elasticsearch.transport.TransportResponse;
 import org.elasticsearch.transport.TransportService;
 
 import java.util.Map;
@@ -74,9 +83,21 @@ public class TransportShardBulkAction extends TransportReplicationAction<BulkSha
 
     public static final String ACTION_NAME = BulkAction.NAME + "[s]";
 
+    /** Whether replica requests of concurrent bulk shard requests to the same replica copy are merged before being sent. */
+    public static final Setting<Boolean> REPLICA_BATCHING_ENABLED_SETTING =
+        Setting.boolSetting("action.bulk.replica_batching.enabled", false, Property.NodeScope);
+    /** The amount of document source a merged replica request may hold before it is sent. */
+    public static final Setting<ByteSizeValue> REPLICA_BATCHING_MAX_SIZE_SETTING =
+        Setting.byteSizeSetting("action.bulk.replica_batching.max_size", new ByteSizeValue(1, ByteSizeUnit.MB), Property.NodeScope);
+    /** The maximum time a replica request is held back waiting for other requests to merge with. */
+    public static final Setting<TimeValue> REPLICA_BATCHING_MAX_DELAY_SETTING =
+        Setting.timeSetting("action.bulk.replica_batching.max_delay", TimeValue.timeValueMillis(5), TimeValue.timeValueMillis(1),
+            Property.NodeScope);
+
     private final UpdateHelper updateHelper;
     private final boolean allowIdGeneration;
     private final MappingUpdatedAction mappingUpdatedAction;
+    private final BulkShardReplicaBatcher replicaBatcher;
 
     @Inject
     public TransportShardBulkAction(Settings settings, TransportService transportService, ClusterService clusterService,
@@ -89,6 +110,22 @@ public class TransportShardBulkAction extends TransportReplicationAction<BulkSha
         this.updateHelper = updateHelper;
         this.allowIdGeneration = settings.getAsBoolean("action.allow_id_generation", true);
         this.mappingUpdatedAction = mappingUpdatedAction;
+        if (REPLICA_BATCHING_ENABLED_SETTING.get(settings)) {
+            this.replicaBatcher = new BulkShardReplicaBatcher(threadPool, super::sendReplicaRequest,
+                REPLICA_BATCHING_MAX_SIZE_SETTING.get(settings), REPLICA_BATCHING_MAX_DELAY_SETTING.get(settings));
+        } else {
+            this.replicaBatcher = null;
+        }
+    }
+
+    @Override
+    protected void sendReplicaRequest(DiscoveryNode node, ShardRouting replica, BulkShardRequest request,
+                                      ActionListener<TransportResponse.Empty> listener) {
+        if (replicaBatcher == null) {
+            super.sendReplicaRequest(node, replica, request, listener);
+        } else {
+            replicaBatcher.add(node, replica, request, listener);
+        }
     }
 
     @Override
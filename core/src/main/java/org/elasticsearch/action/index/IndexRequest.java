@@ -153,6 +153,15 @@ public class IndexRequest extends ReplicationRequest<IndexRequest> implements Do
 
     private String pipeline;
 
+    /**
+     * Value for {@link #getAutoGeneratedTimestamp()} if the document has an external provided ID.
+     */
+    public static final long UNSET_AUTO_GENERATED_TIMESTAMP = -1L;
+
+    private long autoGeneratedTimestamp = UNSET_AUTO_GENERATED_TIMESTAMP;
+
+    private boolean isRetry = false;
+
     public IndexRequest() {
     }
 
@@ -361,6 +370,27 @@ public class IndexRequest extends ReplicationRequest<IndexRequest> implements Do
         return this.pipeline;
     }
 
+    /**
+     * Returns the timestamp at which the id of this request was generated, or {@link #UNSET_AUTO_GENERATED_TIMESTAMP} if the
+     * id was provided by the user. Requests with auto-generated ids can be appended to the index without looking up the
+     * current version of their document.
+     */
+    public long getAutoGeneratedTimestamp() {
+        return autoGeneratedTimestamp;
+    }
+
+    /**
+     * Returns <code>true</code> if this request has been sent to a shard copy more than once.
+     */
+    public boolean isRetry() {
+        return isRetry;
+    }
+
+    @Override
+    public void onRetry() {
+        isRetry = true;
+    }
+
     /**
      * The source of the document to index, recopied to a new array if it is unsafe.
      */
@@ -606,6 +636,10 @@ public class IndexRequest extends ReplicationRequest<IndexRequest> implements Do
         // generate id if not already provided and id generation is allowed
         if (allowIdGeneration) {
             if (id == null) {
+                assert autoGeneratedTimestamp == UNSET_AUTO_GENERATED_TIMESTAMP : "timestamp has already been generated";
+                // the timestamp must be taken before the id is generated, so that a retry of a request is always
+                // processed after all requests whose ids were generated before it
+                autoGeneratedTimestamp = Math.max(0, System.currentTimeMillis());
                 id(UUIDs.base64UUID());
             }
         }
@@ -656,6 +690,8 @@ public class IndexRequest extends ReplicationRequest<IndexRequest> implements Do
         version = in.readLong();
         versionType = VersionType.fromValue(in.readByte());
         pipeline = in.readOptionalString();
+        isRetry = in.readBoolean();
+        autoGeneratedTimestamp = in.readLong();
     }
 
     @Override
@@ -678,6 +714,8 @@ public class IndexRequest extends ReplicationRequest<IndexRequest> implements Do
         out.writeLong(version);
         out.writeByte(versionType.getValue());
         out.writeOptionalString(pipeline);
+        out.writeBoolean(isRetry);
+        out.writeLong(autoGeneratedTimestamp);
     }
 
     @Override
@@ -106,7 +106,7 @@ public final class IngestActionFilter extends AbstractComponent implements Actio
         BulkRequestModifier bulkRequestModifier = new BulkRequestModifier(original);
         executionService.executeBulkRequest(() -> bulkRequestModifier, (indexRequest, throwable) -> {
             logger.debug("failed to execute pipeline [{}] for document [{}/{}/{}]", throwable, indexRequest.getPipeline(), indexRequest.index(), indexRequest.type(), indexRequest.id());
-            bulkRequestModifier.markCurrentItemAsFailed(throwable);
+            bulkRequestModifier.markItemAsFailed(indexRequest, throwable);
         }, (throwable) -> {
             if (throwable != null) {
                 logger.error("failed to execute pipeline for a bulk request", throwable);
@@ -139,6 +139,7 @@ public final class IngestActionFilter extends AbstractComponent implements Actio
         final List<BulkItemResponse> itemResponses;
 
         int currentSlot = -1;
+        int lastFailedSlot = -1;
         int[] originalSlots;
 
         BulkRequestModifier(BulkRequest bulkRequest) {
@@ -198,14 +199,29 @@ public final class IngestActionFilter extends AbstractComponent implements Actio
         }
 
         void markCurrentItemAsFailed(Throwable e) {
-            IndexRequest indexRequest = (IndexRequest) bulkRequest.requests().get(currentSlot);
+            markItemAsFailed(currentSlot, e);
+        }
+
+        void markItemAsFailed(IndexRequest indexRequest, Throwable e) {
+            // failures are reported in bulk order, either while iterating or once all requests have been executed in parallel,
+            // so the failed request is always found after the previously failed one
+            int slot = lastFailedSlot + 1;
+            while (bulkRequest.requests().get(slot) != indexRequest) {
+                slot++;
+            }
+            markItemAsFailed(slot, e);
+        }
+
+        private void markItemAsFailed(int slot, Throwable e) {
+            IndexRequest indexRequest = (IndexRequest) bulkRequest.requests().get(slot);
             // We hit a error during preprocessing a request, so we:
             // 1) Remember the request item slot from the bulk, so that we're done processing all requests we know what failed
             // 2) Add a bulk item failure for this request
             // 3) Continue with the next request in the bulk.
-            failedSlots.add(currentSlot);
+            failedSlots.add(slot);
+            lastFailedSlot = slot;
             BulkItemResponse.Failure failure = new BulkItemResponse.Failure(indexRequest.index(), indexRequest.type(), indexRequest.id(), e);
-            itemResponses.add(new BulkItemResponse(currentSlot, indexRequest.opType().lowercase(), failure));
+            itemResponses.add(new BulkItemResponse(slot, indexRequest.opType().lowercase(), failure));
         }
 
     }
@@ -42,9 +42,13 @@ class SimulateExecutionService {
     }
 
     SimulateDocumentResult executeDocument(Pipeline pipeline, IngestDocument ingestDocument, boolean verbose) {
+        return executeDocument(pipeline.getCompoundProcessor(), ingestDocument, verbose);
+    }
+
+    SimulateDocumentResult executeDocument(CompoundProcessor pipelineProcessor, IngestDocument ingestDocument, boolean verbose) {
         if (verbose) {
             List<SimulateProcessorResult> processorResultList = new ArrayList<>();
-            CompoundProcessor verbosePipelineProcessor = decorate(pipeline.getCompoundProcessor(), processorResultList);
+            CompoundProcessor verbosePipelineProcessor = decorate(pipelineProcessor, processorResultList);
             try {
                 verbosePipelineProcessor.execute(ingestDocument);
                 return new SimulateDocumentVerboseResult(processorResultList);
@@ -53,7 +57,7 @@ class SimulateExecutionService {
             }
         } else {
             try {
-                pipeline.execute(ingestDocument);
+                pipelineProcessor.execute(ingestDocument);
                 return new SimulateDocumentBaseResult(ingestDocument);
             } catch (Exception e) {
                 return new SimulateDocumentBaseResult(e);
@@ -65,11 +69,14 @@ class SimulateExecutionService {
         threadPool.executor(THREAD_POOL_NAME).execute(new ActionRunnable<SimulatePipelineResponse>(listener) {
             @Override
             protected void doRun() throws Exception {
+                // simulated executions must not show up in the stats of the pipeline, they are reported with the response
+                CompoundProcessor pipelineProcessor = request.getPipeline().getCompoundProcessor().copyWithNewMetrics();
                 List<SimulateDocumentResult> responses = new ArrayList<>();
                 for (IngestDocument ingestDocument : request.getDocuments()) {
-                    responses.add(executeDocument(request.getPipeline(), ingestDocument, request.isVerbose()));
+                    responses.add(executeDocument(pipelineProcessor, ingestDocument, request.isVerbose()));
                 }
-                listener.onResponse(new SimulatePipelineResponse(request.getPipeline().getId(), request.isVerbose(), responses));
+                listener.onResponse(new SimulatePipelineResponse(request.getPipeline().getId(), request.isVerbose(), responses,
+                    pipelineProcessor.processorStats()));
             }
         });
     }
@@ -24,6 +24,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.ingest.IngestStats;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -34,15 +35,22 @@ public class SimulatePipelineResponse extends ActionResponse implements ToXConte
     private String pipelineId;
     private boolean verbose;
     private List<SimulateDocumentResult> results;
+    private List<IngestStats.ProcessorStats> processorStats;
 
     public SimulatePipelineResponse() {
 
     }
 
     public SimulatePipelineResponse(String pipelineId, boolean verbose, List<SimulateDocumentResult> responses) {
+        this(pipelineId, verbose, responses, Collections.emptyList());
+    }
+
+    public SimulatePipelineResponse(String pipelineId, boolean verbose, List<SimulateDocumentResult> responses,
+                                    List<IngestStats.ProcessorStats> processorStats) {
         this.pipelineId = pipelineId;
         this.verbose = verbose;
         this.results = Collections.unmodifiableList(responses);
+        this.processorStats = Collections.unmodifiableList(processorStats);
     }
 
     public String getPipelineId() {
@@ -57,6 +65,13 @@ public class SimulatePipelineResponse extends ActionResponse implements ToXConte
         return verbose;
     }
 
+    /**
+     * @return The stats of the processors of the simulated pipeline, gathered while executing the simulated documents
+     */
+    public List<IngestStats.ProcessorStats> getProcessorStats() {
+        return processorStats;
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         super.writeTo(out);
@@ -66,6 +81,10 @@ public class SimulatePipelineResponse extends ActionResponse implements ToXConte
         for (SimulateDocumentResult response : results) {
             response.writeTo(out);
         }
+        out.writeVInt(processorStats.size());
+        for (IngestStats.ProcessorStats processorStat : processorStats) {
+            processorStat.writeTo(out);
+        }
     }
 
     @Override
@@ -84,6 +103,11 @@ public class SimulatePipelineResponse extends ActionResponse implements ToXConte
             }
             results.add(simulateDocumentResult);
         }
+        int processorStatsLength = in.readVInt();
+        processorStats = new ArrayList<>(processorStatsLength);
+        for (int i = 0; i < processorStatsLength; i++) {
+            processorStats.add(new IngestStats.ProcessorStats(in));
+        }
     }
 
     @Override
@@ -93,10 +117,18 @@ public class SimulatePipelineResponse extends ActionResponse implements ToXConte
             response.toXContent(builder, params);
         }
         builder.endArray();
+        if (processorStats.isEmpty() == false) {
+            builder.startArray(Fields.PROCESSOR_STATS);
+            for (IngestStats.ProcessorStats processorStat : processorStats) {
+                processorStat.toXContent(builder, params);
+            }
+            builder.endArray();
+        }
         return builder;
     }
 
     static final class Fields {
         static final String DOCUMENTS = "docs";
+        static final String PROCESSOR_STATS = "processor_stats";
     }
 }
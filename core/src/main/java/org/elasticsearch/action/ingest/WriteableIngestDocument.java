@@ -48,7 +48,7 @@ final class WriteableIngestDocument implements Writeable, ToXContent {
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
-        out.writeMap(ingestDocument.getSourceAndMetadata());
+        out.writeMap(ingestDocument.getUnmodifiableSourceAndMetadata());
         out.writeGenericValue(ingestDocument.getIngestMetadata());
     }
 
@@ -65,7 +65,7 @@ final class WriteableIngestDocument implements Writeable, ToXContent {
                 builder.field(metadata.getKey().getFieldName(), metadata.getValue());
             }
         }
-        builder.field("_source", ingestDocument.getSourceAndMetadata());
+        builder.field("_source", ingestDocument.getUnmodifiableSourceAndMetadata());
         builder.startObject("_ingest");
         for (Map.Entry<String, String> ingestMetadata : ingestDocument.getIngestMetadata().entrySet()) {
             builder.field(ingestMetadata.getKey(), ingestMetadata.getValue());
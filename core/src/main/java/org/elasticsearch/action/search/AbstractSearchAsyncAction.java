@@ -37,9 +37,12 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.logging.ESLogger;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
+import org.elasticsearch.common.util.concurrent.CountDown;
 import org.elasticsearch.search.SearchPhaseResult;
+import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.action.SearchTransportService;
+import org.elasticsearch.search.aggregations.InternalAggregations;
 import org.elasticsearch.search.controller.SearchPhaseController;
 import org.elasticsearch.search.fetch.ShardFetchSearchRequest;
 import org.elasticsearch.search.internal.InternalSearchResponse;
@@ -70,11 +73,14 @@ abstract class AbstractSearchAsyncAction<FirstResult extends SearchPhaseResult>
     protected final int expectedSuccessfulOps;
     private final int expectedTotalOps;
     protected final AtomicInteger successfulOps = new AtomicInteger();
+    protected final AtomicInteger skippedOps = new AtomicInteger();
     private final AtomicInteger totalOps = new AtomicInteger();
     protected final AtomicArray<FirstResult> firstResults;
     private volatile AtomicArray<ShardSearchFailure> shardFailures;
     private final Object shardFailuresMutex = new Object();
     protected volatile ScoreDoc[] sortedShardList;
+    protected final SearchPhaseController.AggregationReducer aggregationReducer;
+    private final int preFilterShardSize;
 
     protected AbstractSearchAsyncAction(ESLogger logger, SearchTransportService searchTransportService, ClusterService clusterService,
                                         IndexNameExpressionResolver indexNameExpressionResolver,
@@ -106,7 +112,8 @@ abstract class AbstractSearchAsyncAction<FirstResult extends SearchPhaseResult>
         Map<String, Set<String>> routingMap = indexNameExpressionResolver.resolveSearchRouting(clusterState, request.routing(),
             request.indices());
 
-        shardsIts = clusterService.operationRouting().searchShards(clusterState, concreteIndices, routingMap, request.preference());
+        shardsIts = clusterService.operationRouting().searchShards(clusterState, concreteIndices, routingMap, request.preference(),
+            searchTransportService.getResponseCollectorService());
         final int shardCount = shardsIts.size();
         final long shardCountLimit = clusterService.getClusterSettings().get(TransportSearchAction.SHARD_COUNT_LIMIT_SETTING);
         if (shardCount > shardCountLimit) {
@@ -116,11 +123,13 @@ abstract class AbstractSearchAsyncAction<FirstResult extends SearchPhaseResult>
                     + "have a smaller number of larger shards. Update [" + TransportSearchAction.SHARD_COUNT_LIMIT_SETTING.getKey()
                     + "] to a greater value if you really want to query that many shards at the same time.");
         }
+        preFilterShardSize = clusterService.getClusterSettings().get(TransportSearchAction.PRE_FILTER_SHARD_SIZE_SETTING);
         expectedSuccessfulOps = shardCount;
         // we need to add 1 for non active partition, since we count it in the total!
         expectedTotalOps = shardsIts.totalSizeWith1ForEmpty();
 
         firstResults = new AtomicArray<>(shardsIts.size());
+        aggregationReducer = searchPhaseController.newAggregationReducer(request, shardsIts.size());
     }
 
     public void start() {
@@ -131,9 +140,79 @@ abstract class AbstractSearchAsyncAction<FirstResult extends SearchPhaseResult>
                 ShardSearchFailure.EMPTY_ARRAY));
             return;
         }
+        if (shardsIts.size() > preFilterShardSize && SearchService.canRewriteToMatchNone(request.source())) {
+            executeCanMatchPhase();
+        } else {
+            executeFirstPhase(null);
+        }
+    }
+
+    /**
+     * Asks a copy of every shard whether the query can match any of its documents, and then executes the first phase on the
+     * shards that can. Shards that fail to answer are searched anyway, the first phase takes care of their failures.
+     */
+    private void executeCanMatchPhase() {
+        final AtomicArray<Boolean> canMatch = new AtomicArray<>(shardsIts.size());
+        final CountDown countDown = new CountDown(shardsIts.size());
+        final Runnable onShardDone = () -> {
+            if (countDown.countDown()) {
+                executeFirstPhase(canMatch);
+            }
+        };
+        int shardIndex = -1;
+        for (final ShardIterator shardIt : shardsIts) {
+            shardIndex++;
+            final int index = shardIndex;
+            final ShardRouting shard = shardIt.nextOrNull();
+            // the first phase starts over with the first copy of the shard
+            shardIt.reset();
+            final DiscoveryNode node = shard == null ? null : nodes.get(shard.currentNodeId());
+            if (node == null) {
+                onShardDone.run();
+                continue;
+            }
+            String[] filteringAliases = indexNameExpressionResolver.filteringAliases(clusterState,
+                shard.index().getName(), request.indices());
+            searchTransportService.sendCanMatch(node, internalSearchRequest(shard, shardsIts.size(), request, filteringAliases,
+                startTime()), new ActionListener<SearchTransportService.CanMatchResponse>() {
+                    @Override
+                    public void onResponse(SearchTransportService.CanMatchResponse response) {
+                        canMatch.set(index, response.canMatch());
+                        onShardDone.run();
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        if (logger.isTraceEnabled()) {
+                            logger.trace("{}: failed to check whether [{}] can match", t, shard.shortSummary(), request);
+                        }
+                        onShardDone.run();
+                    }
+                });
+        }
+    }
+
+    /**
+     * Executes the first phase on all shards, except for those that cannot match according to the given can match results.
+     */
+    private void executeFirstPhase(@Nullable AtomicArray<Boolean> canMatch) {
+        boolean noneCanMatch = canMatch != null;
+        if (canMatch != null) {
+            for (int i = 0; i < canMatch.length(); i++) {
+                if (canMatch.get(i) != Boolean.FALSE) {
+                    noneCanMatch = false;
+                    break;
+                }
+            }
+        }
         int shardIndex = -1;
         for (final ShardIterator shardIt : shardsIts) {
             shardIndex++;
+            // if no shard can match we still search one of them, so that the response gets built from an actual result
+            if (canMatch != null && canMatch.get(shardIndex) == Boolean.FALSE && (noneCanMatch == false || shardIndex > 0)) {
+                onShardSkipped(shardIt);
+                continue;
+            }
             final ShardRouting shard = shardIt.nextOrNull();
             if (shard != null) {
                 performFirstPhase(shardIndex, shardIt, shard);
@@ -174,13 +253,25 @@ abstract class AbstractSearchAsyncAction<FirstResult extends SearchPhaseResult>
     void onFirstPhaseResult(int shardIndex, ShardRouting shard, FirstResult result, ShardIterator shardIt) {
         result.shardTarget(new SearchShardTarget(shard.currentNodeId(), shard.index(), shard.id()));
         processFirstPhaseResult(shardIndex, result);
+        // increment all the "future" shards to update the total ops since we some may work and some may not...
+        // and when that happens, we break on total ops, so we must maintain them
+        onShardSuccess(shardIt, shardIt.remaining() + 1);
+    }
+
+    /**
+     * Counts a shard that cannot match the query as successful, without searching any of its copies.
+     */
+    private void onShardSkipped(ShardIterator shardIt) {
+        skippedOps.incrementAndGet();
+        onShardSuccess(shardIt, shardIt.size());
+    }
+
+    private void onShardSuccess(ShardIterator shardIt, int shardOps) {
         // we need to increment successful ops first before we compare the exit condition otherwise if we
         // are fast we could concurrently update totalOps but then preempt one of the threads which can
         // cause the successor to read a wrong value from successfulOps if second phase is very fast ie. count etc.
         successfulOps.incrementAndGet();
-        // increment all the "future" shards to update the total ops since we some may work and some may not...
-        // and when that happens, we break on total ops, so we must maintain them
-        final int xTotalOps = totalOps.addAndGet(shardIt.remaining() + 1);
+        final int xTotalOps = totalOps.addAndGet(shardOps);
         if (xTotalOps == expectedTotalOps) {
             try {
                 innerMoveToSecondPhase();
@@ -374,6 +465,15 @@ abstract class AbstractSearchAsyncAction<FirstResult extends SearchPhaseResult>
         }
     }
 
+    /**
+     * Builds the status of the {@link SearchTask} that tracks this search from the shard results that arrived so far.
+     */
+    SearchTask.Status buildTaskStatus() {
+        final InternalAggregations aggregations = request.partialAggregations() ? aggregationReducer.partialResult() : null;
+        return new SearchTask.Status(expectedSuccessfulOps, successfulOps.get(), buildShardFailures().length,
+            aggregationReducer.getNumReducePhases(), aggregations);
+    }
+
     final void innerMoveToSecondPhase() throws Exception {
         if (logger.isTraceEnabled()) {
             StringBuilder sb = new StringBuilder();
@@ -82,6 +82,8 @@ class SearchDfsQueryAndFetchAsyncAction extends AbstractSearchAsyncAction<DfsSea
             @Override
             public void onResponse(QueryFetchSearchResult result) {
                 result.shardTarget(dfsResult.shardTarget());
+                // reduce the aggregations as they arrive instead of holding on to the aggregations of all shards
+                aggregationReducer.consume(result.queryResult());
                 queryFetchResults.set(shardIndex, result);
                 if (counter.decrementAndGet() == 0) {
                     finishHim();
@@ -120,13 +122,13 @@ class SearchDfsQueryAndFetchAsyncAction extends AbstractSearchAsyncAction<DfsSea
             public void doRun() throws IOException {
                 sortedShardList = searchPhaseController.sortDocs(true, queryFetchResults);
                 final InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, queryFetchResults,
-                    queryFetchResults);
+                    queryFetchResults, aggregationReducer);
                 String scrollId = null;
                 if (request.scroll() != null) {
                     scrollId = TransportSearchHelper.buildScrollId(request.searchType(), firstResults, null);
                 }
                 listener.onResponse(new SearchResponse(internalResponse, scrollId, expectedSuccessfulOps, successfulOps.get(),
-                    buildTookInMillis(), buildShardFailures()));
+                    skippedOps.get(), buildTookInMillis(), buildShardFailures()));
             }
 
             @Override
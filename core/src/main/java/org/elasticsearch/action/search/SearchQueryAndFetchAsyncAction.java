@@ -23,6 +23,8 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRunnable;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.ShardIterator;
+import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.logging.ESLogger;
 import org.elasticsearch.search.action.SearchTransportService;
@@ -55,6 +57,13 @@ class SearchQueryAndFetchAsyncAction extends AbstractSearchAsyncAction<QueryFetc
         searchTransportService.sendExecuteFetch(node, request, listener);
     }
 
+    @Override
+    void onFirstPhaseResult(int shardIndex, ShardRouting shard, QueryFetchSearchResult result, ShardIterator shardIt) {
+        // reduce the aggregations as they arrive instead of holding on to the aggregations of all shards
+        aggregationReducer.consume(result.queryResult());
+        super.onFirstPhaseResult(shardIndex, shard, result, shardIt);
+    }
+
     @Override
     protected void moveToSecondPhase() throws Exception {
         threadPool.executor(ThreadPool.Names.SEARCH).execute(new ActionRunnable<SearchResponse>(listener) {
@@ -63,13 +72,13 @@ class SearchQueryAndFetchAsyncAction extends AbstractSearchAsyncAction<QueryFetc
                 boolean useScroll = request.scroll() != null;
                 sortedShardList = searchPhaseController.sortDocs(useScroll, firstResults);
                 final InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, firstResults,
-                    firstResults);
+                    firstResults, aggregationReducer);
                 String scrollId = null;
                 if (request.scroll() != null) {
                     scrollId = TransportSearchHelper.buildScrollId(request.searchType(), firstResults, null);
                 }
                 listener.onResponse(new SearchResponse(internalResponse, scrollId, expectedSuccessfulOps, successfulOps.get(),
-                    buildTookInMillis(), buildShardFailures()));
+                    skippedOps.get(), buildTookInMillis(), buildShardFailures()));
             }
 
             @Override
@@ -25,6 +25,8 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRunnable;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.ShardIterator;
+import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.logging.ESLogger;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
@@ -66,6 +68,13 @@ class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<QuerySea
         searchTransportService.sendExecuteQuery(node, request, listener);
     }
 
+    @Override
+    void onFirstPhaseResult(int shardIndex, ShardRouting shard, QuerySearchResultProvider result, ShardIterator shardIt) {
+        // reduce the aggregations as they arrive instead of holding on to the aggregations of all shards
+        aggregationReducer.consume(result.queryResult());
+        super.onFirstPhaseResult(shardIndex, shard, result, shardIt);
+    }
+
     @Override
     protected void moveToSecondPhase() throws Exception {
         boolean useScroll = request.scroll() != null;
@@ -130,13 +139,13 @@ class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<QuerySea
             @Override
             public void doRun() throws IOException {
                 final InternalSearchResponse internalResponse = searchPhaseController.merge(sortedShardList, firstResults,
-                    fetchResults);
+                    fetchResults, aggregationReducer);
                 String scrollId = null;
                 if (request.scroll() != null) {
                     scrollId = TransportSearchHelper.buildScrollId(request.searchType(), firstResults, null);
                 }
                 listener.onResponse(new SearchResponse(internalResponse, scrollId, expectedSuccessfulOps,
-                    successfulOps.get(), buildTookInMillis(), buildShardFailures()));
+                    successfulOps.get(), skippedOps.get(), buildTookInMillis(), buildShardFailures()));
                 releaseIrrelevantSearchContexts(firstResults, docIdsToLoad);
             }
 
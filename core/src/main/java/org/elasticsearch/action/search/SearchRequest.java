@@ -32,6 +32,8 @@ import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.script.Template;
 import org.elasticsearch.search.Scroll;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
 
 import java.io.IOException;
 
@@ -73,6 +75,10 @@ public class SearchRequest extends ActionRequest<SearchRequest> implements Indic
 
     private Template template;
 
+    private int batchedReduceSize = 512;
+
+    private boolean partialAggregations = false;
+
     public SearchRequest() {
     }
 
@@ -295,6 +301,64 @@ public class SearchRequest extends ActionRequest<SearchRequest> implements Indic
         return this.requestCache;
     }
 
+    /**
+     * Sets the number of shard results that should be reduced at once on the coordinating node. This value should be used as a
+     * protection mechanism to reduce the memory overhead per search request if the potential number of shards in the request can
+     * be large.
+     */
+    public SearchRequest setBatchedReduceSize(int batchedReduceSize) {
+        if (batchedReduceSize <= 1) {
+            throw new IllegalArgumentException("batchedReduceSize must be >= 2");
+        }
+        this.batchedReduceSize = batchedReduceSize;
+        return this;
+    }
+
+    /**
+     * Returns the number of shard results that should be reduced at once on the coordinating node. This value should be used as a
+     * protection mechanism to reduce the memory overhead per search request if the potential number of shards in the request can
+     * be large.
+     */
+    public int getBatchedReduceSize() {
+        return batchedReduceSize;
+    }
+
+    /**
+     * Sets if the {@link SearchTask} of this request should report the aggregations reduced from the shard results that
+     * arrived so far in its status. Clients can then poll the task through the tasks API to get progressively more complete
+     * aggregations while the search is running. This costs a reduce of the received shard aggregations every time the
+     * detailed task status is requested. Defaults to <tt>false</tt>.
+     */
+    public SearchRequest partialAggregations(boolean partialAggregations) {
+        this.partialAggregations = partialAggregations;
+        return this;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the {@link SearchTask} of this request reports the aggregations reduced from the shard
+     * results that arrived so far in its status.
+     */
+    public boolean partialAggregations() {
+        return partialAggregations;
+    }
+
+    @Override
+    public Task createTask(long id, String type, String action, TaskId parentTaskId) {
+        return new SearchTask(id, type, action, getDescription(), parentTaskId);
+    }
+
+    @Override
+    public String getDescription() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("indices[").append(Strings.arrayToCommaDelimitedString(indices)).append("], ");
+        sb.append("types[").append(Strings.arrayToCommaDelimitedString(types)).append("], ");
+        sb.append("search_type[").append(searchType).append("]");
+        if (scroll != null) {
+            sb.append(", scroll[").append(scroll.keepAlive()).append("]");
+        }
+        return sb.toString();
+    }
+
     /**
      * @return true if the request only has suggest
      */
@@ -327,6 +391,8 @@ public class SearchRequest extends ActionRequest<SearchRequest> implements Indic
 
         requestCache = in.readOptionalBoolean();
         template = in.readOptionalWriteable(Template::new);
+        batchedReduceSize = in.readVInt();
+        partialAggregations = in.readBoolean();
     }
 
     @Override
@@ -358,5 +424,7 @@ public class SearchRequest extends ActionRequest<SearchRequest> implements Indic
         indicesOptions.writeIndicesOptions(out);
         out.writeOptionalBoolean(requestCache);
         out.writeOptionalWriteable(template);
+        out.writeVInt(batchedReduceSize);
+        out.writeBoolean(partialAggregations);
     }
 }
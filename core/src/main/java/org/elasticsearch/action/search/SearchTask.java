@@ -0,0 +1,150 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Task that tracks the progress of a search request on the coordinating node. Its status reports how many shards
+ * have responded so far and, if {@link SearchRequest#partialAggregations()} is set, the aggregations reduced from the
+ * shard results that have arrived so far.
+ */
+public class SearchTask extends Task {
+
+    private volatile Supplier<Status> statusSupplier;
+
+    public SearchTask(long id, String type, String action, String description, TaskId parentTaskId) {
+        super(id, type, action, description, parentTaskId);
+    }
+
+    /**
+     * Sets the supplier of the status of this task. It is set once the search starts to execute.
+     */
+    void setStatusSupplier(Supplier<Status> statusSupplier) {
+        this.statusSupplier = statusSupplier;
+    }
+
+    @Override
+    public Status getStatus() {
+        Supplier<Status> statusSupplier = this.statusSupplier;
+        return statusSupplier == null ? null : statusSupplier.get();
+    }
+
+    public static class Status implements Task.Status {
+        public static final String NAME = "search";
+
+        private final int totalShards;
+        private final int successfulShards;
+        private final int failedShards;
+        private final int reducePhases;
+        private final InternalAggregations aggregations;
+
+        public Status(int totalShards, int successfulShards, int failedShards, int reducePhases,
+                      @Nullable InternalAggregations aggregations) {
+            this.totalShards = totalShards;
+            this.successfulShards = successfulShards;
+            this.failedShards = failedShards;
+            this.reducePhases = reducePhases;
+            this.aggregations = aggregations;
+        }
+
+        public Status(StreamInput in) throws IOException {
+            totalShards = in.readVInt();
+            successfulShards = in.readVInt();
+            failedShards = in.readVInt();
+            reducePhases = in.readVInt();
+            aggregations = InternalAggregations.readOptionalAggregations(in);
+        }
+
+        /**
+         * The number of shards the search is executed on.
+         */
+        public int getTotalShards() {
+            return totalShards;
+        }
+
+        /**
+         * The number of shards that successfully responded so far.
+         */
+        public int getSuccessfulShards() {
+            return successfulShards;
+        }
+
+        /**
+         * The number of shards that failed so far.
+         */
+        public int getFailedShards() {
+            return failedShards;
+        }
+
+        /**
+         * The number of reduce phases that were executed over the shard aggregations so far.
+         */
+        public int getReducePhases() {
+            return reducePhases;
+        }
+
+        /**
+         * The aggregations reduced from the shard results that arrived so far, or <code>null</code> if partial
+         * aggregations were not requested or no shard returned aggregations yet.
+         */
+        @Nullable
+        public InternalAggregations getAggregations() {
+            return aggregations;
+        }
+
+        @Override
+        public String getWriteableName() {
+            return NAME;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("total_shards", totalShards);
+            builder.field("successful_shards", successfulShards);
+            builder.field("failed_shards", failedShards);
+            builder.field("reduce_phases", reducePhases);
+            if (aggregations != null) {
+                aggregations.toXContent(builder, params);
+            }
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVInt(totalShards);
+            out.writeVInt(successfulShards);
+            out.writeVInt(failedShards);
+            out.writeVInt(reducePhases);
+            out.writeOptionalStreamable(aggregations);
+        }
+    }
+}
@@ -206,6 +206,14 @@ public abstract class ReplicationRequest<Request extends ReplicationRequest<Requ
         return new ReplicationTask(id, type, action, getDescription(), parentTaskId);
     }
 
+    /**
+     * Called before this request is sent again to the primary, after a previous attempt failed or could not be
+     * routed. Requests can use this to mark operations that may already have been executed.
+     */
+    public void onRetry() {
+        // nothing by default
+    }
+
     /**
      * Sets the target shard id for the request. The shard id is set when a
      * index/delete request is resolved by the transport action
@@ -627,6 +627,7 @@ public abstract class TransportReplicationAction<Request extends ReplicationRequ
                 return;
             }
             setPhase(task, "waiting_for_retry");
+            request.onRetry();
             final ThreadContext.StoredContext context = threadPool.getThreadContext().newStoredContext();
             observer.waitForNextChange(new ClusterStateObserver.Listener() {
                 @Override
@@ -772,8 +773,7 @@ public abstract class TransportReplicationAction<Request extends ReplicationRequ
                 listener.onFailure(new NoNodeAvailableException("unknown node [" + nodeId + "]"));
                 return;
             }
-            transportService.sendRequest(node, transportReplicaAction, request, transportOptions,
-                new ActionListenerResponseHandler<>(listener, () -> TransportResponse.Empty.INSTANCE));
+            sendReplicaRequest(node, replica, request, listener);
         }
 
         @Override
@@ -804,6 +804,16 @@ public abstract class TransportReplicationAction<Request extends ReplicationRequ
         }
     }
 
+    /**
+     * Sends the request for the given replica copy to the node holding it. Sub classes may override this to hold back or
+     * combine replica requests, but must eventually notify the listener.
+     */
+    protected void sendReplicaRequest(DiscoveryNode node, ShardRouting replica, ReplicaRequest request,
+                                      ActionListener<TransportResponse.Empty> listener) {
+        transportService.sendRequest(node, transportReplicaAction, request, transportOptions,
+            new ActionListenerResponseHandler<>(listener, () -> TransportResponse.Empty.INSTANCE));
+    }
+
     protected final void processAfterWrite(boolean refresh, IndexShard indexShard, Translog.Location location) {
         if (refresh) {
             try {
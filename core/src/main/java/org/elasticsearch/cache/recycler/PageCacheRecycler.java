@@ -32,6 +32,8 @@ import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Locale;
 
@@ -56,11 +58,18 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
     // object pages are less useful to us so we give them a lower weight by default
     public static final Setting<Double> WEIGHT_OBJECTS_SETTING  =
         Setting.doubleSetting("cache.recycler.page.weight.objects", 0.1d, 0d, Property.NodeScope);
+    // allocate the pages of big int, long and double arrays outside of the heap
+    public static final Setting<Boolean> OFF_HEAP_SETTING =
+        Setting.boolSetting("cache.recycler.page.off_heap", false, Property.NodeScope);
+    public static final Setting<ByteSizeValue> LIMIT_OFF_HEAP_SETTING =
+        Setting.byteSizeSetting("cache.recycler.page.limit.off_heap", "10%", Property.NodeScope);
 
     private final Recycler<byte[]> bytePage;
     private final Recycler<int[]> intPage;
     private final Recycler<long[]> longPage;
     private final Recycler<Object[]> objectPage;
+    private final Recycler<ByteBuffer> directPage;
+    private final boolean offHeap;
 
     @Override
     public void close() {
@@ -68,6 +77,7 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
         intPage.close();
         longPage.close();
         objectPage.close();
+        directPage.close();
     }
 
     private static int maximumSearchThreadPoolSize(ThreadPool threadPool, Settings settings) {
@@ -160,6 +170,28 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
         });
 
         assert BigArrays.PAGE_SIZE_IN_BYTES * (maxBytePageCount + maxIntPageCount + maxLongPageCount + maxObjectPageCount) <= limit;
+
+        // direct pages are not accounted against the heap limit; they are only pooled when off-heap pages are enabled
+        offHeap = OFF_HEAP_SETTING.get(settings);
+        final int maxDirectPageCount = offHeap
+            ? (int) Math.min(Integer.MAX_VALUE, LIMIT_OFF_HEAP_SETTING.get(settings).bytes() / BigArrays.PAGE_SIZE_IN_BYTES) : 0;
+        directPage = build(type, maxDirectPageCount, searchThreadPoolSize, availableProcessors, new AbstractRecyclerC<ByteBuffer>() {
+            @Override
+            public ByteBuffer newInstance(int sizing) {
+                return ByteBuffer.allocateDirect(BigArrays.PAGE_SIZE_IN_BYTES).order(ByteOrder.nativeOrder());
+            }
+            @Override
+            public void recycle(ByteBuffer value) {
+                // nothing to do
+            }
+        });
+    }
+
+    /**
+     * Whether the pages of big int, long and double arrays should be allocated off-heap through {@link #directPage(boolean)}.
+     */
+    public boolean isOffHeap() {
+        return offHeap;
     }
 
     public Recycler.V<byte[]> bytePage(boolean clear) {
@@ -186,6 +218,20 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
         return v;
     }
 
+    /**
+     * Obtain a page of {@link BigArrays#PAGE_SIZE_IN_BYTES} bytes that is allocated outside of the heap, in native byte order.
+     */
+    public Recycler.V<ByteBuffer> directPage(boolean clear) {
+        final Recycler.V<ByteBuffer> v = directPage.obtain();
+        if (v.isRecycled() && clear) {
+            final ByteBuffer page = v.v();
+            for (int i = 0; i < BigArrays.PAGE_SIZE_IN_BYTES; i += Long.BYTES) {
+                page.putLong(i, 0L);
+            }
+        }
+        return v;
+    }
+
     public Recycler.V<Object[]> objectPage() {
         // object pages are cleared on release anyway
         return objectPage.obtain();
@@ -325,6 +325,9 @@ public class MetaDataCreateIndexService extends AbstractComponent {
                                 }
                             }
 
+                            // the fields of the index sort must be mapped when the index is created
+                            indexService.getIndexSettings().getIndexSortConfig().buildIndexSort(mapperService::fullName);
+
                             final QueryShardContext queryShardContext = indexService.newQueryShardContext();
                             for (Alias alias : request.aliases()) {
                                 if (Strings.hasLength(alias.filter())) {
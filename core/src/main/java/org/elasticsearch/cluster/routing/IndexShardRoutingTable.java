@@ -28,11 +28,14 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.util.set.Sets;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.node.ResponseCollectorService;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -244,6 +247,73 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
         return new PlainShardIterator(shardId, ordered);
     }
 
+    /**
+     * Returns an iterator over active and initializing shards, ordered by the adaptive replica selection rank of the nodes
+     * the active shards are allocated on, best first, see {@link ResponseCollectorService.ComputedNodeStats#rank(long)}.
+     * Shards on nodes that did not report any statistics yet come first so that they get probed, and initializing shards
+     * are the last to iterate through.
+     *
+     * @param collector        the statistics of the nodes the shards are allocated on
+     * @param nodeSearchCounts the number of shard requests of the current search that are routed to each node, the node of
+     *                         the first shard of the returned iterator is counted in
+     * @param clientCount      the number of nodes that may send searches to the ranked nodes
+     */
+    public ShardIterator activeInitializingShardsRankedIt(ResponseCollectorService collector, Map<String, Long> nodeSearchCounts,
+                                                          int clientCount) {
+        final int seed = shuffler.nextSeed();
+        final List<ShardRouting> rankedActiveShards =
+            rankShardsAndUpdateStats(shuffler.shuffle(activeShards, seed), collector, nodeSearchCounts, clientCount);
+        if (allInitializingShards.isEmpty()) {
+            return new PlainShardIterator(shardId, rankedActiveShards);
+        }
+        ArrayList<ShardRouting> ordered = new ArrayList<>(activeShards.size() + allInitializingShards.size());
+        ordered.addAll(rankedActiveShards);
+        ordered.addAll(allInitializingShards);
+        return new PlainShardIterator(shardId, ordered);
+    }
+
+    private static List<ShardRouting> rankShardsAndUpdateStats(List<ShardRouting> shards, ResponseCollectorService collector,
+                                                               Map<String, Long> nodeSearchCounts, int clientCount) {
+        if (shards.isEmpty()) {
+            return shards;
+        }
+        final Map<String, ResponseCollectorService.ComputedNodeStats> nodeStats = new HashMap<>();
+        final Map<String, Double> nodeRanks = new HashMap<>();
+        for (ShardRouting shard : shards) {
+            final String nodeId = shard.currentNodeId();
+            if (nodeRanks.containsKey(nodeId) == false) {
+                ResponseCollectorService.ComputedNodeStats stats = collector.getNodeStatistics(nodeId, clientCount);
+                if (stats == null) {
+                    nodeRanks.put(nodeId, 0d);
+                } else {
+                    nodeStats.put(nodeId, stats);
+                    nodeRanks.put(nodeId, stats.rank(stats.getOutgoingSearches() + nodeSearchCounts.getOrDefault(nodeId, 0L)));
+                }
+            }
+        }
+        // the sort is stable, so shards on nodes with the same rank keep their shuffled order
+        final List<ShardRouting> ranked = new ArrayList<>(shards);
+        ranked.sort(Comparator.comparingDouble(shard -> nodeRanks.get(shard.currentNodeId())));
+
+        final String chosenNodeId = ranked.get(0).currentNodeId();
+        nodeSearchCounts.merge(chosenNodeId, 1L, Long::sum);
+        // the nodes that were not chosen won't report fresh statistics, move their statistics towards those of the chosen
+        // node so that a node which was slow once is eventually retried instead of being avoided forever
+        final ResponseCollectorService.ComputedNodeStats chosenStats = nodeStats.get(chosenNodeId);
+        if (chosenStats != null) {
+            for (Map.Entry<String, ResponseCollectorService.ComputedNodeStats> entry : nodeStats.entrySet()) {
+                if (entry.getKey().equals(chosenNodeId) == false) {
+                    ResponseCollectorService.ComputedNodeStats stats = entry.getValue();
+                    collector.addNodeStatistics(entry.getKey(),
+                        (int) ((chosenStats.getQueueSize() + stats.getQueueSize()) / 2),
+                        (long) ((chosenStats.getResponseTime() + stats.getResponseTime()) / 2),
+                        (long) ((chosenStats.getServiceTime() + stats.getServiceTime()) / 2));
+                }
+            }
+        }
+        return ranked;
+    }
+
     /**
      * Returns true if no primaries are active or initializing for this shard
      */
@@ -27,13 +27,18 @@ import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.ShardNotFoundException;
+import org.elasticsearch.node.ResponseCollectorService;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -43,13 +48,27 @@ import java.util.Set;
  */
 public class OperationRouting extends AbstractComponent {
 
+    public static final Setting<Boolean> USE_ADAPTIVE_REPLICA_SELECTION_SETTING =
+        Setting.boolSetting("cluster.routing.use_adaptive_replica_selection", false, Property.Dynamic, Property.NodeScope);
 
     private final AwarenessAllocationDecider awarenessAllocationDecider;
 
-    @Inject
+    private volatile boolean useAdaptiveReplicaSelection;
+
     public OperationRouting(Settings settings, AwarenessAllocationDecider awarenessAllocationDecider) {
+        this(settings, awarenessAllocationDecider, new ClusterSettings(settings, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
+    }
+
+    @Inject
+    public OperationRouting(Settings settings, AwarenessAllocationDecider awarenessAllocationDecider, ClusterSettings clusterSettings) {
         super(settings);
         this.awarenessAllocationDecider = awarenessAllocationDecider;
+        this.useAdaptiveReplicaSelection = USE_ADAPTIVE_REPLICA_SELECTION_SETTING.get(settings);
+        clusterSettings.addSettingsUpdateConsumer(USE_ADAPTIVE_REPLICA_SELECTION_SETTING, this::setUseAdaptiveReplicaSelection);
+    }
+
+    private void setUseAdaptiveReplicaSelection(boolean useAdaptiveReplicaSelection) {
+        this.useAdaptiveReplicaSelection = useAdaptiveReplicaSelection;
     }
 
     public ShardIterator indexShards(ClusterState clusterState, String index, String type, String id, @Nullable String routing) {
@@ -71,10 +90,22 @@ public class OperationRouting extends AbstractComponent {
     }
 
     public GroupShardsIterator searchShards(ClusterState clusterState, String[] concreteIndices, @Nullable Map<String, Set<String>> routing, @Nullable String preference) {
+        return searchShards(clusterState, concreteIndices, routing, preference, null);
+    }
+
+    /**
+     * Returns the shard iterators of a search. If adaptive replica selection is enabled and the search has no preference, the
+     * copies of each shard are ordered by the rank of their node according to the given collector.
+     */
+    public GroupShardsIterator searchShards(ClusterState clusterState, String[] concreteIndices, @Nullable Map<String, Set<String>> routing,
+                                            @Nullable String preference, @Nullable ResponseCollectorService collector) {
         final Set<IndexShardRoutingTable> shards = computeTargetedShards(clusterState, concreteIndices, routing);
         final Set<ShardIterator> set = new HashSet<>(shards.size());
+        // the shard requests of this search that are routed to each node, which add to the searches in flight to the node
+        final Map<String, Long> nodeSearchCounts = new HashMap<>();
         for (IndexShardRoutingTable shard : shards) {
-            ShardIterator iterator = preferenceActiveShardIterator(shard, clusterState.nodes().getLocalNodeId(), clusterState.nodes(), preference);
+            ShardIterator iterator = preferenceActiveShardIterator(shard, clusterState.nodes().getLocalNodeId(), clusterState.nodes(),
+                preference, collector, nodeSearchCounts);
             if (iterator != null) {
                 set.add(iterator);
             }
@@ -112,9 +143,18 @@ public class OperationRouting extends AbstractComponent {
     }
 
     private ShardIterator preferenceActiveShardIterator(IndexShardRoutingTable indexShard, String localNodeId, DiscoveryNodes nodes, @Nullable String preference) {
+        return preferenceActiveShardIterator(indexShard, localNodeId, nodes, preference, null, null);
+    }
+
+    private ShardIterator preferenceActiveShardIterator(IndexShardRoutingTable indexShard, String localNodeId, DiscoveryNodes nodes,
+                                                        @Nullable String preference, @Nullable ResponseCollectorService collector,
+                                                        @Nullable Map<String, Long> nodeSearchCounts) {
         if (preference == null || preference.isEmpty()) {
             String[] awarenessAttributes = awarenessAllocationDecider.awarenessAttributes();
             if (awarenessAttributes.length == 0) {
+                if (useAdaptiveReplicaSelection && collector != null) {
+                    return indexShard.activeInitializingShardsRankedIt(collector, nodeSearchCounts, nodes.getSize());
+                }
                 return indexShard.activeInitializingShardsRandomIt();
             } else {
                 return indexShard.preferAttributesActiveInitializingShardsIt(awarenessAttributes, nodes);
@@ -25,6 +25,7 @@ import org.elasticsearch.common.util.concurrent.ReleasableLock;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -61,6 +62,18 @@ import java.util.function.ToLongBiFunction;
  * <p>
  * Evictions only occur after a mutation to the cache (meaning an entry promotion, a cache insertion, or a manual
  * invalidation) or an explicit call to {@link #refresh()}.
+ * <p>
+ * The cache can alternatively be configured with the {@link EvictionPolicy#WINDOW_TINY_LFU} eviction policy which
+ * addresses the contention on the LRU lock and the lack of scan resistance of LRU:
+ * <ol>
+ * <li>Reads are recorded into a striped, lossy {@link ReadBuffer} instead of promoting the entry under the LRU lock.
+ * The buffer is drained in batches by whichever thread acquires the lock, either opportunistically when a stripe fills
+ * up or on the next write, so that the maintenance of the policy is amortized across many reads.</li>
+ * <li>New entries are admitted into a small LRU window (1% of the maximum weight). Entries evicted from the window are
+ * candidates for the main LRU space and are only admitted if they were accessed more frequently than the entry that
+ * the main space would evict, as estimated by a TinyLFU {@link FrequencySketch}. Scan-like bursts of one-hit wonders
+ * are therefore evicted from the window instead of flushing the hot entries of the main space.</li>
+ * </ol>
  *
  * @param <K> The type of the keys
  * @param <V> The type of the values
@@ -94,6 +107,41 @@ public class Cache<K, V> {
     private RemovalListener<K, V> removalListener = notification -> {
     };
 
+    // the eviction policy
+    private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+    // the weight of the entries in the admission window, only used by WINDOW_TINY_LFU
+    private long windowWeight = 0;
+
+    // the popularity of the keys in the cache, only used by WINDOW_TINY_LFU
+    private FrequencySketch sketch;
+
+    // the buffered reads that have not been applied to the eviction policy yet, only used by WINDOW_TINY_LFU
+    private ReadBuffer<Entry<K, V>> readBuffer;
+
+    /**
+     * The policy used to pick the entries to evict when the cache exceeds its maximum weight.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Evicts the least recently used entry. Every read promotes the entry under a global lock.
+         */
+        LRU,
+        /**
+         * Admits new entries into a small LRU window and evicts based on a frequency-based admission filter. Reads are
+         * buffered and applied to the policy in batches.
+         */
+        WINDOW_TINY_LFU;
+
+        public static EvictionPolicy parse(String policy) {
+            try {
+                return EvictionPolicy.valueOf(policy.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("no eviction policy support [" + policy + "]");
+            }
+        }
+    }
+
     // use CacheBuilder to construct
     Cache() {
     }
@@ -131,6 +179,18 @@ public class Cache<K, V> {
         this.removalListener = removalListener;
     }
 
+    void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+        Objects.requireNonNull(evictionPolicy);
+        this.evictionPolicy = evictionPolicy;
+        if (evictionPolicy == EvictionPolicy.WINDOW_TINY_LFU) {
+            sketch = new FrequencySketch(INITIAL_SKETCH_CAPACITY);
+            readBuffer = new ReadBuffer<>(Runtime.getRuntime().availableProcessors());
+        } else {
+            sketch = null;
+            readBuffer = null;
+        }
+    }
+
     /**
      * The relative time used to track time-based evictions.
      *
@@ -155,6 +215,8 @@ public class Cache<K, V> {
         Entry<K, V> before;
         Entry<K, V> after;
         State state = State.NEW;
+        // true if the entry is linked into the admission window rather than the main LRU list
+        boolean inWindow;
 
         public Entry(K key, V value, long writeTime) {
             this.key = key;
@@ -307,6 +369,15 @@ public class Cache<K, V> {
     Entry<K, V> head;
     Entry<K, V> tail;
 
+    // the admission window, only used by WINDOW_TINY_LFU
+    Entry<K, V> windowHead;
+    Entry<K, V> windowTail;
+
+    // the percentage of the maximum weight used for the admission window
+    static final int WINDOW_PERCENTAGE = 1;
+
+    static final int INITIAL_SKETCH_CAPACITY = 64;
+
     // lock protecting mutations to the LRU list
     private ReleasableLock lruLock = new ReleasableLock(new ReentrantLock());
 
@@ -326,11 +397,48 @@ public class Cache<K, V> {
         if (entry == null || isExpired(entry, now)) {
             return null;
         } else {
-            promote(entry, now);
+            if (evictionPolicy == EvictionPolicy.LRU) {
+                promote(entry, now);
+            } else {
+                afterRead(entry, now);
+            }
             return entry.value;
         }
     }
 
+    /**
+     * Records a read of an entry without blocking. The read buffer is drained if it is filling up and nobody else is
+     * currently maintaining the eviction policy.
+     */
+    private void afterRead(Entry<K, V> entry, long now) {
+        if (readBuffer.offer(entry)) {
+            ReleasableLock locked = lruLock.tryAcquire();
+            if (locked != null) {
+                try {
+                    drainReadBuffer();
+                    evict(now);
+                } finally {
+                    locked.close();
+                }
+            }
+        }
+    }
+
+    private void drainReadBuffer() {
+        assert lruLock.isHeldByCurrentThread();
+
+        readBuffer.drainTo(this::onAccess);
+    }
+
+    private void onAccess(Entry<K, V> entry) {
+        assert lruLock.isHeldByCurrentThread();
+
+        sketch.increment(entry.key.hashCode());
+        if (entry.state == State.EXISTING) {
+            relinkAtHead(entry);
+        }
+    }
+
     /**
      * If the specified key is not already associated with a value (or is mapped to null), attempts to compute its
      * value using the given mapping function and enters it into this map unless null. The load method for a given key
@@ -458,6 +566,7 @@ public class Cache<K, V> {
      */
     public void invalidateAll() {
         Entry<K, V> h;
+        Entry<K, V> w;
 
         boolean[] haveSegmentLock = new boolean[NUMBER_OF_SEGMENTS];
         try {
@@ -467,15 +576,19 @@ public class Cache<K, V> {
             }
             try (ReleasableLock ignored = lruLock.acquire()) {
                 h = head;
+                w = windowHead;
                 Arrays.stream(segments).forEach(segment -> segment.map = new HashMap<>());
-                Entry<K, V> current = head;
-                while (current != null) {
-                    current.state = State.DELETED;
-                    current = current.after;
-                }
+                markDeleted(head);
+                markDeleted(windowHead);
                 head = tail = null;
+                windowHead = windowTail = null;
                 count = 0;
                 weight = 0;
+                windowWeight = 0;
+                if (readBuffer != null) {
+                    // the buffered reads only reference deleted entries from now on
+                    readBuffer.drainTo(entry -> {});
+                }
             }
         } finally {
             for (int i = NUMBER_OF_SEGMENTS - 1; i >= 0; i--) {
@@ -484,18 +597,35 @@ public class Cache<K, V> {
                 }
             }
         }
+        while (w != null) {
+            removalListener.onRemoval(new RemovalNotification<>(w.key, w.value, RemovalNotification.RemovalReason.INVALIDATED));
+            w = w.after;
+        }
         while (h != null) {
             removalListener.onRemoval(new RemovalNotification<>(h.key, h.value, RemovalNotification.RemovalReason.INVALIDATED));
             h = h.after;
         }
     }
 
+    private void markDeleted(Entry<K, V> first) {
+        assert lruLock.isHeldByCurrentThread();
+
+        Entry<K, V> current = first;
+        while (current != null) {
+            current.state = State.DELETED;
+            current = current.after;
+        }
+    }
+
     /**
      * Force any outstanding size-based and time-based evictions to occur
      */
     public void refresh() {
         long now = now();
         try (ReleasableLock ignored = lruLock.acquire()) {
+            if (evictionPolicy == EvictionPolicy.WINDOW_TINY_LFU) {
+                drainReadBuffer();
+            }
             evict(now);
         }
     }
@@ -521,13 +651,14 @@ public class Cache<K, V> {
     /**
      * An LRU sequencing of the keys in the cache that supports removal. This sequence is not protected from mutations
      * to the cache (except for {@link Iterator#remove()}. The result of iteration under any other mutation is
-     * undefined.
+     * undefined. With {@link EvictionPolicy#WINDOW_TINY_LFU} the keys of the admission window are returned first, and
+     * buffered reads that have not been applied yet are not reflected in the order.
      *
      * @return an LRU-ordered {@link Iterable} over the keys in the cache
      */
     public Iterable<K> keys() {
         return () -> new Iterator<K>() {
-            private CacheIterator iterator = new CacheIterator(head);
+            private CacheIterator iterator = new CacheIterator(windowHead, head);
 
             @Override
             public boolean hasNext() {
@@ -554,7 +685,7 @@ public class Cache<K, V> {
      */
     public Iterable<V> values() {
         return () -> new Iterator<V>() {
-            private CacheIterator iterator = new CacheIterator(head);
+            private CacheIterator iterator = new CacheIterator(windowHead, head);
 
             @Override
             public boolean hasNext() {
@@ -569,12 +700,14 @@ public class Cache<K, V> {
     }
 
     private class CacheIterator implements Iterator<Entry<K, V>> {
+        private final Entry<K, V> head;
         private Entry<K, V> current;
         private Entry<K, V> next;
 
-        CacheIterator(Entry<K, V> head) {
+        CacheIterator(Entry<K, V> windowHead, Entry<K, V> head) {
+            this.head = head;
             current = null;
-            next = head;
+            next = windowHead != null ? windowHead : head;
         }
 
         @Override
@@ -586,6 +719,10 @@ public class Cache<K, V> {
         public Entry<K, V> next() {
             current = next;
             next = next.after;
+            if (next == null && current.inWindow) {
+                // continue with the main LRU list once the admission window is exhausted
+                next = head;
+            }
             return current;
         }
 
@@ -648,6 +785,10 @@ public class Cache<K, V> {
     private boolean promote(Entry<K, V> entry, long now) {
         boolean promoted = true;
         try (ReleasableLock ignored = lruLock.acquire()) {
+            if (evictionPolicy == EvictionPolicy.WINDOW_TINY_LFU) {
+                drainReadBuffer();
+                sketch.increment(entry.key.hashCode());
+            }
             switch (entry.state) {
                 case DELETED:
                     promoted = false;
@@ -656,6 +797,7 @@ public class Cache<K, V> {
                     relinkAtHead(entry);
                     break;
                 case NEW:
+                    entry.inWindow = evictionPolicy == EvictionPolicy.WINDOW_TINY_LFU;
                     linkAtHead(entry);
                     break;
             }
@@ -669,16 +811,78 @@ public class Cache<K, V> {
     private void evict(long now) {
         assert lruLock.isHeldByCurrentThread();
 
+        if (evictionPolicy == EvictionPolicy.WINDOW_TINY_LFU) {
+            evictWindowTinyLfu(now);
+            return;
+        }
+
         while (tail != null && shouldPrune(tail, now)) {
-            CacheSegment<K, V> segment = getCacheSegment(tail.key);
-            Entry<K, V> entry = tail;
-            if (segment != null) {
-                segment.remove(tail.key);
+            evictEntry(tail);
+        }
+    }
+
+    private void evictWindowTinyLfu(long now) {
+        assert lruLock.isHeldByCurrentThread();
+
+        while (windowTail != null && isExpired(windowTail, now)) {
+            evictEntry(windowTail);
+        }
+        while (tail != null && isExpired(tail, now)) {
+            evictEntry(tail);
+        }
+        if (maximumWeight == -1) {
+            return;
+        }
+
+        // entries that overflow the admission window move to the head of the main space and become candidates; the
+        // first candidate ends up deepest in the main space and the following ones are linked before it
+        final long maximumWindowWeight = Math.max(1, maximumWeight * WINDOW_PERCENTAGE / 100);
+        Entry<K, V> candidate = null;
+        while (windowTail != null && windowWeight > maximumWindowWeight) {
+            Entry<K, V> entry = windowTail;
+            unlink(entry);
+            entry.inWindow = false;
+            linkAtHead(entry);
+            if (candidate == null) {
+                candidate = entry;
+            }
+        }
+
+        // evict either the candidate or the LRU victim of the main space, whichever is less popular
+        while (exceedsWeight()) {
+            Entry<K, V> victim = tail;
+            if (victim == null) {
+                if (windowTail == null) {
+                    break;
+                }
+                evictEntry(windowTail);
+            } else if (candidate == null) {
+                evictEntry(victim);
+            } else {
+                Entry<K, V> nextCandidate = candidate.before;
+                if (candidate == victim) {
+                    evictEntry(victim);
+                    candidate = nextCandidate;
+                } else if (sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+                    evictEntry(victim);
+                } else {
+                    evictEntry(candidate);
+                    candidate = nextCandidate;
+                }
             }
-            delete(entry, RemovalNotification.RemovalReason.EVICTED);
         }
     }
 
+    private void evictEntry(Entry<K, V> entry) {
+        assert lruLock.isHeldByCurrentThread();
+
+        CacheSegment<K, V> segment = getCacheSegment(entry.key);
+        if (segment != null) {
+            segment.remove(entry.key);
+        }
+        delete(entry, RemovalNotification.RemovalReason.EVICTED);
+    }
+
     private void delete(Entry<K, V> entry, RemovalNotification.RemovalReason removalReason) {
         assert lruLock.isHeldByCurrentThread();
 
@@ -709,10 +913,15 @@ public class Cache<K, V> {
 
             if (before == null) {
                 // removing the head
-                assert head == entry;
-                head = after;
-                if (head != null) {
-                    head.before = null;
+                if (entry.inWindow) {
+                    assert windowHead == entry;
+                    windowHead = after;
+                } else {
+                    assert head == entry;
+                    head = after;
+                }
+                if (after != null) {
+                    after.before = null;
                 }
             } else {
                 // removing inner element
@@ -722,10 +931,15 @@ public class Cache<K, V> {
 
             if (after == null) {
                 // removing tail
-                assert tail == entry;
-                tail = before;
-                if (tail != null) {
-                    tail.after = null;
+                if (entry.inWindow) {
+                    assert windowTail == entry;
+                    windowTail = before;
+                } else {
+                    assert tail == entry;
+                    tail = before;
+                }
+                if (before != null) {
+                    before.after = null;
                 }
             } else {
                 // removing inner element
@@ -734,7 +948,11 @@ public class Cache<K, V> {
             }
 
             count--;
-            weight -= weigher.applyAsLong(entry.key, entry.value);
+            final long entryWeight = weigher.applyAsLong(entry.key, entry.value);
+            weight -= entryWeight;
+            if (entry.inWindow) {
+                windowWeight -= entryWeight;
+            }
             entry.state = State.DELETED;
             return true;
         } else {
@@ -745,25 +963,42 @@ public class Cache<K, V> {
     private void linkAtHead(Entry<K, V> entry) {
         assert lruLock.isHeldByCurrentThread();
 
-        Entry<K, V> h = head;
-        entry.before = null;
-        entry.after = head;
-        head = entry;
-        if (h == null) {
-            tail = entry;
+        final long entryWeight = weigher.applyAsLong(entry.key, entry.value);
+        if (entry.inWindow) {
+            Entry<K, V> h = windowHead;
+            entry.before = null;
+            entry.after = windowHead;
+            windowHead = entry;
+            if (h == null) {
+                windowTail = entry;
+            } else {
+                h.before = entry;
+            }
+            windowWeight += entryWeight;
         } else {
-            h.before = entry;
+            Entry<K, V> h = head;
+            entry.before = null;
+            entry.after = head;
+            head = entry;
+            if (h == null) {
+                tail = entry;
+            } else {
+                h.before = entry;
+            }
         }
 
         count++;
-        weight += weigher.applyAsLong(entry.key, entry.value);
+        weight += entryWeight;
         entry.state = State.EXISTING;
+        if (sketch != null && count > sketch.capacity()) {
+            sketch.ensureCapacity(2L * count);
+        }
     }
 
     private void relinkAtHead(Entry<K, V> entry) {
         assert lruLock.isHeldByCurrentThread();
 
-        if (head != entry) {
+        if ((entry.inWindow ? windowHead : head) != entry) {
             unlink(entry);
             linkAtHead(entry);
         }
@@ -0,0 +1,163 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.common.cache;
+
+/**
+ * A probabilistic multiset for estimating the popularity of an element within a time window. The maximum frequency of
+ * an element is limited to 15 (4-bits) and an aging process periodically halves the popularity of all elements.
+ * <p>
+ * The sketch is a Count-Min sketch whose counters are packed four bits at a time into a long[] table. Each element is
+ * hashed to four counters that are placed in the same 64-bit word, and its frequency is the minimum of those
+ * counters. After a sample of {@code 10 * capacity} increments all counters are halved so that the sketch adapts to
+ * changes in the access pattern. This is the admission filter of the TinyLFU policy used by {@link Cache} when it is
+ * configured with {@link Cache.EvictionPolicy#WINDOW_TINY_LFU}.
+ * <p>
+ * This class is not thread-safe; callers must provide external synchronization.
+ */
+final class FrequencySketch {
+
+    // a mixture of seeds from FNV-1a, CityHash, and Murmur3
+    private static final long[] SEED = new long[] {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    // the table should not exceed 2^30 words
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private int sampleSize;
+    private int tableMask;
+    private long[] table;
+    private int size;
+
+    FrequencySketch(long capacity) {
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * Increases the capacity of the sketch so that it can accurately estimate the popularity of {@code capacity}
+     * elements. Resizing discards the popularity history.
+     *
+     * @param capacity the number of elements the sketch should support
+     */
+    void ensureCapacity(long capacity) {
+        final int maximum = (int) Math.min(Math.max(capacity, 1), MAXIMUM_CAPACITY);
+        if (table != null && table.length >= maximum) {
+            return;
+        }
+        table = new long[ceilingPowerOfTwo(maximum)];
+        tableMask = table.length - 1;
+        sampleSize = (int) Math.min(10L * maximum, Integer.MAX_VALUE);
+        size = 0;
+    }
+
+    /** the number of words in the backing table, exposed for testing */
+    int capacity() {
+        return table.length;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of an element, up to the maximum (15).
+     *
+     * @param hashCode the hash code of the element to count occurrences of
+     * @return the estimated number of occurrences of the element; possibly zero but never negative
+     */
+    int frequency(int hashCode) {
+        final int hash = spread(hashCode);
+        final int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            final int index = indexOf(hash, i);
+            final int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the popularity of the element if it does not exceed the maximum (15). The popularity of all elements
+     * will be periodically down sampled when the observed events exceeds the sample size.
+     *
+     * @param hashCode the hash code of the element to add
+     */
+    void increment(int hashCode) {
+        final int hash = spread(hashCode);
+        final int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && (++size == sampleSize)) {
+            reset();
+        }
+    }
+
+    /**
+     * Increments the specified counter by 1 if it is not already at the maximum value (15).
+     *
+     * @param i the table index (16 counters)
+     * @param j the counter to increment
+     * @return if incremented
+     */
+    private boolean incrementAt(int i, int j) {
+        final int offset = j << 2;
+        final long mask = (0xfL << offset);
+        if ((table[i] & mask) != mask) {
+            table[i] += (1L << offset);
+            return true;
+        }
+        return false;
+    }
+
+    /** Reduces every counter by half of its original value. */
+    private void reset() {
+        int count = 0;
+        for (int i = 0; i < table.length; i++) {
+            count += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (count >>> 2);
+    }
+
+    /**
+     * Returns the table index for the counter at the specified depth.
+     *
+     * @param item the element's hash
+     * @param i    the counter depth
+     * @return the table index
+     */
+    private int indexOf(int item, int i) {
+        long hash = (item + SEED[i]) * SEED[i];
+        hash += (hash >>> 32);
+        return ((int) hash) & tableMask;
+    }
+
+    /** Applies a supplemental hash function to defend against poor quality hash codes. */
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        // From Hacker's Delight, Chapter 3, Harry S. Warren Jr.
+        return 1 << -Integer.numberOfLeadingZeros(x - 1);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.common.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A striped, lossy, multiple-producer single-consumer buffer used by {@link Cache} to record reads without taking the
+ * lock that protects the eviction policy.
+ * <p>
+ * Each stripe is a small ring buffer; the stripe is chosen by the identity of the recording thread so that concurrent
+ * readers rarely contend on the same counters. When a stripe is full the read is simply dropped: losing a few reads
+ * only makes the recency and frequency information slightly less accurate, which is a much better trade-off than
+ * making readers wait. Draining is performed by whichever thread holds the policy lock.
+ *
+ * @param <E> the type of the recorded elements
+ */
+final class ReadBuffer<E> {
+
+    static final int BUFFER_SIZE = 16;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    private final Stripe<E>[] stripes;
+    private final int stripeMask;
+
+    @SuppressWarnings("unchecked")
+    ReadBuffer(int numberOfStripes) {
+        int size = 1;
+        while (size < numberOfStripes) {
+            size <<= 1;
+        }
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        stripeMask = size - 1;
+    }
+
+    /**
+     * Records an element, dropping it if the stripe of the current thread is full.
+     *
+     * @param e the element to record
+     * @return true if the stripe is at least half full and should be drained
+     */
+    boolean offer(E e) {
+        return stripes[stripeIndex()].offer(e);
+    }
+
+    /**
+     * Drains all recorded elements to the consumer. Must only be called by a single thread at a time.
+     *
+     * @param consumer the consumer of the recorded elements
+     */
+    void drainTo(Consumer<E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            stripe.drainTo(consumer);
+        }
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+
+    private static final class Stripe<E> {
+        private final AtomicLong readCounter = new AtomicLong();
+        private final AtomicLong writeCounter = new AtomicLong();
+        private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+
+        boolean offer(E e) {
+            final long head = readCounter.get();
+            final long tail = writeCounter.get();
+            final long size = tail - head;
+            if (size >= BUFFER_SIZE) {
+                return true;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & BUFFER_MASK), e);
+                return size + 1 >= BUFFER_SIZE / 2;
+            }
+            // another reader won the race for this slot; dropping the read is fine
+            return false;
+        }
+
+        void drainTo(Consumer<E> consumer) {
+            long head = readCounter.get();
+            final long tail = writeCounter.get();
+            for (; head < tail; head++) {
+                final int index = (int) (head & BUFFER_MASK);
+                final E e = buffer.get(index);
+                if (e == null) {
+                    // the producer claimed the slot but has not published the element yet
+                    break;
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(e);
+            }
+            readCounter.lazySet(head);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.joda;
+
+import org.elasticsearch.common.Strings;
+import org.joda.time.DateTimeZone;
+
+/**
+ * Allocation free parsers for the most common date layouts, <code>yyyy-MM-dd['T'HH:mm[:ss[.SSS]]][offset]</code> and epoch
+ * timestamps. They return {@link #NOT_PARSED} for anything they don't handle, in which case callers fall back to the
+ * Joda parser, which also takes care of reporting errors. Whatever these parsers accept is parsed to the same instant by
+ * the Joda parsers they stand in for.
+ */
+public final class FastDateParser {
+
+    /**
+     * Returned when a text could not be parsed by the fast path.
+     */
+    public static final long NOT_PARSED = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+
+    private FastDateParser() {}
+
+    /**
+     * Parses <code>yyyy-MM-dd</code>, optionally followed by <code>'T'HH:mm</code>, seconds, a fraction of a second of up to
+     * nine digits and a <code>Z</code>, <code>+HH:mm</code> or <code>+HHmm</code> offset. Times without an offset are local
+     * to the given time zone.
+     *
+     * @return the milliseconds since the epoch or {@link #NOT_PARSED}
+     */
+    public static long parseDateOptionalTime(String text, DateTimeZone zone) {
+        final int length = text.length();
+        if (length < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return NOT_PARSED;
+        }
+        final int year = parseDigits(text, 0, 4);
+        final int month = parseDigits(text, 5, 2);
+        final int day = parseDigits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return NOT_PARSED;
+        }
+        long millis = daysSinceEpoch(year, month, day) * MILLIS_PER_DAY;
+        int pos = 10;
+        if (pos == length) {
+            return localToUtc(millis, zone);
+        }
+
+        if (text.charAt(pos) != 'T' || pos + 6 > length || text.charAt(pos + 3) != ':') {
+            return NOT_PARSED;
+        }
+        final int hour = parseDigits(text, pos + 1, 2);
+        final int minute = parseDigits(text, pos + 4, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return NOT_PARSED;
+        }
+        millis += hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE;
+        pos += 6;
+        if (pos + 3 <= length && text.charAt(pos) == ':') {
+            final int second = parseDigits(text, pos + 1, 2);
+            if (second < 0 || second > 59) {
+                return NOT_PARSED;
+            }
+            millis += second * MILLIS_PER_SECOND;
+            pos += 3;
+            if (pos < length && (text.charAt(pos) == '.' || text.charAt(pos) == ',')) {
+                pos++;
+                final int start = pos;
+                int fraction = 0;
+                // digits beyond the millisecond are parsed but dropped, like the joda parsers do
+                while (pos < length && pos - start < 9 && isDigit(text.charAt(pos))) {
+                    if (pos - start < 3) {
+                        fraction = fraction * 10 + (text.charAt(pos) - '0');
+                    }
+                    pos++;
+                }
+                final int digits = pos - start;
+                if (digits == 0) {
+                    return NOT_PARSED;
+                }
+                for (int i = digits; i < 3; i++) {
+                    fraction *= 10;
+                }
+                millis += fraction;
+            }
+        }
+        if (pos == length) {
+            return localToUtc(millis, zone);
+        }
+
+        final char sign = text.charAt(pos);
+        if (sign == 'Z') {
+            return pos + 1 == length ? millis : NOT_PARSED;
+        }
+        if (sign != '+' && sign != '-') {
+            return NOT_PARSED;
+        }
+        pos++;
+        final int offsetHours = pos + 2 <= length ? parseDigits(text, pos, 2) : -1;
+        pos += 2;
+        if (pos < length && text.charAt(pos) == ':') {
+            pos++;
+        }
+        final int offsetMinutes = pos + 2 == length ? parseDigits(text, pos, 2) : -1;
+        if (offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0 || offsetMinutes > 59) {
+            return NOT_PARSED;
+        }
+        final long offset = offsetHours * MILLIS_PER_HOUR + offsetMinutes * MILLIS_PER_MINUTE;
+        return sign == '+' ? millis - offset : millis + offset;
+    }
+
+    /**
+     * Parses the milliseconds since the epoch, like the <code>epoch_millis</code> format does.
+     *
+     * @return the milliseconds since the epoch or {@link #NOT_PARSED}
+     */
+    public static long parseEpochMillis(String text) {
+        return parseEpoch(text, 13, 1);
+    }
+
+    /**
+     * Parses the seconds since the epoch, like the <code>epoch_second</code> format does.
+     *
+     * @return the milliseconds since the epoch or {@link #NOT_PARSED}
+     */
+    public static long parseEpochSecond(String text) {
+        return parseEpoch(text, 10, MILLIS_PER_SECOND);
+    }
+
+    private static long parseEpoch(String text, int maxDigits, long factor) {
+        final int length = text.length();
+        final int start = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+        final int digits = length - start;
+        if (digits < 1 || digits > maxDigits) {
+            return NOT_PARSED;
+        }
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c) == false) {
+                return NOT_PARSED;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return (start == 1 ? -value : value) * factor;
+    }
+
+    /**
+     * Returns the fast parsers that stand in for a format, which may consist of several formats separated by
+     * <code>||</code>, or <code>null</code> if not all of these formats can be parsed by a fast parser.
+     */
+    static Format[] forFormat(String format) {
+        String[] formats = Strings.delimitedListToStringArray(format, "||");
+        Format[] fastFormats = new Format[formats.length];
+        for (int i = 0; i < formats.length; i++) {
+            switch (formats[i]) {
+                case "strictDateOptionalTime":
+                case "strict_date_optional_time":
+                    fastFormats[i] = Format.STRICT_DATE_OPTIONAL_TIME;
+                    break;
+                case "epoch_millis":
+                    fastFormats[i] = Format.EPOCH_MILLIS;
+                    break;
+                case "epoch_second":
+                    fastFormats[i] = Format.EPOCH_SECOND;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return fastFormats;
+    }
+
+    /**
+     * The formats that have a fast parser. Since the joda parser of a format that consists of several formats uses the
+     * first of them that parses the whole text, a later format may only be tried when the earlier ones certainly reject
+     * the text.
+     */
+    enum Format {
+        STRICT_DATE_OPTIONAL_TIME {
+            @Override
+            long parse(String text) {
+                return parseDateOptionalTime(text, DateTimeZone.UTC);
+            }
+
+            @Override
+            boolean rejects(String text) {
+                // the strict year is a signed number of four characters, so longer numbers and unsigned numbers of any
+                // other length can't be parsed
+                final int length = text.length();
+                final int start = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+                for (int i = start; i < length; i++) {
+                    if (isDigit(text.charAt(i)) == false) {
+                        return false;
+                    }
+                }
+                final int digits = length - start;
+                return digits > 4 || (start == 0 && digits != 4);
+            }
+        },
+        EPOCH_MILLIS {
+            @Override
+            long parse(String text) {
+                return parseEpochMillis(text);
+            }
+
+            @Override
+            boolean rejects(String text) {
+                return true;
+            }
+        },
+        EPOCH_SECOND {
+            @Override
+            long parse(String text) {
+                return parseEpochSecond(text);
+            }
+
+            @Override
+            boolean rejects(String text) {
+                return true;
+            }
+        };
+
+        /**
+         * @return the milliseconds since the epoch or {@link #NOT_PARSED}
+         */
+        abstract long parse(String text);
+
+        /**
+         * @return whether the joda parser of this format certainly rejects a text that the fast parser did not parse
+         */
+        abstract boolean rejects(String text);
+    }
+
+    private static long localToUtc(long localMillis, DateTimeZone zone) {
+        if (zone == DateTimeZone.UTC) {
+            return localMillis;
+        }
+        final int offset = zone.getOffsetFromLocal(localMillis);
+        final long millis = localMillis - offset;
+        if (offset != zone.getOffset(millis)) {
+            // the local time falls into a daylight savings gap, which joda rejects
+            return NOT_PARSED;
+        }
+        return millis;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Parses a fixed number of digits, returns -1 if any of the characters is not a digit.
+     */
+    private static int parseDigits(String text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c) == false) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * The number of days between the epoch and a date of the proleptic gregorian calendar that ISO chronology uses.
+     */
+    private static long daysSinceEpoch(int year, int month, int day) {
+        // shifts the year to start in march, so that the leap day is the last day of the year
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.common.joda;
 
+import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormatter;
 
 import java.util.Locale;
@@ -37,6 +38,9 @@ public class FormatDateTimeFormatter {
 
     private final Locale locale;
 
+    // fast parsers that stand in for the joda parser, null if the format has none
+    private final FastDateParser.Format[] fastFormats;
+
     public FormatDateTimeFormatter(String format, DateTimeFormatter parser, Locale locale) {
         this(format, parser, parser, locale);
     }
@@ -46,6 +50,12 @@ public class FormatDateTimeFormatter {
         this.locale = locale;
         this.printer = locale == null ? printer.withDefaultYear(1970) : printer.withLocale(locale).withDefaultYear(1970);
         this.parser = locale == null ? parser.withDefaultYear(1970) : parser.withLocale(locale).withDefaultYear(1970);
+        // the fast parsers only know about UTC and the ISO chronology
+        if (this.parser.getZone() == DateTimeZone.UTC && this.parser.getChronology() == null) {
+            this.fastFormats = FastDateParser.forFormat(format);
+        } else {
+            this.fastFormats = null;
+        }
     }
 
     public String format() {
@@ -56,6 +66,25 @@ public class FormatDateTimeFormatter {
         return parser;
     }
 
+    /**
+     * Parses a date to milliseconds since the epoch like {@link #parser()} does, but without going through joda for the
+     * common ISO 8601 and epoch formats.
+     */
+    public long parseMillis(String text) {
+        if (fastFormats != null) {
+            for (FastDateParser.Format fastFormat : fastFormats) {
+                long millis = fastFormat.parse(text);
+                if (millis != FastDateParser.NOT_PARSED) {
+                    return millis;
+                }
+                if (fastFormat.rejects(text) == false) {
+                    break;
+                }
+            }
+        }
+        return parser.parseMillis(text);
+    }
+
     public DateTimeFormatter printer() {
         return this.printer;
     }
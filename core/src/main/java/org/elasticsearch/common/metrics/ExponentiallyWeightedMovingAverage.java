@@ -0,0 +1,61 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An exponentially-weighted moving average over a stream of values. Unlike {@link EWMA}, which averages a rate over
+ * fixed time ticks, every added value moves the average by a factor of {@code alpha} towards it.
+ */
+public class ExponentiallyWeightedMovingAverage implements Metric {
+
+    private final double alpha;
+    // the average, stored as its raw long bits so that it can be updated atomically
+    private final AtomicLong averageBits;
+
+    /**
+     * Creates a new moving average.
+     *
+     * @param alpha          the weight of a new value, between 0 and 1, higher values favor recent values
+     * @param initialAverage the average before any value is added
+     */
+    public ExponentiallyWeightedMovingAverage(double alpha, double initialAverage) {
+        if (alpha < 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be greater or equal to 0 and less than or equal to 1, got [" + alpha + "]");
+        }
+        this.alpha = alpha;
+        this.averageBits = new AtomicLong(Double.doubleToLongBits(initialAverage));
+    }
+
+    public double getAverage() {
+        return Double.longBitsToDouble(averageBits.get());
+    }
+
+    public void addValue(double newValue) {
+        boolean successful = false;
+        do {
+            final long currentBits = averageBits.get();
+            final double currentAverage = Double.longBitsToDouble(currentBits);
+            final double newAverage = (alpha * newValue) + ((1 - alpha) * currentAverage);
+            successful = averageBits.compareAndSet(currentBits, Double.doubleToLongBits(newAverage));
+        } while (successful == false);
+    }
+}
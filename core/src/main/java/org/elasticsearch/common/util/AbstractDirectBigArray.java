@@ -0,0 +1,96 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.common.util;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Common implementation for big arrays whose pages are direct {@link ByteBuffer}s of {@link BigArrays#PAGE_SIZE_IN_BYTES}
+ * bytes allocated outside of the heap. Large aggregations that use such arrays do not put pressure on the old
+ * generation; the memory is still accounted against the request circuit breaker through {@link #ramBytesUsed()}.
+ */
+abstract class AbstractDirectBigArray extends AbstractBigArray {
+
+    protected ByteBuffer[] pages;
+
+    protected AbstractDirectBigArray(long size, int pageSize, BigArrays bigArrays, boolean clearOnResize) {
+        super(pageSize, bigArrays, clearOnResize);
+        assert pageSize * numBytesPerElement() == BigArrays.PAGE_SIZE_IN_BYTES;
+        this.size = size;
+        pages = new ByteBuffer[numPages(size)];
+        for (int i = 0; i < pages.length; ++i) {
+            pages[i] = newDirectPage(i);
+        }
+    }
+
+    /** Returns the byte offset of the element at the given index within its page. */
+    final int byteOffsetInPage(long index) {
+        return indexInPage(index) * numBytesPerElement();
+    }
+
+    /** Change the size of this array. Content between indexes <code>0</code> and <code>min(size(), newSize)</code> will be preserved. */
+    @Override
+    public final void resize(long newSize) {
+        final int numPages = numPages(newSize);
+        if (numPages > pages.length) {
+            pages = Arrays.copyOf(pages, ArrayUtil.oversize(numPages, RamUsageEstimator.NUM_BYTES_OBJECT_REF));
+        }
+        for (int i = numPages - 1; i >= 0 && pages[i] == null; --i) {
+            pages[i] = newDirectPage(i);
+        }
+        for (int i = numPages; i < pages.length && pages[i] != null; ++i) {
+            pages[i] = null;
+            releasePage(i);
+        }
+        this.size = newSize;
+    }
+
+    /**
+     * Calls the consumer for every page that intersects the range of elements between <code>fromIndex</code> inclusive and
+     * <code>toIndex</code> exclusive, with the range of indexes within that page.
+     */
+    final void forEachPage(long fromIndex, long toIndex, PageRangeConsumer consumer) {
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException();
+        }
+        if (fromIndex == toIndex) {
+            return; // empty range
+        }
+        final int fromPage = pageIndex(fromIndex);
+        final int toPage = pageIndex(toIndex - 1);
+        if (fromPage == toPage) {
+            consumer.accept(pages[fromPage], indexInPage(fromIndex), indexInPage(toIndex - 1) + 1);
+        } else {
+            consumer.accept(pages[fromPage], indexInPage(fromIndex), pageSize());
+            for (int i = fromPage + 1; i < toPage; ++i) {
+                consumer.accept(pages[i], 0, pageSize());
+            }
+            consumer.accept(pages[toPage], 0, indexInPage(toIndex - 1) + 1);
+        }
+    }
+
+    @FunctionalInterface
+    interface PageRangeConsumer {
+        void accept(ByteBuffer page, int fromIndexInPage, int toIndexInPage);
+    }
+}
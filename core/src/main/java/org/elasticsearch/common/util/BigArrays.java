@@ -425,6 +425,14 @@ public class BigArrays {
         return this.circuitBreakingInstance;
     }
 
+    /**
+     * Whether the pages of big int, long and double arrays are allocated off-heap. Byte arrays always stay on-heap because
+     * {@link ByteArray#get(long, int, org.apache.lucene.util.BytesRef)} callers rely on it returning references to the backing pages.
+     */
+    private boolean offHeap() {
+        return recycler != null && recycler.isOffHeap();
+    }
+
     private <T extends AbstractBigArray> T resizeInPlace(T array, long newSize) {
         final long oldMemSize = array.ramBytesUsed();
         array.resize(newSize);
@@ -535,7 +543,7 @@ public class BigArrays {
     public IntArray newIntArray(long size, boolean clearOnResize) {
         final IntArray array;
         if (size > INT_PAGE_SIZE) {
-            array = new BigIntArray(size, this, clearOnResize);
+            array = offHeap() ? new DirectBigIntArray(size, this, clearOnResize) : new BigIntArray(size, this, clearOnResize);
         } else if (size >= INT_PAGE_SIZE / 2 && recycler != null) {
             final Recycler.V<int[]> page = recycler.intPage(clearOnResize);
             array = new IntArrayWrapper(this, page.v(), size, page, clearOnResize);
@@ -557,6 +565,8 @@ public class BigArrays {
     public IntArray resize(IntArray array, long size) {
         if (array instanceof BigIntArray) {
             return resizeInPlace((BigIntArray) array, size);
+        } else if (array instanceof DirectBigIntArray) {
+            return resizeInPlace((DirectBigIntArray) array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final IntArray newArray = newIntArray(size, arr.clearOnResize);
@@ -585,7 +595,7 @@ public class BigArrays {
     public LongArray newLongArray(long size, boolean clearOnResize) {
         final LongArray array;
         if (size > LONG_PAGE_SIZE) {
-            array = new BigLongArray(size, this, clearOnResize);
+            array = offHeap() ? new DirectBigLongArray(size, this, clearOnResize) : new BigLongArray(size, this, clearOnResize);
         } else if (size >= LONG_PAGE_SIZE / 2 && recycler != null) {
             final Recycler.V<long[]> page = recycler.longPage(clearOnResize);
             array = new LongArrayWrapper(this, page.v(), size, page, clearOnResize);
@@ -607,6 +617,8 @@ public class BigArrays {
     public LongArray resize(LongArray array, long size) {
         if (array instanceof BigLongArray) {
             return resizeInPlace((BigLongArray) array, size);
+        } else if (array instanceof DirectBigLongArray) {
+            return resizeInPlace((DirectBigLongArray) array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final LongArray newArray = newLongArray(size, arr.clearOnResize);
@@ -635,7 +647,7 @@ public class BigArrays {
     public DoubleArray newDoubleArray(long size, boolean clearOnResize) {
         final DoubleArray arr;
         if (size > LONG_PAGE_SIZE) {
-            arr = new BigDoubleArray(size, this, clearOnResize);
+            arr = offHeap() ? new DirectBigDoubleArray(size, this, clearOnResize) : new BigDoubleArray(size, this, clearOnResize);
         } else if (size >= LONG_PAGE_SIZE / 2 && recycler != null) {
             final Recycler.V<long[]> page = recycler.longPage(clearOnResize);
             arr = new DoubleArrayWrapper(this, page.v(), size, page, clearOnResize);
@@ -654,6 +666,8 @@ public class BigArrays {
     public DoubleArray resize(DoubleArray array, long size) {
         if (array instanceof BigDoubleArray) {
             return resizeInPlace((BigDoubleArray) array, size);
+        } else if (array instanceof DirectBigDoubleArray) {
+            return resizeInPlace((DirectBigDoubleArray) array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final DoubleArray newArray = newDoubleArray(size, arr.clearOnResize);
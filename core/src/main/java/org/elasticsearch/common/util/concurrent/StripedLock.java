@@ -0,0 +1,76 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.util.concurrent;
+
+import org.apache.lucene.util.BitUtil;
+import org.elasticsearch.common.lease.Releasable;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Manages a fixed number of locks, each key being mapped to one of them based on its hash. Unlike {@link KeyedLock}
+ * acquiring a lock does not allocate or touch a shared map, which makes it cheaper under heavy concurrency, at the
+ * cost of unrelated keys occasionally sharing a lock. Callers must therefore never hold the lock of more than one
+ * key at a time.
+ */
+public final class StripedLock<T> {
+
+    static final int MAX_STRIPES = 1 << 16;
+
+    private final ReleasableLock[] stripes;
+    private final int mask;
+
+    /**
+     * @param minStripes the minimum number of locks, rounded up to the next power of two
+     */
+    public StripedLock(int minStripes) {
+        if (minStripes < 1 || minStripes > MAX_STRIPES) {
+            throw new IllegalArgumentException("minStripes must be between 1 and " + MAX_STRIPES + " but was " + minStripes);
+        }
+        final int numStripes = BitUtil.nextHighestPowerOfTwo(minStripes);
+        stripes = new ReleasableLock[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            stripes[i] = new ReleasableLock(new ReentrantLock());
+        }
+        mask = numStripes - 1;
+    }
+
+    /** Acquires the lock that guards the given key. The returned {@link Releasable} releases it. */
+    public Releasable acquire(T key) {
+        return stripe(key).acquire();
+    }
+
+    /** Returns whether the lock that guards the given key is held by the current thread. Only works when assertions are enabled. */
+    public boolean isHeldByCurrentThread(T key) {
+        return stripe(key).isHeldByCurrentThread();
+    }
+
+    /** Returns the number of locks. */
+    public int numStripes() {
+        return stripes.length;
+    }
+
+    private ReleasableLock stripe(T key) {
+        // spread the high bits since only the low ones are used to pick a stripe
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & mask];
+    }
+}
@@ -23,7 +23,10 @@ import org.elasticsearch.ElasticsearchParseException;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.regex.Regex;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentParser;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -159,39 +162,9 @@ public class XContentMapValues {
                 continue;
             }
 
-            boolean exactIncludeMatch = false; // true if the current position was specifically mentioned
-            boolean pathIsPrefixOfAnInclude = false; // true if potentially a sub scope can be included
-            if (includes.length == 0) {
-                // implied match anything
-                exactIncludeMatch = true;
-            } else {
-                for (String include : includes) {
-                    // check for prefix matches as well to see if we need to zero in, something like: obj1.arr1.* or *.field
-                    // note, this does not work well with middle matches, like obj1.*.obj3
-                    if (include.charAt(0) == '*') {
-                        if (Regex.simpleMatch(include, path)) {
-                            exactIncludeMatch = true;
-                            break;
-                        }
-                        pathIsPrefixOfAnInclude = true;
-                        continue;
-                    }
-                    if (include.startsWith(path)) {
-                        if (include.length() == path.length()) {
-                            exactIncludeMatch = true;
-                            break;
-                        } else if (include.length() > path.length() && include.charAt(path.length()) == '.') {
-                            // include might may match deeper paths. Dive deeper.
-                            pathIsPrefixOfAnInclude = true;
-                            continue;
-                        }
-                    }
-                    if (Regex.simpleMatch(include, path)) {
-                        exactIncludeMatch = true;
-                        break;
-                    }
-                }
-            }
+            final int includeMatch = includeMatch(includes, path);
+            final boolean exactIncludeMatch = includeMatch == EXACT_INCLUDE_MATCH;
+            final boolean pathIsPrefixOfAnInclude = includeMatch == PATH_IS_PREFIX_OF_AN_INCLUDE;
 
             if (!(pathIsPrefixOfAnInclude || exactIncludeMatch)) {
                 // skip subkeys, not interesting.
@@ -245,6 +218,214 @@ public class XContentMapValues {
         }
     }
 
+    // how the include patterns match a path: not at all, at the path itself, or possibly at some of its sub paths
+    private static final int NO_INCLUDE_MATCH = 0;
+    private static final int EXACT_INCLUDE_MATCH = 1;
+    private static final int PATH_IS_PREFIX_OF_AN_INCLUDE = 2;
+
+    private static int includeMatch(String[] includes, String path) {
+        if (includes.length == 0) {
+            // implied match anything
+            return EXACT_INCLUDE_MATCH;
+        }
+        int match = NO_INCLUDE_MATCH;
+        for (String include : includes) {
+            // check for prefix matches as well to see if we need to zero in, something like: obj1.arr1.* or *.field
+            // note, this does not work well with middle matches, like obj1.*.obj3
+            if (include.charAt(0) == '*') {
+                if (Regex.simpleMatch(include, path)) {
+                    return EXACT_INCLUDE_MATCH;
+                }
+                match = PATH_IS_PREFIX_OF_AN_INCLUDE;
+                continue;
+            }
+            if (include.startsWith(path)) {
+                if (include.length() == path.length()) {
+                    return EXACT_INCLUDE_MATCH;
+                } else if (include.length() > path.length() && include.charAt(path.length()) == '.') {
+                    // include might may match deeper paths. Dive deeper.
+                    match = PATH_IS_PREFIX_OF_AN_INCLUDE;
+                    continue;
+                }
+            }
+            if (Regex.simpleMatch(include, path)) {
+                return EXACT_INCLUDE_MATCH;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Streaming variant of {@link #filter(Map, String[], String[])}: copies the object the parser is positioned on to the
+     * builder, keeping the same fields as filtering the map of the object would, without parsing the object into a map. Fields
+     * are written in the order in which they are parsed.
+     */
+    public static void filter(XContentParser parser, XContentBuilder builder, String[] includes, String[] excludes) throws IOException {
+        if (parser.currentToken() == null) {
+            parser.nextToken();
+        }
+        if (parser.currentToken() != XContentParser.Token.START_OBJECT) {
+            throw new ElasticsearchParseException("expected an object to filter but got [{}]", parser.currentToken());
+        }
+        builder.startObject();
+        filter(parser, new DeferredStarts(builder), includes == null ? Strings.EMPTY_ARRAY : includes,
+            excludes == null ? Strings.EMPTY_ARRAY : excludes, new StringBuilder());
+        builder.endObject();
+    }
+
+    private static void filter(XContentParser parser, DeferredStarts into, String[] includes, String[] excludes, StringBuilder sb)
+            throws IOException {
+        final boolean copyAll = includes.length == 0 && excludes.length == 0;
+        while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+            String key = parser.currentName();
+            XContentParser.Token token = parser.nextToken();
+            if (copyAll) {
+                into.writeStarts();
+                into.builder.field(key);
+                into.builder.copyCurrentStructure(parser);
+                continue;
+            }
+            int mark = sb.length();
+            if (sb.length() > 0) {
+                sb.append('.');
+            }
+            sb.append(key);
+            String path = sb.toString();
+
+            final int includeMatch = Regex.simpleMatch(excludes, path) ? NO_INCLUDE_MATCH : includeMatch(includes, path);
+            if (includeMatch == NO_INCLUDE_MATCH) {
+                parser.skipChildren();
+                sb.setLength(mark);
+                continue;
+            }
+            final boolean exactIncludeMatch = includeMatch == EXACT_INCLUDE_MATCH;
+            // if we had an exact match, we want give deeper excludes their chance
+            final String[] innerIncludes = exactIncludeMatch ? Strings.EMPTY_ARRAY : includes;
+
+            if (token == XContentParser.Token.START_OBJECT) {
+                int level = into.startObject(key);
+                if (exactIncludeMatch) {
+                    // objects that were specifically included are kept even if all their fields are filtered out
+                    into.writeStarts();
+                }
+                filter(parser, into, innerIncludes, excludes, sb);
+                into.endObject(level);
+            } else if (token == XContentParser.Token.START_ARRAY) {
+                int level = into.startArray(key);
+                into.writeStarts();
+                filterArray(parser, into, innerIncludes, excludes, sb);
+                into.endArray(level);
+            } else if (exactIncludeMatch) {
+                into.writeStarts();
+                into.builder.field(key);
+                into.builder.copyCurrentStructure(parser);
+            }
+            sb.setLength(mark);
+        }
+    }
+
+    private static void filterArray(XContentParser parser, DeferredStarts into, String[] includes, String[] excludes, StringBuilder sb)
+            throws IOException {
+        final boolean copyAll = includes.length == 0 && excludes.length == 0;
+        XContentParser.Token token;
+        while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+            if (copyAll) {
+                into.writeStarts();
+                into.builder.copyCurrentStructure(parser);
+            } else if (token == XContentParser.Token.START_OBJECT) {
+                int level = into.startObject(null);
+                filter(parser, into, includes, excludes, sb);
+                into.endObject(level);
+            } else if (token == XContentParser.Token.START_ARRAY) {
+                int level = into.startArray(null);
+                filterArray(parser, into, includes, excludes, sb);
+                into.endArray(level);
+            } else {
+                into.writeStarts();
+                into.builder.copyCurrentStructure(parser);
+            }
+        }
+    }
+
+    /**
+     * Defers the start of objects and arrays until something gets written into them, so that objects and arrays that end up
+     * empty after filtering can be omitted like the map based filtering does.
+     */
+    private static final class DeferredStarts {
+
+        private final XContentBuilder builder;
+        // the names of the pending starts, null for array elements
+        private final List<String> names = new ArrayList<>();
+        private final List<Boolean> arrays = new ArrayList<>();
+
+        DeferredStarts(XContentBuilder builder) {
+            this.builder = builder;
+        }
+
+        int startObject(String name) {
+            return start(name, false);
+        }
+
+        int startArray(String name) {
+            return start(name, true);
+        }
+
+        private int start(String name, boolean array) {
+            names.add(name);
+            arrays.add(array);
+            return names.size() - 1;
+        }
+
+        /**
+         * Writes the pending starts, which is required before writing anything to the builder.
+         */
+        void writeStarts() throws IOException {
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                if (arrays.get(i)) {
+                    if (name == null) {
+                        builder.startArray();
+                    } else {
+                        builder.startArray(name);
+                    }
+                } else {
+                    if (name == null) {
+                        builder.startObject();
+                    } else {
+                        builder.startObject(name);
+                    }
+                }
+            }
+            names.clear();
+            arrays.clear();
+        }
+
+        void endObject(int level) throws IOException {
+            if (end(level)) {
+                builder.endObject();
+            }
+        }
+
+        void endArray(int level) throws IOException {
+            if (end(level)) {
+                builder.endArray();
+            }
+        }
+
+        /**
+         * @return whether the start at the given level has been written, otherwise it is dropped
+         */
+        private boolean end(int level) {
+            if (names.size() > level) {
+                assert names.size() == level + 1;
+                names.remove(level);
+                arrays.remove(level);
+                return false;
+            }
+            return true;
+        }
+    }
+
     public static boolean isObject(Object node) {
         return node instanceof Map;
     }
@@ -0,0 +1,153 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index;
+
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSelector;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.SortedSetSelector;
+import org.apache.lucene.search.SortedSetSortField;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.core.DateFieldMapper;
+import org.elasticsearch.index.mapper.core.KeywordFieldMapper;
+import org.elasticsearch.index.mapper.core.NumberFieldMapper;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortMode;
+import org.elasticsearch.search.sort.SortOrder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Holds the settings that sort the documents of the segments of a shard. Segments are sorted when they get merged, so that
+ * searches whose sort is a prefix of the index sort can stop collecting the documents of a sorted segment once they have
+ * enough hits. The index sort is defined by the following settings, which are not dynamic:
+ * <ul>
+ *     <li><code>index.sort.field</code>: the fields to sort on, which must be numeric, date or keyword fields with doc values</li>
+ *     <li><code>index.sort.order</code>: the order of each field, either <code>asc</code> or <code>desc</code>, defaults to
+ *     <code>asc</code> for all fields</li>
+ * </ul>
+ * Like the <code>sort</code> of a search request, fields with several values are sorted by their minimum value in ascending
+ * order and by their maximum value in descending order, and documents without a value come last.
+ */
+public final class IndexSortConfig {
+
+    public static final Setting<List<String>> INDEX_SORT_FIELD_SETTING =
+        Setting.listSetting("index.sort.field", Collections.emptyList(), Function.identity(), Property.IndexScope);
+
+    public static final Setting<List<SortOrder>> INDEX_SORT_ORDER_SETTING =
+        Setting.listSetting("index.sort.order", Collections.emptyList(), SortOrder::fromString, Property.IndexScope);
+
+    private final List<String> fields;
+    private final List<SortOrder> orders;
+
+    IndexSortConfig(IndexSettings indexSettings) {
+        this.fields = indexSettings.getValue(INDEX_SORT_FIELD_SETTING);
+        List<SortOrder> orders = indexSettings.getValue(INDEX_SORT_ORDER_SETTING);
+        if (orders.isEmpty()) {
+            orders = Collections.nCopies(fields.size(), SortOrder.ASC);
+        } else if (orders.size() != fields.size()) {
+            throw new IllegalArgumentException("index.sort.field:" + fields + " index.sort.order:" + orders
+                + ", size mismatch");
+        }
+        this.orders = orders;
+    }
+
+    /**
+     * @return whether the segments of the index are sorted
+     */
+    public boolean hasIndexSort() {
+        return fields.isEmpty() == false;
+    }
+
+    /**
+     * Builds the sort of the segments of the index.
+     *
+     * @param fieldTypeLookup resolves the field type of a field by its full name, or returns <code>null</code> if the field
+     *                        is not mapped
+     * @return the sort of the segments, or <code>null</code> if the index is not sorted
+     * @throws IllegalArgumentException if a sort field is not mapped or cannot be sorted on
+     */
+    public Sort buildIndexSort(Function<String, MappedFieldType> fieldTypeLookup) {
+        if (hasIndexSort() == false) {
+            return null;
+        }
+        SortField[] sortFields = new SortField[fields.size()];
+        for (int i = 0; i < sortFields.length; i++) {
+            final String field = fields.get(i);
+            final boolean reverse = orders.get(i) == SortOrder.DESC;
+            final MappedFieldType fieldType = fieldTypeLookup.apply(field);
+            if (fieldType == null) {
+                throw new IllegalArgumentException("unknown index sort field:[" + field + "]");
+            }
+            if (fieldType.hasDocValues() == false) {
+                throw new IllegalArgumentException("docvalues not found for index sort field:[" + field + "]");
+            }
+            if (fieldType instanceof NumberFieldMapper.NumberFieldType || fieldType instanceof DateFieldMapper.DateFieldType) {
+                // floating point values are indexed as sortable longs, so all numbers sort correctly as longs
+                SortedNumericSortField sortField = new SortedNumericSortField(field, SortField.Type.LONG, reverse,
+                    reverse ? SortedNumericSelector.Type.MAX : SortedNumericSelector.Type.MIN);
+                sortField.setMissingValue(reverse ? Long.MIN_VALUE : Long.MAX_VALUE);
+                sortFields[i] = sortField;
+            } else if (fieldType instanceof KeywordFieldMapper.KeywordFieldType) {
+                SortedSetSortField sortField = new SortedSetSortField(field, reverse,
+                    reverse ? SortedSetSelector.Type.MAX : SortedSetSelector.Type.MIN);
+                sortField.setMissingValue(reverse ? SortField.STRING_FIRST : SortField.STRING_LAST);
+                sortFields[i] = sortField;
+            } else {
+                throw new IllegalArgumentException("invalid index sort field:[" + field + "] of type [" + fieldType.typeName()
+                    + "], only numeric, date and keyword fields are supported");
+            }
+        }
+        return new Sort(sortFields);
+    }
+
+    /**
+     * Returns whether the documents of a sorted segment are in the order of the given search sort, which is the case if the
+     * search sort is a prefix of the index sort with the default mode and missing values.
+     */
+    public boolean isPrefixOfIndexSort(List<SortBuilder<?>> sorts) {
+        if (sorts == null || sorts.isEmpty() || sorts.size() > fields.size()) {
+            return false;
+        }
+        for (int i = 0; i < sorts.size(); i++) {
+            if (sorts.get(i) instanceof FieldSortBuilder == false) {
+                return false;
+            }
+            final FieldSortBuilder sort = (FieldSortBuilder) sorts.get(i);
+            final SortOrder order = orders.get(i);
+            final SortMode defaultMode = order == SortOrder.DESC ? SortMode.MAX : SortMode.MIN;
+            if (fields.get(i).equals(sort.getFieldName()) == false
+                || sort.order() != order
+                || (sort.sortMode() != null && sort.sortMode() != defaultMode)
+                || (sort.missing() != null && "_last".equals(sort.missing()) == false)
+                || sort.getNestedPath() != null
+                || sort.getNestedFilter() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.lucene.store.IOContext;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.Accountables;
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.common.Base64;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.bytes.BytesReference;
@@ -834,10 +835,20 @@ public abstract class Engine implements Closeable {
     public static class Index extends Operation {
 
         private final ParsedDocument doc;
+        private final long autoGeneratedIdTimestamp;
+        private final boolean isRetry;
+        private boolean appendOnly;
 
-        public Index(Term uid, ParsedDocument doc, long version, VersionType versionType, Origin origin, long startTime) {
+        public Index(Term uid, ParsedDocument doc, long version, VersionType versionType, Origin origin, long startTime,
+                     long autoGeneratedIdTimestamp, boolean isRetry) {
             super(uid, version, versionType, origin, startTime);
             this.doc = doc;
+            this.autoGeneratedIdTimestamp = autoGeneratedIdTimestamp;
+            this.isRetry = isRetry;
+        }
+
+        public Index(Term uid, ParsedDocument doc, long version, VersionType versionType, Origin origin, long startTime) {
+            this(uid, doc, version, versionType, origin, startTime, IndexRequest.UNSET_AUTO_GENERATED_TIMESTAMP, false);
         }
 
         public Index(Term uid, ParsedDocument doc) {
@@ -889,6 +900,32 @@ public abstract class Engine implements Closeable {
         public BytesReference source() {
             return this.doc.source();
         }
+
+        /**
+         * Returns the timestamp at which the id of the document was generated, or
+         * {@link IndexRequest#UNSET_AUTO_GENERATED_TIMESTAMP} if the id was provided by the user.
+         */
+        public long getAutoGeneratedIdTimestamp() {
+            return autoGeneratedIdTimestamp;
+        }
+
+        /**
+         * Returns <code>true</code> if this operation may have been executed already by a previous attempt of the same request.
+         */
+        public boolean isRetry() {
+            return isRetry;
+        }
+
+        /**
+         * Returns <code>true</code> if the engine appended the document without looking up its current version.
+         */
+        public boolean isAppendOnly() {
+            return appendOnly;
+        }
+
+        void setAppendOnly(boolean appendOnly) {
+            this.appendOnly = appendOnly;
+        }
     }
 
     public static class Delete extends Operation {
@@ -41,6 +41,7 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.InfoStream;
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.logging.ESLogger;
@@ -50,8 +51,9 @@ import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
 import org.elasticsearch.common.lucene.uid.Versions;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
-import org.elasticsearch.common.util.concurrent.KeyedLock;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.ReleasableLock;
+import org.elasticsearch.common.util.concurrent.StripedLock;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.mapper.Uid;
 import org.elasticsearch.index.merge.MergeStats;
@@ -72,6 +74,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
@@ -100,10 +103,21 @@ public class InternalEngine extends Engine {
     // we use the hashed variant since we iterate over it and check removal and additions on existing keys
     private final LiveVersionMap versionMap;
 
-    private final KeyedLock<BytesRef> keyedLock = new KeyedLock<>();
+    // Guards the version map entry of a uid; striped so that indexing threads do not contend on a shared map of locks:
+    private static final int UID_LOCK_STRIPES_PER_PROCESSOR = 8;
+    private final StripedLock<BytesRef> uidLock;
 
     private final AtomicBoolean versionMapRefreshPending = new AtomicBoolean();
 
+    // The highest auto-generated id timestamp seen on a retried request. Documents with an auto-generated id whose timestamp is
+    // not above this value might already be in the index, so they have to go through the regular version lookup:
+    private final AtomicLong maxUnsafeAutoIdTimestamp = new AtomicLong(IndexRequest.UNSET_AUTO_GENERATED_TIMESTAMP);
+
+    // Set while the operations of the translog are replayed on opening the engine. Replayed operations are already stored in the
+    // translog generations that are being replayed, which are only trimmed by the flush at the end of the replay, so they don't
+    // have to be appended to the translog a second time:
+    private volatile boolean replayingTranslog;
+
     private volatile SegmentInfos lastCommittedSegmentInfos;
 
     private final IndexThrottle throttle;
@@ -119,6 +133,8 @@ public class InternalEngine extends Engine {
         super(engineConfig);
         openMode = engineConfig.getOpenMode();
         this.versionMap = new LiveVersionMap();
+        this.uidLock = new StripedLock<>(UID_LOCK_STRIPES_PER_PROCESSOR *
+            EsExecutors.boundedNumberOfProcessors(engineConfig.getIndexSettings().getNodeSettings()));
         store.incRef();
         IndexWriter writer = null;
         Translog translog = null;
@@ -194,11 +210,13 @@ public class InternalEngine extends Engine {
     private void recoverFromTranslog(TranslogRecoveryPerformer handler) throws IOException {
         Translog.TranslogGeneration translogGeneration = translog.getGeneration();
         final int opsRecovered;
-        try {
-            Translog.Snapshot snapshot = translog.newSnapshot();
+        replayingTranslog = true;
+        try (Translog.Snapshot snapshot = translog.newMappedSnapshot()) {
             opsRecovered = handler.recoveryFromSnapshot(this, snapshot);
         } catch (Throwable e) {
             throw new EngineException(shardId, "failed to recover from translog", e);
+        } finally {
+            replayingTranslog = false;
         }
         // flush if we recovered something or if we have references to older translogs
         // note: if opsRecovered == 0 and we have older translogs it means they are corrupted or 0 length.
@@ -319,9 +337,12 @@ public class InternalEngine extends Engine {
                         throw new VersionConflictEngineException(shardId, uid.type(), uid.id(),
                                 get.versionType().explainConflictForReads(versionValue.version(), get.version()));
                     }
-                    Translog.Operation op = translog.read(versionValue.translogLocation());
-                    if (op != null) {
-                        return new GetResult(true, versionValue.version(), op.getSource());
+                    // operations replayed from the translog on opening the engine have no location
+                    if (versionValue.translogLocation() != null) {
+                        Translog.Operation op = translog.read(versionValue.translogLocation());
+                        if (op != null) {
+                            return new GetResult(true, versionValue.version(), op.getSource());
+                        }
                     }
                 }
             }
@@ -356,8 +377,14 @@ public class InternalEngine extends Engine {
             lastWriteNanos = index.startTime();
             final long currentVersion;
             final boolean deleted;
-            VersionValue versionValue = versionMap.getUnderLock(index.uid().bytes());
-            if (versionValue == null) {
+            final VersionValue versionValue;
+            if (canOptimizeAddDocument(index)) {
+                // the id was generated for this very request and was never handed out before, so the document can't exist yet
+                versionValue = null;
+                currentVersion = Versions.NOT_FOUND;
+                deleted = true;
+                index.setAppendOnly(true);
+            } else if ((versionValue = versionMap.getUnderLock(index.uid().bytes())) == null) {
                 currentVersion = loadCurrentVersionFromIndex(index.uid());
                 deleted = currentVersion == Versions.NOT_FOUND;
             } else {
@@ -389,7 +416,7 @@ public class InternalEngine extends Engine {
             } else {
                 created = update(index, versionValue, indexWriter);
             }
-            Translog.Location translogLocation = translog.add(new Translog.Index(index));
+            final Translog.Location translogLocation = appendToTranslog(index) ? translog.add(new Translog.Index(index)) : null;
 
             versionMap.putUnderLock(index.uid().bytes(), new VersionValue(updatedVersion, translogLocation));
             index.setTranslogLocation(translogLocation);
@@ -397,6 +424,36 @@ public class InternalEngine extends Engine {
         }
     }
 
+    /**
+     * Returns <code>true</code> if the document of the given operation can be added to the index without looking up its current
+     * version. This is only the case for documents with an auto-generated id that arrive on the primary and can't have been indexed
+     * by a previous attempt of the same request. Replicas and recovery always look up the version since the same operation may be
+     * replayed from the translog or received twice during a relocation.
+     */
+    private boolean canOptimizeAddDocument(Index index) {
+        final long autoGeneratedIdTimestamp = index.getAutoGeneratedIdTimestamp();
+        if (autoGeneratedIdTimestamp == IndexRequest.UNSET_AUTO_GENERATED_TIMESTAMP) {
+            return false;
+        }
+        if (index.isRetry()) {
+            // a previous attempt might have made it into the index; every document with an id generated up to this point in
+            // time is now potentially a duplicate
+            maxUnsafeAutoIdTimestamp.accumulateAndGet(autoGeneratedIdTimestamp, Math::max);
+            return false;
+        }
+        return index.origin() == Operation.Origin.PRIMARY
+            && autoGeneratedIdTimestamp > maxUnsafeAutoIdTimestamp.get()
+            && isVersionConflictForWrites(index, Versions.NOT_FOUND, true, index.version()) == false;
+    }
+
+    /**
+     * Returns <code>false</code> if the given operation is replayed from the translog while opening the engine. All replayed
+     * operations are made durable at once by the flush that ends the replay.
+     */
+    private boolean appendToTranslog(Operation operation) {
+        return replayingTranslog == false || operation.origin() != Operation.Origin.RECOVERY;
+    }
+
     private static boolean update(Index index, VersionValue versionValue, IndexWriter indexWriter) throws IOException {
         boolean created;
         if (versionValue != null) {
@@ -489,7 +546,7 @@ public class InternalEngine extends Engine {
             }
 
             delete.updateVersion(updatedVersion, found);
-            Translog.Location translogLocation = translog.add(new Translog.Delete(delete));
+            final Translog.Location translogLocation = appendToTranslog(delete) ? translog.add(new Translog.Delete(delete)) : null;
             versionMap.putUnderLock(delete.uid().bytes(), new DeleteVersionValue(updatedVersion, engineConfig.getThreadPool().estimatedTimeInMillis(), translogLocation));
             delete.setTranslogLocation(translogLocation);
         }
@@ -905,7 +962,7 @@ public class InternalEngine extends Engine {
     }
 
     private Releasable acquireLock(BytesRef uid) {
-        return keyedLock.acquire(uid);
+        return uidLock.acquire(uid);
     }
 
     private Releasable acquireLock(Term uid) {
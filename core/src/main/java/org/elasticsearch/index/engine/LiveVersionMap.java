@@ -30,6 +30,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /** Maps _uid value to its version information. */
 class LiveVersionMap implements ReferenceManager.RefreshListener, Accountable {
@@ -80,8 +81,9 @@ class LiveVersionMap implements ReferenceManager.RefreshListener, Accountable {
         5*RamUsageEstimator.NUM_BYTES_OBJECT_REF;
 
     /** Tracks bytes used by current map, i.e. what is freed on refresh. For deletes, which are also added to tombstones, we only account
-     *  for the CHM entry here, and account for BytesRef/VersionValue against the tombstones, since refresh would not clear this RAM. */
-    final AtomicLong ramBytesUsedCurrent = new AtomicLong();
+     *  for the CHM entry here, and account for BytesRef/VersionValue against the tombstones, since refresh would not clear this RAM.
+     *  This is updated by every index operation, so we use a LongAdder to keep concurrent indexing threads from contending on it. */
+    final LongAdder ramBytesUsedCurrent = new LongAdder();
 
     /** Tracks bytes used by tombstones (deletes) */
     final AtomicLong ramBytesUsedTombstones = new AtomicLong();
@@ -111,7 +113,7 @@ class LiveVersionMap implements ReferenceManager.RefreshListener, Accountable {
 
         // This is not 100% correct, since concurrent indexing ops can change these counters in between our execution of the previous
         // line and this one, but that should be minor, and the error won't accumulate over time:
-        ramBytesUsedCurrent.set(0);
+        ramBytesUsedCurrent.reset();
     }
 
     @Override
@@ -149,21 +151,19 @@ class LiveVersionMap implements ReferenceManager.RefreshListener, Accountable {
         long uidRAMBytesUsed = BASE_BYTES_PER_BYTESREF + uid.bytes.length;
 
         final VersionValue prev = maps.current.put(uid, version);
+
+        // Add RAM for the new version and deduct RAM for the version we just replaced, in a single update:
+        long deltaBytes = BASE_BYTES_PER_CHM_ENTRY;
+        if (version.delete() == false) {
+            deltaBytes += version.ramBytesUsed() + uidRAMBytesUsed;
+        }
         if (prev != null) {
-            // Deduct RAM for the version we just replaced:
-            long prevBytes = BASE_BYTES_PER_CHM_ENTRY;
+            deltaBytes -= BASE_BYTES_PER_CHM_ENTRY;
             if (prev.delete() == false) {
-                prevBytes += prev.ramBytesUsed() + uidRAMBytesUsed;
+                deltaBytes -= prev.ramBytesUsed() + uidRAMBytesUsed;
             }
-            ramBytesUsedCurrent.addAndGet(-prevBytes);
-        }
-
-        // Add RAM for the new version:
-        long newBytes = BASE_BYTES_PER_CHM_ENTRY;
-        if (version.delete() == false) {
-            newBytes += version.ramBytesUsed() + uidRAMBytesUsed;
         }
-        ramBytesUsedCurrent.addAndGet(newBytes);
+        ramBytesUsedCurrent.add(deltaBytes);
 
         final VersionValue prevTombstone;
         if (version.delete()) {
@@ -178,7 +178,7 @@ class LiveVersionMap implements ReferenceManager.RefreshListener, Accountable {
             if (prevTombstone == null && prev != null && prev.delete()) {
                 // If prev was a delete that had already been removed from tombstones, then current was already accounting for the
                 // BytesRef/VersionValue RAM, so we now deduct that as well:
-                ramBytesUsedCurrent.addAndGet(-(prev.ramBytesUsed() + uidRAMBytesUsed));
+                ramBytesUsedCurrent.add(-(prev.ramBytesUsed() + uidRAMBytesUsed));
             }
         } else {
             // UID came back to life so we remove the tombstone:
@@ -208,7 +208,7 @@ class LiveVersionMap implements ReferenceManager.RefreshListener, Accountable {
             // We now shift accounting of the BytesRef from tombstones to current, because a refresh would clear this RAM.  This should be
             // uncommon, because with the default refresh=1s and gc_deletes=60s, deletes should be cleared from current long before we drop
             // them from tombstones:
-            ramBytesUsedCurrent.addAndGet(curVersion.ramBytesUsed() + uidRAMBytesUsed);
+            ramBytesUsedCurrent.add(curVersion.ramBytesUsed() + uidRAMBytesUsed);
         }
     }
 
@@ -226,7 +226,7 @@ class LiveVersionMap implements ReferenceManager.RefreshListener, Accountable {
     synchronized void clear() {
         maps = new Maps();
         tombstones.clear();
-        ramBytesUsedCurrent.set(0);
+        ramBytesUsedCurrent.reset();
 
         // NOTE: we can't zero this here, because a refresh thread could be calling InternalEngine.pruneDeletedTombstones at the same time,
         // and this will lead to an assert trip.  Presumably it's fine if our ramBytesUsedTombstones is non-zero after clear since the index
@@ -241,13 +241,13 @@ class LiveVersionMap implements ReferenceManager.RefreshListener, Accountable {
 
     @Override
     public long ramBytesUsed() {
-        return ramBytesUsedCurrent.get() + ramBytesUsedTombstones.get();
+        return ramBytesUsedCurrent.sum() + ramBytesUsedTombstones.get();
     }
 
     /** Returns how much RAM would be freed up by refreshing. This is {@link ramBytesUsed} except does not include tombstones because they
      *  don't clear on refresh. */
     long ramBytesUsedForRefresh() {
-        return ramBytesUsedCurrent.get();
+        return ramBytesUsedCurrent.sum();
     }
 
     @Override
@@ -270,6 +270,7 @@ public class MapperService extends AbstractIndexComponent {
             checkTotalFieldsLimit(objectMappers.size() + fieldMappers.size());
             checkDepthLimit(fullPathObjectMappers.keySet());
             checkPercolatorFieldLimit(fieldTypes);
+            checkNestedFieldsWithIndexSort(hasNested);
         }
 
         Set<String> parentTypes = this.parentTypes;
@@ -404,6 +405,13 @@ public class MapperService extends AbstractIndexComponent {
         }
     }
 
+    private void checkNestedFieldsWithIndexSort(boolean hasNested) {
+        // sorting segments would tear the nested documents apart from their parent document
+        if (hasNested && indexSettings.getIndexSortConfig().hasIndexSort()) {
+            throw new IllegalArgumentException("cannot have nested fields when index sort is activated");
+        }
+    }
+
     private void checkTotalFieldsLimit(long totalMappers) {
         long allowedTotalFields = indexSettings.getValue(INDEX_MAPPING_TOTAL_FIELDS_LIMIT_SETTING);
         if (allowedTotalFields < totalMappers) {
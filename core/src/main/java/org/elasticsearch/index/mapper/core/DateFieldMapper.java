@@ -305,7 +305,7 @@ public class DateFieldMapper extends FieldMapper implements AllFieldMapper.Inclu
         }
 
         long parse(String value) {
-            return dateTimeFormatter().parser().parseMillis(value);
+            return dateTimeFormatter().parseMillis(value);
         }
 
         @Override
@@ -37,6 +37,7 @@ import org.apache.lucene.util.NumericUtils;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.fieldstats.FieldStats;
 import org.elasticsearch.common.Explicit;
+import org.elasticsearch.common.joda.DateMathParser;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
@@ -775,6 +776,32 @@ public class NumberFieldMapper extends FieldMapper implements AllFieldMapper.Inc
             return type.stats(reader, name(), isSearchable(), isAggregatable());
         }
 
+        @Override
+        public Relation isFieldWithinQuery(IndexReader reader, Object from, Object to, boolean includeLower, boolean includeUpper,
+                                           DateTimeZone timeZone, DateMathParser dateMathParser) throws IOException {
+            if (isSearchable() == false) {
+                // let the range query fail
+                return Relation.INTERSECTS;
+            }
+            if (XPointValues.size(reader, name()) == 0) {
+                // no points, so nothing matches
+                return Relation.DISJOINT;
+            }
+            FieldStats<? extends Number> stats = type.stats(reader, name(), isSearchable(), isAggregatable());
+            // large longs lose precision as doubles, so this only tells apart ranges that lie entirely outside of the values
+            double minValue = stats.getMinValue().doubleValue();
+            double maxValue = stats.getMaxValue().doubleValue();
+            try {
+                if ((from != null && maxValue < type.parse(from).doubleValue())
+                        || (to != null && minValue > type.parse(to).doubleValue())) {
+                    return Relation.DISJOINT;
+                }
+            } catch (IllegalArgumentException e) {
+                // the range query reports bounds that cannot be parsed
+            }
+            return Relation.INTERSECTS;
+        }
+
         @Override
         public IndexFieldData.Builder fielddataBuilder() {
             failIfNoDocValues();
@@ -485,6 +485,11 @@ public class BoolQueryBuilder extends AbstractQueryBuilder<BoolQueryBuilder> {
         changed |= rewriteClauses(queryRewriteContext, filterClauses, newBuilder::filter);
         changed |= rewriteClauses(queryRewriteContext, shouldClauses, newBuilder::should);
 
+        // a required clause that cannot match, like a range outside of the values of the shard, means that nothing matches
+        if (containsMatchNone(newBuilder.must()) || containsMatchNone(newBuilder.filter())) {
+            return new MatchNoneQueryBuilder();
+        }
+
         if (changed) {
             newBuilder.adjustPureNegative = adjustPureNegative;
             newBuilder.disableCoord = disableCoord;
@@ -507,6 +512,15 @@ public class BoolQueryBuilder extends AbstractQueryBuilder<BoolQueryBuilder> {
         }
     }
 
+    private static boolean containsMatchNone(List<QueryBuilder<?>> clauses) {
+        for (QueryBuilder<?> clause : clauses) {
+            if (clause instanceof MatchNoneQueryBuilder) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static boolean rewriteClauses(QueryRewriteContext queryRewriteContext, List<QueryBuilder<?>> builders,
                                           Consumer<QueryBuilder<?>> consumer) throws IOException {
         boolean changed = false;
@@ -46,12 +46,13 @@ public class IndexingStats implements Streamable, ToXContent {
         private long deleteTimeInMillis;
         private long deleteCurrent;
         private long noopUpdateCount;
+        private long appendOnlyCount;
         private long throttleTimeInMillis;
         private boolean isThrottled;
 
         Stats() {}
 
-        public Stats(long indexCount, long indexTimeInMillis, long indexCurrent, long indexFailedCount, long deleteCount, long deleteTimeInMillis, long deleteCurrent, long noopUpdateCount, boolean isThrottled, long throttleTimeInMillis) {
+        public Stats(long indexCount, long indexTimeInMillis, long indexCurrent, long indexFailedCount, long deleteCount, long deleteTimeInMillis, long deleteCurrent, long noopUpdateCount, long appendOnlyCount, boolean isThrottled, long throttleTimeInMillis) {
             this.indexCount = indexCount;
             this.indexTimeInMillis = indexTimeInMillis;
             this.indexCurrent = indexCurrent;
@@ -60,6 +61,7 @@ public class IndexingStats implements Streamable, ToXContent {
             this.deleteTimeInMillis = deleteTimeInMillis;
             this.deleteCurrent = deleteCurrent;
             this.noopUpdateCount = noopUpdateCount;
+            this.appendOnlyCount = appendOnlyCount;
             this.isThrottled = isThrottled;
             this.throttleTimeInMillis = throttleTimeInMillis;
         }
@@ -75,6 +77,7 @@ public class IndexingStats implements Streamable, ToXContent {
             deleteCurrent += stats.deleteCurrent;
 
             noopUpdateCount += stats.noopUpdateCount;
+            appendOnlyCount += stats.appendOnlyCount;
             throttleTimeInMillis += stats.throttleTimeInMillis;
             if (isThrottled != stats.isThrottled) {
                 isThrottled = true; //When combining if one is throttled set result to throttled.
@@ -134,6 +137,13 @@ public class IndexingStats implements Streamable, ToXContent {
             return noopUpdateCount;
         }
 
+        /**
+         * Returns the number of documents with auto-generated ids that were appended without looking up their current version
+         */
+        public long getAppendOnlyCount() {
+            return appendOnlyCount;
+        }
+
         public static Stats readStats(StreamInput in) throws IOException {
             Stats stats = new Stats();
             stats.readFrom(in);
@@ -154,6 +164,7 @@ public class IndexingStats implements Streamable, ToXContent {
             deleteTimeInMillis = in.readVLong();
             deleteCurrent = in.readVLong();
             noopUpdateCount = in.readVLong();
+            appendOnlyCount = in.readVLong();
             isThrottled = in.readBoolean();
             throttleTimeInMillis = in.readLong();
         }
@@ -172,6 +183,7 @@ public class IndexingStats implements Streamable, ToXContent {
             out.writeVLong(deleteTimeInMillis);
             out.writeVLong(deleteCurrent);
             out.writeVLong(noopUpdateCount);
+            out.writeVLong(appendOnlyCount);
             out.writeBoolean(isThrottled);
             out.writeLong(throttleTimeInMillis);
 
@@ -189,6 +201,7 @@ public class IndexingStats implements Streamable, ToXContent {
             builder.field(Fields.DELETE_CURRENT, deleteCurrent);
 
             builder.field(Fields.NOOP_UPDATE_TOTAL, noopUpdateCount);
+            builder.field(Fields.APPEND_ONLY_TOTAL, appendOnlyCount);
 
             builder.field(Fields.IS_THROTTLED, isThrottled);
             builder.timeValueField(Fields.THROTTLED_TIME_IN_MILLIS, Fields.THROTTLED_TIME, throttleTimeInMillis);
@@ -280,6 +293,7 @@ public class IndexingStats implements Streamable, ToXContent {
         static final String DELETE_TIME_IN_MILLIS = "delete_time_in_millis";
         static final String DELETE_CURRENT = "delete_current";
         static final String NOOP_UPDATE_TOTAL = "noop_update_total";
+        static final String APPEND_ONLY_TOTAL = "append_only_total";
         static final String IS_THROTTLED = "is_throttled";
         static final String THROTTLED_TIME_IN_MILLIS = "throttle_time_in_millis";
         static final String THROTTLED_TIME = "throttle_time";
@@ -82,6 +82,10 @@ final class InternalIndexingStats implements IndexingOperationListener {
             StatsHolder typeStats = typeStats(index.type());
             typeStats.indexMetric.inc(took);
             typeStats.indexCurrent.dec();
+            if (index.isAppendOnly()) {
+                totalStats.appendOnly.inc();
+                typeStats.appendOnly.inc();
+            }
         }
     }
 
@@ -151,12 +155,13 @@ final class InternalIndexingStats implements IndexingOperationListener {
         private final CounterMetric indexFailed = new CounterMetric();
         private final CounterMetric deleteCurrent = new CounterMetric();
         private final CounterMetric noopUpdates = new CounterMetric();
+        private final CounterMetric appendOnly = new CounterMetric();
 
         IndexingStats.Stats stats(boolean isThrottled, long currentThrottleMillis) {
             return new IndexingStats.Stats(
                 indexMetric.count(), TimeUnit.NANOSECONDS.toMillis(indexMetric.sum()), indexCurrent.count(), indexFailed.count(),
                 deleteMetric.count(), TimeUnit.NANOSECONDS.toMillis(deleteMetric.sum()), deleteCurrent.count(),
-                noopUpdates.count(), isThrottled, TimeUnit.MILLISECONDS.toMillis(currentThrottleMillis));
+                noopUpdates.count(), appendOnly.count(), isThrottled, TimeUnit.MILLISECONDS.toMillis(currentThrottleMillis));
         }
 
         void clear() {
@@ -36,14 +36,20 @@ public abstract class BaseTranslogReader implements Comparable<BaseTranslogReade
     protected final FileChannel channel;
     protected final Path path;
     protected final long firstOperationOffset;
+    protected final boolean compressed;
 
     public BaseTranslogReader(long generation, FileChannel channel, Path path, long firstOperationOffset) {
+        this(generation, channel, path, firstOperationOffset, false);
+    }
+
+    public BaseTranslogReader(long generation, FileChannel channel, Path path, long firstOperationOffset, boolean compressed) {
         assert Translog.parseIdFromFileName(path) == generation : "generation mismatch. Path: " + Translog.parseIdFromFileName(path) + " but generation: " + generation;
 
         this.generation = generation;
         this.path = path;
         this.channel = channel;
         this.firstOperationOffset = firstOperationOffset;
+        this.compressed = compressed;
     }
 
     public long getGeneration() {
@@ -58,6 +64,13 @@ public abstract class BaseTranslogReader implements Comparable<BaseTranslogReade
         return firstOperationOffset;
     }
 
+    /**
+     * Returns <code>true</code> if the operations of this generation are stored in compressed frames.
+     */
+    public final boolean isCompressed() {
+        return compressed;
+    }
+
     public Translog.Operation read(Translog.Location location) throws IOException {
         assert location.generation == generation : "read location's translog generation [" + location.generation + "] is not [" + generation + "]";
         ByteBuffer buffer = ByteBuffer.allocate(location.size);
@@ -89,7 +102,7 @@ public abstract class BaseTranslogReader implements Comparable<BaseTranslogReade
     }
 
     public Translog.Snapshot newSnapshot() {
-        return new TranslogSnapshot(generation, channel, path, firstOperationOffset, sizeInBytes(), totalOperations());
+        return new TranslogSnapshot(generation, channel, path, firstOperationOffset, sizeInBytes(), totalOperations(), compressed);
     }
 
     /**
@@ -111,6 +124,9 @@ public abstract class BaseTranslogReader implements Comparable<BaseTranslogReade
     }
 
     protected Translog.Operation read(BufferedChecksumStreamInput inStream) throws IOException {
+        if (compressed) {
+            return Translog.readOperation(TranslogCompression.decompress(inStream));
+        }
         return Translog.readOperation(inStream);
     }
 
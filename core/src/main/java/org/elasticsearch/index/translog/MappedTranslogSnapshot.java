@@ -0,0 +1,167 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.translog;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.IOUtils;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.io.stream.StreamInput;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * A snapshot of a translog generation that is no longer written to, which reads the operations from a memory mapped
+ * {@link IndexInput} instead of issuing two reads on the file channel for every operation. Operations are only decoded once
+ * {@link #next()} is called. The mapping is released when the snapshot is closed.
+ */
+final class MappedTranslogSnapshot implements Translog.Snapshot {
+
+    private final TranslogReader reader;
+    private final IndexInput input;
+    private int readOperations;
+    private long position;
+
+    /**
+     * Maps the file of the given reader, the directory must be a memory mapping directory on the translog location.
+     */
+    MappedTranslogSnapshot(Directory directory, TranslogReader reader) throws IOException {
+        this.reader = reader;
+        this.input = directory.openInput(reader.path().getFileName().toString(), IOContext.READONCE);
+        this.position = reader.getFirstOperationOffset();
+    }
+
+    @Override
+    public int totalOperations() {
+        return reader.totalOperations();
+    }
+
+    @Override
+    public Translog.Operation next() throws IOException {
+        if (readOperations >= reader.totalOperations()) {
+            return null;
+        }
+        final long length = reader.sizeInBytes();
+        if (position + Integer.BYTES > length) {
+            throw new TruncatedTranslogException("reached premature end of file, translog is truncated",
+                new EOFException("read requested past EOF. pos [" + position + "] end: [" + length + "], path: [" + reader.path() + "]"));
+        }
+        input.seek(position);
+        // Add an extra 4 to account for the operation size integer itself
+        final int opSize = input.readInt() + Integer.BYTES;
+        if (opSize < Integer.BYTES || opSize > length - position) {
+            throw new TranslogCorruptedException("operation size is corrupted must be [0.." + (length - position) + "] but was: " + opSize);
+        }
+        input.seek(position);
+        final BufferedChecksumStreamInput in = new BufferedChecksumStreamInput(new OperationInput(input, opSize));
+        final Translog.Operation operation = reader.read(in);
+        position += opSize;
+        readOperations++;
+        return operation;
+    }
+
+    @Override
+    public void close() {
+        try {
+            IOUtils.close(input);
+        } catch (IOException e) {
+            throw new ElasticsearchException("failed to close memory mapped translog snapshot of " + reader.path(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MappedTranslogSnapshot{" +
+            "generation=" + reader.getGeneration() +
+            ", readOperations=" + readOperations +
+            ", position=" + position +
+            ", totalOperations=" + reader.totalOperations() +
+            '}';
+    }
+
+    /**
+     * Reads the bytes of a single operation straight from the mapped input, so that decoding the operation doesn't go
+     * through the copies and per byte bounds checks of the generic stream adapters.
+     */
+    private static final class OperationInput extends StreamInput {
+
+        private final IndexInput input;
+        private final long end;
+        private long mark;
+
+        OperationInput(IndexInput input, int length) {
+            this.input = input;
+            this.mark = input.getFilePointer();
+            this.end = mark + length;
+        }
+
+        private long remaining() {
+            return end - input.getFilePointer();
+        }
+
+        @Override
+        public byte readByte() throws IOException {
+            if (remaining() <= 0) {
+                throw new EOFException("read past the end of the operation");
+            }
+            return input.readByte();
+        }
+
+        @Override
+        public void readBytes(byte[] b, int offset, int len) throws IOException {
+            if (len > remaining()) {
+                throw new EOFException("read past the end of the operation");
+            }
+            input.readBytes(b, offset, len);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return remaining() <= 0 ? -1 : input.readByte() & 0xFF;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+            mark = input.getFilePointer();
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            input.seek(mark);
+        }
+
+        @Override
+        public void close() {
+            // the mapped input is owned by the snapshot
+        }
+    }
+}
@@ -19,6 +19,9 @@
 
 package org.elasticsearch.index.translog;
 
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.lease.Releasables;
+
 import java.io.IOException;
 import java.util.Arrays;
 
@@ -28,6 +31,7 @@ import java.util.Arrays;
 final class MultiSnapshot implements Translog.Snapshot {
 
     private final Translog.Snapshot[] translogs;
+    private final Releasable onClose;
     private final int totalOperations;
     private int index;
 
@@ -35,7 +39,15 @@ final class MultiSnapshot implements Translog.Snapshot {
      * Creates a new point in time snapshot of the given snapshots. Those snapshots are always iterated in-order.
      */
     MultiSnapshot(Translog.Snapshot[] translogs) {
+        this(translogs, () -> {});
+    }
+
+    /**
+     * Like {@link #MultiSnapshot(Translog.Snapshot[])}, the given releasable is released once the snapshots have been closed.
+     */
+    MultiSnapshot(Translog.Snapshot[] translogs, Releasable onClose) {
         this.translogs = translogs;
+        this.onClose = onClose;
         totalOperations = Arrays.stream(translogs).mapToInt(Translog.Snapshot::totalOperations).sum();
         index = 0;
     }
@@ -57,4 +69,13 @@ final class MultiSnapshot implements Translog.Snapshot {
         }
         return null;
     }
+
+    @Override
+    public void close() {
+        try {
+            Releasables.close(translogs);
+        } finally {
+            onClose.close();
+        }
+    }
 }
@@ -22,6 +22,7 @@ package org.elasticsearch.index.translog;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TwoPhaseCommit;
 import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.RamUsageEstimator;
@@ -34,8 +35,11 @@ import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.lucene.uid.Versions;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.metrics.MeanMetric;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.FutureUtils;
@@ -129,6 +133,9 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
     private final AtomicBoolean closed = new AtomicBoolean();
     private final TranslogConfig config;
     private final String translogUUID;
+    // sync metrics are shared by all writers of this translog so they survive generation rolls
+    private final CounterMetric syncRequests = new CounterMetric();
+    private final MeanMetric syncs = new MeanMetric();
 
     /**
      * Creates a new Translog instance. This method will create a new transaction log unless the given {@link TranslogConfig} has
@@ -378,7 +385,8 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
     TranslogWriter createWriter(long fileGeneration) throws IOException {
         TranslogWriter newFile;
         try {
-            newFile = TranslogWriter.create(shardId, translogUUID, fileGeneration, location.resolve(getFilename(fileGeneration)), getChannelFactory(), config.getBufferSize());
+            newFile = TranslogWriter.create(shardId, translogUUID, fileGeneration, location.resolve(getFilename(fileGeneration)), getChannelFactory(), config.getBufferSize(), syncRequests, syncs,
+                config.getIndexSettings().isTranslogCompress());
         } catch (IOException e) {
             throw new TranslogException(shardId, "failed to create new translog file", e);
         }
@@ -432,8 +440,10 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
             final ReleasablePagedBytesReference bytes = out.bytes();
             try (ReleasableLock lock = readLock.acquire()) {
                 ensureOpen();
-                Location location = current.add(bytes);
-                assert assertBytesAtLocation(location, bytes);
+                // the current generation can only change under the write lock, so it's safe to decide on the format here
+                final BytesReference toWrite = current.isCompressed() ? TranslogCompression.compress(bytes) : bytes;
+                Location location = current.add(toWrite);
+                assert assertBytesAtLocation(location, toWrite);
                 return location;
             }
         } catch (AlreadyClosedException | IOException ex) {
@@ -462,6 +472,38 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         return createSnapshot(Long.MIN_VALUE);
     }
 
+    /**
+     * Snapshots the current transaction log like {@link #newSnapshot()}, but reads the generations that are no longer written to
+     * through memory mapped files. This is cheaper than reading through the file channels if all operations are going to be read,
+     * like when the translog is replayed on recovery. Falls back to {@link #newSnapshot()} if the JVM doesn't allow to unmap
+     * files. The returned snapshot must be closed in order to release the mappings.
+     */
+    public Snapshot newMappedSnapshot() throws IOException {
+        if (MMapDirectory.UNMAP_SUPPORTED == false) {
+            return newSnapshot();
+        }
+        try (ReleasableLock ignored = readLock.acquire()) {
+            ensureOpen();
+            final MMapDirectory directory = new MMapDirectory(location);
+            final List<Snapshot> snapshots = new ArrayList<>(readers.size() + 1);
+            boolean success = false;
+            try {
+                for (TranslogReader reader : readers) {
+                    snapshots.add(new MappedTranslogSnapshot(directory, reader));
+                }
+                snapshots.add(current.newSnapshot());
+                success = true;
+            } finally {
+                if (success == false) {
+                    Releasables.closeWhileHandlingException(snapshots.toArray(new Snapshot[snapshots.size()]));
+                    IOUtils.closeWhileHandlingException(directory);
+                }
+            }
+            return new MultiSnapshot(snapshots.toArray(new Snapshot[snapshots.size()]),
+                () -> IOUtils.closeWhileHandlingException(directory));
+        }
+    }
+
     private Snapshot createSnapshot(long minGeneration) {
         try (ReleasableLock ignored = readLock.acquire()) {
             ensureOpen();
@@ -553,7 +595,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
     public TranslogStats stats() {
         // acquire lock to make the two numbers roughly consistent (no file change half way)
         try (ReleasableLock lock = readLock.acquire()) {
-            return new TranslogStats(totalOperations(), sizeInBytes());
+            return new TranslogStats(totalOperations(), sizeInBytes(), syncRequests.count(), syncs.count(), syncs.sum());
         }
     }
 
@@ -694,7 +736,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
     /**
      * A snapshot of the transaction log, allows to iterate over all the transaction log operations.
      */
-    public interface Snapshot {
+    public interface Snapshot extends Releasable {
 
         /**
          * The total number of operations in the translog.
@@ -706,6 +748,12 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
          */
         Translog.Operation next() throws IOException;
 
+        /**
+         * Releases the resources held by this snapshot, if any.
+         */
+        @Override
+        default void close() {
+        }
     }
 
     /**
@@ -1316,6 +1364,10 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         return current.getFirstOperationOffset();
     }
 
+    boolean isCurrentGenerationCompressed() { // for testing
+        return current.isCompressed();
+    }
+
     private void ensureOpen() {
         if (closed.get()) {
             throw new AlreadyClosedException("translog is already closed", current.getTragicException());
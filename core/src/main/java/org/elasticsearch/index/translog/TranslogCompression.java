@@ -0,0 +1,111 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.translog;
+
+import org.apache.lucene.codecs.compressing.CompressionMode;
+import org.apache.lucene.codecs.compressing.Compressor;
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.OutputStreamDataOutput;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Encodes translog operations into compressed frames and back. Translog generations written with
+ * {@link TranslogWriter#VERSION_COMPRESSED} hold one frame per operation, so that every operation can still be read on its own
+ * from its {@link Translog.Location}. A frame is laid out as follows:
+ * <ul>
+ *     <li>the size of the frame in bytes, not including the size itself</li>
+ *     <li>the size of the uncompressed operation, including its own checksum</li>
+ *     <li>the operation, compressed with LZ4</li>
+ *     <li>a checksum of the uncompressed size and the compressed bytes</li>
+ * </ul>
+ */
+final class TranslogCompression {
+
+    // compressors keep a hash table around and are not thread safe
+    private static final ThreadLocal<Compressor> COMPRESSORS = ThreadLocal.withInitial(CompressionMode.FAST::newCompressor);
+
+    private TranslogCompression() {}
+
+    /**
+     * Compresses a serialized operation, including its leading size, into a frame.
+     */
+    static BytesReference compress(BytesReference operation) throws IOException {
+        final BytesRef uncompressed = operation.slice(Integer.BYTES, operation.length() - Integer.BYTES).toBytesRef();
+        final BytesStreamOutput compressed = new BytesStreamOutput(uncompressed.length / 2);
+        COMPRESSORS.get().compress(uncompressed.bytes, uncompressed.offset, uncompressed.length, new OutputStreamDataOutput(compressed));
+
+        final BytesStreamOutput out = new BytesStreamOutput(compressed.size() + 3 * Integer.BYTES);
+        final BufferedChecksumStreamOutput checksumOut = new BufferedChecksumStreamOutput(out);
+        checksumOut.writeInt(compressed.size() + 2 * Integer.BYTES);
+        checksumOut.resetDigest(); // the frame size is not part of the checksum
+        checksumOut.writeInt(uncompressed.length);
+        compressed.bytes().writeTo(checksumOut);
+        checksumOut.writeInt((int) checksumOut.getChecksum());
+        return out.bytes();
+    }
+
+    /**
+     * Reads a frame from the given stream and returns a stream over the uncompressed operation, including its leading size,
+     * ready to be read by {@link Translog#readOperation(BufferedChecksumStreamInput)}.
+     */
+    static BufferedChecksumStreamInput decompress(BufferedChecksumStreamInput in) throws IOException {
+        try {
+            final int frameSize = in.readInt();
+            if (frameSize < 2 * Integer.BYTES) {
+                throw new TranslogCorruptedException("compressed operation size must be at least 8 but was: " + frameSize);
+            }
+            in.resetDigest(); // the frame size is not part of the checksum
+            final int uncompressedSize = in.readInt();
+            if (uncompressedSize < Integer.BYTES) {
+                throw new TranslogCorruptedException("operation size must be at least 4 but was: " + uncompressedSize);
+            }
+            final byte[] compressed = new byte[frameSize - 2 * Integer.BYTES];
+            in.readBytes(compressed, 0, compressed.length);
+            final int expectedChecksum = (int) in.getChecksum();
+            final int readChecksum = in.readInt();
+            if (readChecksum != expectedChecksum) {
+                throw new TranslogCorruptedException("compressed operation checksum mismatch, expected: 0x"
+                    + Integer.toHexString(expectedChecksum) + ", got: 0x" + Integer.toHexString(readChecksum));
+            }
+            final BytesRef uncompressed = new BytesRef();
+            CompressionMode.FAST.newDecompressor().decompress(new ByteArrayDataInput(compressed), uncompressedSize, 0,
+                uncompressedSize, uncompressed);
+            final byte[] operation = new byte[Integer.BYTES + uncompressedSize];
+            operation[0] = (byte) (uncompressedSize >>> 24);
+            operation[1] = (byte) (uncompressedSize >>> 16);
+            operation[2] = (byte) (uncompressedSize >>> 8);
+            operation[3] = (byte) uncompressedSize;
+            System.arraycopy(uncompressed.bytes, uncompressed.offset, operation, Integer.BYTES, uncompressedSize);
+            return new BufferedChecksumStreamInput(StreamInput.wrap(operation));
+        } catch (EOFException e) {
+            throw new TruncatedTranslogException("reached premature end of file, translog is truncated", e);
+        } catch (TranslogCorruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new TranslogCorruptedException("translog corruption while decompressing an operation", e);
+        }
+    }
+}
@@ -54,7 +54,12 @@ public class TranslogReader extends BaseTranslogReader implements Closeable {
      * at the end of the last operation in this snapshot.
      */
     public TranslogReader(long generation, FileChannel channel, Path path, long firstOperationOffset, long length, int totalOperations) {
-        super(generation, channel, path, firstOperationOffset);
+        this(generation, channel, path, firstOperationOffset, length, totalOperations, false);
+    }
+
+    public TranslogReader(long generation, FileChannel channel, Path path, long firstOperationOffset, long length, int totalOperations,
+                          boolean compressed) {
+        super(generation, channel, path, firstOperationOffset, compressed);
         this.length = length;
         this.totalOperations = totalOperations;
     }
@@ -101,6 +106,7 @@ public class TranslogReader extends BaseTranslogReader implements Closeable {
                     case TranslogWriter.VERSION_CHECKSUMS:
                         throw new IllegalStateException("pre-2.0 translog found [" + path + "]");
                     case TranslogWriter.VERSION_CHECKPOINTS:
+                    case TranslogWriter.VERSION_COMPRESSED:
                         assert path.getFileName().toString().endsWith(Translog.TRANSLOG_FILE_SUFFIX) : "new file ends with old suffix: " + path;
                         assert checkpoint.numOps >= 0 : "expected at least 0 operatin but got: " + checkpoint.numOps;
                         assert checkpoint.offset <= channel.size() : "checkpoint is inconsistent with channel length: " + channel.size() + " " + checkpoint;
@@ -115,7 +121,8 @@ public class TranslogReader extends BaseTranslogReader implements Closeable {
                         if (uuidBytes.bytesEquals(ref) == false) {
                             throw new TranslogCorruptedException("expected shard UUID [" + uuidBytes + "] but got: [" + ref + "] this translog file belongs to a different translog. path:" + path);
                         }
-                        return new TranslogReader(checkpoint.generation, channel, path, ref.length + CodecUtil.headerLength(TranslogWriter.TRANSLOG_CODEC) + Integer.BYTES, checkpoint.offset, checkpoint.numOps);
+                        return new TranslogReader(checkpoint.generation, channel, path, ref.length + CodecUtil.headerLength(TranslogWriter.TRANSLOG_CODEC) + Integer.BYTES, checkpoint.offset, checkpoint.numOps,
+                            version == TranslogWriter.VERSION_COMPRESSED);
                     default:
                         throw new TranslogCorruptedException("No known translog stream version: " + version + " path:" + path);
                 }
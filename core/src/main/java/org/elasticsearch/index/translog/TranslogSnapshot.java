@@ -41,7 +41,12 @@ public class TranslogSnapshot extends BaseTranslogReader implements Translog.Sna
      * at the end of the last operation in this snapshot.
      */
     public TranslogSnapshot(long generation, FileChannel channel, Path path, long firstOperationOffset, long length, int totalOperations) {
-        super(generation, channel, path, firstOperationOffset);
+        this(generation, channel, path, firstOperationOffset, length, totalOperations, false);
+    }
+
+    public TranslogSnapshot(long generation, FileChannel channel, Path path, long firstOperationOffset, long length, int totalOperations,
+                            boolean compressed) {
+        super(generation, channel, path, firstOperationOffset, compressed);
         this.length = length;
         this.totalOperations = totalOperations;
         this.reusableBuffer = ByteBuffer.allocate(1024);
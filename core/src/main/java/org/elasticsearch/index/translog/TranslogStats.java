@@ -22,9 +22,11 @@ import org.elasticsearch.action.support.ToXContentToBytes;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
@@ -33,11 +35,18 @@ public class TranslogStats extends ToXContentToBytes implements Streamable {
 
     private long translogSizeInBytes;
     private int numberOfOperations;
+    private long syncRequests;
+    private long syncCount;
+    private long syncTimeInMillis;
 
     public TranslogStats() {
     }
 
     public TranslogStats(int numberOfOperations, long translogSizeInBytes) {
+        this(numberOfOperations, translogSizeInBytes, 0, 0, 0);
+    }
+
+    public TranslogStats(int numberOfOperations, long translogSizeInBytes, long syncRequests, long syncCount, long syncTimeInNanos) {
         if (numberOfOperations < 0) {
             throw new IllegalArgumentException("numberOfOperations must be >= 0");
         }
@@ -47,6 +56,9 @@ public class TranslogStats extends ToXContentToBytes implements Streamable {
         assert translogSizeInBytes >= 0 : "translogSizeInBytes must be >= 0, got [" + translogSizeInBytes + "]";
         this.numberOfOperations = numberOfOperations;
         this.translogSizeInBytes = translogSizeInBytes;
+        this.syncRequests = syncRequests;
+        this.syncCount = syncCount;
+        this.syncTimeInMillis = TimeUnit.NANOSECONDS.toMillis(syncTimeInNanos);
     }
 
     public void add(TranslogStats translogStats) {
@@ -56,6 +68,9 @@ public class TranslogStats extends ToXContentToBytes implements Streamable {
 
         this.numberOfOperations += translogStats.numberOfOperations;
         this.translogSizeInBytes += translogStats.translogSizeInBytes;
+        this.syncRequests += translogStats.syncRequests;
+        this.syncCount += translogStats.syncCount;
+        this.syncTimeInMillis += translogStats.syncTimeInMillis;
     }
 
     public long getTranslogSizeInBytes() {
@@ -66,11 +81,38 @@ public class TranslogStats extends ToXContentToBytes implements Streamable {
         return numberOfOperations;
     }
 
+    /**
+     * The number of requests to sync the translog that found unsynced operations. Requests that are issued
+     * concurrently are grouped and served by a single fsync, so this is usually higher than {@link #getSyncCount()}.
+     */
+    public long getSyncRequests() {
+        return syncRequests;
+    }
+
+    /**
+     * The number of fsyncs that were actually performed on the translog.
+     */
+    public long getSyncCount() {
+        return syncCount;
+    }
+
+    /**
+     * The total time spent in translog fsyncs.
+     */
+    public TimeValue getSyncTime() {
+        return new TimeValue(syncTimeInMillis);
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(Fields.TRANSLOG);
         builder.field(Fields.OPERATIONS, numberOfOperations);
         builder.byteSizeField(Fields.SIZE_IN_BYTES, Fields.SIZE, translogSizeInBytes);
+        builder.startObject(Fields.SYNC);
+        builder.field(Fields.REQUESTS, syncRequests);
+        builder.field(Fields.TOTAL, syncCount);
+        builder.timeValueField(Fields.TOTAL_TIME_IN_MILLIS, Fields.TOTAL_TIME, syncTimeInMillis);
+        builder.endObject();
         builder.endObject();
         return builder;
     }
@@ -80,17 +122,28 @@ public class TranslogStats extends ToXContentToBytes implements Streamable {
         static final String OPERATIONS = "operations";
         static final String SIZE = "size";
         static final String SIZE_IN_BYTES = "size_in_bytes";
+        static final String SYNC = "sync";
+        static final String REQUESTS = "requests";
+        static final String TOTAL = "total";
+        static final String TOTAL_TIME = "total_time";
+        static final String TOTAL_TIME_IN_MILLIS = "total_time_in_millis";
     }
 
     @Override
     public void readFrom(StreamInput in) throws IOException {
         numberOfOperations = in.readVInt();
         translogSizeInBytes = in.readVLong();
+        syncRequests = in.readVLong();
+        syncCount = in.readVLong();
+        syncTimeInMillis = in.readVLong();
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeVInt(numberOfOperations);
         out.writeVLong(translogSizeInBytes);
+        out.writeVLong(syncRequests);
+        out.writeVLong(syncCount);
+        out.writeVLong(syncTimeInMillis);
     }
 }
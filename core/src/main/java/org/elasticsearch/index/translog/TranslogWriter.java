@@ -26,6 +26,8 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.IOUtils;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.Channels;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.metrics.MeanMetric;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.index.shard.ShardId;
 
@@ -45,6 +47,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
     public static final String TRANSLOG_CODEC = "translog";
     public static final int VERSION_CHECKSUMS = 1;
     public static final int VERSION_CHECKPOINTS = 2; // since 2.0 we have checkpoints?
+    public static final int VERSION_COMPRESSED = 3; // each operation is stored in a compressed frame, see TranslogCompression
     public static final int VERSION = VERSION_CHECKPOINTS;
 
     private final ShardId shardId;
@@ -58,13 +61,31 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
     private final OutputStream outputStream;
     /* the total offset of this file including the bytes written to the file as well as into the buffer */
     private volatile long totalOffset;
+    /* the number of sync requests that found unsynced data, including those that were satisfied by a concurrent sync */
+    private final CounterMetric syncRequests;
+    /* the number and duration of the fsyncs actually performed */
+    private final MeanMetric syncs;
+    /* held while syncing so that concurrent sync requests queue up behind a single fsync instead of issuing their own */
+    private final Object syncLock = new Object();
 
     protected final AtomicBoolean closed = new AtomicBoolean(false);
 
 
     public TranslogWriter(ShardId shardId, long generation, FileChannel channel, Path path, ByteSizeValue bufferSize) throws IOException {
-        super(generation, channel, path, channel.position());
+        this(shardId, generation, channel, path, bufferSize, new CounterMetric(), new MeanMetric());
+    }
+
+    public TranslogWriter(ShardId shardId, long generation, FileChannel channel, Path path, ByteSizeValue bufferSize,
+                          CounterMetric syncRequests, MeanMetric syncs) throws IOException {
+        this(shardId, generation, channel, path, bufferSize, syncRequests, syncs, false);
+    }
+
+    public TranslogWriter(ShardId shardId, long generation, FileChannel channel, Path path, ByteSizeValue bufferSize,
+                          CounterMetric syncRequests, MeanMetric syncs, boolean compressed) throws IOException {
+        super(generation, channel, path, channel.position(), compressed);
         this.shardId = shardId;
+        this.syncRequests = syncRequests;
+        this.syncs = syncs;
         this.outputStream = new BufferedChannelOutputStream(java.nio.channels.Channels.newOutputStream(channel), bufferSize.bytesAsInt());
         this.lastSyncedOffset = channel.position();
         totalOffset = lastSyncedOffset;
@@ -79,6 +100,21 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
     }
 
     public static TranslogWriter create(ShardId shardId, String translogUUID, long fileGeneration, Path file, ChannelFactory channelFactory, ByteSizeValue bufferSize) throws IOException {
+        return create(shardId, translogUUID, fileGeneration, file, channelFactory, bufferSize, new CounterMetric(), new MeanMetric());
+    }
+
+    public static TranslogWriter create(ShardId shardId, String translogUUID, long fileGeneration, Path file, ChannelFactory channelFactory,
+                                        ByteSizeValue bufferSize, CounterMetric syncRequests, MeanMetric syncs) throws IOException {
+        return create(shardId, translogUUID, fileGeneration, file, channelFactory, bufferSize, syncRequests, syncs, false);
+    }
+
+    /**
+     * Creates a new translog generation. If <code>compressed</code> is set, the caller must only add operations that were encoded
+     * with {@link TranslogCompression#compress(BytesReference)}.
+     */
+    public static TranslogWriter create(ShardId shardId, String translogUUID, long fileGeneration, Path file, ChannelFactory channelFactory,
+                                        ByteSizeValue bufferSize, CounterMetric syncRequests, MeanMetric syncs,
+                                        boolean compressed) throws IOException {
         final BytesRef ref = new BytesRef(translogUUID);
         final int headerLength = getHeaderLength(ref.length);
         final FileChannel channel = channelFactory.open(file);
@@ -86,12 +122,13 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
             // This OutputStreamDataOutput is intentionally not closed because
             // closing it will close the FileChannel
             final OutputStreamDataOutput out = new OutputStreamDataOutput(java.nio.channels.Channels.newOutputStream(channel));
-            CodecUtil.writeHeader(out, TRANSLOG_CODEC, VERSION);
+            CodecUtil.writeHeader(out, TRANSLOG_CODEC, compressed ? VERSION_COMPRESSED : VERSION);
             out.writeInt(ref.length);
             out.writeBytes(ref.bytes, ref.offset, ref.length);
             channel.force(true);
             writeCheckpoint(headerLength, 0, file.getParent(), fileGeneration, StandardOpenOption.WRITE);
-            final TranslogWriter writer = new TranslogWriter(shardId, fileGeneration, channel, file, bufferSize);
+            final TranslogWriter writer = new TranslogWriter(shardId, fileGeneration, channel, file, bufferSize, syncRequests, syncs,
+                compressed);
             return writer;
         } catch (Throwable throwable) {
             // if we fail to bake the file-generation into the checkpoint we stick with the file and once we recover and that
@@ -146,23 +183,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
      * raising the exception.
      */
     public void sync() throws IOException {
-        if (syncNeeded()) {
-            synchronized (this) {
-                ensureOpen();
-                final long offsetToSync;
-                final int opsCounter;
-                try {
-                    outputStream.flush();
-                    offsetToSync = totalOffset;
-                    opsCounter = operationCounter;
-                    checkpoint(offsetToSync, opsCounter, generation, channel, path);
-                } catch (Throwable ex) {
-                    closeWithTragicEvent(ex);
-                    throw ex;
-                }
-                lastSyncedOffset = offsetToSync;
-            }
-        }
+        syncUpTo(Long.MAX_VALUE);
     }
 
     /**
@@ -183,40 +204,51 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
     /**
      * closes this writer and transfers it's underlying file channel to a new immutable reader
      */
-    public synchronized TranslogReader closeIntoReader() throws IOException {
-        try {
-            sync(); // sync before we close..
-        } catch (IOException e) {
-            closeWithTragicEvent(e);
-            throw e;
-        }
-        if (closed.compareAndSet(false, true)) {
-            boolean success = false;
-            try {
-                final TranslogReader reader = new TranslogReader(generation, channel, path, firstOperationOffset, getWrittenOffset(), operationCounter);
-                success = true;
-                return reader;
-            } finally {
-                if (success == false) {
-                    // close the channel, as we are closed and failed to create a new reader
-                    IOUtils.closeWhileHandlingException(channel);
+    public TranslogReader closeIntoReader() throws IOException {
+        // we take the sync lock first to respect the lock order of syncUpTo
+        synchronized (syncLock) {
+            synchronized (this) {
+                try {
+                    sync(); // sync before we close..
+                } catch (IOException e) {
+                    closeWithTragicEvent(e);
+                    throw e;
+                }
+                if (closed.compareAndSet(false, true)) {
+                    boolean success = false;
+                    try {
+                        final TranslogReader reader = new TranslogReader(generation, channel, path, firstOperationOffset, getWrittenOffset(), operationCounter,
+                            compressed);
+                        success = true;
+                        return reader;
+                    } finally {
+                        if (success == false) {
+                            // close the channel, as we are closed and failed to create a new reader
+                            IOUtils.closeWhileHandlingException(channel);
+                        }
+                    }
+                } else {
+                    throw new AlreadyClosedException("translog [" + getGeneration() + "] is already closed (path [" + path + "]", tragedy);
                 }
             }
-        } else {
-            throw new AlreadyClosedException("translog [" + getGeneration() + "] is already closed (path [" + path + "]", tragedy);
         }
     }
 
 
     @Override
-    public synchronized Translog.Snapshot newSnapshot() {
-        ensureOpen();
-        try {
-            sync();
-        } catch (IOException e) {
-            throw new TranslogException(shardId, "exception while syncing before creating a snapshot", e);
+    public Translog.Snapshot newSnapshot() {
+        // we take the sync lock first to respect the lock order of syncUpTo
+        synchronized (syncLock) {
+            synchronized (this) {
+                ensureOpen();
+                try {
+                    sync();
+                } catch (IOException e) {
+                    throw new TranslogException(shardId, "exception while syncing before creating a snapshot", e);
+                }
+                return super.newSnapshot();
+            }
         }
-        return super.newSnapshot();
     }
 
     private long getWrittenOffset() throws IOException {
@@ -224,14 +256,50 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
     }
 
     /**
-     * Syncs the translog up to at least the given offset unless already synced
+     * Syncs the translog up to at least the given offset unless already synced.
+     *
+     * Concurrent callers are group-committed: only one thread at a time flushes and fsyncs, while the others wait on the sync
+     * lock. Once a waiting thread gets the lock it re-checks whether the previous fsync already covered its offset and only
+     * syncs itself if not, in which case its fsync covers everything that was written by the other waiting threads as well.
+     * The fsync itself happens outside of this writer's monitor, so that writers can keep adding operations while it is running.
+     *
+     * Note: any exception during the sync process will be interpreted as a tragic exception and the writer will be closed before
+     * raising the exception.
      *
      * @return <code>true</code> if this call caused an actual sync operation
      */
     public boolean syncUpTo(long offset) throws IOException {
-        if (lastSyncedOffset < offset) {
-            sync();
-            return true;
+        if (lastSyncedOffset < offset && syncNeeded()) {
+            syncRequests.inc();
+            synchronized (syncLock) { // only one sync at a time, the others piggyback on it
+                if (lastSyncedOffset < offset && syncNeeded()) {
+                    final long offsetToSync;
+                    final int opsCounter;
+                    synchronized (this) {
+                        ensureOpen();
+                        try {
+                            outputStream.flush();
+                            offsetToSync = totalOffset;
+                            opsCounter = operationCounter;
+                        } catch (Throwable ex) {
+                            closeWithTragicEvent(ex);
+                            throw ex;
+                        }
+                    }
+                    // now do the actual fsync outside of the monitor, we only hold the sync lock
+                    ensureOpen();
+                    final long startTime = System.nanoTime();
+                    try {
+                        checkpoint(offsetToSync, opsCounter, generation, channel, path);
+                    } catch (Throwable ex) {
+                        closeWithTragicEvent(ex);
+                        throw ex;
+                    }
+                    syncs.inc(System.nanoTime() - startTime);
+                    lastSyncedOffset = offsetToSync;
+                    return true;
+                }
+            }
         }
         return false;
     }
@@ -254,7 +322,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         Channels.readFromFileChannelWithEofException(channel, position, targetBuffer);
     }
 
-    private synchronized void checkpoint(long lastSyncPosition, int operationCounter, long generation, FileChannel translogFileChannel, Path translogFilePath) throws IOException {
+    private static void checkpoint(long lastSyncPosition, int operationCounter, long generation, FileChannel translogFileChannel, Path translogFilePath) throws IOException {
         translogFileChannel.force(false);
         writeCheckpoint(lastSyncPosition, operationCounter, translogFilePath.getParent(), generation, StandardOpenOption.WRITE);
     }
@@ -54,6 +54,9 @@ public class IndicesFieldDataCache extends AbstractComponent implements RemovalL
 
     public static final Setting<ByteSizeValue> INDICES_FIELDDATA_CACHE_SIZE_KEY =
         Setting.byteSizeSetting("indices.fielddata.cache.size", new ByteSizeValue(-1), Property.NodeScope);
+    public static final Setting<Cache.EvictionPolicy> INDICES_FIELDDATA_CACHE_EVICTION_POLICY =
+        new Setting<>("indices.fielddata.cache.eviction_policy", Cache.EvictionPolicy.LRU.name(), Cache.EvictionPolicy::parse,
+            Property.NodeScope);
     private final IndexFieldDataCache.Listener indicesFieldDataCacheListener;
     private final Cache<Key, Accountable> cache;
 
@@ -62,7 +65,7 @@ public class IndicesFieldDataCache extends AbstractComponent implements RemovalL
         this.indicesFieldDataCacheListener = indicesFieldDataCacheListener;
         final long sizeInBytes = INDICES_FIELDDATA_CACHE_SIZE_KEY.get(settings).bytes();
         CacheBuilder<Key, Accountable> cacheBuilder = CacheBuilder.<Key, Accountable>builder()
-                .removalListener(this);
+                .removalListener(this).setEvictionPolicy(INDICES_FIELDDATA_CACHE_EVICTION_POLICY.get(settings));
         if (sizeInBytes > 0) {
             cacheBuilder.setMaximumWeight(sizeInBytes).weigher(new FieldDataWeigher());
         }
@@ -40,11 +40,13 @@ public class IngestService implements Closeable {
     private final PipelineStore pipelineStore;
     private final PipelineExecutionService pipelineExecutionService;
     private final ProcessorsRegistry.Builder processorsRegistryBuilder;
+    private final ThreadPool threadPool;
 
     public IngestService(Settings settings, ThreadPool threadPool, ProcessorsRegistry.Builder processorsRegistryBuilder) {
         this.processorsRegistryBuilder = processorsRegistryBuilder;
+        this.threadPool = threadPool;
         this.pipelineStore = new PipelineStore(settings);
-        this.pipelineExecutionService = new PipelineExecutionService(pipelineStore, threadPool);
+        this.pipelineExecutionService = new PipelineExecutionService(settings, pipelineStore, threadPool);
     }
 
     public PipelineStore getPipelineStore() {
@@ -56,7 +58,7 @@ public class IngestService implements Closeable {
     }
 
     public void setScriptService(ScriptService scriptService) {
-        pipelineStore.buildProcessorFactoryRegistry(processorsRegistryBuilder, scriptService);
+        pipelineStore.buildProcessorFactoryRegistry(processorsRegistryBuilder, scriptService, threadPool);
     }
 
     public IngestInfo info() {
@@ -26,17 +26,30 @@ import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class IngestStats implements Writeable, ToXContent {
     private final Stats totalStats;
     private final Map<String, Stats> statsPerPipeline;
+    private final Map<String, List<ProcessorStats>> processorStatsPerPipeline;
+    private final Map<String, CacheStats> cacheStatsPerProcessor;
 
     public IngestStats(Stats totalStats, Map<String, Stats> statsPerPipeline) {
+        this(totalStats, statsPerPipeline, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    public IngestStats(Stats totalStats, Map<String, Stats> statsPerPipeline, Map<String, List<ProcessorStats>> processorStatsPerPipeline,
+                       Map<String, CacheStats> cacheStatsPerProcessor) {
         this.totalStats = totalStats;
         this.statsPerPipeline = statsPerPipeline;
+        this.processorStatsPerPipeline = processorStatsPerPipeline;
+        this.cacheStatsPerProcessor = cacheStatsPerProcessor;
     }
 
     /**
@@ -49,6 +62,22 @@ public class IngestStats implements Writeable, ToXContent {
         for (int i = 0; i < size; i++) {
             statsPerPipeline.put(in.readString(), new Stats(in));
         }
+        int processorStatsSize = in.readVInt();
+        this.processorStatsPerPipeline = new HashMap<>(processorStatsSize);
+        for (int i = 0; i < processorStatsSize; i++) {
+            String pipelineId = in.readString();
+            int numProcessors = in.readVInt();
+            List<ProcessorStats> processorStats = new ArrayList<>(numProcessors);
+            for (int j = 0; j < numProcessors; j++) {
+                processorStats.add(new ProcessorStats(in));
+            }
+            processorStatsPerPipeline.put(pipelineId, processorStats);
+        }
+        int cacheStatsSize = in.readVInt();
+        this.cacheStatsPerProcessor = new HashMap<>(cacheStatsSize);
+        for (int i = 0; i < cacheStatsSize; i++) {
+            cacheStatsPerProcessor.put(in.readString(), new CacheStats(in));
+        }
     }
 
     @Override
@@ -59,6 +88,19 @@ public class IngestStats implements Writeable, ToXContent {
             out.writeString(entry.getKey());
             entry.getValue().writeTo(out);
         }
+        out.writeVInt(processorStatsPerPipeline.size());
+        for (Map.Entry<String, List<ProcessorStats>> entry : processorStatsPerPipeline.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeVInt(entry.getValue().size());
+            for (ProcessorStats processorStats : entry.getValue()) {
+                processorStats.writeTo(out);
+            }
+        }
+        out.writeVInt(cacheStatsPerProcessor.size());
+        for (Map.Entry<String, CacheStats> entry : cacheStatsPerProcessor.entrySet()) {
+            out.writeString(entry.getKey());
+            entry.getValue().writeTo(out);
+        }
     }
 
 
@@ -76,6 +118,20 @@ public class IngestStats implements Writeable, ToXContent {
         return statsPerPipeline;
     }
 
+    /**
+     * @return The stats of the processors of each pipeline, in the order the processors are defined in
+     */
+    public Map<String, List<ProcessorStats>> getProcessorStatsPerPipeline() {
+        return processorStatsPerPipeline;
+    }
+
+    /**
+     * @return The stats of the caches maintained by processor factories, keyed by processor type
+     */
+    public Map<String, CacheStats> getCacheStatsPerProcessor() {
+        return cacheStatsPerProcessor;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject("ingest");
@@ -86,25 +142,68 @@ public class IngestStats implements Writeable, ToXContent {
         for (Map.Entry<String, Stats> entry : statsPerPipeline.entrySet()) {
             builder.startObject(entry.getKey());
             entry.getValue().toXContent(builder, params);
+            List<ProcessorStats> processorStats = processorStatsPerPipeline.get(entry.getKey());
+            if (processorStats != null) {
+                builder.startArray("processors");
+                for (ProcessorStats processorStat : processorStats) {
+                    processorStat.toXContent(builder, params);
+                }
+                builder.endArray();
+            }
             builder.endObject();
         }
         builder.endObject();
+        if (cacheStatsPerProcessor.isEmpty() == false) {
+            builder.startObject("processor_caches");
+            for (Map.Entry<String, CacheStats> entry : cacheStatsPerProcessor.entrySet()) {
+                builder.startObject(entry.getKey());
+                entry.getValue().toXContent(builder, params);
+                builder.endObject();
+            }
+            builder.endObject();
+        }
         builder.endObject();
         return builder;
     }
 
+    /**
+     * Implemented by processor factories that maintain a node level cache, so that its stats get reported in the
+     * ingest node stats.
+     */
+    public interface CacheStatsProvider {
+
+        /**
+         * @return The current stats of the cache
+         */
+        CacheStats cacheStats();
+    }
+
+    /**
+     * Implemented by processors that count events specific to their type, so that the counters get reported along with
+     * the stats of the processor in the ingest node stats.
+     */
+    public interface ProcessorCountersProvider {
+
+        /**
+         * @return The current value of each counter, keyed by counter name
+         */
+        Map<String, Long> counters();
+    }
+
     public static class Stats implements Writeable, ToXContent {
 
         private final long ingestCount;
         private final long ingestTimeInMillis;
         private final long ingestCurrent;
         private final long ingestFailedCount;
+        private final long ingestQueued;
 
-        public Stats(long ingestCount, long ingestTimeInMillis, long ingestCurrent, long ingestFailedCount) {
+        public Stats(long ingestCount, long ingestTimeInMillis, long ingestCurrent, long ingestFailedCount, long ingestQueued) {
             this.ingestCount = ingestCount;
             this.ingestTimeInMillis = ingestTimeInMillis;
             this.ingestCurrent = ingestCurrent;
             this.ingestFailedCount = ingestFailedCount;
+            this.ingestQueued = ingestQueued;
         }
 
         /**
@@ -115,6 +214,7 @@ public class IngestStats implements Writeable, ToXContent {
             ingestTimeInMillis = in.readVLong();
             ingestCurrent = in.readVLong();
             ingestFailedCount = in.readVLong();
+            ingestQueued = in.readVLong();
         }
 
         @Override
@@ -123,6 +223,7 @@ public class IngestStats implements Writeable, ToXContent {
             out.writeVLong(ingestTimeInMillis);
             out.writeVLong(ingestCurrent);
             out.writeVLong(ingestFailedCount);
+            out.writeVLong(ingestQueued);
         }
 
         /**
@@ -154,12 +255,248 @@ public class IngestStats implements Writeable, ToXContent {
             return ingestFailedCount;
         }
 
+        /**
+         * @return The number of documents currently waiting for a pipeline that reached its maximum number of concurrently
+         * executing documents.
+         */
+        public long getIngestQueued() {
+            return ingestQueued;
+        }
+
         @Override
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.field("count", ingestCount);
             builder.timeValueField("time_in_millis", "time", ingestTimeInMillis, TimeUnit.MILLISECONDS);
             builder.field("current", ingestCurrent);
             builder.field("failed", ingestFailedCount);
+            builder.field("queued", ingestQueued);
+            return builder;
+        }
+    }
+
+    public static class CacheStats implements Writeable, ToXContent {
+
+        private final long count;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        public CacheStats(long count, long hits, long misses, long evictions) {
+            this.count = count;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        /**
+         * Read from a stream.
+         */
+        public CacheStats(StreamInput in) throws IOException {
+            count = in.readVLong();
+            hits = in.readVLong();
+            misses = in.readVLong();
+            evictions = in.readVLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(count);
+            out.writeVLong(hits);
+            out.writeVLong(misses);
+            out.writeVLong(evictions);
+        }
+
+        /**
+         * @return The number of entries currently held by the cache.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return The number of lookups that were served from the cache.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return The number of lookups that had to be computed because they were not cached.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return The number of entries that were evicted from the cache.
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.field("count", count);
+            builder.field("hits", hits);
+            builder.field("misses", misses);
+            builder.field("evictions", evictions);
+            return builder;
+        }
+    }
+
+    public static class ProcessorStats implements Writeable, ToXContent {
+
+        private final String type;
+        private final String tag;
+        private final long count;
+        private final long timeInNanos;
+        private final long failedCount;
+        private final long latency50thInNanos;
+        private final long latency90thInNanos;
+        private final long latency99thInNanos;
+        private final Map<String, Long> counters;
+
+        public ProcessorStats(String type, String tag, long count, long timeInNanos, long failedCount, long latency50thInNanos,
+                              long latency90thInNanos, long latency99thInNanos) {
+            this(type, tag, count, timeInNanos, failedCount, latency50thInNanos, latency90thInNanos, latency99thInNanos,
+                Collections.emptyMap());
+        }
+
+        public ProcessorStats(String type, String tag, long count, long timeInNanos, long failedCount, long latency50thInNanos,
+                              long latency90thInNanos, long latency99thInNanos, Map<String, Long> counters) {
+            this.type = type;
+            this.tag = tag;
+            this.count = count;
+            this.timeInNanos = timeInNanos;
+            this.failedCount = failedCount;
+            this.latency50thInNanos = latency50thInNanos;
+            this.latency90thInNanos = latency90thInNanos;
+            this.latency99thInNanos = latency99thInNanos;
+            this.counters = counters;
+        }
+
+        /**
+         * Read from a stream.
+         */
+        public ProcessorStats(StreamInput in) throws IOException {
+            type = in.readString();
+            tag = in.readOptionalString();
+            count = in.readVLong();
+            timeInNanos = in.readVLong();
+            failedCount = in.readVLong();
+            latency50thInNanos = in.readVLong();
+            latency90thInNanos = in.readVLong();
+            latency99thInNanos = in.readVLong();
+            int numCounters = in.readVInt();
+            counters = new LinkedHashMap<>(numCounters);
+            for (int i = 0; i < numCounters; i++) {
+                counters.put(in.readString(), in.readVLong());
+            }
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(type);
+            out.writeOptionalString(tag);
+            out.writeVLong(count);
+            out.writeVLong(timeInNanos);
+            out.writeVLong(failedCount);
+            out.writeVLong(latency50thInNanos);
+            out.writeVLong(latency90thInNanos);
+            out.writeVLong(latency99thInNanos);
+            out.writeVInt(counters.size());
+            for (Map.Entry<String, Long> counter : counters.entrySet()) {
+                out.writeString(counter.getKey());
+                out.writeVLong(counter.getValue());
+            }
+        }
+
+        /**
+         * @return The type of the processor.
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * @return The tag of the processor, if it has one.
+         */
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * @return The number of times the processor was executed.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return The total time spent executing the processor in nanos.
+         */
+        public long getTimeInNanos() {
+            return timeInNanos;
+        }
+
+        /**
+         * @return The number of times the processor failed.
+         */
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * @return The latency that half of the executions of the processor stayed below, in nanos.
+         */
+        public long getLatency50thInNanos() {
+            return latency50thInNanos;
+        }
+
+        /**
+         * @return The latency that 90% of the executions of the processor stayed below, in nanos.
+         */
+        public long getLatency90thInNanos() {
+            return latency90thInNanos;
+        }
+
+        /**
+         * @return The latency that 99% of the executions of the processor stayed below, in nanos.
+         */
+        public long getLatency99thInNanos() {
+            return latency99thInNanos;
+        }
+
+        /**
+         * @return The counters specific to the type of the processor, keyed by counter name.
+         */
+        public Map<String, Long> getCounters() {
+            return counters;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("type", type);
+            if (tag != null) {
+                builder.field("tag", tag);
+            }
+            builder.field("count", count);
+            builder.timeValueField("time_in_nanos", "time", timeInNanos, TimeUnit.NANOSECONDS);
+            builder.field("failed", failedCount);
+            builder.startObject("latency_percentiles_in_nanos");
+            builder.field("50.0", latency50thInNanos);
+            builder.field("90.0", latency90thInNanos);
+            builder.field("99.0", latency99thInNanos);
+            builder.endObject();
+            if (counters.isEmpty() == false) {
+                builder.startObject("counters");
+                for (Map.Entry<String, Long> counter : counters.entrySet()) {
+                    builder.field(counter.getKey(), counter.getValue());
+                }
+                builder.endObject();
+            }
+            builder.endObject();
             return builder;
         }
     }
@@ -28,30 +28,57 @@ import org.elasticsearch.cluster.ClusterStateListener;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.metrics.MeanMetric;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.ingest.core.IngestDocument;
 import org.elasticsearch.ingest.core.Pipeline;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 public class PipelineExecutionService implements ClusterStateListener {
 
+    /**
+     * The number of bulk threads the documents of a single bulk request are spread across. With the default of
+     * <code>1</code> all documents of a bulk are executed one after the other on the same thread.
+     */
+    public static final Setting<Integer> BULK_PARALLELISM_SETTING =
+        Setting.intSetting("ingest.bulk.parallelism", 1, 1, Property.NodeScope);
+    /**
+     * The maximum number of documents a single pipeline may execute concurrently on this node, <code>0</code> means unbounded.
+     * Documents exceeding the limit are queued and executed by the threads that execute the pipeline once their document
+     * completed, so that no thread blocks waiting for the pipeline.
+     */
+    public static final Setting<Integer> MAX_CONCURRENT_DOCUMENTS_PER_PIPELINE_SETTING =
+        Setting.intSetting("ingest.pipeline.max_concurrent_documents", 0, 0, Property.NodeScope);
+
     private final PipelineStore store;
     private final ThreadPool threadPool;
+    private final int bulkParallelism;
+    private final int maxConcurrentDocumentsPerPipeline;
 
-    private final StatsHolder totalStats = new StatsHolder();
+    private final StatsHolder totalStats = new StatsHolder(0);
     private volatile Map<String, StatsHolder> statsHolderPerPipeline = Collections.emptyMap();
 
-    public PipelineExecutionService(PipelineStore store, ThreadPool threadPool) {
+    public PipelineExecutionService(Settings settings, PipelineStore store, ThreadPool threadPool) {
         this.store = store;
         this.threadPool = threadPool;
+        this.bulkParallelism = BULK_PARALLELISM_SETTING.get(settings);
+        this.maxConcurrentDocumentsPerPipeline = MAX_CONCURRENT_DOCUMENTS_PER_PIPELINE_SETTING.get(settings);
     }
 
     public void executeIndexRequest(IndexRequest request, Consumer<Throwable> failureHandler, Consumer<Boolean> completionHandler) {
@@ -65,8 +92,13 @@ public class PipelineExecutionService implements ClusterStateListener {
 
             @Override
             protected void doRun() throws Exception {
-                innerExecute(request, pipeline);
-                completionHandler.accept(true);
+                innerExecute(request, pipeline, t -> {
+                    if (t == null) {
+                        completionHandler.accept(true);
+                    } else {
+                        failureHandler.accept(t);
+                    }
+                });
             }
         });
     }
@@ -83,34 +115,115 @@ public class PipelineExecutionService implements ClusterStateListener {
 
             @Override
             protected void doRun() throws Exception {
-                for (ActionRequest actionRequest : actionRequests) {
-                    if ((actionRequest instanceof IndexRequest)) {
-                        IndexRequest indexRequest = (IndexRequest) actionRequest;
-                        if (Strings.hasText(indexRequest.getPipeline())) {
-                            try {
-                                innerExecute(indexRequest, getPipeline(indexRequest.getPipeline()));
-                                //this shouldn't be needed here but we do it for consistency with index api which requires it to prevent double execution
-                                indexRequest.setPipeline(null);
-                            } catch (Throwable e) {
-                                itemFailureHandler.accept(indexRequest, e);
-                            }
-                        }
+                innerExecuteBulk(actionRequests, itemFailureHandler, completionHandler);
+            }
+        });
+    }
+
+    /**
+     * Spreads the documents of a bulk across up to {@link #BULK_PARALLELISM_SETTING} bulk threads, including the calling one.
+     * Threads pull the next document to execute from a shared position, so a slow document does not hold back the others.
+     * Documents of a pipeline that reached {@link #MAX_CONCURRENT_DOCUMENTS_PER_PIPELINE_SETTING} are left to the threads
+     * executing that pipeline, so they may complete after the threads of the bulk moved on. Item failures are reported in the
+     * order of the documents in the bulk once all documents have been executed.
+     */
+    private void innerExecuteBulk(Iterable<ActionRequest<?>> actionRequests,
+                                  BiConsumer<IndexRequest, Throwable> itemFailureHandler,
+                                  Consumer<Throwable> completionHandler) {
+        final List<IndexRequest> indexRequests = new ArrayList<>();
+        for (ActionRequest actionRequest : actionRequests) {
+            if ((actionRequest instanceof IndexRequest)) {
+                IndexRequest indexRequest = (IndexRequest) actionRequest;
+                if (Strings.hasText(indexRequest.getPipeline())) {
+                    indexRequests.add(indexRequest);
+                }
+            }
+        }
+        if (indexRequests.isEmpty()) {
+            completionHandler.accept(null);
+            return;
+        }
+        final Throwable[] failures = new Throwable[indexRequests.size()];
+        final AtomicInteger nextItem = new AtomicInteger();
+        final AtomicInteger pendingItems = new AtomicInteger(indexRequests.size());
+        final Runnable onItemDone = () -> {
+            // the last document to complete reports the results, the atomic decrement makes all failures visible to it
+            if (pendingItems.decrementAndGet() == 0) {
+                for (int i = 0; i < failures.length; i++) {
+                    if (failures[i] != null) {
+                        itemFailureHandler.accept(indexRequests.get(i), failures[i]);
                     }
                 }
                 completionHandler.accept(null);
             }
-        });
+        };
+        final Runnable worker = () -> {
+            for (int i = nextItem.getAndIncrement(); i < failures.length; i = nextItem.getAndIncrement()) {
+                final int item = i;
+                final IndexRequest indexRequest = indexRequests.get(item);
+                final Pipeline pipeline;
+                try {
+                    pipeline = getPipeline(indexRequest.getPipeline());
+                } catch (Throwable e) {
+                    failures[item] = e;
+                    onItemDone.run();
+                    continue;
+                }
+                innerExecute(indexRequest, pipeline, t -> {
+                    if (t == null) {
+                        //this shouldn't be needed here but we do it for consistency with index api which requires it to prevent double execution
+                        indexRequest.setPipeline(null);
+                    } else {
+                        failures[item] = t;
+                    }
+                    onItemDone.run();
+                });
+            }
+        };
+        final int numWorkers = Math.min(bulkParallelism, indexRequests.size());
+        for (int i = 1; i < numWorkers; i++) {
+            // helpers use the bulk pool like the thread that executes the bulk, so that a bulk never takes more threads from
+            // the pool it was submitted to than ingest.bulk.parallelism, and single documents on the index pool are not affected
+            threadPool.executor(ThreadPool.Names.BULK).execute(new AbstractRunnable() {
+
+                @Override
+                public void onFailure(Throwable t) {
+                    // the worker catches all item failures, there is nothing left that can fail
+                    throw new IllegalStateException("unexpected failure while executing pipelines", t);
+                }
+
+                @Override
+                public void onRejection(Throwable t) {
+                    // the remaining workers, including the calling thread, execute the documents this worker would have taken
+                }
+
+                @Override
+                protected void doRun() throws Exception {
+                    worker.run();
+                }
+            });
+        }
+        worker.run();
     }
 
     public IngestStats stats() {
         Map<String, StatsHolder> statsHolderPerPipeline = this.statsHolderPerPipeline;
 
         Map<String, IngestStats.Stats> statsPerPipeline = new HashMap<>(statsHolderPerPipeline.size());
+        Map<String, List<IngestStats.ProcessorStats>> processorStatsPerPipeline = new HashMap<>(statsHolderPerPipeline.size());
         for (Map.Entry<String, StatsHolder> entry : statsHolderPerPipeline.entrySet()) {
             statsPerPipeline.put(entry.getKey(), entry.getValue().createStats());
+            // the processors keep track of their own executions, so their stats start over when the pipeline gets updated
+            Pipeline pipeline = store.get(entry.getKey());
+            if (pipeline != null) {
+                processorStatsPerPipeline.put(entry.getKey(), pipeline.getCompoundProcessor().processorStats());
+            }
         }
 
-        return new IngestStats(totalStats.createStats(), statsPerPipeline);
+        ProcessorsRegistry processorsRegistry = store.getProcessorRegistry();
+        Map<String, IngestStats.CacheStats> cacheStats = processorsRegistry != null ? processorsRegistry.cacheStats() :
+            Collections.emptyMap();
+        return new IngestStats(totalStats.createStats(), statsPerPipeline, processorStatsPerPipeline, cacheStats);
     }
 
     @Override
@@ -132,7 +245,7 @@ public class PipelineExecutionService implements ClusterStateListener {
         }
         for (String pipeline : ingestMetadata.getPipelines().keySet()) {
             if (newStatsPerPipeline.containsKey(pipeline) == false) {
-                newStatsPerPipeline.put(pipeline, new StatsHolder());
+                newStatsPerPipeline.put(pipeline, new StatsHolder(maxConcurrentDocumentsPerPipeline));
                 changed = true;
             }
         }
@@ -142,11 +255,25 @@ public class PipelineExecutionService implements ClusterStateListener {
         }
     }
 
-    private void innerExecute(IndexRequest indexRequest, Pipeline pipeline) throws Exception {
-        long startTimeInNanos = System.nanoTime();
+    /**
+     * Executes the pipeline on the given document and passes the failure, or <code>null</code> on success, to the given
+     * handler. If the pipeline already executes the maximum number of concurrent documents, the document is left to a thread
+     * that executes the pipeline and this method returns before the handler is called.
+     */
+    private void innerExecute(IndexRequest indexRequest, Pipeline pipeline, Consumer<Throwable> handler) {
         // the pipeline specific stat holder may not exist and that is fine:
         // (e.g. the pipeline may have been removed while we're ingesting a document
         Optional<StatsHolder> pipelineStats = Optional.ofNullable(statsHolderPerPipeline.get(pipeline.getId()));
+        Runnable document = () -> handler.accept(executeDocument(indexRequest, pipeline, pipelineStats));
+        if (pipelineStats.isPresent()) {
+            pipelineStats.get().execute(document, threadPool);
+        } else {
+            document.run();
+        }
+    }
+
+    private Throwable executeDocument(IndexRequest indexRequest, Pipeline pipeline, Optional<StatsHolder> pipelineStats) {
+        long startTimeInNanos = System.nanoTime();
         try {
             totalStats.preIngest();
             pipelineStats.ifPresent(StatsHolder::preIngest);
@@ -172,10 +299,11 @@ public class PipelineExecutionService implements ClusterStateListener {
             indexRequest.timestamp(metadataMap.get(IngestDocument.MetaData.TIMESTAMP));
             indexRequest.ttl(metadataMap.get(IngestDocument.MetaData.TTL));
             indexRequest.source(ingestDocument.getSourceAndMetadata());
+            return null;
         } catch (Exception e) {
             totalStats.ingestFailed();
             pipelineStats.ifPresent(StatsHolder::ingestFailed);
-            throw e;
+            return e;
         } finally {
             long ingestTimeInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeInNanos);
             totalStats.postIngest(ingestTimeInMillis);
@@ -196,6 +324,55 @@ public class PipelineExecutionService implements ClusterStateListener {
         private final MeanMetric ingestMetric = new MeanMetric();
         private final CounterMetric ingestCurrent = new CounterMetric();
         private final CounterMetric ingestFailed = new CounterMetric();
+        private final CounterMetric ingestQueued = new CounterMetric();
+        // null if the number of concurrently executing documents is not limited
+        private final Semaphore permits;
+        // documents waiting for a permit, they are executed by the threads that hold the permits
+        private final Queue<Runnable> pending = ConcurrentCollections.newQueue();
+
+        StatsHolder(int maxConcurrentDocuments) {
+            this.permits = maxConcurrentDocuments > 0 ? new Semaphore(maxConcurrentDocuments) : null;
+        }
+
+        /**
+         * Executes the given document on the calling thread if a permit is available, otherwise queues it. This never blocks:
+         * ingest runs on the index and bulk pools, which shard level writes need as well.
+         */
+        void execute(Runnable document, ThreadPool threadPool) {
+            if (permits == null) {
+                document.run();
+                return;
+            }
+            if (permits.tryAcquire() == false) {
+                ingestQueued.inc();
+                pending.add(threadPool.getThreadContext().preserveContext(document));
+                // a thread may have released its permit after our first attempt but before the document was queued
+                if (permits.tryAcquire() == false) {
+                    return;
+                }
+                document = null;
+            }
+            executeAndDrain(document);
+        }
+
+        private void executeAndDrain(Runnable document) {
+            do {
+                try {
+                    if (document != null) {
+                        document.run();
+                        document = null;
+                    }
+                    Runnable next;
+                    while ((next = pending.poll()) != null) {
+                        ingestQueued.dec();
+                        next.run();
+                    }
+                } finally {
+                    permits.release();
+                }
+                // documents queued after the last poll but before the release are picked up here
+            } while (pending.isEmpty() == false && permits.tryAcquire());
+        }
 
         void preIngest() {
             ingestCurrent.inc();
@@ -211,7 +388,8 @@ public class PipelineExecutionService implements ClusterStateListener {
         }
 
         IngestStats.Stats createStats() {
-            return new IngestStats.Stats(ingestMetric.count(), ingestMetric.sum(), ingestCurrent.count(), ingestFailed.count());
+            return new IngestStats.Stats(ingestMetric.count(), ingestMetric.sum(), ingestCurrent.count(), ingestFailed.count(),
+                ingestQueued.count());
         }
 
     }
@@ -23,6 +23,7 @@ import org.apache.lucene.util.IOUtils;
 import org.elasticsearch.ingest.core.Processor;
 import org.elasticsearch.ingest.core.ProcessorInfo;
 import org.elasticsearch.ingest.core.TemplateService;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -36,9 +37,11 @@ import java.util.function.BiFunction;
 public final class ProcessorsRegistry implements Closeable {
 
     private final Map<String, Processor.Factory> processorFactories;
+    private final ThreadPool threadPool;
 
-    private ProcessorsRegistry(TemplateService templateService,
+    private ProcessorsRegistry(TemplateService templateService, ThreadPool threadPool,
                                Map<String, BiFunction<TemplateService, ProcessorsRegistry, Processor.Factory<?>>> providers) {
+        this.threadPool = threadPool;
         Map<String, Processor.Factory> processorFactories = new HashMap<>();
         for (Map.Entry<String, BiFunction<TemplateService, ProcessorsRegistry, Processor.Factory<?>>> entry : providers.entrySet()) {
             processorFactories.put(entry.getKey(), entry.getValue().apply(templateService, this));
@@ -50,6 +53,26 @@ public final class ProcessorsRegistry implements Closeable {
         return processorFactories.get(name);
     }
 
+    /**
+     * @return The thread pool of the node, for processor factories that need to schedule work
+     */
+    public ThreadPool getThreadPool() {
+        return threadPool;
+    }
+
+    /**
+     * @return The stats of the caches of all processor factories that maintain one, keyed by processor type
+     */
+    public Map<String, IngestStats.CacheStats> cacheStats() {
+        Map<String, IngestStats.CacheStats> cacheStats = new HashMap<>();
+        for (Map.Entry<String, Processor.Factory> entry : processorFactories.entrySet()) {
+            if (entry.getValue() instanceof IngestStats.CacheStatsProvider) {
+                cacheStats.put(entry.getKey(), ((IngestStats.CacheStatsProvider) entry.getValue()).cacheStats());
+            }
+        }
+        return cacheStats;
+    }
+
     @Override
     public void close() throws IOException {
         List<Closeable> closeables = new ArrayList<>();
@@ -81,7 +104,11 @@ public final class ProcessorsRegistry implements Closeable {
         }
 
         public ProcessorsRegistry build(TemplateService templateService) {
-            return new ProcessorsRegistry(templateService, providers);
+            return build(templateService, null);
+        }
+
+        public ProcessorsRegistry build(TemplateService templateService, ThreadPool threadPool) {
+            return new ProcessorsRegistry(templateService, threadPool, providers);
         }
 
     }
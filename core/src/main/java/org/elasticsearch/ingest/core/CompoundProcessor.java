@@ -21,6 +21,7 @@
 package org.elasticsearch.ingest.core;
 
 import org.elasticsearch.common.util.iterable.Iterables;
+import org.elasticsearch.ingest.IngestStats;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -41,15 +42,67 @@ public class CompoundProcessor implements Processor {
 
     private final List<Processor> processors;
     private final List<Processor> onFailureProcessors;
+    // the metrics of the processors at the same position, null for compound processors which track their own processors
+    private final ProcessorMetric[] processorMetrics;
+    private final ProcessorMetric[] onFailureProcessorMetrics;
 
     public CompoundProcessor(Processor... processor) {
         this(Arrays.asList(processor), Collections.emptyList());
     }
 
     public CompoundProcessor(List<Processor> processors, List<Processor> onFailureProcessors) {
+        this(processors, onFailureProcessors, createMetrics(processors), createMetrics(onFailureProcessors));
+    }
+
+    private CompoundProcessor(List<Processor> processors, List<Processor> onFailureProcessors, ProcessorMetric[] processorMetrics,
+                              ProcessorMetric[] onFailureProcessorMetrics) {
         super();
         this.processors = processors;
         this.onFailureProcessors = onFailureProcessors;
+        this.processorMetrics = processorMetrics;
+        this.onFailureProcessorMetrics = onFailureProcessorMetrics;
+    }
+
+    /**
+     * Creates a compound processor that executes the given processors in place of the processors of this one, and keeps
+     * track of their executions in the same metrics. The given processors must replace the processors of this compound
+     * processor one by one, like decorators do.
+     */
+    public CompoundProcessor withProcessors(List<Processor> processors, List<Processor> onFailureProcessors) {
+        if (processors.size() != this.processors.size() || onFailureProcessors.size() != this.onFailureProcessors.size()) {
+            throw new IllegalArgumentException("the processors of a compound processor can only be replaced one by one");
+        }
+        return new CompoundProcessor(processors, onFailureProcessors, processorMetrics, onFailureProcessorMetrics);
+    }
+
+    /**
+     * Creates a compound processor that executes the same processors as this one, but keeps track of their executions
+     * separately, so that executions like those of the simulate api don't show up in the stats of a pipeline.
+     */
+    public CompoundProcessor copyWithNewMetrics() {
+        return new CompoundProcessor(copyWithNewMetrics(processors), copyWithNewMetrics(onFailureProcessors));
+    }
+
+    private static List<Processor> copyWithNewMetrics(List<Processor> processors) {
+        List<Processor> copies = new ArrayList<>(processors.size());
+        for (Processor processor : processors) {
+            if (processor instanceof CompoundProcessor) {
+                copies.add(((CompoundProcessor) processor).copyWithNewMetrics());
+            } else {
+                copies.add(processor);
+            }
+        }
+        return copies;
+    }
+
+    private static ProcessorMetric[] createMetrics(List<Processor> processors) {
+        ProcessorMetric[] metrics = new ProcessorMetric[processors.size()];
+        for (int i = 0; i < metrics.length; i++) {
+            if (processors.get(i) instanceof CompoundProcessor == false) {
+                metrics[i] = new ProcessorMetric();
+            }
+        }
+        return metrics;
     }
 
     public List<Processor> getOnFailureProcessors() {
@@ -78,6 +131,30 @@ public class CompoundProcessor implements Processor {
         return flattened;
     }
 
+    /**
+     * @return the stats of all processors, in the same order as {@link #flattenProcessors()} returns them
+     */
+    public List<IngestStats.ProcessorStats> processorStats() {
+        List<IngestStats.ProcessorStats> stats = new ArrayList<>();
+        addProcessorStats(stats, processors, processorMetrics);
+        addProcessorStats(stats, onFailureProcessors, onFailureProcessorMetrics);
+        return stats;
+    }
+
+    private static void addProcessorStats(List<IngestStats.ProcessorStats> stats, List<Processor> processors,
+                                          ProcessorMetric[] metrics) {
+        for (int i = 0; i < metrics.length; i++) {
+            Processor processor = processors.get(i);
+            if (processor instanceof CompoundProcessor) {
+                stats.addAll(((CompoundProcessor) processor).processorStats());
+            } else {
+                Map<String, Long> counters = processor instanceof IngestStats.ProcessorCountersProvider ?
+                    ((IngestStats.ProcessorCountersProvider) processor).counters() : Collections.emptyMap();
+                stats.add(metrics[i].createStats(processor.getType(), processor.getTag(), counters));
+            }
+        }
+    }
+
     @Override
     public String getType() {
         return "compound";
@@ -90,9 +167,10 @@ public class CompoundProcessor implements Processor {
 
     @Override
     public void execute(IngestDocument ingestDocument) throws Exception {
-        for (Processor processor : processors) {
+        for (int i = 0; i < processors.size(); i++) {
+            Processor processor = processors.get(i);
             try {
-                processor.execute(ingestDocument);
+                execute(processor, processorMetrics[i], ingestDocument);
             } catch (Exception e) {
                 if (onFailureProcessors.isEmpty()) {
                     throw e;
@@ -107,14 +185,29 @@ public class CompoundProcessor implements Processor {
     void executeOnFailure(IngestDocument ingestDocument, Exception cause, String failedProcessorType, String failedProcessorTag) throws Exception {
         try {
             putFailureMetadata(ingestDocument, cause, failedProcessorType, failedProcessorTag);
-            for (Processor processor : onFailureProcessors) {
-                processor.execute(ingestDocument);
+            for (int i = 0; i < onFailureProcessors.size(); i++) {
+                execute(onFailureProcessors.get(i), onFailureProcessorMetrics[i], ingestDocument);
             }
         } finally {
             removeFailureMetadata(ingestDocument);
         }
     }
 
+    private static void execute(Processor processor, ProcessorMetric metric, IngestDocument ingestDocument) throws Exception {
+        if (metric == null) {
+            processor.execute(ingestDocument);
+            return;
+        }
+        long startTimeInNanos = System.nanoTime();
+        boolean failed = true;
+        try {
+            processor.execute(ingestDocument);
+            failed = false;
+        } finally {
+            metric.record(System.nanoTime() - startTimeInNanos, failed);
+        }
+    }
+
     private void putFailureMetadata(IngestDocument ingestDocument, Exception cause, String failedProcessorType, String failedProcessorTag) {
         Map<String, String> ingestMetadata = ingestDocument.getIngestMetadata();
         ingestMetadata.put(ON_FAILURE_MESSAGE_FIELD, cause.getMessage());
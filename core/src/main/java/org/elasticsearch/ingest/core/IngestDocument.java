@@ -21,6 +21,7 @@ package org.elasticsearch.ingest.core;
 
 import org.elasticsearch.common.Base64;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.index.mapper.internal.IdFieldMapper;
 import org.elasticsearch.index.mapper.internal.IndexFieldMapper;
 import org.elasticsearch.index.mapper.internal.ParentFieldMapper;
@@ -34,19 +35,25 @@ import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentMap;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Represents a single document being captured before indexing and holds the source and metadata (like id, type and index).
+ * Copies of a document share their maps and lists with the original document until either of them modifies them, in which
+ * case only the maps and lists along the modified path are copied.
  */
 public final class IngestDocument {
 
@@ -54,8 +61,13 @@ public final class IngestDocument {
 
     static final String TIMESTAMP = "timestamp";
 
-    private final Map<String, Object> sourceAndMetadata;
-    private final Map<String, String> ingestMetadata;
+    private static final int MAX_CACHED_FIELD_PATHS = 1024;
+    private static final ConcurrentMap<String, FieldPath> FIELD_PATHS = ConcurrentCollections.newConcurrentMap();
+
+    private Map<String, Object> sourceAndMetadata;
+    private Map<String, String> ingestMetadata;
+    // the maps and lists of this document that are not shared with a copy of it, null if nothing is shared
+    private Set<Object> ownedContainers;
 
     public IngestDocument(String index, String type, String id, String routing, String parent, String timestamp, String ttl, Map<String, Object> source) {
         this.sourceAndMetadata = new HashMap<>();
@@ -86,7 +98,10 @@ public final class IngestDocument {
      * Copy constructor that creates a new {@link IngestDocument} which has exactly the same properties as the one provided as argument
      */
     public IngestDocument(IngestDocument other) {
-        this(deepCopyMap(other.sourceAndMetadata), deepCopyMap(other.ingestMetadata));
+        this(other.sourceAndMetadata, other.ingestMetadata);
+        // from now on both documents copy the maps and lists they modify
+        this.ownedContainers = Collections.newSetFromMap(new IdentityHashMap<>());
+        other.ownedContainers = Collections.newSetFromMap(new IdentityHashMap<>());
     }
 
     /**
@@ -108,11 +123,19 @@ public final class IngestDocument {
      * or if the field that is found at the provided path is not of the expected type.
      */
     public <T> T getFieldValue(String path, Class<T> clazz) {
-        FieldPath fieldPath = new FieldPath(path);
-        Object context = fieldPath.initialContext;
+        FieldPath fieldPath = FieldPath.of(path);
+        Object context = initialContext(fieldPath);
         for (String pathElement : fieldPath.pathElements) {
             context = resolve(pathElement, path, context);
         }
+        if (ownedContainers != null && (context instanceof Map || context instanceof List)) {
+            // the caller may modify the returned map or list, it must not be shared with a copy of this document
+            context = initialWritableContext(fieldPath);
+            for (String pathElement : fieldPath.pathElements) {
+                context = resolveWritable(pathElement, path, context);
+            }
+            context = unshareDeep(context);
+        }
         return cast(path, context, clazz);
     }
 
@@ -170,8 +193,8 @@ public final class IngestDocument {
      * @throws IllegalArgumentException if the path is null, empty or invalid.
      */
     public boolean hasField(String path) {
-        FieldPath fieldPath = new FieldPath(path);
-        Object context = fieldPath.initialContext;
+        FieldPath fieldPath = FieldPath.of(path);
+        Object context = initialContext(fieldPath);
         for (int i = 0; i < fieldPath.pathElements.length - 1; i++) {
             String pathElement = fieldPath.pathElements[i];
             if (context == null) {
@@ -233,10 +256,10 @@ public final class IngestDocument {
      * @throws IllegalArgumentException if the path is null, empty, invalid or if the field doesn't exist.
      */
     public void removeField(String path) {
-        FieldPath fieldPath = new FieldPath(path);
-        Object context = fieldPath.initialContext;
+        FieldPath fieldPath = FieldPath.of(path);
+        Object context = initialWritableContext(fieldPath);
         for (int i = 0; i < fieldPath.pathElements.length - 1; i++) {
-            context = resolve(fieldPath.pathElements[i], path, context);
+            context = resolveWritable(fieldPath.pathElements[i], path, context);
         }
 
         String leafKey = fieldPath.pathElements[fieldPath.pathElements.length - 1];
@@ -300,6 +323,28 @@ public final class IngestDocument {
         throw new IllegalArgumentException("cannot resolve [" + pathElement + "] from object of type [" + context.getClass().getName() + "] as part of path [" + fullPath + "]");
     }
 
+    /**
+     * Resolves the path element like {@link #resolve(String, String, Object)} but makes sure that the returned map or list is not
+     * shared with a copy of this document. The context must not be shared either.
+     */
+    private Object resolveWritable(String pathElement, String fullPath, Object context) {
+        Object value = resolve(pathElement, fullPath, context);
+        Object writableValue = unshare(value);
+        if (writableValue != value) {
+            replace(context, pathElement, writableValue);
+        }
+        return writableValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void replace(Object context, String pathElement, Object value) {
+        if (context instanceof Map) {
+            ((Map<String, Object>) context).put(pathElement, value);
+        } else {
+            ((List<Object>) context).set(Integer.parseInt(pathElement), value);
+        }
+    }
+
     /**
      * Appends the provided value to the provided path in the document.
      * Any non existing path element will be created.
@@ -362,8 +407,8 @@ public final class IngestDocument {
     }
 
     private void setFieldValue(String path, Object value, boolean append) {
-        FieldPath fieldPath = new FieldPath(path);
-        Object context = fieldPath.initialContext;
+        FieldPath fieldPath = FieldPath.of(path);
+        Object context = initialWritableContext(fieldPath);
         for (int i = 0; i < fieldPath.pathElements.length - 1; i++) {
             String pathElement = fieldPath.pathElements[i];
             if (context == null) {
@@ -373,10 +418,13 @@ public final class IngestDocument {
                 @SuppressWarnings("unchecked")
                 Map<String, Object> map = (Map<String, Object>) context;
                 if (map.containsKey(pathElement)) {
-                    context = map.get(pathElement);
+                    context = resolveWritable(pathElement, path, map);
                 } else {
                     HashMap<Object, Object> newMap = new HashMap<>();
                     map.put(pathElement, newMap);
+                    if (ownedContainers != null) {
+                        ownedContainers.add(newMap);
+                    }
                     context = newMap;
                 }
             } else if (context instanceof List) {
@@ -391,7 +439,7 @@ public final class IngestDocument {
                 if (index < 0 || index >= list.size()) {
                     throw new IllegalArgumentException("[" + index + "] is out of bounds for array with length [" + list.size() + "] as part of path [" + path + "]");
                 }
-                context = list.get(index);
+                context = resolveWritable(pathElement, path, list);
             } else {
                 throw new IllegalArgumentException("cannot resolve [" + pathElement + "] from object of type [" + context.getClass().getName() + "] as part of path [" + path + "]");
             }
@@ -406,7 +454,7 @@ public final class IngestDocument {
             Map<String, Object> map = (Map<String, Object>) context;
             if (append) {
                 if (map.containsKey(leafKey)) {
-                    Object object = map.get(leafKey);
+                    Object object = resolveWritable(leafKey, path, map);
                     List<Object> list = appendValues(object, value);
                     if (list != object) {
                         map.put(leafKey, list);
@@ -432,7 +480,7 @@ public final class IngestDocument {
                 throw new IllegalArgumentException("[" + index + "] is out of bounds for array with length [" + list.size() + "] as part of path [" + path + "]");
             }
             if (append) {
-                Object object = list.get(index);
+                Object object = resolveWritable(leafKey, path, list);
                 List<Object> newList = appendValues(object, value);
                 if (newList != object) {
                     list.set(index, newList);
@@ -498,6 +546,7 @@ public final class IngestDocument {
      * Metadata fields that used to be accessible as ordinary top level fields will be removed as part of this call.
      */
     public Map<MetaData, String> extractMetadata() {
+        sourceAndMetadata = unshare(sourceAndMetadata);
         Map<MetaData, String> metadataMap = new HashMap<>();
         for (MetaData metaData : MetaData.values()) {
             metadataMap.put(metaData, cast(metaData.getFieldName(), sourceAndMetadata.remove(metaData.getFieldName()), String.class));
@@ -510,6 +559,7 @@ public final class IngestDocument {
      * Use only for reading values, modify them instead using {@link #setFieldValue(String, Object)} and {@link #removeField(String)}
      */
     public Map<String, String> getIngestMetadata() {
+        ingestMetadata = unshare(ingestMetadata);
         return this.ingestMetadata;
     }
 
@@ -519,39 +569,87 @@ public final class IngestDocument {
      * Modify the document instead using {@link #setFieldValue(String, Object)} and {@link #removeField(String)}
      */
     public Map<String, Object> getSourceAndMetadata() {
+        if (ownedContainers != null) {
+            // the caller may modify any map or list of the document, so nothing may be shared with a copy of it anymore
+            sourceAndMetadata = unshareDeep(sourceAndMetadata);
+            ingestMetadata = unshare(ingestMetadata);
+            ownedContainers = null;
+        }
         return this.sourceAndMetadata;
     }
 
-    @SuppressWarnings("unchecked")
-    private static <K, V> Map<K, V> deepCopyMap(Map<K, V> source) {
-        return (Map<K, V>) deepCopy(source);
+    /**
+     * Returns the document including its metadata fields like {@link #getSourceAndMetadata()} but, unlike it, never copies the
+     * maps and lists this document shares with its copies. Neither the returned map nor the values it holds must be modified.
+     */
+    public Map<String, Object> getUnmodifiableSourceAndMetadata() {
+        return Collections.unmodifiableMap(sourceAndMetadata);
     }
 
-    private static Object deepCopy(Object value) {
+    /**
+     * Returns the given map or list, or a shallow copy of it if it may be shared with a copy of this document. Any other value
+     * is returned as is.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T unshare(T value) {
+        if (ownedContainers == null) {
+            return value;
+        }
+        final Object copy;
         if (value instanceof Map) {
-            Map<?, ?> mapValue = (Map<?, ?>) value;
-            Map<Object, Object> copy = new HashMap<>(mapValue.size());
-            for (Map.Entry<?, ?> entry : mapValue.entrySet()) {
-                copy.put(entry.getKey(), deepCopy(entry.getValue()));
+            if (ownedContainers.contains(value)) {
+                return value;
             }
-            return copy;
+            copy = new HashMap<>((Map<?, ?>) value);
         } else if (value instanceof List) {
-            List<?> listValue = (List<?>) value;
-            List<Object> copy = new ArrayList<>(listValue.size());
-            for (Object itemValue : listValue) {
-                copy.add(deepCopy(itemValue));
+            if (ownedContainers.contains(value)) {
+                return value;
             }
-            return copy;
-        } else if (value instanceof byte[]) {
-            byte[] bytes = (byte[]) value;
-            return Arrays.copyOf(bytes, bytes.length);
-        } else if (value == null || value instanceof String || value instanceof Integer ||
-            value instanceof Long || value instanceof Float ||
-            value instanceof Double || value instanceof Boolean) {
-            return value;
+            copy = new ArrayList<>((List<?>) value);
         } else {
-            throw new IllegalArgumentException("unexpected value type [" + value.getClass() + "]");
+            return value;
         }
+        ownedContainers.add(copy);
+        return (T) copy;
+    }
+
+    /**
+     * Like {@link #unshare(Object)} but also makes sure that none of the maps and lists nested in the given value is shared.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T unshareDeep(T value) {
+        T writableValue = unshare(value);
+        if (writableValue instanceof Map) {
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) writableValue).entrySet()) {
+                Object child = entry.getValue();
+                Object writableChild = unshareDeep(child);
+                if (writableChild != child) {
+                    entry.setValue(writableChild);
+                }
+            }
+        } else if (writableValue instanceof List) {
+            for (ListIterator<Object> iterator = ((List<Object>) writableValue).listIterator(); iterator.hasNext(); ) {
+                Object child = iterator.next();
+                Object writableChild = unshareDeep(child);
+                if (writableChild != child) {
+                    iterator.set(writableChild);
+                }
+            }
+        }
+        return writableValue;
+    }
+
+    private Object initialContext(FieldPath fieldPath) {
+        return fieldPath.ingestMetadata ? ingestMetadata : sourceAndMetadata;
+    }
+
+    private Object initialWritableContext(FieldPath fieldPath) {
+        if (fieldPath.ingestMetadata) {
+            ingestMetadata = unshare(ingestMetadata);
+            return ingestMetadata;
+        }
+        sourceAndMetadata = unshare(sourceAndMetadata);
+        return sourceAndMetadata;
     }
 
     @Override
@@ -599,9 +697,24 @@ public final class IngestDocument {
         }
     }
 
-    private class FieldPath {
+    /**
+     * A parsed path, paths are parsed once and cached since processors access the same paths for every document.
+     */
+    private static final class FieldPath {
         private final String[] pathElements;
-        private final Object initialContext;
+        private final boolean ingestMetadata;
+
+        static FieldPath of(String path) {
+            FieldPath fieldPath = path == null ? null : FIELD_PATHS.get(path);
+            if (fieldPath == null) {
+                fieldPath = new FieldPath(path);
+                // paths may be rendered from templates, so we stop caching new paths rather than growing forever
+                if (FIELD_PATHS.size() < MAX_CACHED_FIELD_PATHS) {
+                    FIELD_PATHS.putIfAbsent(path, fieldPath);
+                }
+            }
+            return fieldPath;
+        }
 
         private FieldPath(String path) {
             if (Strings.isEmpty(path)) {
@@ -609,10 +722,10 @@ public final class IngestDocument {
             }
             String newPath;
             if (path.startsWith(INGEST_KEY + ".")) {
-                initialContext = ingestMetadata;
+                ingestMetadata = true;
                 newPath = path.substring(8, path.length());
             } else {
-                initialContext = sourceAndMetadata;
+                ingestMetadata = false;
                 if (path.startsWith(SourceFieldMapper.NAME + ".")) {
                     newPath = path.substring(8, path.length());
                 } else {
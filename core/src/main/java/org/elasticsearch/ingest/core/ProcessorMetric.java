@@ -0,0 +1,114 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest.core;
+
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.metrics.MeanMetric;
+import org.elasticsearch.ingest.IngestStats;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps track of the executions of a single processor: how often it ran, how long it took, how often it failed and a
+ * histogram of its latencies. The histogram has a bucket per power of two that is split into eight linear sub buckets,
+ * so that the reported percentiles are at most 12.5% above the actual latencies.
+ */
+public final class ProcessorMetric {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // latencies below this many nanos get a bucket of their own
+    private static final int LINEAR_BUCKETS = SUB_BUCKETS * 2;
+    private static final int LINEAR_BUCKETS_BITS = SUB_BUCKET_BITS + 1;
+    // 2^40 nanos is about 18 minutes, longer executions end up in the last bucket
+    private static final int MAX_EXPONENT = 40;
+    static final int NUM_BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - LINEAR_BUCKETS_BITS) * SUB_BUCKETS;
+
+    private final MeanMetric executionMetric = new MeanMetric();
+    private final CounterMetric failedMetric = new CounterMetric();
+    private final AtomicLongArray histogram = new AtomicLongArray(NUM_BUCKETS);
+
+    /**
+     * Records an execution that took the given number of nanoseconds.
+     */
+    public void record(long timeInNanos, boolean failed) {
+        executionMetric.inc(timeInNanos);
+        if (failed) {
+            failedMetric.inc();
+        }
+        histogram.incrementAndGet(bucket(timeInNanos));
+    }
+
+    public IngestStats.ProcessorStats createStats(String type, String tag) {
+        return createStats(type, tag, Collections.emptyMap());
+    }
+
+    public IngestStats.ProcessorStats createStats(String type, String tag, Map<String, Long> counters) {
+        long[] counts = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        return new IngestStats.ProcessorStats(type, tag, executionMetric.count(), executionMetric.sum(), failedMetric.count(),
+            percentile(counts, total, 50), percentile(counts, total, 90), percentile(counts, total, 99), counters);
+    }
+
+    /**
+     * @return the upper bound of the bucket that holds the given percentile of all recorded latencies
+     */
+    static long percentile(long[] counts, long total, double percent) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(counts.length - 1);
+    }
+
+    static int bucket(long timeInNanos) {
+        if (timeInNanos < LINEAR_BUCKETS) {
+            return (int) Math.max(0, timeInNanos);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(timeInNanos);
+        if (exponent >= MAX_EXPONENT) {
+            return NUM_BUCKETS - 1;
+        }
+        int subBucket = (int) (timeInNanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - LINEAR_BUCKETS_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_BUCKETS_BITS;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -19,9 +19,11 @@
 
 package org.elasticsearch.ingest.processor;
 
+import org.elasticsearch.common.joda.FastDateParser;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.ISODateTimeFormat;
 
 import java.util.Locale;
@@ -31,7 +33,15 @@ enum DateFormat {
     Iso8601 {
         @Override
         Function<String, DateTime> getFunction(String format, DateTimeZone timezone, Locale locale) {
-            return ISODateTimeFormat.dateTimeParser().withZone(timezone)::parseDateTime;
+            DateTimeFormatter parser = ISODateTimeFormat.dateTimeParser().withZone(timezone);
+            return (date) -> {
+                // the common layouts don't need to go through joda
+                long millis = FastDateParser.parseDateOptionalTime(date, timezone);
+                if (millis != FastDateParser.NOT_PARSED) {
+                    return new DateTime(millis, timezone);
+                }
+                return parser.parseDateTime(date);
+            };
         }
     },
     Unix {
@@ -70,6 +70,7 @@ public final class DateProcessor extends AbstractProcessor {
         for (Function<String, DateTime> dateParser : dateParsers) {
             try {
                 dateTime = dateParser.apply(value);
+                break;
             } catch (Exception e) {
                 //try the next parser and keep track of the exceptions
                 lastException = ExceptionsHelper.useOrSuppress(lastException, e);
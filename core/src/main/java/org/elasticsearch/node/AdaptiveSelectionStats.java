@@ -0,0 +1,88 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.node;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.node.ResponseCollectorService.ComputedNodeStats;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The statistics a node collected about the other nodes it sent searches to, which are the inputs of adaptive replica selection.
+ */
+public class AdaptiveSelectionStats implements Writeable, ToXContent {
+
+    private final Map<String, ComputedNodeStats> nodeComputedStats;
+
+    public AdaptiveSelectionStats(Map<String, ComputedNodeStats> nodeComputedStats) {
+        this.nodeComputedStats = nodeComputedStats;
+    }
+
+    /**
+     * Read from a stream.
+     */
+    public AdaptiveSelectionStats(StreamInput in) throws IOException {
+        int size = in.readVInt();
+        this.nodeComputedStats = new HashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            nodeComputedStats.put(in.readString(), new ComputedNodeStats(in));
+        }
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(nodeComputedStats.size());
+        for (Map.Entry<String, ComputedNodeStats> entry : nodeComputedStats.entrySet()) {
+            out.writeString(entry.getKey());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    /**
+     * @return the statistics of each node that executed searches for this node, keyed by node id
+     */
+    public Map<String, ComputedNodeStats> getComputedStats() {
+        return nodeComputedStats;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject("adaptive_selection");
+        for (Map.Entry<String, ComputedNodeStats> entry : nodeComputedStats.entrySet()) {
+            ComputedNodeStats stats = entry.getValue();
+            builder.startObject(entry.getKey());
+            builder.field("outgoing_searches", stats.getOutgoingSearches());
+            builder.field("avg_queue_size", stats.getQueueSize());
+            builder.timeValueField("avg_service_time_ns", "avg_service_time", (long) stats.getServiceTime(), TimeUnit.NANOSECONDS);
+            builder.timeValueField("avg_response_time_ns", "avg_response_time", (long) stats.getResponseTime(), TimeUnit.NANOSECONDS);
+            builder.field("rank", stats.rank());
+            builder.endObject();
+        }
+        builder.endObject();
+        return builder;
+    }
+}
@@ -96,6 +96,7 @@ public class NodeModule extends AbstractModule {
         bind(Node.class).toInstance(node);
         bind(MonitorService.class).toInstance(monitorService);
         bind(NodeService.class).asEagerSingleton();
+        bind(ResponseCollectorService.class).asEagerSingleton();
         bind(ProcessorsRegistry.Builder.class).toInstance(processorsRegistryBuilder);
     }
 
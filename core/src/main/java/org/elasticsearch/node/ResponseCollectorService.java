@@ -0,0 +1,248 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.node;
+
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterStateListener;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.metrics.ExponentiallyWeightedMovingAverage;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the queue size, response time and service time that other nodes report on the results of the searches this node
+ * sends them, as well as the number of searches that are in flight to each node, so that the copies of a shard can be ranked
+ * by their expected latency. This is the ranking function of C3 (Suresh et al., "C3: Cutting Tail Latency in Cloud Data
+ * Stores via Adaptive Replica Selection").
+ */
+public final class ResponseCollectorService extends AbstractComponent implements ClusterStateListener {
+
+    /**
+     * The weight of a new value in the moving averages that are maintained for each node.
+     */
+    public static final double ALPHA = 0.3;
+
+    private final ConcurrentMap<String, NodeStatistics> nodeIdToStats = ConcurrentCollections.newConcurrentMap();
+    private final ConcurrentMap<String, AtomicLong> nodeIdToOutgoingSearches = ConcurrentCollections.newConcurrentMap();
+
+    @Inject
+    public ResponseCollectorService(Settings settings, ClusterService clusterService) {
+        super(settings);
+        clusterService.add(this);
+    }
+
+    @Override
+    public void clusterChanged(ClusterChangedEvent event) {
+        if (event.nodesRemoved()) {
+            for (DiscoveryNode removedNode : event.nodesDelta().removedNodes()) {
+                removeNode(removedNode.getId());
+            }
+        }
+    }
+
+    void removeNode(String nodeId) {
+        nodeIdToStats.remove(nodeId);
+        nodeIdToOutgoingSearches.remove(nodeId);
+    }
+
+    /**
+     * Records the statistics a node reported on a search result.
+     *
+     * @param nodeId            the id of the node that executed the search
+     * @param queueSize         the number of searches that were waiting in the search queue of the node
+     * @param responseTimeNanos the time it took from sending the search to receiving its result, as seen from this node
+     * @param serviceTimeNanos  the average time the node spends executing a search
+     */
+    public void addNodeStatistics(String nodeId, int queueSize, long responseTimeNanos, long serviceTimeNanos) {
+        nodeIdToStats.compute(nodeId, (id, stats) -> {
+            if (stats == null) {
+                return new NodeStatistics(queueSize, responseTimeNanos, serviceTimeNanos);
+            }
+            stats.queueSize.addValue(queueSize);
+            stats.responseTime.addValue(responseTimeNanos);
+            stats.serviceTime.addValue(serviceTimeNanos);
+            return stats;
+        });
+    }
+
+    /**
+     * Must be called when a search is sent to the given node, and be followed by a call to {@link #onSearchDone(String)}.
+     */
+    public void onSearchSent(String nodeId) {
+        nodeIdToOutgoingSearches.computeIfAbsent(nodeId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Must be called when a search that was sent to the given node returned, whether it succeeded or failed.
+     */
+    public void onSearchDone(String nodeId) {
+        AtomicLong outgoingSearches = nodeIdToOutgoingSearches.get(nodeId);
+        if (outgoingSearches != null) {
+            outgoingSearches.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of searches that this node sent to the given node and that did not return yet
+     */
+    public long getOutgoingSearches(String nodeId) {
+        AtomicLong outgoingSearches = nodeIdToOutgoingSearches.get(nodeId);
+        // the node may have left and come back while searches were in flight, those must not be counted twice
+        return outgoingSearches == null ? 0 : Math.max(0, outgoingSearches.get());
+    }
+
+    /**
+     * @return the statistics of the given node, or <code>null</code> if the node did not execute any search for this node yet
+     */
+    public ComputedNodeStats getNodeStatistics(String nodeId, int clientCount) {
+        NodeStatistics stats = nodeIdToStats.get(nodeId);
+        if (stats == null) {
+            return null;
+        }
+        return new ComputedNodeStats(getOutgoingSearches(nodeId), clientCount, stats.queueSize.getAverage(),
+            stats.responseTime.getAverage(), stats.serviceTime.getAverage());
+    }
+
+    /**
+     * @param clientCount the number of nodes that may send searches to the ranked nodes, see {@link ComputedNodeStats#rank(long)}
+     */
+    public AdaptiveSelectionStats getAdaptiveStats(int clientCount) {
+        Map<String, ComputedNodeStats> nodeStats = new HashMap<>(nodeIdToStats.size());
+        for (String nodeId : nodeIdToStats.keySet()) {
+            ComputedNodeStats stats = getNodeStatistics(nodeId, clientCount);
+            if (stats != null) {
+                nodeStats.put(nodeId, stats);
+            }
+        }
+        return new AdaptiveSelectionStats(nodeStats);
+    }
+
+    private static class NodeStatistics {
+        final ExponentiallyWeightedMovingAverage queueSize;
+        final ExponentiallyWeightedMovingAverage responseTime;
+        final ExponentiallyWeightedMovingAverage serviceTime;
+
+        NodeStatistics(int queueSize, long responseTimeNanos, long serviceTimeNanos) {
+            this.queueSize = new ExponentiallyWeightedMovingAverage(ALPHA, queueSize);
+            this.responseTime = new ExponentiallyWeightedMovingAverage(ALPHA, responseTimeNanos);
+            this.serviceTime = new ExponentiallyWeightedMovingAverage(ALPHA, serviceTimeNanos);
+        }
+    }
+
+    /**
+     * A snapshot of the statistics of a node, which can rank it against the other nodes.
+     */
+    public static class ComputedNodeStats implements Writeable {
+
+        private final long outgoingSearches;
+        private final int clientCount;
+        private final double queueSize;
+        private final double responseTime;
+        private final double serviceTime;
+
+        public ComputedNodeStats(long outgoingSearches, int clientCount, double queueSize, double responseTime, double serviceTime) {
+            this.outgoingSearches = outgoingSearches;
+            this.clientCount = clientCount;
+            this.queueSize = queueSize;
+            this.responseTime = responseTime;
+            this.serviceTime = serviceTime;
+        }
+
+        /**
+         * Read from a stream.
+         */
+        public ComputedNodeStats(StreamInput in) throws IOException {
+            this.outgoingSearches = in.readVLong();
+            this.clientCount = in.readVInt();
+            this.queueSize = in.readDouble();
+            this.responseTime = in.readDouble();
+            this.serviceTime = in.readDouble();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(outgoingSearches);
+            out.writeVInt(clientCount);
+            out.writeDouble(queueSize);
+            out.writeDouble(responseTime);
+            out.writeDouble(serviceTime);
+        }
+
+        /**
+         * @return the number of searches that were sent to the node and did not return yet
+         */
+        public long getOutgoingSearches() {
+            return outgoingSearches;
+        }
+
+        /**
+         * @return the moving average of the search queue size of the node
+         */
+        public double getQueueSize() {
+            return queueSize;
+        }
+
+        /**
+         * @return the moving average of the response time of the node in nanoseconds
+         */
+        public double getResponseTime() {
+            return responseTime;
+        }
+
+        /**
+         * @return the moving average of the service time of the node in nanoseconds
+         */
+        public double getServiceTime() {
+            return serviceTime;
+        }
+
+        /**
+         * @return the rank of the node with the searches that are in flight to it from this node
+         */
+        public double rank() {
+            return rank(outgoingSearches);
+        }
+
+        /**
+         * Computes the expected latency of a search on the node, lower is better. The queue size the node reported is
+         * compensated with the searches that are in flight to it, multiplied by the number of clients since every other
+         * node is expected to send it as many searches. The estimated queue is penalized cubically so that a node with a
+         * long queue is avoided even if it serves searches quickly.
+         *
+         * @param outgoingSearches the number of searches that are in flight to the node from this node
+         */
+        public double rank(long outgoingSearches) {
+            double queueSizeEstimate = 1 + (outgoingSearches * clientCount) + queueSize;
+            return responseTime + (Math.pow(queueSizeEstimate, 3) - 1) * serviceTime;
+        }
+    }
+}
@@ -37,6 +37,8 @@ import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.ingest.IngestService;
 import org.elasticsearch.ingest.ProcessorsRegistry;
 import org.elasticsearch.monitor.MonitorService;
+import org.elasticsearch.node.AdaptiveSelectionStats;
+import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.plugins.PluginsService;
 import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -62,6 +64,8 @@ public class NodeService extends AbstractComponent implements Closeable {
     private final CircuitBreakerService circuitBreakerService;
     private final IngestService ingestService;
     private final SettingsFilter settingsFilter;
+    private final ClusterService clusterService;
+    private final ResponseCollectorService responseCollectorService;
     private ScriptService scriptService;
 
     @Nullable
@@ -77,7 +81,8 @@ public class NodeService extends AbstractComponent implements Closeable {
     public NodeService(Settings settings, ThreadPool threadPool, MonitorService monitorService,
                        Discovery discovery, TransportService transportService, IndicesService indicesService,
                        PluginsService pluginService, CircuitBreakerService circuitBreakerService, Version version,
-                       ProcessorsRegistry.Builder processorsRegistryBuilder, ClusterService clusterService, SettingsFilter settingsFilter) {
+                       ProcessorsRegistry.Builder processorsRegistryBuilder, ClusterService clusterService, SettingsFilter settingsFilter,
+                       ResponseCollectorService responseCollectorService) {
         super(settings);
         this.threadPool = threadPool;
         this.monitorService = monitorService;
@@ -89,6 +94,8 @@ public class NodeService extends AbstractComponent implements Closeable {
         this.circuitBreakerService = circuitBreakerService;
         this.ingestService = new IngestService(settings, threadPool, processorsRegistryBuilder);
         this.settingsFilter = settingsFilter;
+        this.clusterService = clusterService;
+        this.responseCollectorService = responseCollectorService;
         clusterService.add(ingestService.getPipelineStore());
         clusterService.add(ingestService.getPipelineExecutionService());
     }
@@ -167,13 +174,14 @@ public class NodeService extends AbstractComponent implements Closeable {
                 circuitBreakerService.stats(),
                 scriptService.stats(),
                 discovery.stats(),
-                ingestService.getPipelineExecutionService().stats()
+                ingestService.getPipelineExecutionService().stats(),
+                adaptiveSelectionStats()
         );
     }
 
     public NodeStats stats(CommonStatsFlags indices, boolean os, boolean process, boolean jvm, boolean threadPool,
                            boolean fs, boolean transport, boolean http, boolean circuitBreaker,
-                           boolean script, boolean discoveryStats, boolean ingest) {
+                           boolean script, boolean discoveryStats, boolean ingest, boolean adaptiveSelection) {
         // for indices stats we want to include previous allocated shards stats as well (it will
         // only be applied to the sensible ones to use, like refresh/merge/flush/indexing stats)
         return new NodeStats(discovery.localNode(), System.currentTimeMillis(),
@@ -188,10 +196,15 @@ public class NodeService extends AbstractComponent implements Closeable {
                 circuitBreaker ? circuitBreakerService.stats() : null,
                 script ? scriptService.stats() : null,
                 discoveryStats ? discovery.stats() : null,
-                ingest ? ingestService.getPipelineExecutionService().stats() : null
+                ingest ? ingestService.getPipelineExecutionService().stats() : null,
+                adaptiveSelection ? adaptiveSelectionStats() : null
         );
     }
 
+    private AdaptiveSelectionStats adaptiveSelectionStats() {
+        return responseCollectorService.getAdaptiveStats(clusterService.state().nodes().getSize());
+    }
+
     public IngestService getIngestService() {
         return ingestService;
     }
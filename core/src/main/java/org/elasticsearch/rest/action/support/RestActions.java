@@ -67,6 +67,7 @@ public class RestActions {
         static final String _SHARDS = "_shards";
         static final String TOTAL = "total";
         static final String SUCCESSFUL = "successful";
+        static final String SKIPPED = "skipped";
         static final String FAILED = "failed";
         static final String FAILURES = "failures";
     }
@@ -76,9 +77,22 @@ public class RestActions {
     }
 
     public static void buildBroadcastShardsHeader(XContentBuilder builder, ToXContent.Params params, int total, int successful, int failed, ShardOperationFailedException[] shardFailures) throws IOException {
+        buildBroadcastShardsHeader(builder, params, total, successful, -1, failed, shardFailures);
+    }
+
+    /**
+     * Builds the shards header of a response that may have skipped some shards, the number of skipped shards is left out
+     * if it is negative.
+     */
+    public static void buildBroadcastShardsHeader(XContentBuilder builder, ToXContent.Params params, int total, int successful,
+                                                  int skipped, int failed, ShardOperationFailedException[] shardFailures)
+            throws IOException {
         builder.startObject(Fields._SHARDS);
         builder.field(Fields.TOTAL, total);
         builder.field(Fields.SUCCESSFUL, successful);
+        if (skipped >= 0) {
+            builder.field(Fields.SKIPPED, skipped);
+        }
         builder.field(Fields.FAILED, failed);
         if (shardFailures != null && shardFailures.length > 0) {
             builder.startArray(Fields.FAILURES);
@@ -29,7 +29,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.lucene.search.FieldDoc;
@@ -45,6 +47,7 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.common.metrics.ExponentiallyWeightedMovingAverage;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
@@ -63,11 +66,14 @@ import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.query.QueryParseContext;
 import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.index.query.InnerHitBuilder;
+import org.elasticsearch.index.query.MatchAllQueryBuilder;
+import org.elasticsearch.index.query.MatchNoneQueryBuilder;
 import org.elasticsearch.index.search.stats.StatsGroupsParseElement;
 import org.elasticsearch.index.shard.IndexEventListener;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.SearchOperationListener;
 import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.script.ExecutableScript;
 import org.elasticsearch.script.ScriptContext;
 import org.elasticsearch.script.ScriptService;
@@ -152,6 +158,9 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> imp
 
     private final AtomicLong idGenerator = new AtomicLong();
 
+    private final ExponentiallyWeightedMovingAverage queryPhaseTimeEWMA =
+        new ExponentiallyWeightedMovingAverage(ResponseCollectorService.ALPHA, 0);
+
     private final ConcurrentMapLong<SearchContext> activeContexts = ConcurrentCollections.newConcurrentMapLongWithAggressiveConcurrency();
 
     private final Map<String, SearchParseElement> elementParsers;
@@ -282,6 +291,7 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> imp
             contextProcessing(context);
 
             loadOrExecuteQueryPhase(request, context, queryPhase);
+            setAdaptiveSelectionStats(context.queryResult(), System.nanoTime() - time);
 
             if (context.queryResult().topDocs().scoreDocs.length == 0 && context.scrollContext() == null) {
                 freeContext(context.id());
@@ -355,6 +365,19 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> imp
         }
     }
 
+    /**
+     * Reports the search queue size and the average query phase time of this node on the given result, so that the coordinating
+     * node can rank the copies of a shard for adaptive replica selection.
+     */
+    private void setAdaptiveSelectionStats(QuerySearchResult result, long queryPhaseTimeInNanos) {
+        queryPhaseTimeEWMA.addValue(queryPhaseTimeInNanos);
+        result.serviceTimeEWMA((long) queryPhaseTimeEWMA.getAverage());
+        Executor executor = threadPool.executor(ThreadPool.Names.SEARCH);
+        if (executor instanceof ThreadPoolExecutor) {
+            result.nodeQueueSize(((ThreadPoolExecutor) executor).getQueue().size());
+        }
+    }
+
     private boolean fetchPhaseShouldFreeContext(SearchContext context) {
         if (context.scrollContext() == null) {
             // simple search, no scroll
@@ -380,6 +403,7 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> imp
             }
             long time2 = System.nanoTime();
             operationListener.onQueryPhase(context, time2 - time);
+            setAdaptiveSelectionStats(context.queryResult(), time2 - time);
             operationListener.onPreFetchPhase(context);
             try {
                 shortcutDocIdsToLoad(context);
@@ -540,17 +564,53 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> imp
         }
     }
 
-    final SearchContext createContext(ShardSearchRequest request, @Nullable Engine.Searcher searcher) throws IOException {
+    /**
+     * Rewrites the query of the given request against this shard and returns whether it may match any document. This only
+     * rewrites the query, it neither builds nor executes it and does not keep a search context around, so it is much cheaper
+     * than the query phase for shards that cannot match, like those of indices that lie outside of a time range.
+     */
+    public boolean canMatch(ShardSearchRequest request) throws IOException {
+        if (request.template() != null || canRewriteToMatchNone(request.source()) == false) {
+            return true;
+        }
+        // the context takes care of resolving date math like now the same way the query phase does
+        DefaultSearchContext context = createSearchContext(request, null, "can_match");
+        SearchContext.setCurrent(context);
+        try {
+            request.rewrite(context.getQueryShardContext());
+            return request.source().query() instanceof MatchNoneQueryBuilder == false;
+        } finally {
+            SearchContext.removeCurrent();
+            context.close();
+        }
+    }
+
+    /**
+     * Returns whether a shard may be skipped for the given search if its query rewrites to a query that does not match
+     * anything. This is not the case if the search has no query, suggests, or aggregates documents regardless of the query.
+     */
+    public static boolean canRewriteToMatchNone(SearchSourceBuilder source) {
+        if (source == null || source.query() == null || source.query() instanceof MatchAllQueryBuilder || source.suggest() != null) {
+            return false;
+        }
+        AggregatorFactories.Builder aggregations = source.aggregations();
+        return aggregations == null || aggregations.mustVisitAllDocs() == false;
+    }
+
+    private DefaultSearchContext createSearchContext(ShardSearchRequest request, @Nullable Engine.Searcher searcher, String source) {
         IndexService indexService = indicesService.indexServiceSafe(request.shardId().getIndex());
         IndexShard indexShard = indexService.getShard(request.shardId().getId());
         SearchShardTarget shardTarget = new SearchShardTarget(clusterService.localNode().getId(), indexShard.shardId());
 
-        Engine.Searcher engineSearcher = searcher == null ? indexShard.acquireSearcher("search") : searcher;
+        Engine.Searcher engineSearcher = searcher == null ? indexShard.acquireSearcher(source) : searcher;
 
-        DefaultSearchContext context = new DefaultSearchContext(idGenerator.incrementAndGet(), request, shardTarget, engineSearcher,
-                indexService,
+        return new DefaultSearchContext(idGenerator.incrementAndGet(), request, shardTarget, engineSearcher, indexService,
                 indexShard, scriptService, pageCacheRecycler, bigArrays, threadPool.estimatedTimeInMillisCounter(), parseFieldMatcher,
                 defaultSearchTimeout, fetchPhase);
+    }
+
+    final SearchContext createContext(ShardSearchRequest request, @Nullable Engine.Searcher searcher) throws IOException {
+        DefaultSearchContext context = createSearchContext(request, searcher, "search");
         SearchContext.setCurrent(context);
         request.rewrite(context.getQueryShardContext());
         // reset that we have used nowInMillis from the context since it may
@@ -584,6 +644,13 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> imp
                 context.size(10);
             }
 
+            // scripts are bound to the search lookup of the context while parsing, and its source and doc lookups are
+            // shared by all leaves, so they cannot be used by several slices at the same time
+            if (context.indexShard().indexSettings().isConcurrentSegmentSearch() && context.hasSearchLookup() == false) {
+                context.searcher().setSliceExecutor(threadPool.executor(ThreadPool.Names.SEARCH_WORKER),
+                        threadPool.info(ThreadPool.Names.SEARCH_WORKER).getMax());
+            }
+
             // pre process
             dfsPhase.preProcess(context);
             queryPhase.preProcess(context);
@@ -827,6 +894,13 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> imp
             FieldDoc fieldDoc = SearchAfterBuilder.buildFieldDoc(context.sort(), source.searchAfter());
             context.searchAfter(fieldDoc);
         }
+
+        if (source.slice() != null) {
+            if (context.scrollContext() == null) {
+                throw new SearchContextException(context, "`slice` cannot be used outside of a scroll context");
+            }
+            context.sliceBuilder(source.slice());
+        }
     }
 
     private static final int[] EMPTY_DOC_IDS = new int[0];
@@ -31,6 +31,7 @@ import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.dfs.DfsSearchResult;
 import org.elasticsearch.search.fetch.FetchSearchResult;
@@ -62,6 +63,7 @@ public class SearchTransportService extends AbstractComponent {
     public static final String FREE_CONTEXT_SCROLL_ACTION_NAME = "indices:data/read/search[free_context/scroll]";
     public static final String FREE_CONTEXT_ACTION_NAME = "indices:data/read/search[free_context]";
     public static final String CLEAR_SCROLL_CONTEXTS_ACTION_NAME = "indices:data/read/search[clear_scroll_contexts]";
+    public static final String CAN_MATCH_ACTION_NAME = "indices:data/read/search[can_match]";
     public static final String DFS_ACTION_NAME = "indices:data/read/search[phase/dfs]";
     public static final String QUERY_ACTION_NAME = "indices:data/read/search[phase/query]";
     public static final String QUERY_ID_ACTION_NAME = "indices:data/read/search[phase/query/id]";
@@ -74,18 +76,23 @@ public class SearchTransportService extends AbstractComponent {
 
     private final TransportService transportService;
     private final SearchService searchService;
+    private final ResponseCollectorService responseCollectorService;
 
     @Inject
-    public SearchTransportService(Settings settings, TransportService transportService, SearchService searchService) {
+    public SearchTransportService(Settings settings, TransportService transportService, SearchService searchService,
+                                  ResponseCollectorService responseCollectorService) {
         super(settings);
         this.transportService = transportService;
         this.searchService = searchService;
+        this.responseCollectorService = responseCollectorService;
         transportService.registerRequestHandler(FREE_CONTEXT_SCROLL_ACTION_NAME, ScrollFreeContextRequest::new, ThreadPool.Names.SAME,
                 new FreeContextTransportHandler<>());
         transportService.registerRequestHandler(FREE_CONTEXT_ACTION_NAME, SearchFreeContextRequest::new, ThreadPool.Names.SAME,
                 new FreeContextTransportHandler<>());
         transportService.registerRequestHandler(CLEAR_SCROLL_CONTEXTS_ACTION_NAME, ClearScrollContextsRequest::new, ThreadPool.Names.SAME,
                 new ClearScrollContextsTransportHandler());
+        transportService.registerRequestHandler(CAN_MATCH_ACTION_NAME, ShardSearchTransportRequest::new, ThreadPool.Names.SEARCH,
+                new CanMatchTransportHandler());
         transportService.registerRequestHandler(DFS_ACTION_NAME, ShardSearchTransportRequest::new, ThreadPool.Names.SEARCH,
                 new SearchDfsTransportHandler());
         transportService.registerRequestHandler(QUERY_ACTION_NAME, ShardSearchTransportRequest::new, ThreadPool.Names.SEARCH,
@@ -131,6 +138,12 @@ public class SearchTransportService extends AbstractComponent {
                 new ActionListenerResponseHandler<>(listener, () -> TransportResponse.Empty.INSTANCE));
     }
 
+    public void sendCanMatch(DiscoveryNode node, final ShardSearchTransportRequest request,
+                             final ActionListener<CanMatchResponse> listener) {
+        transportService.sendRequest(node, CAN_MATCH_ACTION_NAME, request,
+                new ActionListenerResponseHandler<>(listener, CanMatchResponse::new));
+    }
+
     public void sendExecuteDfs(DiscoveryNode node, final ShardSearchTransportRequest request,
                                final ActionListener<DfsSearchResult> listener) {
         transportService.sendRequest(node, DFS_ACTION_NAME, request, new ActionListenerResponseHandler<>(listener, DfsSearchResult::new));
@@ -139,7 +152,7 @@ public class SearchTransportService extends AbstractComponent {
     public void sendExecuteQuery(DiscoveryNode node, final ShardSearchTransportRequest request,
                                  final ActionListener<QuerySearchResultProvider> listener) {
         transportService.sendRequest(node, QUERY_ACTION_NAME, request,
-                new ActionListenerResponseHandler<>(listener, QuerySearchResult::new));
+                new ActionListenerResponseHandler<>(collectAdaptiveSelectionStats(node, listener), QuerySearchResult::new));
     }
 
     public void sendExecuteQuery(DiscoveryNode node, final QuerySearchRequest request, final ActionListener<QuerySearchResult> listener) {
@@ -156,7 +169,7 @@ public class SearchTransportService extends AbstractComponent {
     public void sendExecuteFetch(DiscoveryNode node, final ShardSearchTransportRequest request,
                                  final ActionListener<QueryFetchSearchResult> listener) {
         transportService.sendRequest(node, QUERY_FETCH_ACTION_NAME, request,
-                new ActionListenerResponseHandler<>(listener, QueryFetchSearchResult::new));
+                new ActionListenerResponseHandler<>(collectAdaptiveSelectionStats(node, listener), QueryFetchSearchResult::new));
     }
 
     public void sendExecuteFetch(DiscoveryNode node, final QuerySearchRequest request,
@@ -186,6 +199,39 @@ public class SearchTransportService extends AbstractComponent {
         transportService.sendRequest(node, action, request, new ActionListenerResponseHandler<>(listener, FetchSearchResult::new));
     }
 
+    /**
+     * Wraps the listener of a query phase that was routed to the given node, so that the searches in flight to the node and the
+     * statistics it reports on the result are recorded for adaptive replica selection.
+     */
+    private <T extends QuerySearchResultProvider> ActionListener<T> collectAdaptiveSelectionStats(DiscoveryNode node,
+                                                                                                  ActionListener<T> listener) {
+        final String nodeId = node.getId();
+        final long startNanos = System.nanoTime();
+        responseCollectorService.onSearchSent(nodeId);
+        return new ActionListener<T>() {
+            @Override
+            public void onResponse(T response) {
+                responseCollectorService.onSearchDone(nodeId);
+                QuerySearchResult queryResult = response.queryResult();
+                if (queryResult.nodeQueueSize() >= 0 && queryResult.serviceTimeEWMA() >= 0) {
+                    responseCollectorService.addNodeStatistics(nodeId, queryResult.nodeQueueSize(), System.nanoTime() - startNanos,
+                        queryResult.serviceTimeEWMA());
+                }
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                responseCollectorService.onSearchDone(nodeId);
+                listener.onFailure(e);
+            }
+        };
+    }
+
+    public ResponseCollectorService getResponseCollectorService() {
+        return responseCollectorService;
+    }
+
     static class ScrollFreeContextRequest extends TransportRequest {
         private long id;
 
@@ -301,6 +347,42 @@ public class SearchTransportService extends AbstractComponent {
         }
     }
 
+    public static class CanMatchResponse extends TransportResponse {
+
+        private boolean canMatch;
+
+        CanMatchResponse() {
+        }
+
+        CanMatchResponse(boolean canMatch) {
+            this.canMatch = canMatch;
+        }
+
+        public boolean canMatch() {
+            return canMatch;
+        }
+
+        @Override
+        public void readFrom(StreamInput in) throws IOException {
+            super.readFrom(in);
+            canMatch = in.readBoolean();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            super.writeTo(out);
+            out.writeBoolean(canMatch);
+        }
+    }
+
+    class CanMatchTransportHandler implements TransportRequestHandler<ShardSearchTransportRequest> {
+        @Override
+        public void messageReceived(ShardSearchTransportRequest request, TransportChannel channel) throws Exception {
+            boolean canMatch = searchService.canMatch(request);
+            channel.sendResponse(new CanMatchResponse(canMatch));
+        }
+    }
+
     class SearchDfsTransportHandler implements TransportRequestHandler<ShardSearchTransportRequest> {
         @Override
         public void messageReceived(ShardSearchTransportRequest request, TransportChannel channel) throws Exception {
@@ -23,6 +23,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.search.aggregations.bucket.global.GlobalAggregatorBuilder;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregatorBuilder;
 import org.elasticsearch.search.aggregations.support.AggregationContext;
@@ -172,6 +173,18 @@ public class AggregatorFactories {
             return this;
         }
 
+        /**
+         * @return whether a top level aggregation collects all documents of a shard, whatever the query
+         */
+        public boolean mustVisitAllDocs() {
+            for (AggregatorBuilder<?> builder : aggregatorBuilders) {
+                if (builder instanceof GlobalAggregatorBuilder) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         public Builder addPipelineAggregator(PipelineAggregatorBuilder<?> pipelineAggregatorFactory) {
             this.pipelineAggregatorBuilders.add(pipelineAggregatorFactory);
             return this;
@@ -219,7 +219,8 @@ public class InternalGeoHashGrid extends InternalMultiBucketAggregation<Internal
             }
         }
 
-        final int size = (int) Math.min(requiredSize, buckets.size());
+        // a partial reduce must keep all buckets, a bucket that is not competitive yet might be once the remaining shards are reduced
+        final int size = (int) (reduceContext.isFinalReduce() ? Math.min(requiredSize, buckets.size()) : buckets.size());
         BucketPriorityQueue ordered = new BucketPriorityQueue(size);
         for (LongObjectPagedHashMap.Cursor<List<Bucket>> cursor : buckets) {
             List<Bucket> sameCellBuckets = cursor.value;
@@ -193,7 +193,12 @@ public abstract class InternalTerms<A extends InternalTerms, B extends InternalT
             if (terms.buckets.size() < this.shardSize || InternalOrder.isTermOrder(order)) {
                 thisAggDocCountError = 0;
             } else if (InternalOrder.isCountDesc(this.order)) {
-                thisAggDocCountError = terms.buckets.get(terms.buckets.size() - 1).docCount;
+                if (terms.docCountError > 0) {
+                    // this is the result of a partial reduce, it already carries the error of the shards it was reduced from
+                    thisAggDocCountError = terms.docCountError;
+                } else {
+                    thisAggDocCountError = terms.buckets.get(terms.buckets.size() - 1).docCount;
+                }
             } else {
                 thisAggDocCountError = -1;
             }
@@ -216,7 +221,8 @@ public abstract class InternalTerms<A extends InternalTerms, B extends InternalT
             }
         }
 
-        final int size = Math.min(requiredSize, buckets.size());
+        // a partial reduce must keep all buckets, a bucket that is not competitive yet might be once the remaining shards are reduced
+        final int size = reduceContext.isFinalReduce() ? Math.min(requiredSize, buckets.size()) : buckets.size();
         BucketPriorityQueue ordered = new BucketPriorityQueue(size, order.comparator(null));
         for (List<Bucket> sameTermBuckets : buckets.values()) {
             final Bucket b = sameTermBuckets.get(0).reduce(sameTermBuckets, reduceContext);
@@ -227,7 +233,7 @@ public abstract class InternalTerms<A extends InternalTerms, B extends InternalT
                     b.docCountError = sumDocCountError - b.docCountError;
                 }
             }
-            if (b.docCount >= minDocCount) {
+            if (b.docCount >= minDocCount || reduceContext.isFinalReduce() == false) {
                 Terms.Bucket removed = ordered.insertWithOverflow(b);
                 if (removed != null) {
                     otherDocCount += removed.getDocCount();
@@ -57,6 +57,9 @@ public class InternalScriptedMetric extends InternalMetricsAggregation implement
 
     private Script reduceScript;
     private Object aggregation;
+    /* true if this is the result of a partial reduce and aggregation holds the list of not yet reduced shard results.
+     * Partial reduce results never leave the coordinating node so this isn't serialized. */
+    private boolean partial;
 
     private InternalScriptedMetric() {
     }
@@ -81,9 +84,20 @@ public class InternalScriptedMetric extends InternalMetricsAggregation implement
         List<Object> aggregationObjects = new ArrayList<>();
         for (InternalAggregation aggregation : aggregations) {
             InternalScriptedMetric mapReduceAggregation = (InternalScriptedMetric) aggregation;
-            aggregationObjects.add(mapReduceAggregation.aggregation());
+            if (mapReduceAggregation.partial) {
+                aggregationObjects.addAll((List<?>) mapReduceAggregation.aggregation());
+            } else {
+                aggregationObjects.add(mapReduceAggregation.aggregation());
+            }
         }
         InternalScriptedMetric firstAggregation = ((InternalScriptedMetric) aggregations.get(0));
+        if (reduceContext.isFinalReduce() == false) {
+            // the reduce script must see the results of all shards at once so we can only collect them here
+            InternalScriptedMetric result = new InternalScriptedMetric(firstAggregation.getName(), aggregationObjects,
+                    firstAggregation.reduceScript, pipelineAggregators(), getMetaData());
+            result.partial = true;
+            return result;
+        }
         Object aggregation;
         if (firstAggregation.reduceScript != null) {
             Map<String, Object> vars = new HashMap<>();
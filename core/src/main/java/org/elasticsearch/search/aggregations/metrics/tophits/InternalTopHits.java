@@ -91,6 +91,9 @@ public class InternalTopHits extends InternalMetricsAggregation implements TopHi
 
         final TopDocs reducedTopDocs;
         final TopDocs[] shardDocs;
+        // a partial reduce must not skip the first hits since they might still make it to the final top hits
+        final int reduceFrom = reduceContext.isFinalReduce() ? from : 0;
+        final int reduceSize = reduceContext.isFinalReduce() ? size : from + size;
 
         try {
             if (topDocs instanceof TopFieldDocs) {
@@ -101,7 +104,7 @@ public class InternalTopHits extends InternalMetricsAggregation implements TopHi
                     shardDocs[i] = (TopFieldDocs) topHitsAgg.topDocs;
                     shardHits[i] = topHitsAgg.searchHits;
                 }
-                reducedTopDocs = TopDocs.merge(sort, from, size, (TopFieldDocs[]) shardDocs);
+                reducedTopDocs = TopDocs.merge(sort, reduceFrom, reduceSize, (TopFieldDocs[]) shardDocs);
             } else {
                 shardDocs = new TopDocs[aggregations.size()];
                 for (int i = 0; i < shardDocs.length; i++) {
@@ -109,7 +112,7 @@ public class InternalTopHits extends InternalMetricsAggregation implements TopHi
                     shardDocs[i] = topHitsAgg.topDocs;
                     shardHits[i] = topHitsAgg.searchHits;
                 }
-                reducedTopDocs = TopDocs.merge(from, size, shardDocs);
+                reducedTopDocs = TopDocs.merge(reduceFrom, reduceSize, shardDocs);
             }
 
             final int[] tracker = new int[shardHits.length];
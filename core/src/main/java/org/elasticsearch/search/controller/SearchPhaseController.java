@@ -32,6 +32,7 @@ import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TopFieldDocs;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.collect.HppcMaps;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
@@ -292,6 +293,18 @@ public class SearchPhaseController extends AbstractComponent {
 
     public InternalSearchResponse merge(ScoreDoc[] sortedDocs, AtomicArray<? extends QuerySearchResultProvider> queryResultsArr,
                                         AtomicArray<? extends FetchSearchResultProvider> fetchResultsArr) {
+        return merge(sortedDocs, queryResultsArr, fetchResultsArr, null);
+    }
+
+    /**
+     * Merges the query and fetch results into a search response.
+     *
+     * @param aggregationReducer the reducer that consumed the aggregations of the query results as they arrived or <code>null</code>
+     *                           if the aggregations should be reduced from the query results
+     */
+    public InternalSearchResponse merge(ScoreDoc[] sortedDocs, AtomicArray<? extends QuerySearchResultProvider> queryResultsArr,
+                                        AtomicArray<? extends FetchSearchResultProvider> fetchResultsArr,
+                                        @Nullable AggregationReducer aggregationReducer) {
 
         List<? extends AtomicArray.Entry<? extends QuerySearchResultProvider>> queryResults = queryResultsArr.asList();
         List<? extends AtomicArray.Entry<? extends FetchSearchResultProvider>> fetchResults = fetchResultsArr.asList();
@@ -393,7 +406,9 @@ public class SearchPhaseController extends AbstractComponent {
 
         // merge addAggregation
         InternalAggregations aggregations = null;
-        if (!queryResults.isEmpty()) {
+        if (aggregationReducer != null) {
+            aggregations = aggregationReducer.reduce();
+        } else if (!queryResults.isEmpty()) {
             if (firstResult.aggregations() != null && firstResult.aggregations().asList() != null) {
                 List<InternalAggregations> aggregationsList = new ArrayList<>(queryResults.size());
                 for (AtomicArray.Entry<? extends QuerySearchResultProvider> entry : queryResults) {
@@ -416,18 +431,7 @@ public class SearchPhaseController extends AbstractComponent {
         }
 
         if (aggregations != null) {
-            List<SiblingPipelineAggregator> pipelineAggregators = firstResult.pipelineAggregators();
-            if (pipelineAggregators != null) {
-                List<InternalAggregation> newAggs = StreamSupport.stream(aggregations.spliterator(), false).map((p) -> {
-                    return (InternalAggregation) p;
-                }).collect(Collectors.toList());
-                for (SiblingPipelineAggregator pipelineAggregator : pipelineAggregators) {
-                    ReduceContext reduceContext = new ReduceContext(bigArrays, scriptService, clusterService.state());
-                    InternalAggregation newAgg = pipelineAggregator.doReduce(new InternalAggregations(newAggs), reduceContext);
-                    newAggs.add(newAgg);
-                }
-                aggregations = new InternalAggregations(newAggs);
-            }
+            aggregations = reduceSiblingPipelineAggregations(aggregations, firstResult.pipelineAggregators());
         }
 
         InternalSearchHits searchHits = new InternalSearchHits(hits.toArray(new InternalSearchHit[hits.size()]), totalHits, maxScore);
@@ -435,4 +439,126 @@ public class SearchPhaseController extends AbstractComponent {
         return new InternalSearchResponse(searchHits, aggregations, suggest, shardResults, timedOut, terminatedEarly);
     }
 
+    private InternalAggregations reduceSiblingPipelineAggregations(InternalAggregations aggregations,
+                                                                   @Nullable List<SiblingPipelineAggregator> pipelineAggregators) {
+        if (pipelineAggregators == null) {
+            return aggregations;
+        }
+        List<InternalAggregation> newAggs = StreamSupport.stream(aggregations.spliterator(), false).map((p) -> {
+            return (InternalAggregation) p;
+        }).collect(Collectors.toList());
+        for (SiblingPipelineAggregator pipelineAggregator : pipelineAggregators) {
+            ReduceContext reduceContext = new ReduceContext(bigArrays, scriptService, clusterService.state());
+            InternalAggregation newAgg = pipelineAggregator.doReduce(new InternalAggregations(newAggs), reduceContext);
+            newAggs.add(newAgg);
+        }
+        return new InternalAggregations(newAggs);
+    }
+
+    /**
+     * Returns a new {@link AggregationReducer} for the given search request that targets <code>numShards</code> shards.
+     */
+    public AggregationReducer newAggregationReducer(SearchRequest request, int numShards) {
+        return new AggregationReducer(Math.max(1, Math.min(request.getBatchedReduceSize(), numShards)));
+    }
+
+    /**
+     * Reduces the aggregations of the shard query results as they arrive on the coordinating node. The aggregations of
+     * a shard result are released from it and buffered. Once the buffer is full its content is partially reduced
+     * into a single result that takes the first slot of the buffer. This way at most {@link SearchRequest#getBatchedReduceSize()}
+     * shard aggregations are held in memory at the same time, instead of the aggregations of all shards of the request.
+     */
+    public final class AggregationReducer {
+
+        private final InternalAggregations[] buffer;
+        private int index;
+        private int numReducePhases;
+        private RuntimeException failure;
+        private List<SiblingPipelineAggregator> pipelineAggregators;
+        // the number of aggregations consumed so far, identifies the state the cached partial result was reduced from
+        private long numConsumed;
+        private long partialResultNumConsumed;
+        private InternalAggregations partialResult;
+
+        private AggregationReducer(int bufferSize) {
+            this.buffer = new InternalAggregations[bufferSize];
+        }
+
+        /**
+         * Consumes the aggregations of the given shard result. Failures of partial reduce phases are rethrown by {@link #reduce()}.
+         */
+        public synchronized void consume(QuerySearchResult result) {
+            final InternalAggregations aggregations = (InternalAggregations) result.aggregations();
+            if (aggregations == null) {
+                return;
+            }
+            result.aggregations(null);
+            if (pipelineAggregators == null) {
+                pipelineAggregators = result.pipelineAggregators();
+            }
+            if (failure != null) {
+                return;
+            }
+            if (index == buffer.length) {
+                try {
+                    ReduceContext reduceContext = new ReduceContext(bigArrays, scriptService, clusterService.state(), false);
+                    InternalAggregations reduced = InternalAggregations.reduce(Arrays.asList(buffer), reduceContext);
+                    Arrays.fill(buffer, null);
+                    numReducePhases++;
+                    buffer[0] = reduced;
+                    index = 1;
+                } catch (RuntimeException e) {
+                    failure = e;
+                    Arrays.fill(buffer, null);
+                    return;
+                }
+            }
+            buffer[index++] = aggregations;
+            numConsumed++;
+        }
+
+        /**
+         * Runs the final reduce phase over all consumed aggregations and returns the result, or <code>null</code> if no
+         * aggregations were consumed.
+         */
+        synchronized InternalAggregations reduce() {
+            if (failure != null) {
+                throw failure;
+            }
+            if (index == 0) {
+                return null;
+            }
+            numReducePhases++;
+            ReduceContext reduceContext = new ReduceContext(bigArrays, scriptService, clusterService.state());
+            return InternalAggregations.reduce(Arrays.asList(buffer).subList(0, index), reduceContext);
+        }
+
+        /**
+         * Returns the aggregations reduced from the aggregations consumed so far, as they would be returned if no other
+         * shard results were to arrive, or <code>null</code> if no aggregations were consumed yet. The consumed aggregations
+         * are left untouched so that the search can proceed. The result is cached until the next shard result is consumed.
+         */
+        public synchronized InternalAggregations partialResult() {
+            if (failure != null || index == 0) {
+                return null;
+            }
+            // reducing has to hold the lock because some aggregations, like terms, update their inputs while being reduced,
+            // which would race with the partial reduce phases of consume(). Caching the result makes sure task status polls
+            // block consume() at most once per consumed shard result.
+            if (partialResult == null || partialResultNumConsumed != numConsumed) {
+                ReduceContext reduceContext = new ReduceContext(bigArrays, scriptService, clusterService.state());
+                InternalAggregations aggregations = InternalAggregations.reduce(Arrays.asList(buffer).subList(0, index), reduceContext);
+                partialResult = reduceSiblingPipelineAggregations(aggregations, pipelineAggregators);
+                partialResultNumConsumed = numConsumed;
+            }
+            return partialResult;
+        }
+
+        /**
+         * Returns the number of reduce phases that were executed so far, including the final one.
+         */
+        public synchronized int getNumReducePhases() {
+            return numReducePhases;
+        }
+    }
 }
@@ -20,8 +20,12 @@
 package org.elasticsearch.search.fetch.source;
 
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
 import org.elasticsearch.search.SearchParseElement;
 import org.elasticsearch.search.fetch.FetchSubPhase;
 import org.elasticsearch.search.internal.InternalSearchHit;
@@ -67,8 +71,21 @@ public class FetchSourceSubPhase implements FetchSubPhase {
         }
 
         SourceLookup source = context.lookup().source();
-        Object value = source.filter(fetchSourceContext.includes(), fetchSourceContext.excludes());
+        BytesReference sourceRef = source.internalSourceRef();
         try {
+            if (source.source() == null && sourceRef != null) {
+                // copy the selected fields straight from the stored source rather than parsing it into a map and
+                // rebuilding it, which is much cheaper for large documents
+                try (XContentParser parser = XContentHelper.createParser(sourceRef)) {
+                    BytesStreamOutput streamOutput = new BytesStreamOutput(Math.min(1024, sourceRef.length()));
+                    XContentBuilder builder = new XContentBuilder(parser.contentType().xContent(), streamOutput);
+                    XContentMapValues.filter(parser, builder, fetchSourceContext.includes(), fetchSourceContext.excludes());
+                    hitContext.hit().sourceRef(builder.bytes());
+                }
+                return;
+            }
+            // the source has already been parsed, for instance by a script, or is a nested source
+            Object value = source.filter(fetchSourceContext.includes(), fetchSourceContext.excludes());
             final int initialCapacity = Math.min(1024, source.internalSourceRef().length());
             BytesStreamOutput streamOutput = new BytesStreamOutput(initialCapacity);
             XContentBuilder builder = new XContentBuilder(context.lookup().source().sourceContentType().xContent(), streamOutput);
@@ -77,6 +94,5 @@ public class FetchSourceSubPhase implements FetchSubPhase {
         } catch (IOException e) {
             throw new ElasticsearchException("Error filtering source", e);
         }
-
     }
 }
@@ -20,9 +20,12 @@
 package org.elasticsearch.search.internal;
 
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TermContext;
 import org.apache.lucene.search.CollectionStatistics;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
@@ -30,7 +33,10 @@ import org.apache.lucene.search.QueryCache;
 import org.apache.lucene.search.QueryCachingPolicy;
 import org.apache.lucene.search.TermStatistics;
 import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.ThreadInterruptedException;
 import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.search.dfs.AggregatedDfs;
 import org.elasticsearch.search.profile.ProfileBreakdown;
@@ -38,6 +44,11 @@ import org.elasticsearch.search.profile.ProfileWeight;
 import org.elasticsearch.search.profile.Profiler;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
  * Context-aware extension of {@link IndexSearcher}.
@@ -56,6 +67,11 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
     // TODO revisit moving the profiler to inheritance or wrapping model in the future
     private Profiler profiler;
 
+    /** The executor used to search slices of the leaves concurrently, or <tt>null</tt> if leaves are searched sequentially. */
+    private Executor sliceExecutor;
+
+    private int maxSlices = 1;
+
     public ContextIndexSearcher(Engine.Searcher searcher,
             QueryCache queryCache, QueryCachingPolicy queryCachingPolicy) {
         super(searcher.reader());
@@ -78,6 +94,113 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
         this.aggregatedDfs = aggregatedDfs;
     }
 
+    /**
+     * Allows the leaves of this searcher to be split into at most <code>maxSlices</code> slices that are searched concurrently
+     * on the given executor by {@link #searchSlices(Query, CollectorManager)}.
+     */
+    public void setSliceExecutor(Executor sliceExecutor, int maxSlices) {
+        if (maxSlices < 1) {
+            throw new IllegalArgumentException("maxSlices must be >= 1");
+        }
+        this.sliceExecutor = sliceExecutor;
+        this.maxSlices = maxSlices;
+    }
+
+    /**
+     * Returns <code>true</code> if this searcher has an executor and more than one leaf, so that
+     * {@link #searchSlices(Query, CollectorManager)} can actually search concurrently.
+     */
+    public boolean canSearchSlices() {
+        return sliceExecutor != null && maxSlices > 1 && getIndexReader().leaves().size() > 1;
+    }
+
+    /**
+     * Searches the given query by splitting the leaves into contiguous slices and collecting each slice with its own
+     * collector from the given manager. The first slice is searched on the calling thread and the others on the slice
+     * executor. Collectors are created on the calling thread in slice order, which is also the order in which they are
+     * passed to {@link CollectorManager#reduce}, so that ties can still be broken by doc id.
+     */
+    public <C extends Collector, T> T searchSlices(Query query, CollectorManager<C, T> collectorManager) throws IOException {
+        final List<List<LeafReaderContext>> slices = sliceLeaves(getIndexReader().leaves(), sliceExecutor == null ? 1 : maxSlices);
+        final List<C> collectors = new ArrayList<>(slices.size());
+        boolean needsScores = false;
+        for (int i = 0; i < slices.size(); i++) {
+            C collector = collectorManager.newCollector();
+            needsScores |= collector.needsScores();
+            collectors.add(collector);
+        }
+        final Weight weight = createNormalizedWeight(query, needsScores);
+        final List<FutureTask<Void>> tasks = new ArrayList<>(slices.size() - 1);
+        for (int i = 1; i < slices.size(); i++) {
+            final List<LeafReaderContext> leaves = slices.get(i);
+            final C collector = collectors.get(i);
+            FutureTask<Void> task = new FutureTask<>(() -> {
+                search(leaves, weight, collector);
+                return null;
+            });
+            tasks.add(task);
+            try {
+                sliceExecutor.execute(task);
+            } catch (EsRejectedExecutionException e) {
+                // the executor is shutting down, search the slice on this thread
+                task.run();
+            }
+        }
+        Throwable failure = null;
+        try {
+            search(slices.get(0), weight, collectors.get(0));
+        } catch (Throwable t) {
+            failure = t;
+        }
+        // always wait for all slices, the reader must not be released while a slice is still being searched
+        for (FutureTask<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ThreadInterruptedException(e);
+            }
+        }
+        if (failure != null) {
+            IOUtils.reThrow(failure);
+        }
+        return collectorManager.reduce(collectors);
+    }
+
+    /**
+     * Splits the leaves into at most <code>maxSlices</code> contiguous slices holding roughly the same number of documents.
+     */
+    static List<List<LeafReaderContext>> sliceLeaves(List<LeafReaderContext> leaves, int maxSlices) {
+        final int numSlices = Math.max(1, Math.min(maxSlices, leaves.size()));
+        long totalDocs = 0;
+        for (LeafReaderContext leaf : leaves) {
+            totalDocs += leaf.reader().maxDoc();
+        }
+        final List<List<LeafReaderContext>> slices = new ArrayList<>(numSlices);
+        List<LeafReaderContext> slice = new ArrayList<>();
+        long docs = 0;
+        for (int i = 0; i < leaves.size(); i++) {
+            final LeafReaderContext leaf = leaves.get(i);
+            slice.add(leaf);
+            docs += leaf.reader().maxDoc();
+            final int remainingLeaves = leaves.size() - i - 1;
+            final int remainingSlices = numSlices - slices.size() - 1;
+            // close the slice once it holds its share of the documents, but keep at least one leaf for each remaining slice
+            if (remainingSlices > 0 && (docs * numSlices >= totalDocs * (slices.size() + 1) || remainingLeaves == remainingSlices)) {
+                slices.add(slice);
+                slice = new ArrayList<>();
+            }
+        }
+        slices.add(slice);
+        return slices;
+    }
+
     @Override
     public Query rewrite(Query original) throws IOException {
         if (profiler != null) {
@@ -71,6 +71,7 @@ import org.elasticsearch.search.profile.Profilers;
 import org.elasticsearch.search.query.QueryPhaseExecutionException;
 import org.elasticsearch.search.query.QuerySearchResult;
 import org.elasticsearch.search.rescore.RescoreSearchContext;
+import org.elasticsearch.search.slice.SliceBuilder;
 import org.elasticsearch.search.suggest.SuggestionSearchContext;
 
 import java.io.IOException;
@@ -118,6 +119,7 @@ public class DefaultSearchContext extends SearchContext {
     private Float minimumScore;
     private boolean trackScores = false; // when sorting, track scores as well...
     private FieldDoc searchAfter;
+    private SliceBuilder sliceBuilder;
     /**
      * The original query as sent by the user without the types and aliases
      * applied. Putting things in here leaks them into highlighting so don't add
@@ -240,6 +242,18 @@ public class DefaultSearchContext extends SearchContext {
 
     private ParsedQuery buildFilteredQuery() {
         Query searchFilter = searchFilter(queryShardContext.getTypes());
+        if (sliceBuilder != null) {
+            Query sliceFilter = sliceBuilder.toFilter(queryShardContext, shardTarget().shardId().id(),
+                indexService.getIndexSettings().getNumberOfShards());
+            if (searchFilter == null) {
+                searchFilter = sliceFilter;
+            } else {
+                searchFilter = new BooleanQuery.Builder()
+                    .add(searchFilter, Occur.FILTER)
+                    .add(sliceFilter, Occur.FILTER)
+                    .build();
+            }
+        }
         if (searchFilter == null) {
             return originalQuery;
         }
@@ -564,6 +578,14 @@ public class DefaultSearchContext extends SearchContext {
         return searchAfter;
     }
 
+    /**
+     * Restricts the search to a slice of the documents of the shard.
+     */
+    public SearchContext sliceBuilder(SliceBuilder sliceBuilder) {
+        this.sliceBuilder = sliceBuilder;
+        return this;
+    }
+
     @Override
     public SearchContext parsedPostFilter(ParsedQuery postFilter) {
         this.postFilter = postFilter;
@@ -732,6 +754,14 @@ public class DefaultSearchContext extends SearchContext {
         return searchLookup;
     }
 
+    /**
+     * Returns whether the {@link SearchLookup} of this context has been created, which happens as soon as a script or
+     * anything else that loads per-document values binds to it.
+     */
+    public boolean hasSearchLookup() {
+        return searchLookup != null;
+    }
+
     @Override
     public DfsSearchResult dfsResult() {
         return dfsResult;
@@ -34,6 +34,7 @@ import org.elasticsearch.common.text.Text;
 import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHitField;
 import org.elasticsearch.search.SearchHits;
@@ -64,6 +65,13 @@ public class InternalSearchHit implements SearchHit {
 
     private static final Object[] EMPTY_SORT_VALUES = new Object[0];
 
+    /**
+     * Rendering parameter: when <code>true</code> and the response is rendered in a binary format (smile or cbor), the
+     * <code>_source</code> of hits is written as a binary value holding the stored source as is, instead of being parsed
+     * and re-encoded in the format of the response.
+     */
+    public static final String BINARY_SOURCE_PARAM = "binary_source";
+
     private transient int docId;
 
     private float score = Float.NEGATIVE_INFINITY;
@@ -422,6 +430,10 @@ public class InternalSearchHit implements SearchHit {
         static final String INNER_HITS = "inner_hits";
     }
 
+    private static boolean isBinary(XContentType contentType) {
+        return contentType == XContentType.SMILE || contentType == XContentType.CBOR;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         List<SearchHitField> metaFields = new ArrayList<>();
@@ -466,7 +478,11 @@ public class InternalSearchHit implements SearchHit {
             builder.field(field.name(), (Object) field.value());
         }
         if (source != null) {
-            XContentHelper.writeRawField("_source", source, builder, params);
+            if (params.paramAsBoolean(BINARY_SOURCE_PARAM, false) && isBinary(builder.contentType())) {
+                builder.field("_source", sourceRef());
+            } else {
+                XContentHelper.writeRawField("_source", source, builder, params);
+            }
         }
         if (!otherFields.isEmpty()) {
             builder.startObject(Fields.FIELDS);
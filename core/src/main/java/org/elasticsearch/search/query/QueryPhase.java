@@ -25,6 +25,8 @@ import org.apache.lucene.queries.MinDocQuery;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.EarlyTerminatingSortingCollector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
@@ -38,6 +40,7 @@ import org.apache.lucene.search.TimeLimitingCollector;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TopDocsCollector;
 import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.search.TopFieldDocs;
 import org.apache.lucene.search.TopScoreDocCollector;
 import org.apache.lucene.search.TotalHitCountCollector;
 import org.apache.lucene.search.Weight;
@@ -46,10 +49,13 @@ import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.MinimumScoreCollector;
 import org.elasticsearch.common.lucene.search.FilteredCollector;
+import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.search.SearchParseElement;
 import org.elasticsearch.search.SearchPhase;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.aggregations.AggregationPhase;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.internal.ContextIndexSearcher;
 import org.elasticsearch.search.internal.ScrollContext;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.profile.CollectorResult;
@@ -61,8 +67,10 @@ import org.elasticsearch.search.rescore.RescoreSearchContext;
 import org.elasticsearch.search.sort.TrackScoresParseElement;
 import org.elasticsearch.search.suggest.SuggestPhase;
 
+import java.io.IOException;
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -162,6 +170,10 @@ public class QueryPhase implements SearchPhase {
         QuerySearchResult queryResult = searchContext.queryResult();
         queryResult.searchTimedOut(false);
 
+        if (canSearchSlices(searchContext, searcher)) {
+            return executeSlices(searchContext, (ContextIndexSearcher) searcher);
+        }
+
         final boolean doProfile = searchContext.getProfilers() != null;
         final SearchType searchType = searchContext.searchType();
         boolean rescore = false;
@@ -176,6 +188,7 @@ public class QueryPhase implements SearchPhase {
 
             Collector collector;
             Callable<TopDocs> topDocsCallable;
+            EarlyTerminatingSortingCollector sortedSegmentsCollector = null;
 
             assert query == searcher.rewrite(query); // already rewritten
 
@@ -239,6 +252,13 @@ public class QueryPhase implements SearchPhase {
                     topDocsCollector = TopScoreDocCollector.create(numDocs, after);
                 }
                 collector = topDocsCollector;
+                final Sort indexSort = sortedSegmentsSort(searchContext);
+                if (indexSort != null) {
+                    // the hits of segments that are sorted by the index sort come in the order of the request, so
+                    // collecting them can stop as soon as enough hits have been collected
+                    sortedSegmentsCollector = new EarlyTerminatingSortingCollector(collector, indexSort, numDocs, indexSort);
+                    collector = sortedSegmentsCollector;
+                }
                 if (doProfile) {
                     collector = new InternalProfileCollector(collector, CollectorResult.REASON_SEARCH_TOP_HITS, Collections.emptyList());
                 }
@@ -401,6 +421,9 @@ public class QueryPhase implements SearchPhase {
             if (terminateAfterSet && queryResult.terminatedEarly() == null) {
                 queryResult.terminatedEarly(false);
             }
+            if (sortedSegmentsCollector != null && sortedSegmentsCollector.terminatedEarly()) {
+                queryResult.terminatedEarly(true);
+            }
 
             queryResult.topDocs(topDocsCallable.call());
 
@@ -415,4 +438,156 @@ public class QueryPhase implements SearchPhase {
             throw new QueryPhaseExecutionException(searchContext, "Failed to execute main query", e);
         }
     }
+
+    /**
+     * Returns the index sort of the shard if the hits of its sorted segments can be collected in the order of the request,
+     * which is only the case if the sort of the request is a prefix of the index sort and the request does not need an
+     * accurate total number of hits, or <code>null</code> otherwise.
+     */
+    private static Sort sortedSegmentsSort(SearchContext searchContext) {
+        final SearchSourceBuilder source = searchContext.request().source();
+        final IndexShard indexShard = searchContext.indexShard();
+        if (searchContext.sort() == null || searchContext.scrollContext() != null || searchContext.searchAfter() != null
+                || source == null || source.trackTotalHits() || indexShard == null) {
+            return null;
+        }
+        final Sort indexSort = indexShard.getIndexSort();
+        if (indexSort == null || indexShard.indexSettings().getIndexSortConfig().isPrefixOfIndexSort(source.sorts()) == false) {
+            return null;
+        }
+        return indexSort;
+    }
+
+    /**
+     * Whether the query can be executed by searching slices of the shard concurrently. This is only the case for plain top docs
+     * searches: aggregations, profiling, <tt>terminate_after</tt>, scrolls and searches that terminate early on sorted segments
+     * need a single collector and are always executed sequentially.
+     */
+    private static boolean canSearchSlices(SearchContext searchContext, IndexSearcher searcher) {
+        return searcher instanceof ContextIndexSearcher
+                && ((ContextIndexSearcher) searcher).canSearchSlices()
+                && searchContext.size() > 0
+                && searchContext.getProfilers() == null
+                // aggregators are created once per search context and keep their per-bucket state in it (big arrays, sub
+                // aggregators, the parent bucket ordinals), so a slice cannot get its own tree without changing how every
+                // aggregator factory builds them; aggregations are therefore always collected sequentially
+                && searchContext.queryCollectors().isEmpty()
+                && searchContext.terminateAfter() == SearchContext.DEFAULT_TERMINATE_AFTER
+                && searchContext.scrollContext() == null
+                && sortedSegmentsSort(searchContext) == null;
+    }
+
+    /**
+     * Executes the query by collecting the top docs of each slice of the shard concurrently and merging them.
+     * @return whether the rescoring phase should be executed
+     */
+    private static boolean executeSlices(SearchContext searchContext, ContextIndexSearcher searcher) throws QueryPhaseExecutionException {
+        QuerySearchResult queryResult = searchContext.queryResult();
+        try {
+            queryResult.from(searchContext.from());
+            queryResult.size(searchContext.size());
+
+            final Query query = searchContext.query();
+            assert query == searcher.rewrite(query); // already rewritten
+
+            final int totalNumDocs = searcher.getIndexReader().numDocs();
+            int numDocs = Math.min(searchContext.from() + searchContext.size(), totalNumDocs);
+            if (totalNumDocs == 0) {
+                // top collectors don't like a size of 0
+                numDocs = 1;
+            }
+            boolean rescore = false;
+            if (searchContext.sort() == null) {
+                rescore = !searchContext.rescore().isEmpty();
+                for (RescoreSearchContext rescoreContext : searchContext.rescore()) {
+                    numDocs = Math.max(rescoreContext.window(), numDocs);
+                }
+            }
+            final Weight postFilterWeight = searchContext.parsedPostFilter() == null ? null
+                    : searcher.createNormalizedWeight(searchContext.parsedPostFilter().query(), false);
+            final SliceTopDocsCollectorManager collectorManager = new SliceTopDocsCollectorManager(searchContext, numDocs, postFilterWeight);
+
+            TopDocs topDocs;
+            try {
+                topDocs = searcher.searchSlices(query, collectorManager);
+            } catch (TimeLimitingCollector.TimeExceededException e) {
+                // all slices are done at this point, return what they collected so far
+                queryResult.searchTimedOut(true);
+                topDocs = collectorManager.reduce();
+            } finally {
+                searchContext.clearReleasables(SearchContext.Lifetime.COLLECTION);
+            }
+            queryResult.topDocs(topDocs);
+            return rescore;
+        } catch (Throwable e) {
+            throw new QueryPhaseExecutionException(searchContext, "Failed to execute main query", e);
+        }
+    }
+
+    /**
+     * Creates a top docs collector for each slice, wrapped with the post filter, minimum score and timeout of the request,
+     * and merges the top docs of the slices in slice order so that ties are still broken by doc id.
+     */
+    private static final class SliceTopDocsCollectorManager implements CollectorManager<Collector, TopDocs> {
+
+        private final SearchContext searchContext;
+        private final int numDocs;
+        private final Weight postFilterWeight;
+        private final List<TopDocsCollector<?>> topDocsCollectors = new ArrayList<>();
+
+        SliceTopDocsCollectorManager(SearchContext searchContext, int numDocs, Weight postFilterWeight) {
+            this.searchContext = searchContext;
+            this.numDocs = numDocs;
+            this.postFilterWeight = postFilterWeight;
+        }
+
+        @Override
+        public Collector newCollector() throws IOException {
+            final TopDocsCollector<?> topDocsCollector;
+            if (searchContext.sort() != null) {
+                topDocsCollector = TopFieldCollector.create(searchContext.sort(), numDocs, searchContext.searchAfter(),
+                        true, searchContext.trackScores(), searchContext.trackScores());
+            } else {
+                topDocsCollector = TopScoreDocCollector.create(numDocs, searchContext.searchAfter());
+            }
+            topDocsCollectors.add(topDocsCollector);
+            Collector collector = topDocsCollector;
+            if (postFilterWeight != null) {
+                collector = new FilteredCollector(collector, postFilterWeight);
+            }
+            if (searchContext.minimumScore() != null) {
+                collector = new MinimumScoreCollector(collector, searchContext.minimumScore());
+            }
+            if (searchContext.timeoutInMillis() != SearchService.NO_TIMEOUT.millis()) {
+                collector = Lucene.wrapTimeLimitingCollector(collector, searchContext.timeEstimateCounter(), searchContext.timeoutInMillis());
+            }
+            return collector;
+        }
+
+        @Override
+        public TopDocs reduce(Collection<Collector> collectors) throws IOException {
+            // the given collectors are wrapped, merge the top docs collectors that were created for them in the same order
+            assert collectors.size() == topDocsCollectors.size();
+            return reduce();
+        }
+
+        TopDocs reduce() throws IOException {
+            final Sort sort = searchContext.sort();
+            final TopDocs[] topDocs = sort == null ? new TopDocs[topDocsCollectors.size()] : new TopFieldDocs[topDocsCollectors.size()];
+            float maxScore = Float.NaN;
+            for (int i = 0; i < topDocs.length; i++) {
+                topDocs[i] = topDocsCollectors.get(i).topDocs();
+                if (Float.isNaN(topDocs[i].getMaxScore()) == false) {
+                    maxScore = Float.isNaN(maxScore) ? topDocs[i].getMaxScore() : Math.max(maxScore, topDocs[i].getMaxScore());
+                }
+            }
+            final TopDocs merged = sort == null ? TopDocs.merge(numDocs, topDocs) : TopDocs.merge(sort, numDocs, (TopFieldDocs[]) topDocs);
+            // merging reports the slice as the shard index of the hits, reset it to what a single collector would return
+            for (ScoreDoc scoreDoc : merged.scoreDocs) {
+                scoreDoc.shardIndex = -1;
+            }
+            merged.setMaxScore(maxScore);
+            return merged;
+        }
+    }
 }
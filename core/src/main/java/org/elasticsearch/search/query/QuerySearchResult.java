@@ -57,6 +57,8 @@ public class QuerySearchResult extends QuerySearchResultProvider {
     private boolean searchTimedOut;
     private Boolean terminatedEarly = null;
     private List<ProfileShardResult> profileShardResults;
+    private int nodeQueueSize = -1;
+    private long serviceTimeEWMA = -1;
 
     public QuerySearchResult() {
 
@@ -112,6 +114,35 @@ public class QuerySearchResult extends QuerySearchResultProvider {
         return topDocs;
     }
 
+    /**
+     * Sets the number of search requests that were waiting in the queue of the node that executed this query.
+     */
+    public void nodeQueueSize(int nodeQueueSize) {
+        this.nodeQueueSize = nodeQueueSize;
+    }
+
+    /**
+     * @return the number of search requests that were waiting in the queue of the node that executed this query, or -1 if unknown
+     */
+    public int nodeQueueSize() {
+        return nodeQueueSize;
+    }
+
+    /**
+     * Sets the moving average of the time, in nanoseconds, the node that executed this query spends executing a query phase.
+     */
+    public void serviceTimeEWMA(long serviceTimeEWMA) {
+        this.serviceTimeEWMA = serviceTimeEWMA;
+    }
+
+    /**
+     * @return the moving average of the time, in nanoseconds, the node that executed this query spends executing a query
+     * phase, or -1 if unknown
+     */
+    public long serviceTimeEWMA() {
+        return serviceTimeEWMA;
+    }
+
     public void topDocs(TopDocs topDocs) {
         this.topDocs = topDocs;
     }
@@ -220,6 +251,8 @@ public class QuerySearchResult extends QuerySearchResultProvider {
                 profileShardResults.add(result);
             }
         }
+        nodeQueueSize = in.readInt();
+        serviceTimeEWMA = in.readLong();
     }
 
     @Override
@@ -270,5 +303,7 @@ public class QuerySearchResult extends QuerySearchResultProvider {
                 }
             }
         }
+        out.writeInt(nodeQueueSize);
+        out.writeLong(serviceTimeEWMA);
     }
 }
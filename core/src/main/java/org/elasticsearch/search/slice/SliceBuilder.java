@@ -0,0 +1,269 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.slice;
+
+import org.apache.lucene.search.Query;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.ParseField;
+import org.elasticsearch.common.ParseFieldMatcher;
+import org.elasticsearch.common.ParsingException;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.lucene.search.Queries;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.core.DateFieldMapper;
+import org.elasticsearch.index.mapper.core.NumberFieldMapper;
+import org.elasticsearch.index.mapper.internal.UidFieldMapper;
+import org.elasticsearch.index.query.QueryShardContext;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Splits the documents of a scroll request into <code>max</code> slices, so that the slices can be consumed by independent
+ * scrolls in parallel. The slice with the given <code>id</code> matches the documents whose value for <code>field</code> hashes
+ * to that id. The field defaults to <code>_uid</code>, otherwise it must be a numeric or date field with doc values.
+ * <p>
+ * If there are at least as many slices as shards, each shard is split into the slices that are assigned to it. Otherwise each
+ * slice is made of whole shards, and the shards of the other slices match no documents.
+ */
+public class SliceBuilder implements ToXContent, Writeable {
+    public static final ParseField SLICE = new ParseField("slice");
+    public static final ParseField FIELD_FIELD = new ParseField("field");
+    public static final ParseField ID_FIELD = new ParseField("id");
+    public static final ParseField MAX_FIELD = new ParseField("max");
+
+    private String field = UidFieldMapper.NAME;
+    private int id = -1;
+    private int max = -1;
+
+    public SliceBuilder(int id, int max) {
+        this(UidFieldMapper.NAME, id, max);
+    }
+
+    public SliceBuilder(String field, int id, int max) {
+        setField(field);
+        setMax(max);
+        setId(id);
+    }
+
+    private SliceBuilder() {
+    }
+
+    /**
+     * Read from a stream.
+     */
+    public SliceBuilder(StreamInput in) throws IOException {
+        this.field = in.readString();
+        this.id = in.readVInt();
+        this.max = in.readVInt();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(field);
+        out.writeVInt(id);
+        out.writeVInt(max);
+    }
+
+    private SliceBuilder setField(String field) {
+        if (field == null || field.isEmpty()) {
+            throw new IllegalArgumentException("field name is null or empty");
+        }
+        this.field = field;
+        return this;
+    }
+
+    private SliceBuilder setId(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("id must be greater than or equal to 0");
+        }
+        if (max != -1 && id >= max) {
+            throw new IllegalArgumentException("max must be greater than id");
+        }
+        this.id = id;
+        return this;
+    }
+
+    private SliceBuilder setMax(int max) {
+        if (max <= 1) {
+            throw new IllegalArgumentException("max must be greater than 1");
+        }
+        if (id != -1 && id >= max) {
+            throw new IllegalArgumentException("max must be greater than id");
+        }
+        this.max = max;
+        return this;
+    }
+
+    /**
+     * The name of the field used to slice the documents.
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * The id of the slice.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * The total number of slices.
+     */
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        builder.field(FIELD_FIELD.getPreferredName(), field);
+        builder.field(ID_FIELD.getPreferredName(), id);
+        builder.field(MAX_FIELD.getPreferredName(), max);
+        builder.endObject();
+        return builder;
+    }
+
+    public static SliceBuilder fromXContent(XContentParser parser, ParseFieldMatcher parseFieldMatcher) throws IOException {
+        XContentParser.Token token = parser.currentToken();
+        if (token != XContentParser.Token.START_OBJECT) {
+            throw new ParsingException(parser.getTokenLocation(), "Expected [" + XContentParser.Token.START_OBJECT + "] in ["
+                    + SLICE.getPreferredName() + "] but found [" + token + "]");
+        }
+        SliceBuilder builder = new SliceBuilder();
+        String currentFieldName = null;
+        while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+            if (token == XContentParser.Token.FIELD_NAME) {
+                currentFieldName = parser.currentName();
+            } else if (token.isValue()) {
+                if (parseFieldMatcher.match(currentFieldName, FIELD_FIELD)) {
+                    builder.setField(parser.text());
+                } else if (parseFieldMatcher.match(currentFieldName, ID_FIELD)) {
+                    builder.id = parser.intValue();
+                } else if (parseFieldMatcher.match(currentFieldName, MAX_FIELD)) {
+                    builder.max = parser.intValue();
+                } else {
+                    throw new ParsingException(parser.getTokenLocation(), "Unknown key for a " + token + " in ["
+                            + SLICE.getPreferredName() + "]: [" + currentFieldName + "].");
+                }
+            } else {
+                throw new ParsingException(parser.getTokenLocation(), "Unexpected token " + token + " in ["
+                        + SLICE.getPreferredName() + "]");
+            }
+        }
+        if (builder.id == -1 || builder.max == -1) {
+            throw new ParsingException(parser.getTokenLocation(), "[" + SLICE.getPreferredName() + "] requires both ["
+                    + ID_FIELD.getPreferredName() + "] and [" + MAX_FIELD.getPreferredName() + "]");
+        }
+        // validate the values now that both are known
+        int id = builder.id;
+        int max = builder.max;
+        builder.id = -1;
+        builder.max = -1;
+        builder.setMax(max);
+        builder.setId(id);
+        return builder;
+    }
+
+    /**
+     * Converts this slice into a filter for the documents of a shard.
+     *
+     * @param context the context of the shard
+     * @param shardId the id of the shard
+     * @param numShards the number of shards of the index
+     */
+    public Query toFilter(QueryShardContext context, int shardId, int numShards) {
+        final MappedFieldType type = context.fieldMapper(field);
+        if (type == null) {
+            throw new IllegalArgumentException("field " + field + " not found");
+        }
+        final boolean useTermQuery;
+        if (UidFieldMapper.NAME.equals(field)) {
+            useTermQuery = true;
+        } else if (type.hasDocValues() == false) {
+            throw new IllegalArgumentException("cannot load numeric doc values on field [" + field + "]");
+        } else if (type instanceof NumberFieldMapper.NumberFieldType == false && type instanceof DateFieldMapper.DateFieldType == false) {
+            throw new IllegalArgumentException("cannot slice on field [" + field + "] of type [" + type.typeName()
+                    + "], only numeric and date fields are supported");
+        } else {
+            useTermQuery = false;
+        }
+
+        if (max >= numShards) {
+            // there are at least as many slices as shards: the slice is assigned to a single shard, which is split into the
+            // slices that are assigned to it
+            int targetShard = id % numShards;
+            if (targetShard != shardId) {
+                return Queries.newMatchNoDocsQuery("this shard is not part of the slice");
+            }
+            int numSlicesInShard = max / numShards;
+            int rest = max % numShards;
+            if (rest > targetShard) {
+                numSlicesInShard++;
+            }
+            if (numSlicesInShard == 1) {
+                return Queries.newMatchAllQuery();
+            }
+            int shardSlice = id / numShards;
+            return useTermQuery ? new TermsSliceQuery(field, shardSlice, numSlicesInShard)
+                : new DocValuesSliceQuery(field, shardSlice, numSlicesInShard);
+        }
+        // there are more shards than slices: the slice is made of whole shards
+        int targetSlice = shardId % max;
+        if (id != targetSlice) {
+            return Queries.newMatchNoDocsQuery("this shard is not part of the slice");
+        }
+        return Queries.newMatchAllQuery();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        SliceBuilder o = (SliceBuilder) other;
+        return Objects.equals(field, o.field) && id == o.id && max == o.max;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(field, id, max);
+    }
+
+    @Override
+    public String toString() {
+        try {
+            XContentBuilder builder = XContentFactory.jsonBuilder();
+            builder.prettyPrint();
+            toXContent(builder, EMPTY_PARAMS);
+            return builder.string();
+        } catch (Exception e) {
+            throw new ElasticsearchException("Failed to build xcontent.", e);
+        }
+    }
+}
@@ -170,6 +170,8 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
     protected void doStart() {
         adapter.rxMetric.clear();
         adapter.txMetric.clear();
+        adapter.txCopiedMetric.clear();
+        adapter.txReferencedMetric.clear();
         transport.transportServiceAdapter(adapter);
         transport.start();
         if (transport.boundAddress() != null && logger.isInfoEnabled()) {
@@ -241,7 +243,8 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
 
     public TransportStats stats() {
         return new TransportStats(
-            transport.serverOpen(), adapter.rxMetric.count(), adapter.rxMetric.sum(), adapter.txMetric.count(), adapter.txMetric.sum());
+            transport.serverOpen(), adapter.rxMetric.count(), adapter.rxMetric.sum(), adapter.txMetric.count(), adapter.txMetric.sum(),
+            adapter.txCopiedMetric.sum(), adapter.txReferencedMetric.sum());
     }
 
     public BoundTransportAddress boundAddress() {
@@ -484,6 +487,8 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
 
         final MeanMetric rxMetric = new MeanMetric();
         final MeanMetric txMetric = new MeanMetric();
+        final MeanMetric txCopiedMetric = new MeanMetric();
+        final MeanMetric txReferencedMetric = new MeanMetric();
 
         @Override
         public void received(long size) {
@@ -495,6 +500,12 @@ public class TransportService extends AbstractLifecycleComponent<TransportServic
             txMetric.inc(size);
         }
 
+        @Override
+        public void serialized(long copiedSize, long referencedSize) {
+            txCopiedMetric.inc(copiedSize);
+            txReferencedMetric.inc(referencedSize);
+        }
+
         @Override
         public void onRequestSent(DiscoveryNode node, long requestId, String action, TransportRequest request,
                                   TransportRequestOptions options) {
@@ -30,6 +30,12 @@ public interface TransportServiceAdapter {
 
     void sent(long size);
 
+    /**
+     * called by the {@link Transport} implementation once an outgoing message has been serialized, with the number of bytes that
+     * were copied into buffers and the number of bytes that are sent from the buffers they were already held in
+     */
+    void serialized(long copiedSize, long referencedSize);
+
     /** called by the {@link Transport} implementation once a request has been sent */
     void onRequestSent(DiscoveryNode node, long requestId, String action, TransportRequest request, TransportRequestOptions options);
 
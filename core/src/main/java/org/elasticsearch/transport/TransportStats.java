@@ -35,17 +35,22 @@ public class TransportStats implements Streamable, ToXContent {
     private long rxSize;
     private long txCount;
     private long txSize;
+    private long txCopiedSize;
+    private long txReferencedSize;
 
     TransportStats() {
 
     }
 
-    public TransportStats(long serverOpen, long rxCount, long rxSize, long txCount, long txSize) {
+    public TransportStats(long serverOpen, long rxCount, long rxSize, long txCount, long txSize, long txCopiedSize,
+                          long txReferencedSize) {
         this.serverOpen = serverOpen;
         this.rxCount = rxCount;
         this.rxSize = rxSize;
         this.txCount = txCount;
         this.txSize = txSize;
+        this.txCopiedSize = txCopiedSize;
+        this.txReferencedSize = txReferencedSize;
     }
 
     public long serverOpen() {
@@ -88,6 +93,28 @@ public class TransportStats implements Streamable, ToXContent {
         return txSize();
     }
 
+    /**
+     * The number of bytes that were copied into buffers while serializing outgoing messages.
+     */
+    public ByteSizeValue txCopiedSize() {
+        return new ByteSizeValue(txCopiedSize);
+    }
+
+    public ByteSizeValue getTxCopiedSize() {
+        return txCopiedSize();
+    }
+
+    /**
+     * The number of bytes of outgoing messages that were sent from the buffers they were already held in, without copying.
+     */
+    public ByteSizeValue txReferencedSize() {
+        return new ByteSizeValue(txReferencedSize);
+    }
+
+    public ByteSizeValue getTxReferencedSize() {
+        return txReferencedSize();
+    }
+
     public static TransportStats readTransportStats(StreamInput in) throws IOException {
         TransportStats stats = new TransportStats();
         stats.readFrom(in);
@@ -101,6 +128,8 @@ public class TransportStats implements Streamable, ToXContent {
         rxSize = in.readVLong();
         txCount = in.readVLong();
         txSize = in.readVLong();
+        txCopiedSize = in.readVLong();
+        txReferencedSize = in.readVLong();
     }
 
     @Override
@@ -110,6 +139,8 @@ public class TransportStats implements Streamable, ToXContent {
         out.writeVLong(rxSize);
         out.writeVLong(txCount);
         out.writeVLong(txSize);
+        out.writeVLong(txCopiedSize);
+        out.writeVLong(txReferencedSize);
     }
 
     @Override
@@ -120,6 +151,8 @@ public class TransportStats implements Streamable, ToXContent {
         builder.byteSizeField(Fields.RX_SIZE_IN_BYTES, Fields.RX_SIZE, rxSize);
         builder.field(Fields.TX_COUNT, txCount);
         builder.byteSizeField(Fields.TX_SIZE_IN_BYTES, Fields.TX_SIZE, txSize);
+        builder.byteSizeField(Fields.TX_COPIED_SIZE_IN_BYTES, Fields.TX_COPIED_SIZE, txCopiedSize);
+        builder.byteSizeField(Fields.TX_REFERENCED_SIZE_IN_BYTES, Fields.TX_REFERENCED_SIZE, txReferencedSize);
         builder.endObject();
         return builder;
     }
@@ -133,5 +166,9 @@ public class TransportStats implements Streamable, ToXContent {
         static final String TX_COUNT = "tx_count";
         static final String TX_SIZE = "tx_size";
         static final String TX_SIZE_IN_BYTES = "tx_size_in_bytes";
+        static final String TX_COPIED_SIZE = "tx_copied_size";
+        static final String TX_COPIED_SIZE_IN_BYTES = "tx_copied_size_in_bytes";
+        static final String TX_REFERENCED_SIZE = "tx_referenced_size";
+        static final String TX_REFERENCED_SIZE_IN_BYTES = "tx_referenced_size_in_bytes";
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.transport.netty;
+
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.PagedBytesReference;
+import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.netty.NettyUtils;
+import org.elasticsearch.common.util.BigArrays;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link ReleasableBytesStreamOutput} that does not copy large {@link BytesReference}s written through
+ * {@link #writeBytesReference(BytesReference)}, like the source of index requests or recovery file chunks. They are
+ * referenced instead, and wrapped together with the bytes that were written around them into a single composite
+ * {@link ChannelBuffer} by {@link #toChannelBuffer()}.
+ * <p>
+ * The referenced bytes must not be modified until the channel buffer has been written. Releasable references are always
+ * copied since they might be released before that. Please note that {@link #bytes()} only holds the copied bytes and is
+ * only meant to release them once the channel buffer has been written.
+ */
+final class CompositeBytesStreamOutput extends ReleasableBytesStreamOutput {
+
+    /**
+     * References smaller than this are copied, since adding a component to the composite buffer costs more than copying them.
+     */
+    static final int MIN_REFERENCE_SIZE = BigArrays.BYTE_PAGE_SIZE / 4;
+
+    private final List<BytesReference> references = new ArrayList<>();
+    /** the position in the copied bytes at which each reference is inserted */
+    private final List<Integer> positions = new ArrayList<>();
+    private long referencedSize;
+
+    CompositeBytesStreamOutput(BigArrays bigArrays) {
+        super(bigArrays);
+    }
+
+    @Override
+    public void writeBytesReference(@Nullable BytesReference bytes) throws IOException {
+        if (bytes == null || bytes.length() < MIN_REFERENCE_SIZE || bytes instanceof Releasable) {
+            super.writeBytesReference(bytes);
+            return;
+        }
+        writeVInt(bytes.length());
+        positions.add(count);
+        references.add(bytes);
+        referencedSize += bytes.length();
+    }
+
+    @Override
+    public long position() throws IOException {
+        return count + referencedSize;
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        if (references.isEmpty() == false) {
+            throw new IllegalStateException("can't seek after bytes references have been written");
+        }
+        super.seek(position);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        references.clear();
+        positions.clear();
+        referencedSize = 0;
+    }
+
+    /**
+     * Returns the number of bytes that were copied into this output.
+     */
+    int copiedSize() {
+        return count;
+    }
+
+    /**
+     * Returns the number of bytes that are referenced by this output without having been copied.
+     */
+    long referencedSize() {
+        return referencedSize;
+    }
+
+    /**
+     * Returns a composite buffer over the copied bytes and the referenced bytes, in the order in which they were written.
+     */
+    ChannelBuffer toChannelBuffer() {
+        final PagedBytesReference copied = new PagedBytesReference(bigarrays, bytes, count);
+        if (references.isEmpty()) {
+            return copied.toChannelBuffer();
+        }
+        final ChannelBuffer[] buffers = new ChannelBuffer[2 * references.size() + 1];
+        int from = 0;
+        for (int i = 0; i < references.size(); i++) {
+            final int position = positions.get(i);
+            buffers[2 * i] = copied.slice(from, position - from).toChannelBuffer();
+            buffers[2 * i + 1] = references.get(i).toChannelBuffer();
+            from = position;
+        }
+        buffers[buffers.length - 1] = copied.slice(from, count - from).toChannelBuffer();
+        return ChannelBuffers.wrappedBuffer(NettyUtils.DEFAULT_GATHERING, buffers);
+    }
+}
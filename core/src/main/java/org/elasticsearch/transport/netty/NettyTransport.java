@@ -32,7 +32,6 @@ import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
-import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
@@ -879,7 +878,7 @@ public class NettyTransport extends AbstractLifecycleComponent<Transport> implem
         byte status = 0;
         status = TransportStatus.setRequest(status);
 
-        ReleasableBytesStreamOutput bStream = new ReleasableBytesStreamOutput(bigArrays);
+        CompositeBytesStreamOutput bStream = new CompositeBytesStreamOutput(bigArrays);
         boolean addedReleaseListener = false;
         try {
             bStream.skip(NettyHeader.HEADER_SIZE);
@@ -918,8 +917,9 @@ public class NettyTransport extends AbstractLifecycleComponent<Transport> implem
                 request.writeTo(stream);
                 stream.close();
                 bytes = bStream.bytes();
-                buffer = bytes.toChannelBuffer();
+                buffer = bStream.toChannelBuffer();
             }
+            transportServiceAdapter.serialized(bStream.copiedSize(), buffer.readableBytes() - bStream.copiedSize());
             NettyHeader.writeHeader(buffer, requestId, status, version);
             ChannelFuture future = targetChannel.write(buffer);
             ReleaseChannelFutureListener listener = new ReleaseChannelFutureListener(bytes);
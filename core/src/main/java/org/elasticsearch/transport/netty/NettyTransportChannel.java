@@ -24,7 +24,6 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.ReleasablePagedBytesReference;
 import org.elasticsearch.common.compress.CompressorFactory;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
-import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.netty.ReleaseChannelFutureListener;
@@ -93,10 +92,10 @@ public class NettyTransportChannel implements TransportChannel {
         byte status = 0;
         status = TransportStatus.setResponse(status);
 
-        ReleasableBytesStreamOutput bStream = null;
+        CompositeBytesStreamOutput bStream = null;
         boolean addedReleaseListener = false;
         try {
-            bStream = new ReleasableBytesStreamOutput(transport.bigArrays);
+            bStream = new CompositeBytesStreamOutput(transport.bigArrays);
             bStream.skip(NettyHeader.HEADER_SIZE);
             StreamOutput stream = bStream;
             if (options.compress()) {
@@ -108,7 +107,8 @@ public class NettyTransportChannel implements TransportChannel {
             stream.close();
 
             ReleasablePagedBytesReference bytes = bStream.bytes();
-            ChannelBuffer buffer = bytes.toChannelBuffer();
+            ChannelBuffer buffer = bStream.toChannelBuffer();
+            transportServiceAdapter.serialized(bStream.copiedSize(), bStream.referencedSize());
             NettyHeader.writeHeader(buffer, requestId, status, version);
             ChannelFuture future = channel.write(buffer);
             ReleaseChannelFutureListener listener = new ReleaseChannelFutureListener(bytes);
@@ -136,6 +136,7 @@ public class NettyTransportChannel implements TransportChannel {
 
         BytesReference bytes = stream.bytes();
         ChannelBuffer buffer = bytes.toChannelBuffer();
+        transportServiceAdapter.serialized(bytes.length(), 0);
         NettyHeader.writeHeader(buffer, requestId, status, version);
         channel.write(buffer);
         transportServiceAdapter.onResponseSent(requestId, action, error);
@@ -0,0 +1,225 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.bulk;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.ShardRoutingState;
+import org.elasticsearch.cluster.routing.TestShardRouting;
+import org.elasticsearch.common.transport.DummyTransportAddress;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportResponse;
+import org.junit.After;
+import org.junit.Before;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BulkShardReplicaBatcherTests extends ESTestCase {
+
+    private final DiscoveryNode node = new DiscoveryNode("node", DummyTransportAddress.INSTANCE, Collections.emptyMap(),
+        Collections.singleton(DiscoveryNode.Role.DATA), Version.CURRENT);
+    private final ShardId shardId = new ShardId("index", "_na_", 0);
+    private final ShardRouting replica = TestShardRouting.newShardRouting("index", 0, "node", false, ShardRoutingState.STARTED);
+
+    private final List<Sent> sent = new CopyOnWriteArrayList<>();
+    private ThreadPool threadPool;
+
+    @Before
+    public void setUpThreadPool() {
+        threadPool = new ThreadPool(getTestName());
+    }
+
+    @After
+    public void tearDownThreadPool() {
+        ThreadPool.terminate(threadPool, 30, TimeUnit.SECONDS);
+    }
+
+    public void testMergesRequestsUntilSizeIsReached() {
+        BulkShardRequest first = request(1, "{\"f\":1}", "{\"f\":2}");
+        BulkShardRequest second = request(1, "{\"f\":3}");
+        long maxSize = BulkShardReplicaBatcher.sizeInBytes(first) + BulkShardReplicaBatcher.sizeInBytes(second);
+        BulkShardReplicaBatcher batcher = new BulkShardReplicaBatcher(threadPool, this::send, new ByteSizeValue(maxSize),
+            TimeValue.timeValueHours(1));
+
+        CountingListener listener = new CountingListener();
+        batcher.add(node, replica, first, listener);
+        assertEquals(0, sent.size());
+        assertEquals(1, batcher.pendingBatches());
+        batcher.add(node, replica, second, listener);
+        assertEquals(1, sent.size());
+        assertEquals(0, batcher.pendingBatches());
+
+        BulkShardRequest merged = sent.get(0).request;
+        assertEquals(shardId, merged.shardId());
+        assertEquals(1, merged.primaryTerm());
+        assertEquals(3, merged.items().length);
+        assertSame(first.items()[0], merged.items()[0]);
+        assertSame(first.items()[1], merged.items()[1]);
+        assertSame(second.items()[0], merged.items()[2]);
+
+        sent.get(0).listener.onResponse(TransportResponse.Empty.INSTANCE);
+        assertEquals(2, listener.responses.get());
+        assertEquals(0, listener.failures.get());
+    }
+
+    public void testSendsBatchAfterDelay() throws Exception {
+        BulkShardReplicaBatcher batcher = new BulkShardReplicaBatcher(threadPool, this::send, new ByteSizeValue(1, ByteSizeUnit.GB),
+            TimeValue.timeValueMillis(randomIntBetween(1, 20)));
+        BulkShardRequest request = request(1, "{}");
+        batcher.add(node, replica, request, new CountingListener());
+        assertBusy(() -> assertEquals(1, sent.size()));
+        // a single request is sent as is
+        assertSame(request, sent.get(0).request);
+        assertEquals(0, batcher.pendingBatches());
+    }
+
+    public void testDoesNotMergeAcrossPrimaryTermsOrCopies() throws Exception {
+        BulkShardReplicaBatcher batcher = new BulkShardReplicaBatcher(threadPool, this::send, new ByteSizeValue(1, ByteSizeUnit.GB),
+            TimeValue.timeValueMillis(randomIntBetween(1, 20)));
+        ShardRouting otherReplica = TestShardRouting.newShardRouting("index", 0, "node", false, ShardRoutingState.STARTED);
+        batcher.add(node, replica, request(1, "{}"), new CountingListener());
+        batcher.add(node, replica, request(2, "{}"), new CountingListener());
+        batcher.add(node, otherReplica, request(1, "{}"), new CountingListener());
+        assertBusy(() -> assertEquals(3, sent.size()));
+        for (Sent s : sent) {
+            assertEquals(1, s.request.items().length);
+        }
+    }
+
+    public void testFailureIsPropagatedToAllRequests() {
+        BulkShardReplicaBatcher batcher = new BulkShardReplicaBatcher(threadPool, this::send, new ByteSizeValue(2),
+            TimeValue.timeValueHours(1));
+        CountingListener listener = new CountingListener();
+        batcher.add(node, replica, request(1, "{"), listener);
+        batcher.add(node, replica, request(1, "}"), listener);
+        assertEquals(1, sent.size());
+        sent.get(0).listener.onFailure(new IllegalStateException("simulated"));
+        assertEquals(0, listener.responses.get());
+        assertEquals(2, listener.failures.get());
+    }
+
+    public void testDelayedBatchKeepsThreadContextAndParentTask() throws Exception {
+        BulkShardReplicaBatcher batcher = new BulkShardReplicaBatcher(threadPool, this::send, new ByteSizeValue(1, ByteSizeUnit.GB),
+            TimeValue.timeValueMillis(randomIntBetween(1, 20)));
+        ThreadContext threadContext = threadPool.getThreadContext();
+        BulkShardRequest first = request(1, "{}");
+        first.setParentTask(new TaskId("node", 1));
+        BulkShardRequest second = request(1, "{}");
+        second.setParentTask(new TaskId("node", 2));
+        HeaderListener firstListener = new HeaderListener(threadContext);
+        HeaderListener secondListener = new HeaderListener(threadContext);
+        try (ThreadContext.StoredContext ignore = threadContext.stashContext()) {
+            threadContext.putHeader("request", "first");
+            batcher.add(node, replica, first, firstListener);
+        }
+        try (ThreadContext.StoredContext ignore = threadContext.stashContext()) {
+            threadContext.putHeader("request", "second");
+            batcher.add(node, replica, second, secondListener);
+        }
+        assertBusy(() -> assertEquals(1, sent.size()));
+
+        Sent merged = sent.get(0);
+        assertEquals(2, merged.request.items().length);
+        assertEquals(new TaskId("node", 1), merged.request.getParentTask());
+        assertEquals("first", merged.header);
+
+        merged.listener.onResponse(TransportResponse.Empty.INSTANCE);
+        assertEquals("first", firstListener.header);
+        assertEquals("second", secondListener.header);
+        assertNull(threadContext.getHeader("request"));
+    }
+
+    private BulkShardRequest request(long primaryTerm, String... sources) {
+        List<BulkItemRequest> items = new ArrayList<>();
+        for (String source : sources) {
+            items.add(new BulkItemRequest(items.size(), new IndexRequest("index", "type", randomAsciiOfLength(8)).source(source)));
+        }
+        BulkShardRequest request = new BulkShardRequest(shardId, randomBoolean(), items.toArray(new BulkItemRequest[items.size()]));
+        request.primaryTerm(primaryTerm);
+        return request;
+    }
+
+    private void send(DiscoveryNode node, ShardRouting replica, BulkShardRequest request,
+                      ActionListener<TransportResponse.Empty> listener) {
+        assertSame(this.node, node);
+        sent.add(new Sent(request, listener, threadPool.getThreadContext().getHeader("request")));
+    }
+
+    private static class Sent {
+        final BulkShardRequest request;
+        final ActionListener<TransportResponse.Empty> listener;
+        final String header;
+
+        Sent(BulkShardRequest request, ActionListener<TransportResponse.Empty> listener, String header) {
+            this.request = request;
+            this.listener = listener;
+            this.header = header;
+        }
+    }
+
+    private static class HeaderListener implements ActionListener<TransportResponse.Empty> {
+        final ThreadContext threadContext;
+        volatile String header;
+
+        HeaderListener(ThreadContext threadContext) {
+            this.threadContext = threadContext;
+        }
+
+        @Override
+        public void onResponse(TransportResponse.Empty empty) {
+            header = threadContext.getHeader("request");
+        }
+
+        @Override
+        public void onFailure(Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static class CountingListener implements ActionListener<TransportResponse.Empty> {
+        final AtomicInteger responses = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public void onResponse(TransportResponse.Empty empty) {
+            responses.incrementAndGet();
+        }
+
+        @Override
+        public void onFailure(Throwable e) {
+            failures.incrementAndGet();
+        }
+    }
+}
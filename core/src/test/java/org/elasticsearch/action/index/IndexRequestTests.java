@@ -19,10 +19,13 @@
 package org.elasticsearch.action.index;
 
 import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.test.ESTestCase;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -30,6 +33,7 @@ import java.util.Set;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 
@@ -93,6 +97,32 @@ public class IndexRequestTests extends ESTestCase {
                 containsString("id is too long, must be no longer than 512 bytes but was: 513"));
 }
 
+    public void testAutoGeneratedTimestamp() throws IOException {
+        IndexRequest request = new IndexRequest("index", "type");
+        request.source("{}");
+        assertEquals(IndexRequest.UNSET_AUTO_GENERATED_TIMESTAMP, request.getAutoGeneratedTimestamp());
+        request.process(null, true, "index");
+        assertNotNull(request.id());
+        assertThat(request.getAutoGeneratedTimestamp(), greaterThanOrEqualTo(0L));
+        assertFalse(request.isRetry());
+        if (randomBoolean()) {
+            request.onRetry();
+        }
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+        IndexRequest serialized = new IndexRequest();
+        serialized.readFrom(StreamInput.wrap(out.bytes()));
+        assertEquals(request.id(), serialized.id());
+        assertEquals(request.getAutoGeneratedTimestamp(), serialized.getAutoGeneratedTimestamp());
+        assertEquals(request.isRetry(), serialized.isRetry());
+
+        IndexRequest withId = new IndexRequest("index", "type", "1");
+        withId.source("{}");
+        withId.process(null, true, "index");
+        assertEquals(IndexRequest.UNSET_AUTO_GENERATED_TIMESTAMP, withId.getAutoGeneratedTimestamp());
+    }
+
     public void testSetTTLAsTimeValue() {
         IndexRequest indexRequest = new IndexRequest();
         TimeValue ttl = TimeValue.parseTimeValue(randomTimeValue(), null, "ttl");
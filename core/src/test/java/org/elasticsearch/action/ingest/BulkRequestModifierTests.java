@@ -85,6 +85,35 @@ public class BulkRequestModifierTests extends ESTestCase {
         }
     }
 
+    public void testMarkItemsAsFailedAfterIteration() {
+        BulkRequest originalBulkRequest = new BulkRequest();
+        int numRequests = scaledRandomIntBetween(8, 64);
+        for (int i = 0; i < numRequests; i++) {
+            originalBulkRequest.add(new IndexRequest("index", "type", String.valueOf(i)));
+        }
+
+        IngestActionFilter.BulkRequestModifier modifier = new IngestActionFilter.BulkRequestModifier(originalBulkRequest);
+        List<IndexRequest> requests = new ArrayList<>();
+        while (modifier.hasNext()) {
+            requests.add((IndexRequest) modifier.next());
+        }
+        // failures of parallel pipeline executions are reported in bulk order once all requests have been iterated
+        Set<Integer> failedSlots = new HashSet<>();
+        for (int i = 0; i < numRequests; i++) {
+            if (randomBoolean()) {
+                modifier.markItemAsFailed(requests.get(i), new RuntimeException());
+                failedSlots.add(i);
+            }
+        }
+
+        assertThat(modifier.failedSlots, Matchers.equalTo(failedSlots));
+        assertThat(modifier.getBulkRequest().requests().size(), Matchers.equalTo(numRequests - failedSlots.size()));
+        for (BulkItemResponse itemResponse : modifier.itemResponses) {
+            assertThat(failedSlots.contains(itemResponse.getItemId()), Matchers.is(true));
+            assertThat(itemResponse.getFailure().getId(), Matchers.equalTo(String.valueOf(itemResponse.getItemId())));
+        }
+    }
+
     public void testPipelineFailures() {
         BulkRequest originalBulkRequest = new BulkRequest();
         for (int i = 0; i < 32; i++) {
@@ -164,7 +164,7 @@ public class IngestActionFilterTests extends ESTestCase {
 
         Processor processor = new TestProcessor(ingestDocument -> ingestDocument.setFieldValue("field2", "value2"));
         when(store.get("_id")).thenReturn(new Pipeline("_id", "_description", new CompoundProcessor(processor)));
-        executionService = new PipelineExecutionService(store, threadPool);
+        executionService = new PipelineExecutionService(Settings.EMPTY, store, threadPool);
         IngestService ingestService = mock(IngestService.class);
         when(ingestService.getPipelineExecutionService()).thenReturn(executionService);
         NodeService nodeService = mock(NodeService.class);
@@ -0,0 +1,68 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.metrics.max.InternalMax;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.Collections;
+
+public class SearchTaskTests extends ESTestCase {
+
+    public void testSearchRequestCreatesSearchTask() {
+        SearchRequest request = new SearchRequest("index1", "index2").types("type");
+        Task task = request.createTask(1, "transport", SearchAction.NAME, TaskId.EMPTY_TASK_ID);
+        assertTrue(task instanceof SearchTask);
+        assertEquals("indices[index1,index2], types[type], search_type[QUERY_THEN_FETCH]", task.getDescription());
+        // the status is only available once the search started
+        assertNull(task.getStatus());
+        SearchTask.Status status = new SearchTask.Status(5, 3, 1, 0, null);
+        ((SearchTask) task).setStatusSupplier(() -> status);
+        assertSame(status, task.getStatus());
+    }
+
+    public void testStatusSerialization() throws IOException {
+        InternalMax.registerStreams();
+        InternalAggregations aggregations = randomBoolean() ? null : new InternalAggregations(Collections.singletonList(
+                new InternalMax("max", randomDouble(), DocValueFormat.RAW, Collections.emptyList(), Collections.emptyMap())));
+        SearchTask.Status status = new SearchTask.Status(randomIntBetween(1, 100), randomIntBetween(0, 100), randomIntBetween(0, 100),
+                randomIntBetween(0, 10), aggregations);
+        BytesStreamOutput out = new BytesStreamOutput();
+        status.writeTo(out);
+        SearchTask.Status copy = new SearchTask.Status(StreamInput.wrap(out.bytes()));
+        assertEquals(status.getTotalShards(), copy.getTotalShards());
+        assertEquals(status.getSuccessfulShards(), copy.getSuccessfulShards());
+        assertEquals(status.getFailedShards(), copy.getFailedShards());
+        assertEquals(status.getReducePhases(), copy.getReducePhases());
+        if (aggregations == null) {
+            assertNull(copy.getAggregations());
+        } else {
+            InternalMax max = copy.getAggregations().get("max");
+            assertEquals(((InternalMax) aggregations.get("max")).getValue(), max.getValue(), 0d);
+        }
+    }
+}
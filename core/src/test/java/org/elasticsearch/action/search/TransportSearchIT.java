@@ -20,12 +20,17 @@
 package org.elasticsearch.action.search;
 
 import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.global.Global;
 import org.elasticsearch.test.ESIntegTestCase;
 
 import java.util.Collections;
 
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertHitCount;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 
 public class TransportSearchIT extends ESIntegTestCase {
 
@@ -70,4 +75,53 @@ public class TransportSearchIT extends ESIntegTestCase {
         }
     }
 
+    public void testSkipShardsThatCannotMatch() throws Exception {
+        try {
+            final int numPrimaries1 = randomIntBetween(1, 5);
+            final int numPrimaries2 = randomIntBetween(1, 5);
+            assertAcked(prepareCreate("logs-1").addMapping("log", "timestamp", "type=date")
+                    .setSettings(IndexMetaData.SETTING_NUMBER_OF_SHARDS, numPrimaries1));
+            assertAcked(prepareCreate("logs-2").addMapping("log", "timestamp", "type=date")
+                    .setSettings(IndexMetaData.SETTING_NUMBER_OF_SHARDS, numPrimaries2));
+            ensureYellow("logs-1", "logs-2");
+            for (int i = 0; i < numPrimaries1 * 2; i++) {
+                client().prepareIndex("logs-1", "log").setSource("timestamp", "2016-01-01T00:00:00Z").get();
+            }
+            for (int i = 0; i < numPrimaries2 * 2; i++) {
+                client().prepareIndex("logs-2", "log").setSource("timestamp", "2016-02-01T00:00:00Z").get();
+            }
+            refresh("logs-1", "logs-2");
+
+            assertAcked(client().admin().cluster().prepareUpdateSettings()
+                    .setTransientSettings(Collections.singletonMap(
+                            TransportSearchAction.PRE_FILTER_SHARD_SIZE_SETTING.getKey(), 1)));
+
+            SearchResponse response = client().prepareSearch("logs-*")
+                    .setQuery(QueryBuilders.rangeQuery("timestamp").gte("2016-01-15T00:00:00Z")).get();
+            assertHitCount(response, numPrimaries2 * 2);
+            assertEquals(numPrimaries1 + numPrimaries2, response.getTotalShards());
+            assertEquals(numPrimaries1 + numPrimaries2, response.getSuccessfulShards());
+            // empty shards of the second index cannot match either
+            assertThat(response.getSkippedShards(), greaterThanOrEqualTo(numPrimaries1));
+
+            // a global aggregation needs to see all shards
+            response = client().prepareSearch("logs-*")
+                    .setQuery(QueryBuilders.rangeQuery("timestamp").gte("2016-01-15T00:00:00Z"))
+                    .addAggregation(AggregationBuilders.global("global")).get();
+            assertEquals(0, response.getSkippedShards());
+            Global global = response.getAggregations().get("global");
+            assertEquals((numPrimaries1 + numPrimaries2) * 2, global.getDocCount());
+
+            // one shard gets searched even if none can match
+            response = client().prepareSearch("logs-*")
+                    .setQuery(QueryBuilders.rangeQuery("timestamp").gte("2017-01-01T00:00:00Z")).get();
+            assertHitCount(response, 0);
+            assertEquals(numPrimaries1 + numPrimaries2 - 1, response.getSkippedShards());
+            assertEquals(numPrimaries1 + numPrimaries2, response.getSuccessfulShards());
+        } finally {
+            assertAcked(client().admin().cluster().prepareUpdateSettings()
+                    .setTransientSettings(Collections.singletonMap(
+                            TransportSearchAction.PRE_FILTER_SHARD_SIZE_SETTING.getKey(), null)));
+        }
+    }
 }
@@ -37,8 +37,11 @@ import org.elasticsearch.cluster.routing.ShardsIterator;
 import org.elasticsearch.cluster.routing.allocation.AllocationService;
 import org.elasticsearch.cluster.routing.allocation.decider.AwarenessAllocationDecider;
 import org.elasticsearch.cluster.routing.allocation.decider.ClusterRebalanceAllocationDecider;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.test.ESAllocationTestCase;
 
 import java.util.Collections;
@@ -50,6 +53,7 @@ import static java.util.Collections.unmodifiableMap;
 import static org.elasticsearch.cluster.routing.ShardRoutingState.INITIALIZING;
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
@@ -478,4 +482,76 @@ public class RoutingIteratorTests extends ESAllocationTestCase {
         assertTrue(routing.primary());
     }
 
+
+    public void testAdaptiveReplicaSelection() throws Exception {
+        AllocationService strategy = createAllocationService(Settings.builder()
+                .put("cluster.routing.allocation.node_concurrent_recoveries", 10)
+                .build());
+
+        MetaData metaData = MetaData.builder()
+                .put(IndexMetaData.builder("test").settings(settings(Version.CURRENT)).numberOfShards(1).numberOfReplicas(2))
+                .build();
+
+        RoutingTable routingTable = RoutingTable.builder()
+                .addAsNew(metaData.index("test"))
+                .build();
+
+        ClusterState clusterState = ClusterState.builder(ClusterName.DEFAULT).metaData(metaData).routingTable(routingTable).build();
+
+        clusterState = ClusterState.builder(clusterState).nodes(DiscoveryNodes.builder()
+                        .put(newNode("node1"))
+                        .put(newNode("node2"))
+                        .put(newNode("node3"))
+                        .localNodeId("node1")
+        ).build();
+        routingTable = strategy.reroute(clusterState, "reroute").routingTable();
+        clusterState = ClusterState.builder(clusterState).routingTable(routingTable).build();
+
+        routingTable = strategy.applyStartedShards(clusterState, clusterState.getRoutingNodes().shardsWithState(INITIALIZING)).routingTable();
+        clusterState = ClusterState.builder(clusterState).routingTable(routingTable).build();
+
+        routingTable = strategy.applyStartedShards(clusterState, clusterState.getRoutingNodes().shardsWithState(INITIALIZING)).routingTable();
+        clusterState = ClusterState.builder(clusterState).routingTable(routingTable).build();
+
+        OperationRouting operationRouting = new OperationRouting(Settings.builder()
+                .put(OperationRouting.USE_ADAPTIVE_REPLICA_SELECTION_SETTING.getKey(), true)
+                .build(), new AwarenessAllocationDecider());
+        ClusterService clusterService = new ClusterService(Settings.EMPTY, null,
+                new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS), null, ClusterName.DEFAULT);
+        ResponseCollectorService collector = new ResponseCollectorService(Settings.EMPTY, clusterService);
+
+        // the copy on the only node without statistics is probed first
+        collector.addNodeStatistics("node1", 0, 1_000_000, 500_000);
+        collector.addNodeStatistics("node2", 0, 2_000_000, 1_000_000);
+        GroupShardsIterator shardIterators = operationRouting.searchShards(clusterState, new String[]{"test"}, null, null, collector);
+        assertThat(shardIterators.size(), equalTo(1));
+        ShardIterator iter = shardIterators.iterator().next();
+        assertThat(iter.size(), equalTo(3));
+        assertThat(iter.nextOrNull().currentNodeId(), equalTo("node3"));
+        assertThat(iter.nextOrNull().currentNodeId(), equalTo("node1"));
+        assertThat(iter.nextOrNull().currentNodeId(), equalTo("node2"));
+
+        // then copies are ordered by the rank of their node
+        collector.addNodeStatistics("node3", 0, 4_000_000, 2_000_000);
+        shardIterators = operationRouting.searchShards(clusterState, new String[]{"test"}, null, null, collector);
+        iter = shardIterators.iterator().next();
+        assertThat(iter.nextOrNull().currentNodeId(), equalTo("node1"));
+        assertThat(iter.nextOrNull().currentNodeId(), equalTo("node2"));
+        assertThat(iter.nextOrNull().currentNodeId(), equalTo("node3"));
+
+        // the statistics of the nodes that were not chosen move towards those of the chosen node
+        assertThat(collector.getNodeStatistics("node2", 3).getResponseTime(), lessThan(2_000_000d));
+        assertThat(collector.getNodeStatistics("node3", 3).getResponseTime(), lessThan(4_000_000d));
+
+        // searches that are in flight count against a node
+        for (int i = 0; i < 10; i++) {
+            collector.onSearchSent("node1");
+        }
+        shardIterators = operationRouting.searchShards(clusterState, new String[]{"test"}, null, null, collector);
+        assertThat(shardIterators.iterator().next().nextOrNull().currentNodeId(), not(equalTo("node1")));
+
+        // a preference disables the ranking
+        shardIterators = operationRouting.searchShards(clusterState, new String[]{"test"}, null, "_only_node:node1", collector);
+        assertThat(shardIterators.iterator().next().nextOrNull().currentNodeId(), equalTo("node1"));
+    }
 }
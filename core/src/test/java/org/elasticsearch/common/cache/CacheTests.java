@@ -742,4 +742,149 @@ public class CacheTests extends ESTestCase {
         cache.refresh();
         assertEquals(500, cache.count());
     }
+
+    // fill the cache, make half of the entries popular, then scan through many entries that are only put once; the
+    // popular entries must survive the scan because the one-hit wonders are never admitted past the window
+    public void testWindowTinyLfuIsScanResistant() {
+        int maximumWeight = 100;
+        int scanLength = 5 * maximumWeight;
+        Cache<Integer, String> cache =
+                CacheBuilder.<Integer, String>builder()
+                        .setMaximumWeight(maximumWeight)
+                        .setEvictionPolicy(Cache.EvictionPolicy.WINDOW_TINY_LFU)
+                        .build();
+        for (int i = 0; i < maximumWeight; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < maximumWeight / 2; i++) {
+                assertEquals(Integer.toString(i), cache.get(i));
+            }
+            cache.refresh();
+        }
+        for (int i = maximumWeight; i < maximumWeight + scanLength; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        cache.refresh();
+        assertEquals(maximumWeight, cache.count());
+        assertEquals(scanLength, cache.stats().getEvictions());
+        for (int i = 0; i < maximumWeight / 2; i++) {
+            assertEquals(Integer.toString(i), cache.get(i));
+        }
+    }
+
+    // a candidate leaving the window is only admitted into the main space if it is more popular than the victim
+    public void testWindowTinyLfuAdmission() {
+        int maximumWeight = 100;
+        List<Integer> evictedKeys = new ArrayList<>();
+        Cache<Integer, String> cache =
+                CacheBuilder.<Integer, String>builder()
+                        .setMaximumWeight(maximumWeight)
+                        .setEvictionPolicy(Cache.EvictionPolicy.WINDOW_TINY_LFU)
+                        .removalListener(notification -> evictedKeys.add(notification.getKey()))
+                        .build();
+        for (int i = 0; i < maximumWeight; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < maximumWeight; i++) {
+                cache.get(i);
+            }
+            cache.refresh();
+        }
+
+        int popular = maximumWeight;
+        cache.put(popular, Integer.toString(popular));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Integer.toString(popular), cache.get(popular));
+        }
+        cache.refresh();
+        // push the popular entry out of the window, it must be admitted
+        int unpopular = popular + 1;
+        cache.put(unpopular, Integer.toString(unpopular));
+        assertEquals(maximumWeight, cache.count());
+        assertFalse(evictedKeys.contains(popular));
+        // push the unpopular entry out of the window, it must be rejected
+        cache.put(unpopular + 1, Integer.toString(unpopular + 1));
+        assertEquals(maximumWeight, cache.count());
+        assertTrue(evictedKeys.contains(unpopular));
+        assertEquals(Integer.toString(popular), cache.get(popular));
+        assertNull(cache.get(unpopular));
+    }
+
+    // the keys of all entries are visited exactly once, whether they are in the window or in the main space
+    public void testWindowTinyLfuIteration() {
+        int maximumWeight = randomIntBetween(1, numberOfEntries);
+        Cache<Integer, String> cache =
+                CacheBuilder.<Integer, String>builder()
+                        .setMaximumWeight(maximumWeight)
+                        .setEvictionPolicy(Cache.EvictionPolicy.WINDOW_TINY_LFU)
+                        .build();
+        for (int i = 0; i < numberOfEntries; i++) {
+            cache.put(i, Integer.toString(i));
+            if (rarely()) {
+                cache.get(randomIntBetween(0, i));
+            }
+        }
+        cache.refresh();
+        Set<Integer> keys = new HashSet<>();
+        for (Integer key : cache.keys()) {
+            assertTrue(keys.add(key));
+        }
+        assertEquals(cache.count(), keys.size());
+        for (Integer key : keys) {
+            assertEquals(Integer.toString(key), cache.get(key));
+        }
+        assertEquals(maximumWeight, cache.count());
+        cache.invalidateAll();
+        assertEquals(0, cache.count());
+        assertEquals(0, cache.weight());
+        assertFalse(cache.keys().iterator().hasNext());
+    }
+
+    // many threads reading and writing concurrently must leave the cache within its maximum weight
+    public void testWindowTinyLfuConcurrentReadsAndWrites() throws BrokenBarrierException, InterruptedException {
+        int maximumWeight = 500;
+        int numberOfThreads = randomIntBetween(2, 32);
+        final Cache<Integer, String> cache =
+                CacheBuilder.<Integer, String>builder()
+                        .setMaximumWeight(maximumWeight)
+                        .setEvictionPolicy(Cache.EvictionPolicy.WINDOW_TINY_LFU)
+                        .build();
+        AtomicLong gets = new AtomicLong();
+        CyclicBarrier barrier = new CyclicBarrier(1 + numberOfThreads);
+        for (int i = 0; i < numberOfThreads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                    Random random = new Random(random().nextLong());
+                    for (int j = 0; j < numberOfEntries; j++) {
+                        Integer key = random.nextInt(numberOfEntries);
+                        if (random.nextBoolean()) {
+                            cache.put(key, Integer.toString(key));
+                        } else {
+                            String value = cache.get(key);
+                            gets.incrementAndGet();
+                            if (value != null) {
+                                assertEquals(Integer.toString(key), value);
+                            }
+                        }
+                    }
+                    barrier.await();
+                } catch (BrokenBarrierException | InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            thread.start();
+        }
+
+        // wait for all threads to be ready
+        barrier.await();
+        // wait for all threads to finish
+        barrier.await();
+
+        cache.refresh();
+        assertTrue(cache.count() <= maximumWeight);
+        assertEquals(gets.get(), cache.stats().getHits() + cache.stats().getMisses());
+    }
 }
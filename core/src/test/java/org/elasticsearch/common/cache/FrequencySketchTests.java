@@ -0,0 +1,66 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.common.cache;
+
+import org.elasticsearch.test.ESTestCase;
+
+public class FrequencySketchTests extends ESTestCase {
+
+    public void testIncrement() {
+        FrequencySketch sketch = new FrequencySketch(512);
+        int item = randomInt();
+        assertEquals(0, sketch.frequency(item));
+        int increments = randomIntBetween(1, 15);
+        for (int i = 0; i < increments; i++) {
+            sketch.increment(item);
+        }
+        assertEquals(increments, sketch.frequency(item));
+    }
+
+    public void testIncrementSaturates() {
+        FrequencySketch sketch = new FrequencySketch(512);
+        int item = randomInt();
+        for (int i = 0; i < 20; i++) {
+            sketch.increment(item);
+        }
+        assertEquals(15, sketch.frequency(item));
+    }
+
+    public void testReset() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        int item = randomInt();
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(item);
+        }
+        // the sample size is ten times the capacity, distinct items push the sketch over it
+        for (int i = 1; i < 10 * 64; i++) {
+            sketch.increment(item + i);
+        }
+        assertTrue(sketch.frequency(item) < 10);
+    }
+
+    public void testEnsureCapacity() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        assertEquals(64, sketch.capacity());
+        sketch.ensureCapacity(32);
+        assertEquals(64, sketch.capacity());
+        sketch.ensureCapacity(100);
+        assertEquals(128, sketch.capacity());
+    }
+}
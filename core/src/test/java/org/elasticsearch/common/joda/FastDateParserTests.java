@@ -0,0 +1,172 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.joda;
+
+import org.elasticsearch.test.ESTestCase;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+import org.joda.time.format.StrictISODateTimeFormat;
+
+import java.util.Locale;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class FastDateParserTests extends ESTestCase {
+
+    public void testDateOptionalTime() {
+        assertThat(FastDateParser.parseDateOptionalTime("1970-01-01", DateTimeZone.UTC), equalTo(0L));
+        assertThat(FastDateParser.parseDateOptionalTime("2016-02-29T12:30", DateTimeZone.UTC), equalTo(1456749000000L));
+        assertThat(FastDateParser.parseDateOptionalTime("2016-02-29T12:30:15.123Z", DateTimeZone.UTC), equalTo(1456749015123L));
+        assertThat(FastDateParser.parseDateOptionalTime("2016-02-29T12:30:15,1234567+01:00", DateTimeZone.UTC),
+            equalTo(1456745415123L));
+        assertThat(FastDateParser.parseDateOptionalTime("2016-02-29T12:30:15.1-0130", DateTimeZone.UTC), equalTo(1456754415100L));
+        assertThat(FastDateParser.parseDateOptionalTime("1969-12-31T23:59:59.999", DateTimeZone.UTC), equalTo(-1L));
+        assertThat(FastDateParser.parseDateOptionalTime("2016-02-29T12:30", DateTimeZone.forOffsetHours(2)), equalTo(1456741800000L));
+
+        // invalid or unusual dates are left to joda
+        assertNotParsed("2015-02-29");
+        assertNotParsed("2016-13-01");
+        assertNotParsed("2016-02-29T24:00");
+        assertNotParsed("2016-02-29T12");
+        assertNotParsed("2016-02-29T12:30:15.");
+        assertNotParsed("2016-02-29T12:30:15.1234567890");
+        assertNotParsed("2016-02-29T12:30+01");
+        assertNotParsed("2016-02-29Z");
+        assertNotParsed("2016-02");
+        assertNotParsed("+2016-02-29");
+        assertNotParsed("2016-W01");
+        // the local time falls into the daylight savings gap
+        assertThat(FastDateParser.parseDateOptionalTime("2016-03-27T02:30", DateTimeZone.forID("Europe/Amsterdam")),
+            equalTo(FastDateParser.NOT_PARSED));
+    }
+
+    public void testDateOptionalTimeParsesLikeJoda() {
+        DateTimeFormatter strictParser = StrictISODateTimeFormat.dateOptionalTimeParser().withZone(DateTimeZone.UTC);
+        for (int i = 0; i < 10000; i++) {
+            String text = randomDateOptionalTime();
+            long millis = FastDateParser.parseDateOptionalTime(text, DateTimeZone.UTC);
+            if (millis != FastDateParser.NOT_PARSED) {
+                assertThat(text, millis, equalTo(strictParser.parseMillis(text)));
+            }
+            DateTimeZone zone = randomFrom(DateTimeZone.UTC, DateTimeZone.forID("Europe/Amsterdam"),
+                DateTimeZone.forID("America/New_York"), DateTimeZone.forOffsetHours(randomIntBetween(-12, 12)));
+            millis = FastDateParser.parseDateOptionalTime(text, zone);
+            if (millis != FastDateParser.NOT_PARSED) {
+                assertThat(text, millis, equalTo(ISODateTimeFormat.dateTimeParser().withZone(zone).parseMillis(text)));
+            }
+        }
+    }
+
+    public void testEpoch() {
+        assertThat(FastDateParser.parseEpochMillis("1456749015123"), equalTo(1456749015123L));
+        assertThat(FastDateParser.parseEpochMillis("-1456749015123"), equalTo(-1456749015123L));
+        assertThat(FastDateParser.parseEpochMillis("0"), equalTo(0L));
+        assertThat(FastDateParser.parseEpochMillis("14567490151234"), equalTo(FastDateParser.NOT_PARSED));
+        assertThat(FastDateParser.parseEpochMillis("1456749015.123"), equalTo(FastDateParser.NOT_PARSED));
+        assertThat(FastDateParser.parseEpochMillis(""), equalTo(FastDateParser.NOT_PARSED));
+        assertThat(FastDateParser.parseEpochMillis("-"), equalTo(FastDateParser.NOT_PARSED));
+        assertThat(FastDateParser.parseEpochSecond("1456749015"), equalTo(1456749015000L));
+        assertThat(FastDateParser.parseEpochSecond("14567490151"), equalTo(FastDateParser.NOT_PARSED));
+    }
+
+    public void testFormatDateTimeFormatterParsesLikeJoda() {
+        for (String format : new String[] {"strict_date_optional_time||epoch_millis", "epoch_millis||strict_date_optional_time",
+            "strictDateOptionalTime", "epoch_second", "epoch_millis"}) {
+            FormatDateTimeFormatter formatter = Joda.forPattern(format);
+            for (int i = 0; i < 1000; i++) {
+                final String text;
+                switch (randomInt(2)) {
+                    case 0:
+                        text = randomDateOptionalTime();
+                        break;
+                    case 1:
+                        text = Long.toString(randomLong() % 100000000000000L);
+                        break;
+                    default:
+                        text = (randomBoolean() ? "-" : "") + randomIntBetween(0, 9999);
+                }
+                assertParsesLikeJoda(formatter, text);
+            }
+        }
+    }
+
+    public void testDefaultDateFormatSkipsTheFastParserForAmbiguousNumbers() {
+        FormatDateTimeFormatter formatter = Joda.forPattern("strict_date_optional_time||epoch_millis");
+        // four digits are a year for the first format
+        assertThat(formatter.parseMillis("2016"), equalTo(1451606400000L));
+        assertThat(formatter.parseMillis("20160"), equalTo(20160L));
+        assertParsesLikeJoda(formatter, "-201");
+        assertParsesLikeJoda(formatter, "-2016");
+    }
+
+    private static void assertParsesLikeJoda(FormatDateTimeFormatter formatter, String text) {
+        Long expected;
+        try {
+            expected = formatter.parser().parseMillis(text);
+        } catch (IllegalArgumentException e) {
+            expected = null;
+        }
+        Long actual;
+        try {
+            actual = formatter.parseMillis(text);
+        } catch (IllegalArgumentException e) {
+            actual = null;
+        }
+        assertThat(formatter.format() + " " + text, actual, equalTo(expected));
+    }
+
+    private static void assertNotParsed(String text) {
+        assertThat(text, FastDateParser.parseDateOptionalTime(text, DateTimeZone.UTC), equalTo(FastDateParser.NOT_PARSED));
+    }
+
+    private static String randomDateOptionalTime() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format(Locale.ROOT, "%04d-%02d-%02d", randomIntBetween(0, 9999), randomIntBetween(0, 13),
+            randomIntBetween(0, 32)));
+        if (randomBoolean()) {
+            builder.append(String.format(Locale.ROOT, "T%02d:%02d", randomIntBetween(0, 24), randomIntBetween(0, 60)));
+            if (randomBoolean()) {
+                builder.append(String.format(Locale.ROOT, ":%02d", randomIntBetween(0, 60)));
+                if (randomBoolean()) {
+                    builder.append(randomFrom(".", ","));
+                    for (int i = randomIntBetween(0, 10); i > 0; i--) {
+                        builder.append(randomIntBetween(0, 9));
+                    }
+                }
+            }
+            switch (randomInt(3)) {
+                case 0:
+                    builder.append('Z');
+                    break;
+                case 1:
+                    builder.append(String.format(Locale.ROOT, "%s%02d:%02d", randomFrom("+", "-"), randomIntBetween(0, 24),
+                        randomIntBetween(0, 60)));
+                    break;
+                case 2:
+                    builder.append(String.format(Locale.ROOT, "%s%02d%02d", randomFrom("+", "-"), randomIntBetween(0, 24),
+                        randomIntBetween(0, 60)));
+                    break;
+                default:
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.common.network;
 
+import org.elasticsearch.action.search.SearchTask;
 import org.elasticsearch.action.support.replication.ReplicationTask;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.Table;
@@ -189,6 +190,7 @@ public class NetworkModuleTests extends ModuleTestCase {
 
         // Builtin reader comes back
         assertNotNull(registry.getReader(Task.Status.class, ReplicationTask.Status.NAME));
+        assertNotNull(registry.getReader(Task.Status.class, SearchTask.Status.NAME));
 
         module.registerTaskStatus(DummyTaskStatus.NAME, DummyTaskStatus::new);
         assertEquals("test", expectThrows(UnsupportedOperationException.class,
@@ -20,6 +20,7 @@
 package org.elasticsearch.common.util;
 
 import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.cache.recycler.MockPageCacheRecycler;
 import org.elasticsearch.cache.recycler.PageCacheRecycler;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
@@ -29,6 +30,7 @@ import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService;
 import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.test.ESSingleNodeTestCase;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.junit.Before;
 
 import java.lang.reflect.InvocationTargetException;
@@ -38,7 +40,19 @@ import java.util.Arrays;
 public class BigArraysTests extends ESSingleNodeTestCase {
 
     private BigArrays randombigArrays() {
-        final PageCacheRecycler recycler = randomBoolean() ? null : getInstanceFromNode(PageCacheRecycler.class);
+        final PageCacheRecycler recycler;
+        switch (randomInt(2)) {
+            case 0:
+                recycler = null;
+                break;
+            case 1:
+                recycler = getInstanceFromNode(PageCacheRecycler.class);
+                break;
+            default:
+                Settings settings = Settings.builder().put(PageCacheRecycler.OFF_HEAP_SETTING.getKey(), true).build();
+                recycler = new MockPageCacheRecycler(settings, getInstanceFromNode(ThreadPool.class));
+                break;
+        }
         return new MockBigArrays(recycler, new NoneCircuitBreakerService());
     }
 
@@ -250,6 +264,18 @@ public class BigArraysTests extends ESSingleNodeTestCase {
         array2.close();
     }
 
+    public void testByteArrayStaysOnHeap() {
+        Settings settings = Settings.builder().put(PageCacheRecycler.OFF_HEAP_SETTING.getKey(), true).build();
+        final BigArrays bigArrays = new MockBigArrays(new MockPageCacheRecycler(settings, getInstanceFromNode(ThreadPool.class)),
+            new NoneCircuitBreakerService());
+        // callers of the bulk get expect references to the backing pages, which a direct page cannot provide
+        final ByteArray array = bigArrays.newByteArray(randomIntBetween(BigArrays.BYTE_PAGE_SIZE + 1, 3 * BigArrays.BYTE_PAGE_SIZE));
+        assertTrue(array instanceof BigByteArray);
+        final BytesRef ref = new BytesRef();
+        assertFalse(array.get(0, 10, ref));
+        array.close();
+    }
+
     public void testByteArrayBulkSet() {
         final byte[] array1 = new byte[randomIntBetween(1, 4000000)];
         random().nextBytes(array1);
@@ -0,0 +1,92 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.util.concurrent;
+
+import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class StripedLockTests extends ESTestCase {
+
+    public void testNumStripesIsPowerOfTwo() {
+        int minStripes = randomIntBetween(1, 1000);
+        StripedLock<String> lock = new StripedLock<>(minStripes);
+        assertThat(Integer.bitCount(lock.numStripes()), equalTo(1));
+        assertTrue(lock.numStripes() >= minStripes);
+        assertTrue(lock.numStripes() < 2 * minStripes);
+    }
+
+    public void testIllegalNumStripes() {
+        expectThrows(IllegalArgumentException.class, () -> new StripedLock<>(0));
+        expectThrows(IllegalArgumentException.class, () -> new StripedLock<>(StripedLock.MAX_STRIPES + 1));
+    }
+
+    public void testIsHeldByCurrentThread() {
+        StripedLock<String> lock = new StripedLock<>(randomIntBetween(1, 64));
+        String key = randomAsciiOfLength(10);
+        assertFalse(lock.isHeldByCurrentThread(key));
+        try (Releasable ignored = lock.acquire(key)) {
+            assertTrue(lock.isHeldByCurrentThread(key));
+        }
+        assertFalse(lock.isHeldByCurrentThread(key));
+    }
+
+    public void testMutualExclusion() throws InterruptedException {
+        StripedLock<String> lock = new StripedLock<>(randomIntBetween(1, 16));
+        String[] keys = new String[randomIntBetween(1, 40)];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = randomAsciiOfLength(10) + i;
+        }
+        // not thread-safe on purpose, the lock is what protects the counts
+        int[] counts = new int[keys.length];
+        int numThreads = randomIntBetween(3, 10);
+        int numOps = randomIntBetween(100, 1000);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < numOps; i++) {
+                    int k = i % keys.length;
+                    try (Releasable ignored = lock.acquire(keys[k])) {
+                        counts[k]++;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        assertThat(total, equalTo(numThreads * numOps));
+    }
+}
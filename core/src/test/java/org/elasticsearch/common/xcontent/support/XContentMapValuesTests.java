@@ -30,6 +30,7 @@ import org.elasticsearch.test.ESTestCase;
 import org.hamcrest.Matchers;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -551,4 +552,87 @@ public class XContentMapValuesTests extends ESTestCase {
                     parser.list());
         }
     }
+
+    public void testStreamingFilter() throws IOException {
+        XContentBuilder builder = XContentFactory.jsonBuilder().startObject()
+                .startObject("path1")
+                    .startArray("path2")
+                        .startObject().field("test", "value1").endObject()
+                        .startObject().field("other", "value2").endObject()
+                    .endArray()
+                    .startObject("empty").endObject()
+                .endObject()
+                .field("test1", "value1")
+                .field("test2", "value2")
+                .endObject();
+
+        assertEquals("{\"test1\":\"value1\"}", streamingFilter(builder, new String[]{"test1"}, Strings.EMPTY_ARRAY));
+        assertEquals("{\"path1\":{\"path2\":[{\"test\":\"value1\"}]}}",
+                streamingFilter(builder, new String[]{"path1.path2.test"}, Strings.EMPTY_ARRAY));
+        assertEquals("{\"path1\":{\"path2\":[{\"test\":\"value1\"}],\"empty\":{}},\"test2\":\"value2\"}",
+                streamingFilter(builder, Strings.EMPTY_ARRAY, new String[]{"test1", "*.other"}));
+        assertEquals("{\"path1\":{\"empty\":{}}}", streamingFilter(builder, new String[]{"path1.empty"}, Strings.EMPTY_ARRAY));
+        assertEquals("{}", streamingFilter(builder, new String[]{"path1.missing"}, Strings.EMPTY_ARRAY));
+    }
+
+    private static String streamingFilter(XContentBuilder source, String[] includes, String[] excludes) throws IOException {
+        XContentBuilder builder = XContentFactory.jsonBuilder();
+        try (XContentParser parser = XContentHelper.createParser(source.bytes())) {
+            XContentMapValues.filter(parser, builder, includes, excludes);
+        }
+        return builder.string();
+    }
+
+    public void testStreamingFilterMatchesMapFilter() throws IOException {
+        for (int iter = 0; iter < 100; iter++) {
+            Map<String, Object> source = randomSource(0);
+            String[] includes = randomFilterPatterns();
+            String[] excludes = randomFilterPatterns();
+            XContentType contentType = randomFrom(XContentType.values());
+
+            XContentBuilder filtered = XContentFactory.contentBuilder(contentType);
+            try (XContentParser parser = XContentHelper.createParser(XContentFactory.contentBuilder(contentType).map(source).bytes())) {
+                XContentMapValues.filter(parser, filtered, includes, excludes);
+            }
+            assertEquals("includes " + Arrays.toString(includes) + ", excludes " + Arrays.toString(excludes) + ", source " + source,
+                    XContentMapValues.filter(source, includes, excludes),
+                    XContentHelper.convertToMap(filtered.bytes(), false).v2());
+        }
+    }
+
+    private static final String[] FIELD_NAMES = new String[] {"a", "b", "ab", "c"};
+
+    private static Map<String, Object> randomSource(int depth) {
+        Map<String, Object> source = new HashMap<>();
+        int numFields = randomIntBetween(0, 4);
+        for (int i = 0; i < numFields; i++) {
+            source.put(randomFrom(FIELD_NAMES), randomValue(depth));
+        }
+        return source;
+    }
+
+    private static Object randomValue(int depth) {
+        int type = depth > 3 ? 0 : randomIntBetween(0, 3);
+        switch (type) {
+            case 0:
+                return randomFrom(randomInt(), randomAsciiOfLength(5), randomBoolean(), null);
+            case 1:
+                return randomSource(depth + 1);
+            default:
+                int size = randomIntBetween(0, 3);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(randomValue(depth + 1));
+                }
+                return list;
+        }
+    }
+
+    private static String[] randomFilterPatterns() {
+        String[] patterns = new String[randomIntBetween(0, 2)];
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = randomFrom("a", "ab", "a*", "*b", "a.b", "a.*", "*.c", "b.a.c", "c.a*");
+        }
+        return patterns;
+    }
 }
@@ -74,7 +74,7 @@ public class HttpServerTests extends ESTestCase {
         ClusterService clusterService = new ClusterService(Settings.EMPTY, null,
             new ClusterSettings(settings, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS), null, ClusterName.DEFAULT);
         NodeService nodeService = new NodeService(Settings.EMPTY, null, null, null, null, null, null, null, null, null,
-            clusterService, null);
+            clusterService, null, null);
         httpServer = new HttpServer(settings, httpServerTransport, restController, nodeService, circuitBreakerService);
         httpServer.start();
     }
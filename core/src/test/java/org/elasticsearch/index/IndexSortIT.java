@@ -0,0 +1,159 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index;
+
+import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.sort.SortOrder;
+import org.elasticsearch.test.ESIntegTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.elasticsearch.cluster.metadata.IndexMetaData.SETTING_NUMBER_OF_REPLICAS;
+import static org.elasticsearch.cluster.metadata.IndexMetaData.SETTING_NUMBER_OF_SHARDS;
+import static org.elasticsearch.common.xcontent.XContentFactory.jsonBuilder;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertHitCount;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertNoFailures;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+public class IndexSortIT extends ESIntegTestCase {
+
+    private void createSortedIndex() throws Exception {
+        assertAcked(prepareCreate("test")
+            .setSettings(Settings.builder()
+                .put(SETTING_NUMBER_OF_SHARDS, 1)
+                .put(SETTING_NUMBER_OF_REPLICAS, 0)
+                .putArray("index.sort.field", "timestamp", "user")
+                .putArray("index.sort.order", "desc", "asc"))
+            .addMapping("type", jsonBuilder().startObject().startObject("type").startObject("properties")
+                .startObject("timestamp").field("type", "long").endObject()
+                .startObject("user").field("type", "keyword").endObject()
+                .endObject().endObject().endObject()));
+        ensureGreen();
+    }
+
+    /**
+     * Indexes the documents in several refreshed batches and force merges them, so that the shard ends up with a single
+     * segment that was sorted by the merge.
+     */
+    private int indexAndForceMerge() throws Exception {
+        final int numBatches = randomIntBetween(2, 5);
+        int numDocs = 0;
+        for (int batch = 0; batch < numBatches; batch++) {
+            List<IndexRequestBuilder> builders = new ArrayList<>();
+            for (int i = randomIntBetween(5, 20); i > 0; i--) {
+                builders.add(client().prepareIndex("test", "type", Integer.toString(numDocs))
+                    .setSource("timestamp", numDocs, "user", "user" + (numDocs % 3)));
+                numDocs++;
+            }
+            indexRandom(true, false, builders);
+        }
+        assertNoFailures(client().admin().indices().prepareForceMerge("test").setMaxNumSegments(1).setFlush(true).get());
+        refresh();
+        return numDocs;
+    }
+
+    public void testEarlyTermination() throws Exception {
+        createSortedIndex();
+        final int numDocs = indexAndForceMerge();
+        final int size = randomIntBetween(1, 4);
+
+        SearchResponse response = client().prepareSearch("test")
+            .addSort("timestamp", SortOrder.DESC)
+            .setSize(size)
+            .setTrackTotalHits(false)
+            .get();
+        assertNoFailures(response);
+        assertTrue(response.isTerminatedEarly());
+        assertHitCount(response, size);
+        SearchHit[] hits = response.getHits().getHits();
+        assertThat(hits.length, equalTo(size));
+        for (int i = 0; i < size; i++) {
+            assertThat(hits[i].getId(), equalTo(Integer.toString(numDocs - 1 - i)));
+        }
+
+        // the total number of hits is tracked by default
+        response = client().prepareSearch("test")
+            .addSort("timestamp", SortOrder.DESC)
+            .setSize(size)
+            .get();
+        assertNoFailures(response);
+        assertNull(response.isTerminatedEarly());
+        assertHitCount(response, numDocs);
+        hits = response.getHits().getHits();
+        for (int i = 0; i < size; i++) {
+            assertThat(hits[i].getId(), equalTo(Integer.toString(numDocs - 1 - i)));
+        }
+    }
+
+    public void testNoEarlyTerminationIfSortIsNotAPrefix() throws Exception {
+        createSortedIndex();
+        final int numDocs = indexAndForceMerge();
+        final int size = randomIntBetween(1, 4);
+
+        // reversed order
+        SearchResponse response = client().prepareSearch("test")
+            .addSort("timestamp", SortOrder.ASC)
+            .setSize(size)
+            .setTrackTotalHits(false)
+            .get();
+        assertNoFailures(response);
+        assertNull(response.isTerminatedEarly());
+        assertHitCount(response, numDocs);
+        SearchHit[] hits = response.getHits().getHits();
+        for (int i = 0; i < size; i++) {
+            assertThat(hits[i].getId(), equalTo(Integer.toString(i)));
+        }
+
+        // second field of the index sort only
+        response = client().prepareSearch("test")
+            .addSort("user", SortOrder.ASC)
+            .setSize(size)
+            .setTrackTotalHits(false)
+            .get();
+        assertNoFailures(response);
+        assertNull(response.isTerminatedEarly());
+        assertHitCount(response, numDocs);
+    }
+
+    public void testNestedFieldsAreRejected() throws Exception {
+        createSortedIndex();
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> client().admin().indices().preparePutMapping("test").setType("type")
+                .setSource(jsonBuilder().startObject().startObject("type").startObject("properties")
+                    .startObject("comments").field("type", "nested").endObject()
+                    .endObject().endObject().endObject())
+                .get());
+        assertThat(e.getMessage(), containsString("cannot have nested fields when index sort is activated"));
+    }
+
+    public void testUnknownSortFieldIsRejected() throws Exception {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> prepareCreate("test")
+                .setSettings(Settings.builder().put("index.sort.field", "unknown"))
+                .get());
+        assertThat(e.getMessage(), containsString("unknown index sort field:[unknown]"));
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index;
+
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSelector;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.SortedSetSelector;
+import org.apache.lucene.search.SortedSetSortField;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.core.KeywordFieldMapper;
+import org.elasticsearch.index.mapper.core.NumberFieldMapper;
+import org.elasticsearch.index.mapper.core.TextFieldMapper;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.ScoreSortBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortMode;
+import org.elasticsearch.search.sort.SortOrder;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.elasticsearch.index.IndexSettingsTests.newIndexMeta;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class IndexSortSettingsTests extends ESTestCase {
+
+    private static IndexSettings indexSettings(Settings settings) {
+        return new IndexSettings(newIndexMeta("test", settings), Settings.EMPTY);
+    }
+
+    private static Map<String, MappedFieldType> fieldTypes() {
+        Map<String, MappedFieldType> fieldTypes = new HashMap<>();
+        MappedFieldType timestamp = new NumberFieldMapper.NumberFieldType(NumberFieldMapper.NumberType.LONG);
+        timestamp.setName("timestamp");
+        fieldTypes.put("timestamp", timestamp);
+        MappedFieldType user = new KeywordFieldMapper.KeywordFieldType();
+        user.setName("user");
+        user.setHasDocValues(true);
+        fieldTypes.put("user", user);
+        MappedFieldType noDocValues = new KeywordFieldMapper.KeywordFieldType();
+        noDocValues.setName("no_doc_values");
+        noDocValues.setHasDocValues(false);
+        fieldTypes.put("no_doc_values", noDocValues);
+        MappedFieldType text = new TextFieldMapper.TextFieldType();
+        text.setName("text");
+        text.setHasDocValues(true);
+        fieldTypes.put("text", text);
+        return fieldTypes;
+    }
+
+    public void testNoIndexSort() {
+        IndexSortConfig config = indexSettings(Settings.EMPTY).getIndexSortConfig();
+        assertFalse(config.hasIndexSort());
+        assertNull(config.buildIndexSort(fieldTypes()::get));
+        assertFalse(config.isPrefixOfIndexSort(Collections.singletonList(new FieldSortBuilder("timestamp"))));
+    }
+
+    public void testBuildIndexSort() {
+        Settings settings = Settings.builder()
+            .putArray("index.sort.field", "timestamp", "user")
+            .putArray("index.sort.order", "desc", "asc")
+            .build();
+        IndexSortConfig config = indexSettings(settings).getIndexSortConfig();
+        assertTrue(config.hasIndexSort());
+        Sort sort = config.buildIndexSort(fieldTypes()::get);
+        SortField[] sortFields = sort.getSort();
+        assertThat(sortFields.length, equalTo(2));
+
+        assertThat(sortFields[0], instanceOf(SortedNumericSortField.class));
+        SortedNumericSortField timestamp = (SortedNumericSortField) sortFields[0];
+        assertThat(timestamp.getField(), equalTo("timestamp"));
+        assertTrue(timestamp.getReverse());
+        assertThat(timestamp.getSelector(), equalTo(SortedNumericSelector.Type.MAX));
+        assertThat(timestamp.getMissingValue(), equalTo(Long.MIN_VALUE));
+
+        assertThat(sortFields[1], instanceOf(SortedSetSortField.class));
+        SortedSetSortField user = (SortedSetSortField) sortFields[1];
+        assertThat(user.getField(), equalTo("user"));
+        assertFalse(user.getReverse());
+        assertThat(user.getSelector(), equalTo(SortedSetSelector.Type.MIN));
+        assertThat(user.getMissingValue(), equalTo(SortField.STRING_LAST));
+    }
+
+    public void testDefaultOrder() {
+        Settings settings = Settings.builder()
+            .putArray("index.sort.field", "timestamp", "user")
+            .build();
+        Sort sort = indexSettings(settings).getIndexSortConfig().buildIndexSort(fieldTypes()::get);
+        for (SortField sortField : sort.getSort()) {
+            assertFalse(sortField.getReverse());
+        }
+    }
+
+    public void testSizeMismatch() {
+        Settings settings = Settings.builder()
+            .putArray("index.sort.field", "timestamp", "user")
+            .put("index.sort.order", "desc")
+            .build();
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> indexSettings(settings));
+        assertThat(e.getMessage(), containsString("size mismatch"));
+    }
+
+    public void testInvalidOrder() {
+        Settings settings = Settings.builder()
+            .put("index.sort.field", "timestamp")
+            .put("index.sort.order", "up")
+            .build();
+        expectThrows(IllegalArgumentException.class, () -> indexSettings(settings));
+    }
+
+    public void testInvalidFields() {
+        Map<String, MappedFieldType> fieldTypes = fieldTypes();
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> indexSettings(Settings.builder().put("index.sort.field", "unknown").build())
+                .getIndexSortConfig().buildIndexSort(fieldTypes::get));
+        assertThat(e.getMessage(), containsString("unknown index sort field:[unknown]"));
+
+        e = expectThrows(IllegalArgumentException.class,
+            () -> indexSettings(Settings.builder().put("index.sort.field", "no_doc_values").build())
+                .getIndexSortConfig().buildIndexSort(fieldTypes::get));
+        assertThat(e.getMessage(), containsString("docvalues not found for index sort field:[no_doc_values]"));
+
+        e = expectThrows(IllegalArgumentException.class,
+            () -> indexSettings(Settings.builder().put("index.sort.field", "text").build())
+                .getIndexSortConfig().buildIndexSort(fieldTypes::get));
+        assertThat(e.getMessage(), containsString("invalid index sort field:[text]"));
+    }
+
+    public void testIsPrefixOfIndexSort() {
+        Settings settings = Settings.builder()
+            .putArray("index.sort.field", "timestamp", "user")
+            .putArray("index.sort.order", "desc", "asc")
+            .build();
+        IndexSortConfig config = indexSettings(settings).getIndexSortConfig();
+
+        assertTrue(config.isPrefixOfIndexSort(sorts(new FieldSortBuilder("timestamp").order(SortOrder.DESC))));
+        assertTrue(config.isPrefixOfIndexSort(sorts(new FieldSortBuilder("timestamp").order(SortOrder.DESC),
+            new FieldSortBuilder("user"))));
+        assertTrue(config.isPrefixOfIndexSort(sorts(new FieldSortBuilder("timestamp").order(SortOrder.DESC)
+            .sortMode(SortMode.MAX).missing("_last"))));
+
+        assertFalse(config.isPrefixOfIndexSort(null));
+        assertFalse(config.isPrefixOfIndexSort(Collections.emptyList()));
+        assertFalse(config.isPrefixOfIndexSort(sorts(new FieldSortBuilder("timestamp"))));
+        assertFalse(config.isPrefixOfIndexSort(sorts(new FieldSortBuilder("user"))));
+        assertFalse(config.isPrefixOfIndexSort(sorts(new ScoreSortBuilder())));
+        assertFalse(config.isPrefixOfIndexSort(sorts(new FieldSortBuilder("timestamp").order(SortOrder.DESC)
+            .sortMode(SortMode.MIN))));
+        assertFalse(config.isPrefixOfIndexSort(sorts(new FieldSortBuilder("timestamp").order(SortOrder.DESC)
+            .missing("_first"))));
+        assertFalse(config.isPrefixOfIndexSort(sorts(new FieldSortBuilder("timestamp").order(SortOrder.DESC),
+            new FieldSortBuilder("user"), new FieldSortBuilder("other"))));
+    }
+
+    private static List<SortBuilder<?>> sorts(SortBuilder<?>... sorts) {
+        return Arrays.asList(sorts);
+    }
+}
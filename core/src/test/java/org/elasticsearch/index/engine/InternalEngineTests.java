@@ -1411,6 +1411,46 @@ public class InternalEngineTests extends ESTestCase {
         assertTrue(engine.index(index));
     }
 
+    public void testAppendOnlyWithAutoGeneratedId() throws IOException {
+        ParsedDocument doc = testParsedDocument("1", "1", "test", null, -1, -1, testDocument(), B_1, null);
+        long autoGeneratedIdTimestamp = randomIntBetween(0, Integer.MAX_VALUE);
+        Engine.Index index = new Engine.Index(newUid("1"), doc, Versions.MATCH_ANY, VersionType.INTERNAL,
+            Engine.Operation.Origin.PRIMARY, System.nanoTime(), autoGeneratedIdTimestamp, false);
+        assertTrue(engine.index(index));
+        assertTrue(index.isAppendOnly());
+        assertEquals(1L, index.version());
+
+        // the first attempt made it into the index, the retry must not add the document a second time
+        Engine.Index retry = new Engine.Index(newUid("1"), doc, Versions.MATCH_ANY, VersionType.INTERNAL,
+            Engine.Operation.Origin.PRIMARY, System.nanoTime(), autoGeneratedIdTimestamp, true);
+        assertFalse(engine.index(retry));
+        assertFalse(retry.isAppendOnly());
+        assertEquals(2L, retry.version());
+
+        // the original request arriving after its retry must not add the document a second time either
+        ParsedDocument doc2 = testParsedDocument("2", "2", "test", null, -1, -1, testDocument(), B_2, null);
+        retry = new Engine.Index(newUid("2"), doc2, Versions.MATCH_ANY, VersionType.INTERNAL,
+            Engine.Operation.Origin.PRIMARY, System.nanoTime(), autoGeneratedIdTimestamp + 1, true);
+        assertTrue(engine.index(retry));
+        assertFalse(retry.isAppendOnly());
+        Engine.Index original = new Engine.Index(newUid("2"), doc2, Versions.MATCH_ANY, VersionType.INTERNAL,
+            Engine.Operation.Origin.PRIMARY, System.nanoTime(), autoGeneratedIdTimestamp + 1, false);
+        assertFalse(engine.index(original));
+        assertFalse(original.isAppendOnly());
+
+        // ids generated after the retry are safe to append again
+        ParsedDocument doc3 = testParsedDocument("3", "3", "test", null, -1, -1, testDocument(), B_3, null);
+        index = new Engine.Index(newUid("3"), doc3, Versions.MATCH_ANY, VersionType.INTERNAL,
+            Engine.Operation.Origin.PRIMARY, System.nanoTime(), autoGeneratedIdTimestamp + 2, false);
+        assertTrue(engine.index(index));
+        assertTrue(index.isAppendOnly());
+
+        engine.refresh("test");
+        try (Engine.Searcher searcher = engine.acquireSearcher("test")) {
+            assertEquals(3, searcher.reader().numDocs());
+        }
+    }
+
     public void testCreatedFlagAfterFlush() {
         ParsedDocument doc = testParsedDocument("1", "1", "test", null, -1, -1, testDocument(), B_1, null);
         Engine.Index index = new Engine.Index(newUid("1"), doc);
@@ -1837,6 +1877,44 @@ public class InternalEngineTests extends ESTestCase {
         return paths.toArray(new Path[0]);
     }
 
+    public void testTranslogReplayWithDeletes() throws IOException {
+        final int numDocs = randomIntBetween(2, 20);
+        for (int i = 0; i < numDocs; i++) {
+            ParsedDocument doc = testParsedDocument(Integer.toString(i), Integer.toString(i), "test", null, -1, -1, testDocument(),
+                new BytesArray("{}"), null);
+            engine.index(new Engine.Index(newUid(Integer.toString(i)), doc, Versions.MATCH_ANY, VersionType.INTERNAL, PRIMARY,
+                System.nanoTime()));
+        }
+        final int numDeletes = randomIntBetween(1, numDocs - 1);
+        for (int i = 0; i < numDeletes; i++) {
+            engine.delete(new Engine.Delete("test", Integer.toString(i), newUid(Integer.toString(i))));
+        }
+        final MockDirectoryWrapper directory = DirectoryUtils.getLeaf(store.directory(), MockDirectoryWrapper.class);
+        if (directory != null) {
+            // since we rollback the IW we are writing the same segment files again after starting IW but MDW prevents
+            // this so we have to disable the check explicitly
+            directory.setPreventDoubleWrite(false);
+        }
+
+        // nothing was flushed, so all operations are replayed from the translog and end up in the version map without location
+        engine.close();
+        engine = new InternalEngine(copy(engine.config(), EngineConfig.OpenMode.OPEN_INDEX_AND_TRANSLOG));
+        engine.recoverFromTranslog();
+
+        TranslogHandler parser = (TranslogHandler) engine.config().getTranslogRecoveryPerformer();
+        assertEquals(numDocs + numDeletes, parser.recoveredOps.get());
+        engine.refresh("test");
+        try (Engine.Searcher searcher = engine.acquireSearcher("test")) {
+            TopDocs topDocs = searcher.searcher().search(new MatchAllDocsQuery(), numDocs + 10);
+            assertThat(topDocs.totalHits, equalTo(numDocs - numDeletes));
+        }
+        for (int i = 0; i < numDocs; i++) {
+            Engine.GetResult getResult = engine.get(new Engine.Get(true, newUid(Integer.toString(i))));
+            assertThat(getResult.exists(), equalTo(i >= numDeletes));
+            getResult.release();
+        }
+    }
+
     public void testTranslogReplay() throws IOException {
         final int numDocs = randomIntBetween(1, 10);
         for (int i = 0; i < numDocs; i++) {
@@ -43,6 +43,7 @@ import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.index.Index;
+import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.test.ESTestCase;
@@ -84,6 +85,8 @@ import java.util.concurrent.atomic.AtomicReference;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
 /**
  *
@@ -271,6 +274,94 @@ public class TranslogTests extends ESTestCase {
         assertThat(snapshot.totalOperations(), equalTo(0));
     }
 
+    public void testCompressedOperations() throws IOException {
+        Settings settings = Settings.builder()
+                .put(IndexMetaData.SETTING_VERSION_CREATED, org.elasticsearch.Version.CURRENT)
+                .put(IndexSettings.INDEX_TRANSLOG_COMPRESS_SETTING.getKey(), true)
+                .build();
+        TranslogConfig config = new TranslogConfig(shardId, createTempDir(), IndexSettingsModule.newIndexSettings(shardId.getIndex(), settings),
+                BigArrays.NON_RECYCLING_INSTANCE);
+        ArrayList<Translog.Operation> ops = new ArrayList<>();
+        List<Translog.Location> locations = new ArrayList<>();
+        long uncompressedSize = 0;
+        Translog.TranslogGeneration translogGeneration;
+        try (Translog translog = new Translog(config, null)) {
+            assertTrue(translog.isCurrentGenerationCompressed());
+            int numOps = randomIntBetween(1, 100);
+            for (int i = 0; i < numOps; i++) {
+                final Translog.Operation op;
+                if (rarely()) {
+                    op = new Translog.Delete(newUid(Integer.toString(i)));
+                } else {
+                    // repetitive sources like the ones of log lines compress well
+                    StringBuilder source = new StringBuilder("{\"message\":\"");
+                    for (int j = randomIntBetween(1, 50); j > 0; j--) {
+                        source.append("GET /index.html HTTP/1.1 200 ");
+                    }
+                    source.append("\"}");
+                    op = new Translog.Index("test", Integer.toString(i), source.toString().getBytes(Charset.forName("UTF-8")));
+                }
+                ops.add(op);
+                locations.add(translog.add(op));
+                BytesStreamOutput out = new BytesStreamOutput();
+                Translog.writeOperationNoSize(new BufferedChecksumStreamOutput(out), op);
+                uncompressedSize += out.size() + Integer.BYTES;
+            }
+            if (randomBoolean()) {
+                translog.sync();
+            }
+            assertThat(translog.newSnapshot(), SnapshotMatchers.equalsTo(ops));
+            for (int i = 0; i < ops.size(); i++) {
+                assertEquals(ops.get(i), translog.read(locations.get(i)));
+            }
+            translog.sync();
+            assertThat(translog.sizeInBytes() - translog.getFirstOperationPosition(), lessThan(uncompressedSize));
+            translogGeneration = translog.getGeneration();
+        }
+        // read the generation back from disk, after turning compression off for new generations
+        settings = Settings.builder()
+                .put(IndexMetaData.SETTING_VERSION_CREATED, org.elasticsearch.Version.CURRENT)
+                .build();
+        config = new TranslogConfig(shardId, config.getTranslogPath(), IndexSettingsModule.newIndexSettings(shardId.getIndex(), settings),
+                BigArrays.NON_RECYCLING_INSTANCE);
+        try (Translog translog = new Translog(config, translogGeneration)) {
+            assertFalse(translog.isCurrentGenerationCompressed());
+            Translog.Index index = new Translog.Index("test", "uncompressed", new byte[]{1});
+            ops.add(index);
+            translog.add(index);
+            assertThat(translog.newSnapshot(), SnapshotMatchers.equalsTo(ops));
+        }
+    }
+
+    public void testMappedSnapshot() throws IOException {
+        ArrayList<Translog.Operation> ops = new ArrayList<>();
+        final boolean rollGeneration = randomBoolean();
+        for (int generation = 0; generation < (rollGeneration ? 2 : 1); generation++) {
+            int numOps = randomIntBetween(0, 20);
+            for (int i = 0; i < numOps; i++) {
+                if (rarely()) {
+                    addToTranslogAndList(translog, ops, new Translog.Delete(newUid(Integer.toString(i))));
+                } else {
+                    addToTranslogAndList(translog, ops, new Translog.Index("test", Integer.toString(i),
+                        randomUnicodeOfLength(randomIntBetween(1, 100)).getBytes(Charset.forName("UTF-8"))));
+                }
+            }
+            if (rollGeneration && generation == 0) {
+                // the first generation is no longer written to and will be read through a memory mapping
+                translog.prepareCommit();
+            }
+        }
+        try (Translog.Snapshot snapshot = translog.newMappedSnapshot()) {
+            assertThat(snapshot.totalOperations(), equalTo(ops.size()));
+            assertThat(snapshot, SnapshotMatchers.equalsTo(ops));
+        }
+        // the generations that were mapped can still be committed and deleted
+        translog.commit();
+        try (Translog.Snapshot snapshot = translog.newMappedSnapshot()) {
+            assertThat(snapshot, SnapshotMatchers.size(0));
+        }
+    }
+
     protected TranslogStats stats() throws IOException {
         // force flushing and updating of stats
         translog.sync();
@@ -329,9 +420,19 @@ public class TranslogTests extends ESTestCase {
 
         assertEquals(6, copy.estimatedNumberOfOperations());
         assertEquals(431, copy.getTranslogSizeInBytes());
+        assertEquals(total.getSyncRequests(), copy.getSyncRequests());
+        assertEquals(total.getSyncCount(), copy.getSyncCount());
+        assertEquals(total.getSyncTime(), copy.getSyncTime());
+        assertThat(copy.getSyncCount(), greaterThan(0L));
+        assertThat(copy.getSyncCount(), lessThanOrEqualTo(copy.getSyncRequests()));
         assertEquals("\"translog\"{\n" +
                 "  \"operations\" : 6,\n" +
-                "  \"size_in_bytes\" : 431\n" +
+                "  \"size_in_bytes\" : 431,\n" +
+                "  \"sync\" : {\n" +
+                "    \"requests\" : " + copy.getSyncRequests() + ",\n" +
+                "    \"total\" : " + copy.getSyncCount() + ",\n" +
+                "    \"total_time_in_millis\" : " + copy.getSyncTime().millis() + "\n" +
+                "  }\n" +
                 "}", copy.toString().trim());
 
         try {
@@ -780,6 +881,46 @@ public class TranslogTests extends ESTestCase {
         }
     }
 
+    public void testConcurrentSyncsAreGrouped() throws Exception {
+        final Thread[] threads = new Thread[randomIntBetween(2, 8)];
+        final int opsPerThread = randomIntBetween(10, 50);
+        final CyclicBarrier barrier = new CyclicBarrier(threads.length);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final TranslogStats before = translog.stats();
+        for (int i = 0; i < threads.length; i++) {
+            final int threadId = i;
+            threads[i] = new Thread(new AbstractRunnable() {
+                @Override
+                public void onFailure(Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+
+                @Override
+                protected void doRun() throws Exception {
+                    barrier.await();
+                    for (int op = 0; op < opsPerThread; op++) {
+                        final Translog.Location location = translog.add(new Translog.Index("test", threadId + "_" + op,
+                                Integer.toString(op).getBytes(Charset.forName("UTF-8"))));
+                        translog.ensureSynced(location);
+                        assertFalse("location must be synced", translog.ensureSynced(location));
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+        assertFalse(translog.syncNeeded());
+        final TranslogStats after = translog.stats();
+        final long syncs = after.getSyncCount() - before.getSyncCount();
+        final long requests = after.getSyncRequests() - before.getSyncRequests();
+        assertThat(syncs, greaterThan(0L));
+        assertThat(syncs, lessThanOrEqualTo(requests));
+        assertThat(requests, lessThanOrEqualTo((long) threads.length * opsPerThread));
+    }
+
     public void testLocationComparison() throws IOException {
         List<Translog.Location> locations = new ArrayList<>();
         int translogOperations = randomIntBetween(10, 100);
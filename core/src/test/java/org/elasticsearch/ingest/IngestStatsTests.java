@@ -25,14 +25,23 @@ import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class IngestStatsTests extends ESTestCase {
 
     public void testSerialization() throws IOException {
-        IngestStats.Stats total = new IngestStats.Stats(5, 10, 20, 30);
-        IngestStats.Stats foo = new IngestStats.Stats(50, 100, 200, 300);
-        IngestStats ingestStats = new IngestStats(total, Collections.singletonMap("foo", foo));
+        IngestStats.Stats total = new IngestStats.Stats(5, 10, 20, 30, 40);
+        IngestStats.Stats foo = new IngestStats.Stats(50, 100, 200, 300, 400);
+        IngestStats.CacheStats cacheStats = new IngestStats.CacheStats(1, 2, 3, 4);
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("timeouts", 2L);
+        counters.put("prefilter_skips", 7L);
+        IngestStats.ProcessorStats processorStats = new IngestStats.ProcessorStats("grok", randomBoolean() ? null : "tag", 5, 100, 1,
+            10, 20, 30, randomBoolean() ? Collections.emptyMap() : counters);
+        IngestStats ingestStats = new IngestStats(total, Collections.singletonMap("foo", foo),
+            Collections.singletonMap("foo", Collections.singletonList(processorStats)), Collections.singletonMap("bar", cacheStats));
         IngestStats serialize = serialize(ingestStats);
         assertNotSame(serialize, ingestStats);
         assertNotSame(serialize.getTotalStats(), total);
@@ -40,6 +49,7 @@ public class IngestStatsTests extends ESTestCase {
         assertEquals(total.getIngestFailedCount(), serialize.getTotalStats().getIngestFailedCount());
         assertEquals(total.getIngestTimeInMillis(), serialize.getTotalStats().getIngestTimeInMillis());
         assertEquals(total.getIngestCurrent(), serialize.getTotalStats().getIngestCurrent());
+        assertEquals(total.getIngestQueued(), serialize.getTotalStats().getIngestQueued());
 
         assertEquals(ingestStats.getStatsPerPipeline().size(), 1);
         assertTrue(ingestStats.getStatsPerPipeline().containsKey("foo"));
@@ -57,6 +67,28 @@ public class IngestStatsTests extends ESTestCase {
         assertEquals(leftStats.getIngestFailedCount(), rightStats.getIngestFailedCount());
         assertEquals(leftStats.getIngestTimeInMillis(), rightStats.getIngestTimeInMillis());
         assertEquals(leftStats.getIngestCurrent(), rightStats.getIngestCurrent());
+        assertEquals(leftStats.getIngestQueued(), rightStats.getIngestQueued());
+
+        assertEquals(serialize.getProcessorStatsPerPipeline().size(), 1);
+        List<IngestStats.ProcessorStats> serializedProcessorStats = serialize.getProcessorStatsPerPipeline().get("foo");
+        assertEquals(serializedProcessorStats.size(), 1);
+        assertEquals(processorStats.getType(), serializedProcessorStats.get(0).getType());
+        assertEquals(processorStats.getTag(), serializedProcessorStats.get(0).getTag());
+        assertEquals(processorStats.getCount(), serializedProcessorStats.get(0).getCount());
+        assertEquals(processorStats.getTimeInNanos(), serializedProcessorStats.get(0).getTimeInNanos());
+        assertEquals(processorStats.getFailedCount(), serializedProcessorStats.get(0).getFailedCount());
+        assertEquals(processorStats.getLatency50thInNanos(), serializedProcessorStats.get(0).getLatency50thInNanos());
+        assertEquals(processorStats.getLatency90thInNanos(), serializedProcessorStats.get(0).getLatency90thInNanos());
+        assertEquals(processorStats.getLatency99thInNanos(), serializedProcessorStats.get(0).getLatency99thInNanos());
+        assertEquals(processorStats.getCounters(), serializedProcessorStats.get(0).getCounters());
+
+        assertEquals(serialize.getCacheStatsPerProcessor().size(), 1);
+        IngestStats.CacheStats serializedCacheStats = serialize.getCacheStatsPerProcessor().get("bar");
+        assertNotNull(serializedCacheStats);
+        assertEquals(cacheStats.getCount(), serializedCacheStats.getCount());
+        assertEquals(cacheStats.getHits(), serializedCacheStats.getHits());
+        assertEquals(cacheStats.getMisses(), serializedCacheStats.getMisses());
+        assertEquals(cacheStats.getEvictions(), serializedCacheStats.getEvictions());
     }
 
     private IngestStats serialize(IngestStats stats) throws IOException {
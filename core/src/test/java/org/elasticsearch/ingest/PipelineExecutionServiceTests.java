@@ -26,7 +26,9 @@ import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.ingest.core.CompoundProcessor;
 import org.elasticsearch.ingest.core.IngestDocument;
 import org.elasticsearch.ingest.core.Pipeline;
@@ -38,14 +40,21 @@ import org.junit.Before;
 import org.mockito.ArgumentMatcher;
 import org.mockito.invocation.InvocationOnMock;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.any;
@@ -69,7 +78,7 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         store = mock(PipelineStore.class);
         ThreadPool threadPool = mock(ThreadPool.class);
         when(threadPool.executor(anyString())).thenReturn(Runnable::run);
-        executionService = new PipelineExecutionService(store, threadPool);
+        executionService = new PipelineExecutionService(Settings.EMPTY, store, threadPool);
     }
 
     public void testExecuteIndexPipelineDoesNotExist() {
@@ -343,6 +352,140 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         verify(completionHandler, times(1)).accept(null);
     }
 
+    public void testParallelBulkRequestExecution() throws Exception {
+        ThreadPool threadPool = new ThreadPool(getTestName());
+        try {
+            Settings settings = Settings.builder()
+                .put(PipelineExecutionService.BULK_PARALLELISM_SETTING.getKey(), randomIntBetween(2, 8))
+                .build();
+            PipelineExecutionService parallelExecutionService = new PipelineExecutionService(settings, store, threadPool);
+            String pipelineId = "_id";
+            RuntimeException error = new RuntimeException();
+            when(store.get(pipelineId)).thenReturn(new Pipeline(pipelineId, null, new CompoundProcessor(new TestProcessor(doc -> {
+                if (doc.getFieldValue("fail", Boolean.class)) {
+                    throw error;
+                }
+                doc.setFieldValue("processed", true);
+            }))));
+
+            BulkRequest bulkRequest = new BulkRequest();
+            List<IndexRequest> expectedFailures = new ArrayList<>();
+            int numRequest = scaledRandomIntBetween(8, 256);
+            for (int i = 0; i < numRequest; i++) {
+                IndexRequest indexRequest = new IndexRequest("_index", "_type", String.valueOf(i)).setPipeline(pipelineId);
+                boolean fail = randomBoolean();
+                indexRequest.source("fail", fail);
+                bulkRequest.add(indexRequest);
+                if (fail) {
+                    expectedFailures.add(indexRequest);
+                }
+            }
+
+            List<IndexRequest> failures = new ArrayList<>();
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicReference<Throwable> completionFailure = new AtomicReference<>();
+            parallelExecutionService.executeBulkRequest(bulkRequest.requests(), (indexRequest, throwable) -> {
+                assertSame(error, throwable);
+                failures.add(indexRequest);
+            }, throwable -> {
+                completionFailure.set(throwable);
+                latch.countDown();
+            });
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+            assertNull(completionFailure.get());
+            // failures are reported in the order of the bulk
+            assertEquals(expectedFailures.size(), failures.size());
+            for (int i = 0; i < failures.size(); i++) {
+                assertSame(expectedFailures.get(i), failures.get(i));
+            }
+            for (ActionRequest<?> request : bulkRequest.requests()) {
+                IndexRequest indexRequest = (IndexRequest) request;
+                if (expectedFailures.contains(indexRequest) == false) {
+                    assertNull(indexRequest.getPipeline());
+                    assertEquals(Boolean.TRUE, indexRequest.sourceAsMap().get("processed"));
+                }
+            }
+        } finally {
+            ThreadPool.terminate(threadPool, 30, TimeUnit.SECONDS);
+        }
+    }
+
+    public void testMaxConcurrentDocumentsPerPipeline() throws Exception {
+        ThreadPool threadPool = new ThreadPool(getTestName());
+        try {
+            int maxConcurrentDocuments = randomIntBetween(1, 2);
+            Settings settings = Settings.builder()
+                .put(PipelineExecutionService.BULK_PARALLELISM_SETTING.getKey(), 4)
+                .put(PipelineExecutionService.MAX_CONCURRENT_DOCUMENTS_PER_PIPELINE_SETTING.getKey(), maxConcurrentDocuments)
+                .build();
+            PipelineExecutionService parallelExecutionService = new PipelineExecutionService(settings, store, threadPool);
+            String pipelineId = "_id";
+            parallelExecutionService.updatePipelineStats(new IngestMetadata(Collections.singletonMap(pipelineId,
+                new PipelineConfiguration(pipelineId, new BytesArray("{}")))));
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            when(store.get(pipelineId)).thenReturn(new Pipeline(pipelineId, null, new CompoundProcessor(new TestProcessor(doc -> {
+                int current = running.incrementAndGet();
+                maxRunning.accumulateAndGet(current, Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    running.decrementAndGet();
+                }
+            }))));
+
+            BulkRequest bulkRequest = new BulkRequest();
+            int numRequest = scaledRandomIntBetween(16, 64);
+            for (int i = 0; i < numRequest; i++) {
+                bulkRequest.add(new IndexRequest("_index", "_type", String.valueOf(i)).setPipeline(pipelineId).source("field", "value"));
+            }
+            CountDownLatch latch = new CountDownLatch(1);
+            parallelExecutionService.executeBulkRequest(bulkRequest.requests(), (indexRequest, throwable) -> fail("unexpected failure"),
+                throwable -> latch.countDown());
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+            assertThat(maxRunning.get(), lessThanOrEqualTo(maxConcurrentDocuments));
+
+            IngestStats.Stats stats = parallelExecutionService.stats().getStatsPerPipeline().get(pipelineId);
+            assertEquals(numRequest, stats.getIngestCount());
+            assertEquals(0, stats.getIngestCurrent());
+            assertEquals(0, stats.getIngestQueued());
+        } finally {
+            ThreadPool.terminate(threadPool, 30, TimeUnit.SECONDS);
+        }
+    }
+
+    public void testQueuedDocumentsDoNotBlock() throws Exception {
+        ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+        PipelineExecutionService.StatsHolder statsHolder = new PipelineExecutionService.StatsHolder(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> statsHolder.execute(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }, threadPool));
+        holder.start();
+        assertTrue(running.await(30, TimeUnit.SECONDS));
+
+        // the pipeline is at its limit, so the document is queued and the calling thread returns right away
+        AtomicReference<Thread> executedBy = new AtomicReference<>();
+        statsHolder.execute(() -> executedBy.set(Thread.currentThread()), threadPool);
+        assertNull(executedBy.get());
+        assertEquals(1, statsHolder.createStats().getIngestQueued());
+
+        // the thread holding the permit executes the queued document once its own document completed
+        release.countDown();
+        holder.join();
+        assertSame(holder, executedBy.get());
+        assertEquals(0, statsHolder.createStats().getIngestQueued());
+    }
+
     public void testStats() throws Exception {
         IngestStats ingestStats = executionService.stats();
         assertThat(ingestStats.getStatsPerPipeline().size(), equalTo(0));
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.ingest.core;
 
+import org.elasticsearch.ingest.IngestStats;
 import org.elasticsearch.ingest.TestProcessor;
 import org.elasticsearch.ingest.TestTemplateService;
 import org.elasticsearch.ingest.processor.AppendProcessor;
@@ -117,4 +118,55 @@ public class CompoundProcessorTests extends ESTestCase {
         assertThat(processorToFail.getInvokedCounter(), equalTo(1));
         assertThat(lastProcessor.getInvokedCounter(), equalTo(1));
     }
+
+    public void testProcessorStats() throws Exception {
+        TestProcessor processor = new TestProcessor("id", "first", ingestDocument -> {throw new RuntimeException("error");});
+        TestProcessor onFailureProcessor = new TestProcessor("id2", "second", ingestDocument -> {});
+        TestProcessor nestedProcessor = new TestProcessor("id3", "third", ingestDocument -> {});
+        CompoundProcessor compoundProcessor = new CompoundProcessor(Arrays.asList(processor, new CompoundProcessor(nestedProcessor)),
+            Collections.singletonList(onFailureProcessor));
+        compoundProcessor.execute(ingestDocument);
+
+        List<IngestStats.ProcessorStats> stats = compoundProcessor.processorStats();
+        assertThat(stats.size(), equalTo(3));
+        assertThat(stats.get(0).getType(), equalTo("first"));
+        assertThat(stats.get(0).getTag(), equalTo("id"));
+        assertThat(stats.get(0).getCount(), equalTo(1L));
+        assertThat(stats.get(0).getFailedCount(), equalTo(1L));
+        assertThat(stats.get(1).getType(), equalTo("third"));
+        assertThat(stats.get(1).getCount(), equalTo(0L));
+        assertThat(stats.get(2).getType(), equalTo("second"));
+        assertThat(stats.get(2).getCount(), equalTo(1L));
+        assertThat(stats.get(2).getFailedCount(), equalTo(0L));
+
+        CompoundProcessor copy = compoundProcessor.copyWithNewMetrics();
+        copy.execute(ingestDocument);
+        assertThat(compoundProcessor.processorStats().get(0).getCount(), equalTo(1L));
+        assertThat(copy.processorStats().get(0).getCount(), equalTo(1L));
+
+        CompoundProcessor decorated = compoundProcessor.withProcessors(compoundProcessor.getProcessors(),
+            compoundProcessor.getOnFailureProcessors());
+        decorated.execute(ingestDocument);
+        assertThat(compoundProcessor.processorStats().get(0).getCount(), equalTo(2L));
+        expectThrows(IllegalArgumentException.class,
+            () -> compoundProcessor.withProcessors(Collections.emptyList(), Collections.emptyList()));
+    }
+
+    public void testProcessorStatsReportCounters() throws Exception {
+        class CountingProcessor extends TestProcessor implements IngestStats.ProcessorCountersProvider {
+            CountingProcessor() {
+                super("id", "counting", ingestDocument -> {});
+            }
+
+            @Override
+            public Map<String, Long> counters() {
+                return Collections.singletonMap("skips", 3L);
+            }
+        }
+        CompoundProcessor compoundProcessor = new CompoundProcessor(new CountingProcessor(),
+            new TestProcessor("id2", "plain", ingestDocument -> {}));
+        List<IngestStats.ProcessorStats> stats = compoundProcessor.processorStats();
+        assertThat(stats.get(0).getCounters(), equalTo(Collections.singletonMap("skips", 3L)));
+        assertThat(stats.get(1).getCounters().isEmpty(), is(true));
+    }
 }
@@ -980,6 +980,57 @@ public class IngestDocumentTests extends ESTestCase {
         assertIngestDocument(ingestDocument, copy);
     }
 
+    public void testCopyOnWrite() {
+        IngestDocument copy = new IngestDocument(ingestDocument);
+        Map<String, Object> originalSource = ingestDocument.getUnmodifiableSourceAndMetadata();
+        Map<String, Object> copySource = copy.getUnmodifiableSourceAndMetadata();
+        // nothing is copied until one of the documents is modified
+        assertThat(copySource.get("fizz"), sameInstance(originalSource.get("fizz")));
+        assertThat(copySource.get("list"), sameInstance(originalSource.get("list")));
+
+        copy.setFieldValue("fizz.buzz", "changed");
+        copy.appendFieldValue("fizz.list.0", "item2");
+        copy.removeField("list.0.field");
+        copy.setFieldValue("_ingest.new", "value");
+
+        assertThat(ingestDocument.getFieldValue("fizz.buzz", String.class), equalTo("hello world"));
+        assertThat(ingestDocument.getFieldValue("fizz.list.0", List.class), equalTo(Collections.singletonList("item1")));
+        assertThat(ingestDocument.getFieldValue("list.0.field", String.class), equalTo("value"));
+        assertThat(ingestDocument.hasField("_ingest.new"), equalTo(false));
+        assertThat(copy.getFieldValue("fizz.buzz", String.class), equalTo("changed"));
+        assertThat(copy.getFieldValue("fizz.list.0", List.class), equalTo(Arrays.asList("item1", "item2")));
+        assertThat(copy.hasField("list.0.field"), equalTo(false));
+        assertThat(copy.getFieldValue("_ingest.new", String.class), equalTo("value"));
+
+        // the original copies what it modifies too
+        ingestDocument.setFieldValue("foo", "changed");
+        assertThat(copy.getFieldValue("foo", String.class), equalTo("bar"));
+        // subtrees that were not modified remain shared
+        assertThat(copy.getUnmodifiableSourceAndMetadata().get("_ingest"),
+            sameInstance(ingestDocument.getUnmodifiableSourceAndMetadata().get("_ingest")));
+    }
+
+    public void testCopyOnWriteWithModifiableAccess() {
+        IngestDocument copy = new IngestDocument(ingestDocument);
+        // maps and lists handed out to the caller may be modified in place
+        @SuppressWarnings("unchecked")
+        Map<String, Object> fizz = copy.getFieldValue("fizz", Map.class);
+        fizz.put("buzz", "changed");
+        assertThat(ingestDocument.getFieldValue("fizz.buzz", String.class), equalTo("hello world"));
+        assertThat(copy.getFieldValue("fizz.buzz", String.class), equalTo("changed"));
+
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) ingestDocument.getSourceAndMetadata().get("list");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> value = (Map<String, Object>) list.get(0);
+        value.put("field", "changed");
+        assertThat(copy.getFieldValue("list.0.field", String.class), equalTo("value"));
+        assertThat(ingestDocument.getFieldValue("list.0.field", String.class), equalTo("changed"));
+
+        copy.getIngestMetadata().put("timestamp", "changed");
+        assertThat(ingestDocument.getIngestMetadata().get("timestamp"), not(equalTo("changed")));
+    }
+
     public void testSetInvalidSourceField() throws Exception {
         Map<String, Object> document = new HashMap<>();
         Object randomObject = randomFrom(new ArrayList<>(), new HashMap<>(), 12, 12.34);
@@ -0,0 +1,73 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest.core;
+
+import org.elasticsearch.ingest.IngestStats;
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ProcessorMetricTests extends ESTestCase {
+
+    public void testBuckets() {
+        for (int i = 0; i < 1000; i++) {
+            long timeInNanos = randomBoolean() ? randomIntBetween(0, 1000) : Math.abs(randomLong() % (1L << 40));
+            int bucket = ProcessorMetric.bucket(timeInNanos);
+            assertThat(bucket, lessThanOrEqualTo(ProcessorMetric.NUM_BUCKETS - 1));
+            long upperBound = ProcessorMetric.upperBound(bucket);
+            assertThat(upperBound, greaterThanOrEqualTo(timeInNanos));
+            // the bucket may not overstate the latency by more than an eighth
+            assertThat(upperBound - timeInNanos, lessThanOrEqualTo(timeInNanos / 8));
+            if (bucket > 0) {
+                assertThat(ProcessorMetric.upperBound(bucket - 1), lessThanOrEqualTo(timeInNanos - 1));
+            }
+        }
+        assertThat(ProcessorMetric.bucket(Long.MAX_VALUE), equalTo(ProcessorMetric.NUM_BUCKETS - 1));
+    }
+
+    public void testPercentiles() {
+        ProcessorMetric metric = new ProcessorMetric();
+        for (int i = 0; i < 89; i++) {
+            metric.record(10, false);
+        }
+        for (int i = 0; i < 10; i++) {
+            metric.record(1000, false);
+        }
+        metric.record(100000, true);
+        IngestStats.ProcessorStats stats = metric.createStats("type", "tag");
+        assertThat(stats.getType(), equalTo("type"));
+        assertThat(stats.getTag(), equalTo("tag"));
+        assertThat(stats.getCount(), equalTo(100L));
+        assertThat(stats.getFailedCount(), equalTo(1L));
+        assertThat(stats.getTimeInNanos(), equalTo(89 * 10L + 10 * 1000L + 100000L));
+        assertThat(stats.getLatency50thInNanos(), equalTo(10L));
+        assertThat(stats.getLatency90thInNanos(), equalTo(ProcessorMetric.upperBound(ProcessorMetric.bucket(1000))));
+        assertThat(stats.getLatency99thInNanos(), equalTo(ProcessorMetric.upperBound(ProcessorMetric.bucket(1000))));
+    }
+
+    public void testNoExecutions() {
+        IngestStats.ProcessorStats stats = new ProcessorMetric().createStats("type", null);
+        assertThat(stats.getCount(), equalTo(0L));
+        assertThat(stats.getLatency50thInNanos(), equalTo(0L));
+        assertThat(stats.getLatency99thInNanos(), equalTo(0L));
+    }
+}
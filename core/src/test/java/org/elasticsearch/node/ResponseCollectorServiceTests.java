@@ -0,0 +1,113 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.node;
+
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.node.ResponseCollectorService.ComputedNodeStats;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Before;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ResponseCollectorServiceTests extends ESTestCase {
+
+    private ResponseCollectorService collector;
+
+    @Before
+    public void setUpCollector() {
+        ClusterService clusterService = new ClusterService(Settings.EMPTY, null,
+            new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS), null, ClusterName.DEFAULT);
+        collector = new ResponseCollectorService(Settings.EMPTY, clusterService);
+    }
+
+    public void testNodeStats() {
+        assertThat(collector.getNodeStatistics("node1", 1), nullValue());
+
+        collector.addNodeStatistics("node1", 1, 100, 10);
+        ComputedNodeStats stats = collector.getNodeStatistics("node1", 1);
+        assertThat(stats, notNullValue());
+        assertThat(stats.getQueueSize(), equalTo(1d));
+        assertThat(stats.getResponseTime(), equalTo(100d));
+        assertThat(stats.getServiceTime(), equalTo(10d));
+
+        collector.addNodeStatistics("node1", 2, 200, 20);
+        stats = collector.getNodeStatistics("node1", 1);
+        assertThat(stats.getQueueSize(), closeTo(1.3, 0.0001));
+        assertThat(stats.getResponseTime(), closeTo(130, 0.0001));
+        assertThat(stats.getServiceTime(), closeTo(13, 0.0001));
+
+        collector.removeNode("node1");
+        assertThat(collector.getNodeStatistics("node1", 1), nullValue());
+    }
+
+    public void testOutgoingSearches() {
+        assertThat(collector.getOutgoingSearches("node1"), equalTo(0L));
+        collector.onSearchSent("node1");
+        collector.onSearchSent("node1");
+        assertThat(collector.getOutgoingSearches("node1"), equalTo(2L));
+        collector.onSearchDone("node1");
+        assertThat(collector.getOutgoingSearches("node1"), equalTo(1L));
+
+        // searches that were in flight when the node left may return after it came back
+        collector.removeNode("node1");
+        collector.onSearchSent("node1");
+        collector.onSearchDone("node1");
+        collector.onSearchDone("node1");
+        assertThat(collector.getOutgoingSearches("node1"), equalTo(0L));
+    }
+
+    public void testRank() {
+        // a fast node is preferred over a slow one
+        collector.addNodeStatistics("fast", 0, 1_000_000, 500_000);
+        collector.addNodeStatistics("slow", 0, 10_000_000, 5_000_000);
+        assertThat(collector.getNodeStatistics("fast", 1).rank(), lessThan(collector.getNodeStatistics("slow", 1).rank()));
+
+        // but not when it has a long queue of searches
+        collector.addNodeStatistics("fast", 50, 1_000_000, 500_000);
+        assertThat(collector.getNodeStatistics("fast", 1).rank(), greaterThan(collector.getNodeStatistics("slow", 1).rank()));
+
+        // searches that are in flight add to the queue, more so when more clients send searches
+        collector.addNodeStatistics("busy", 0, 1_000_000, 500_000);
+        ComputedNodeStats stats = collector.getNodeStatistics("busy", 1);
+        assertThat(stats.rank(0), lessThan(stats.rank(1)));
+        assertThat(stats.rank(1), lessThan(collector.getNodeStatistics("busy", 5).rank(1)));
+        collector.onSearchSent("busy");
+        assertThat(collector.getNodeStatistics("busy", 1).rank(), equalTo(stats.rank(1)));
+    }
+
+    public void testAdaptiveStats() {
+        collector.addNodeStatistics("node1", 1, 100, 10);
+        collector.addNodeStatistics("node2", 2, 200, 20);
+        collector.onSearchSent("node2");
+        AdaptiveSelectionStats stats = collector.getAdaptiveStats(2);
+        assertThat(stats.getComputedStats().size(), equalTo(2));
+        assertThat(stats.getComputedStats().get("node1").getOutgoingSearches(), equalTo(0L));
+        assertThat(stats.getComputedStats().get("node2").getOutgoingSearches(), equalTo(1L));
+        assertThat(stats.getComputedStats().get("node2").getQueueSize(), equalTo(2d));
+    }
+}
@@ -20,8 +20,24 @@ package org.elasticsearch.search;
 
 
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MatchAllQueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.aggregations.bucket.global.GlobalAggregatorBuilder;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregatorBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.internal.ShardSearchLocalRequest;
+import org.elasticsearch.search.internal.ShardSearchRequest;
 import org.elasticsearch.test.ESSingleNodeTestCase;
 
+import java.io.IOException;
 import java.util.concurrent.ExecutionException;
 
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
@@ -70,4 +86,38 @@ public class SearchServiceTests extends ESSingleNodeTestCase {
         assertAcked(client().admin().indices().prepareDelete("index"));
         assertEquals(0, service.getActiveContexts());
     }
+
+    public void testCanMatch() throws IOException {
+        IndexService indexService = createIndex("index", Settings.builder().put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1).build(),
+            "type", "field", "type=long");
+        client().prepareIndex("index", "type", "1").setSource("field", 5).setRefresh(true).get();
+        SearchService service = getInstanceFromNode(SearchService.class);
+        ShardId shardId = indexService.getShard(0).shardId();
+
+        assertTrue(service.canMatch(shardRequest(shardId, new SearchSourceBuilder().query(new RangeQueryBuilder("field").from(0).to(10)))));
+        assertFalse(service.canMatch(shardRequest(shardId, new SearchSourceBuilder().query(new RangeQueryBuilder("field").from(6)))));
+        assertFalse(service.canMatch(shardRequest(shardId, new SearchSourceBuilder().query(
+            new BoolQueryBuilder().must(new MatchAllQueryBuilder()).filter(new RangeQueryBuilder("field").to(4))))));
+        assertFalse(service.canMatch(shardRequest(shardId, new SearchSourceBuilder().query(
+            new RangeQueryBuilder("unmapped").from(0)))));
+        // a global aggregation looks at all documents, whatever the query
+        assertTrue(service.canMatch(shardRequest(shardId, new SearchSourceBuilder().query(new RangeQueryBuilder("field").from(6))
+            .aggregation(new GlobalAggregatorBuilder("global")))));
+        assertEquals(0, service.getActiveContexts());
+    }
+
+    public void testCanRewriteToMatchNone() {
+        assertFalse(SearchService.canRewriteToMatchNone(null));
+        assertFalse(SearchService.canRewriteToMatchNone(new SearchSourceBuilder()));
+        assertFalse(SearchService.canRewriteToMatchNone(new SearchSourceBuilder().query(new MatchAllQueryBuilder())));
+        assertTrue(SearchService.canRewriteToMatchNone(new SearchSourceBuilder().query(new TermQueryBuilder("field", "value"))));
+        assertTrue(SearchService.canRewriteToMatchNone(new SearchSourceBuilder().query(new TermQueryBuilder("field", "value"))
+            .aggregation(new TermsAggregatorBuilder("terms", null).field("field"))));
+        assertFalse(SearchService.canRewriteToMatchNone(new SearchSourceBuilder().query(new TermQueryBuilder("field", "value"))
+            .aggregation(new GlobalAggregatorBuilder("global"))));
+    }
+
+    private static ShardSearchRequest shardRequest(ShardId shardId, SearchSourceBuilder source) {
+        return new ShardSearchLocalRequest(shardId, 1, SearchType.QUERY_THEN_FETCH, source, Strings.EMPTY_ARRAY, false);
+    }
 }
@@ -72,6 +72,7 @@ import org.elasticsearch.search.fetch.source.FetchSourceContext;
 import org.elasticsearch.search.highlight.HighlightBuilderTests;
 import org.elasticsearch.search.rescore.QueryRescoreBuilderTests;
 import org.elasticsearch.search.searchafter.SearchAfterBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
 import org.elasticsearch.search.sort.FieldSortBuilder;
 import org.elasticsearch.search.sort.ScoreSortBuilder;
 import org.elasticsearch.search.sort.ScriptSortBuilder.ScriptSortType;
@@ -233,6 +234,13 @@ public class SearchSourceBuilderTests extends ESTestCase {
         if (randomBoolean()) {
             builder.trackScores(randomBoolean());
         }
+        if (randomBoolean()) {
+            builder.trackTotalHits(randomBoolean());
+        }
+        if (randomBoolean()) {
+            int max = randomIntBetween(2, 10);
+            builder.slice(new SliceBuilder(randomAsciiOfLengthBetween(5, 20), randomIntBetween(0, max - 1), max));
+        }
         if (randomBoolean()) {
             builder.minScore(randomFloat() * 1000);
         }
@@ -0,0 +1,144 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.controller;
+
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.concurrent.AtomicArray;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.metrics.max.InternalMax;
+import org.elasticsearch.search.fetch.FetchSearchResult;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.junit.After;
+import org.junit.Before;
+
+import java.util.Collections;
+
+import static org.elasticsearch.cluster.service.ClusterServiceUtils.createClusterService;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class SearchPhaseControllerTests extends ESTestCase {
+
+    private ThreadPool threadPool;
+    private ClusterService clusterService;
+    private SearchPhaseController searchPhaseController;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        threadPool = new ThreadPool(getTestName());
+        clusterService = createClusterService(threadPool);
+        searchPhaseController = new SearchPhaseController(Settings.EMPTY, BigArrays.NON_RECYCLING_INSTANCE, null, clusterService);
+    }
+
+    @After
+    public void tearDownClusterService() throws Exception {
+        clusterService.close();
+        terminate(threadPool);
+    }
+
+    public void testBatchedAggregationReduce() {
+        final int numShards = randomIntBetween(2, 200);
+        final int batchedReduceSize = randomIntBetween(2, 20);
+        SearchRequest request = new SearchRequest().setBatchedReduceSize(batchedReduceSize);
+        SearchPhaseController.AggregationReducer reducer = searchPhaseController.newAggregationReducer(request, numShards);
+        AtomicArray<QuerySearchResult> queryResults = new AtomicArray<>(numShards);
+        double expectedMax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < numShards; i++) {
+            QuerySearchResult result = new QuerySearchResult(i, new SearchShardTarget("node", new Index("test", "_na_"), i));
+            result.topDocs(new TopDocs(0, new ScoreDoc[0], Float.NaN));
+            double max = randomDouble();
+            expectedMax = Math.max(max, expectedMax);
+            InternalAggregations aggregations = new InternalAggregations(Collections.singletonList(
+                    new InternalMax("max", max, DocValueFormat.RAW, Collections.emptyList(), Collections.emptyMap())));
+            result.aggregations(aggregations);
+            reducer.consume(result);
+            // the aggregations must be released from the shard result once consumed
+            assertNull(result.aggregations());
+            queryResults.set(i, result);
+        }
+        final int expectedPartialReducePhases = numShards <= batchedReduceSize ? 0 : (numShards - 2) / (batchedReduceSize - 1);
+        assertEquals(expectedPartialReducePhases, reducer.getNumReducePhases());
+
+        InternalSearchResponse response = searchPhaseController.merge(SearchPhaseController.EMPTY_DOCS, queryResults,
+                new AtomicArray<FetchSearchResult>(numShards), reducer);
+        assertEquals(expectedPartialReducePhases + 1, reducer.getNumReducePhases());
+        InternalMax max = (InternalMax) response.aggregations().asList().get(0);
+        assertThat(max.getValue(), equalTo(expectedMax));
+    }
+
+    public void testPartialResult() {
+        final int numShards = randomIntBetween(2, 50);
+        SearchRequest request = new SearchRequest().setBatchedReduceSize(randomIntBetween(2, 10));
+        SearchPhaseController.AggregationReducer reducer = searchPhaseController.newAggregationReducer(request, numShards);
+        assertNull(reducer.partialResult());
+        double expectedMax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < numShards; i++) {
+            QuerySearchResult result = new QuerySearchResult(i, new SearchShardTarget("node", new Index("test", "_na_"), i));
+            double max = randomDouble();
+            expectedMax = Math.max(max, expectedMax);
+            result.aggregations(new InternalAggregations(Collections.singletonList(
+                    new InternalMax("max", max, DocValueFormat.RAW, Collections.emptyList(), Collections.emptyMap()))));
+            final int reducePhases = reducer.getNumReducePhases();
+            reducer.consume(result);
+            InternalAggregations partialResult = reducer.partialResult();
+            InternalMax partialMax = (InternalMax) partialResult.asList().get(0);
+            assertThat(partialMax.getValue(), equalTo(expectedMax));
+            // polling again without new shard results doesn't reduce again
+            assertSame(partialResult, reducer.partialResult());
+            // building the partial result doesn't count as a reduce phase of the search
+            assertThat(reducer.getNumReducePhases(), lessThanOrEqualTo(reducePhases + 1));
+        }
+    }
+
+    public void testNoAggregations() {
+        SearchRequest request = new SearchRequest();
+        SearchPhaseController.AggregationReducer reducer = searchPhaseController.newAggregationReducer(request, 3);
+        AtomicArray<QuerySearchResult> queryResults = new AtomicArray<>(3);
+        for (int i = 0; i < 3; i++) {
+            QuerySearchResult result = new QuerySearchResult(i, new SearchShardTarget("node", new Index("test", "_na_"), i));
+            result.topDocs(new TopDocs(0, new ScoreDoc[0], Float.NaN));
+            reducer.consume(result);
+            queryResults.set(i, result);
+        }
+        InternalSearchResponse response = searchPhaseController.merge(SearchPhaseController.EMPTY_DOCS, queryResults,
+                new AtomicArray<FetchSearchResult>(3), reducer);
+        assertNull(response.aggregations());
+        assertEquals(0, reducer.getNumReducePhases());
+    }
+
+    public void testBatchedReduceSizeValidation() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+                () -> new SearchRequest().setBatchedReduceSize(randomIntBetween(-1, 1)));
+        assertEquals("batchedReduceSize must be >= 2", e.getMessage());
+    }
+}
@@ -19,15 +19,24 @@
 
 package org.elasticsearch.search.internal;
 
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.InputStreamStreamInput;
 import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -79,4 +88,36 @@ public class InternalSearchHitTests extends ESTestCase {
         assertThat(results.getAt(1).shard(), equalTo(target));
     }
 
+    public void testBinarySource() throws Exception {
+        BytesReference source = new BytesArray("{\"foo\":\"bar\"}");
+        InternalSearchHit hit = new InternalSearchHit(0, "_id", new Text("_type"), null);
+        hit.sourceRef(source);
+        ToXContent.Params params = new ToXContent.MapParams(Collections.singletonMap(InternalSearchHit.BINARY_SOURCE_PARAM, "true"));
+
+        XContentType binaryType = randomFrom(XContentType.SMILE, XContentType.CBOR);
+        XContentBuilder builder = XContentFactory.contentBuilder(binaryType);
+        hit.toXContent(builder, params);
+        try (XContentParser parser = XContentFactory.xContent(binaryType).createParser(builder.bytes())) {
+            assertEquals(XContentParser.Token.START_OBJECT, parser.nextToken());
+            XContentParser.Token token;
+            while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                if (token == XContentParser.Token.FIELD_NAME && parser.currentName().equals("_source")) {
+                    assertEquals(XContentParser.Token.VALUE_EMBEDDED_OBJECT, parser.nextToken());
+                    assertEquals(source, new BytesArray(parser.binaryValue()));
+                    return;
+                }
+            }
+        }
+        fail("no _source in " + XContentHelper.convertToJson(builder.bytes(), false));
+    }
+
+    public void testBinarySourceIsIgnoredForTextFormats() throws Exception {
+        InternalSearchHit hit = new InternalSearchHit(0, "_id", new Text("_type"), null);
+        hit.score(1f);
+        hit.sourceRef(new BytesArray("{\"foo\":\"bar\"}"));
+        ToXContent.Params params = new ToXContent.MapParams(Collections.singletonMap(InternalSearchHit.BINARY_SOURCE_PARAM, "true"));
+        XContentBuilder builder = XContentFactory.jsonBuilder();
+        hit.toXContent(builder, params);
+        assertEquals("{\"_type\":\"_type\",\"_id\":\"_id\",\"_score\":1.0,\"_source\":{\"foo\":\"bar\"}}", builder.string());
+    }
 }
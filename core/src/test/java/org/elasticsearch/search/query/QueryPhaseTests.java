@@ -22,6 +22,7 @@ package org.elasticsearch.search.query;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
@@ -37,15 +38,25 @@ import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.query.ParsedQuery;
+import org.elasticsearch.search.internal.ContextIndexSearcher;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.TestSearchContext;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class QueryPhaseTests extends ESTestCase {
@@ -165,4 +176,65 @@ public class QueryPhaseTests extends ESTestCase {
         assertTrue(collected.get());
     }
 
+    public void testSliceSearchMatchesSequentialSearch() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE);
+        RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+        final int numDocs = scaledRandomIntBetween(100, 200);
+        for (int i = 0; i < numDocs; ++i) {
+            Document doc = new Document();
+            if (randomBoolean()) {
+                doc.add(new StringField("foo", "bar", Store.NO));
+            }
+            if (randomBoolean()) {
+                doc.add(new StringField("foo", "baz", Store.NO));
+            }
+            w.addDocument(doc);
+            if (rarely() || i == numDocs / 2) {
+                w.commit();
+            }
+        }
+        w.commit();
+        final DirectoryReader reader = w.getReader();
+        final Query query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term("foo", "bar")), Occur.SHOULD)
+                .add(new TermQuery(new Term("foo", "baz")), Occur.SHOULD)
+                .build();
+        final int size = randomIntBetween(1, 50);
+        final Sort sort = randomBoolean() ? null : Sort.INDEXORDER;
+
+        TestSearchContext sequentialContext = new TestSearchContext(null);
+        sequentialContext.parsedQuery(new ParsedQuery(query));
+        sequentialContext.setSize(size);
+        sequentialContext.sort(sort);
+        QueryPhase.execute(sequentialContext, new IndexSearcher(reader));
+
+        ExecutorService executor = EsExecutors.newFixed("test", 2, -1, EsExecutors.daemonThreadFactory("test"),
+                new ThreadContext(Settings.EMPTY));
+        try {
+            TestSearchContext sliceContext = new TestSearchContext(null);
+            sliceContext.parsedQuery(new ParsedQuery(query));
+            sliceContext.setSize(size);
+            sliceContext.sort(sort);
+            ContextIndexSearcher searcher = new ContextIndexSearcher(new Engine.Searcher("test", new IndexSearcher(reader)),
+                    IndexSearcher.getDefaultQueryCache(), IndexSearcher.getDefaultQueryCachingPolicy());
+            searcher.setSliceExecutor(executor, randomIntBetween(2, 4));
+            QueryPhase.execute(sliceContext, searcher);
+
+            TopDocs expected = sequentialContext.queryResult().topDocs();
+            TopDocs actual = sliceContext.queryResult().topDocs();
+            assertEquals(expected.totalHits, actual.totalHits);
+            assertEquals(expected.scoreDocs.length, actual.scoreDocs.length);
+            for (int i = 0; i < expected.scoreDocs.length; i++) {
+                assertEquals(expected.scoreDocs[i].doc, actual.scoreDocs[i].doc);
+                assertEquals(expected.scoreDocs[i].score, actual.scoreDocs[i].score, 0f);
+                assertEquals(expected.scoreDocs[i].shardIndex, actual.scoreDocs[i].shardIndex);
+            }
+        } finally {
+            ThreadPool.terminate(executor, 10, TimeUnit.SECONDS);
+            reader.close();
+            w.close();
+            dir.close();
+        }
+    }
 }
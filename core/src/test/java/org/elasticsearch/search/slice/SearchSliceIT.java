@@ -0,0 +1,124 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.slice;
+
+import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.elasticsearch.action.search.SearchPhaseExecutionException;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchContextException;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.test.ESIntegTestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.elasticsearch.common.xcontent.XContentFactory.jsonBuilder;
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class SearchSliceIT extends ESIntegTestCase {
+
+    private int setupIndex() throws Exception {
+        int numShards = randomIntBetween(1, 7);
+        assertAcked(client().admin().indices().prepareCreate("test")
+            .setSettings(Settings.builder().put("number_of_shards", numShards))
+            .addMapping("type", jsonBuilder().startObject().startObject("type").startObject("properties")
+                .startObject("random_int").field("type", "integer").endObject()
+                .endObject().endObject().endObject()));
+        ensureGreen();
+
+        int numDocs = randomIntBetween(100, 200);
+        List<IndexRequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < numDocs; i++) {
+            requests.add(client().prepareIndex("test", "type", Integer.toString(i))
+                .setSource("random_int", randomInt()));
+        }
+        indexRandom(true, requests);
+        return numShards;
+    }
+
+    public void testSlicesCoverAllDocuments() throws Exception {
+        int numShards = setupIndex();
+        long numDocs = client().prepareSearch("test").setSize(0).get().getHits().totalHits();
+        int fetchSize = randomIntBetween(10, 100);
+        for (String field : new String[] {"_uid", "random_int"}) {
+            // fewer slices than shards, as many slices as shards and more slices than shards
+            for (int max : new int[] {Math.max(2, numShards / 2), Math.max(2, numShards), numShards * 3 + 1}) {
+                assertSearchSlices(field, max, fetchSize, numDocs);
+            }
+        }
+    }
+
+    private void assertSearchSlices(String field, int max, int fetchSize, long numDocs) {
+        Set<String> seen = new HashSet<>();
+        long total = 0;
+        for (int id = 0; id < max; id++) {
+            SearchRequestBuilder request = client().prepareSearch("test")
+                .setQuery(matchAllQuery())
+                .setScroll(new TimeValue(10000))
+                .setSize(fetchSize)
+                .slice(new SliceBuilder(field, id, max));
+            SearchResponse searchResponse = request.get();
+            long sliceTotal = searchResponse.getHits().totalHits();
+            total += sliceTotal;
+            long collected = 0;
+            while (searchResponse.getHits().getHits().length > 0) {
+                for (SearchHit hit : searchResponse.getHits().getHits()) {
+                    assertTrue("document [" + hit.getId() + "] is in several slices", seen.add(hit.getId()));
+                    collected++;
+                }
+                searchResponse = client().prepareSearchScroll(searchResponse.getScrollId())
+                    .setScroll(new TimeValue(10000))
+                    .get();
+            }
+            assertThat(collected, equalTo(sliceTotal));
+            clearScroll(searchResponse.getScrollId());
+        }
+        assertThat(total, equalTo(numDocs));
+        assertThat((long) seen.size(), equalTo(numDocs));
+    }
+
+    public void testSliceWithoutScroll() throws Exception {
+        setupIndex();
+        SearchPhaseExecutionException e = expectThrows(SearchPhaseExecutionException.class,
+            () -> client().prepareSearch("test")
+                .setQuery(matchAllQuery())
+                .slice(new SliceBuilder(0, 2))
+                .get());
+        Throwable rootCause = findRootCause(e);
+        assertThat(rootCause, instanceOf(SearchContextException.class));
+        assertThat(rootCause.getMessage(), equalTo("`slice` cannot be used outside of a scroll context"));
+    }
+
+    private Throwable findRootCause(Exception e) {
+        Throwable ret = e;
+        while (ret.getCause() != null) {
+            ret = ret.getCause();
+        }
+        return ret;
+    }
+}
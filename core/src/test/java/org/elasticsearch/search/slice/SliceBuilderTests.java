@@ -0,0 +1,211 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.slice;
+
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.common.ParseFieldMatcher;
+import org.elasticsearch.common.ParsingException;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.lucene.search.MatchNoDocsQuery;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.core.KeywordFieldMapper;
+import org.elasticsearch.index.mapper.core.NumberFieldMapper;
+import org.elasticsearch.index.mapper.internal.UidFieldMapper;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SliceBuilderTests extends ESTestCase {
+    private static final int MAX_SLICE = 20;
+
+    private static SliceBuilder randomSliceBuilder() {
+        int max = randomIntBetween(2, MAX_SLICE);
+        int id = randomIntBetween(0, max - 1);
+        String field = randomBoolean() ? UidFieldMapper.NAME : randomAsciiOfLengthBetween(5, 20);
+        return new SliceBuilder(field, id, max);
+    }
+
+    private static SliceBuilder serializedCopy(SliceBuilder original) throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            original.writeTo(output);
+            try (StreamInput in = StreamInput.wrap(output.bytes())) {
+                return new SliceBuilder(in);
+            }
+        }
+    }
+
+    public void testSerialization() throws Exception {
+        SliceBuilder original = randomSliceBuilder();
+        SliceBuilder deserialized = serializedCopy(original);
+        assertEquals(deserialized, original);
+        assertEquals(deserialized.hashCode(), original.hashCode());
+        assertNotSame(deserialized, original);
+    }
+
+    public void testEqualsAndHashcode() throws Exception {
+        SliceBuilder firstBuilder = randomSliceBuilder();
+        assertFalse("slice is equal to null", firstBuilder.equals(null));
+        assertFalse("slice is equal to incompatible type", firstBuilder.equals(""));
+        assertTrue("slice is not equal to self", firstBuilder.equals(firstBuilder));
+        assertThat("same slice's hashcode returns different values if called multiple times", firstBuilder.hashCode(),
+            equalTo(firstBuilder.hashCode()));
+
+        SliceBuilder secondBuilder = serializedCopy(firstBuilder);
+        assertTrue("slice is not equal to its copy", firstBuilder.equals(secondBuilder));
+        assertTrue("equals is not symmetric", secondBuilder.equals(firstBuilder));
+        assertThat("slice copy's hashcode is different from original hashcode", secondBuilder.hashCode(),
+            equalTo(firstBuilder.hashCode()));
+
+        SliceBuilder otherBuilder = new SliceBuilder(firstBuilder.getField(), (firstBuilder.getId() + 1) % firstBuilder.getMax(),
+            firstBuilder.getMax());
+        assertFalse("slices with a different id are equal", firstBuilder.equals(otherBuilder));
+    }
+
+    public void testFromXContent() throws Exception {
+        SliceBuilder sliceBuilder = randomSliceBuilder();
+        XContentBuilder builder = XContentFactory.contentBuilder(randomFrom(XContentType.values()));
+        if (randomBoolean()) {
+            builder.prettyPrint();
+        }
+        sliceBuilder.toXContent(builder, SliceBuilder.EMPTY_PARAMS);
+        XContentParser parser = XContentFactory.xContent(builder.bytes()).createParser(builder.bytes());
+        parser.nextToken();
+        SliceBuilder secondSliceBuilder = SliceBuilder.fromXContent(parser, ParseFieldMatcher.STRICT);
+        assertNotSame(sliceBuilder, secondSliceBuilder);
+        assertEquals(sliceBuilder, secondSliceBuilder);
+        assertEquals(sliceBuilder.hashCode(), secondSliceBuilder.hashCode());
+    }
+
+    public void testInvalidArguments() throws Exception {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> new SliceBuilder("field", -1, 10));
+        assertEquals("id must be greater than or equal to 0", e.getMessage());
+
+        e = expectThrows(IllegalArgumentException.class, () -> new SliceBuilder("field", 10, -1));
+        assertEquals("max must be greater than 1", e.getMessage());
+
+        e = expectThrows(IllegalArgumentException.class, () -> new SliceBuilder("field", 10, 0));
+        assertEquals("max must be greater than 1", e.getMessage());
+
+        e = expectThrows(IllegalArgumentException.class, () -> new SliceBuilder("field", 10, 5));
+        assertEquals("max must be greater than id", e.getMessage());
+
+        e = expectThrows(IllegalArgumentException.class, () -> new SliceBuilder("", 1, 5));
+        assertEquals("field name is null or empty", e.getMessage());
+
+        XContentParser parser = XContentFactory.xContent(XContentType.JSON).createParser("{\"id\": 1}");
+        parser.nextToken();
+        ParsingException pe = expectThrows(ParsingException.class, () -> SliceBuilder.fromXContent(parser, ParseFieldMatcher.STRICT));
+        assertThat(pe.getMessage(), containsString("requires both [id] and [max]"));
+    }
+
+    private static QueryShardContext createShardContext() {
+        Map<String, MappedFieldType> fieldTypes = new HashMap<>();
+        MappedFieldType uid = new KeywordFieldMapper.KeywordFieldType();
+        uid.setName(UidFieldMapper.NAME);
+        fieldTypes.put(UidFieldMapper.NAME, uid);
+        MappedFieldType number = new NumberFieldMapper.NumberFieldType(NumberFieldMapper.NumberType.LONG);
+        number.setName("number");
+        fieldTypes.put("number", number);
+        MappedFieldType noDocValues = new KeywordFieldMapper.KeywordFieldType();
+        noDocValues.setName("no_doc_values");
+        noDocValues.setHasDocValues(false);
+        fieldTypes.put("no_doc_values", noDocValues);
+        MappedFieldType keyword = new KeywordFieldMapper.KeywordFieldType();
+        keyword.setName("keyword");
+        keyword.setHasDocValues(true);
+        fieldTypes.put("keyword", keyword);
+
+        QueryShardContext context = mock(QueryShardContext.class);
+        when(context.fieldMapper(anyString())).thenAnswer(invocation -> fieldTypes.get(invocation.getArguments()[0]));
+        return context;
+    }
+
+    public void testToFilter() throws IOException {
+        QueryShardContext context = createShardContext();
+
+        // a single shard is split into all slices
+        Query query = new SliceBuilder(UidFieldMapper.NAME, 1, 3).toFilter(context, 0, 1);
+        assertEquals(new TermsSliceQuery(UidFieldMapper.NAME, 1, 3), query);
+        query = new SliceBuilder("number", 1, 3).toFilter(context, 0, 1);
+        assertEquals(new DocValuesSliceQuery("number", 1, 3), query);
+
+        // more slices than shards: each shard is split into the slices assigned to it
+        int numShards = randomIntBetween(2, 10);
+        int max = randomIntBetween(numShards, 100);
+        for (int id = 0; id < max; id++) {
+            for (int shardId = 0; shardId < numShards; shardId++) {
+                query = new SliceBuilder(id, max).toFilter(context, shardId, numShards);
+                if (id % numShards != shardId) {
+                    assertThat(query, instanceOf(MatchNoDocsQuery.class));
+                } else if (query instanceof TermsSliceQuery) {
+                    TermsSliceQuery termsSliceQuery = (TermsSliceQuery) query;
+                    assertThat(termsSliceQuery.getId(), equalTo(id / numShards));
+                    assertThat(termsSliceQuery.getMax(), equalTo(max / numShards + (max % numShards > shardId ? 1 : 0)));
+                } else {
+                    assertThat(query, instanceOf(MatchAllDocsQuery.class));
+                    assertThat(max / numShards + (max % numShards > shardId ? 1 : 0), equalTo(1));
+                }
+            }
+        }
+
+        // less slices than shards: each slice is made of whole shards
+        numShards = randomIntBetween(3, 10);
+        max = randomIntBetween(2, numShards - 1);
+        for (int id = 0; id < max; id++) {
+            for (int shardId = 0; shardId < numShards; shardId++) {
+                query = new SliceBuilder(id, max).toFilter(context, shardId, numShards);
+                if (shardId % max == id) {
+                    assertThat(query, instanceOf(MatchAllDocsQuery.class));
+                } else {
+                    assertThat(query, instanceOf(MatchNoDocsQuery.class));
+                }
+            }
+        }
+    }
+
+    public void testInvalidField() {
+        QueryShardContext context = createShardContext();
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> new SliceBuilder("unknown", 1, 3).toFilter(context, 0, 1));
+        assertEquals("field unknown not found", e.getMessage());
+
+        e = expectThrows(IllegalArgumentException.class, () -> new SliceBuilder("no_doc_values", 1, 3).toFilter(context, 0, 1));
+        assertEquals("cannot load numeric doc values on field [no_doc_values]", e.getMessage());
+
+        e = expectThrows(IllegalArgumentException.class, () -> new SliceBuilder("keyword", 1, 3).toFilter(context, 0, 1));
+        assertThat(e.getMessage(), containsString("only numeric and date fields are supported"));
+    }
+}
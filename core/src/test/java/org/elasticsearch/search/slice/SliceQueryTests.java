@@ -0,0 +1,119 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.slice;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryUtils;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.FixedBitSet;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+
+public class SliceQueryTests extends ESTestCase {
+
+    public void testBasics() {
+        SliceQuery sliceQuery = new TermsSliceQuery("field", 1, 10);
+        QueryUtils.check(sliceQuery);
+        QueryUtils.checkEqual(sliceQuery, new TermsSliceQuery("field", 1, 10));
+        QueryUtils.checkUnequal(sliceQuery, new TermsSliceQuery("field", 2, 10));
+        QueryUtils.checkUnequal(sliceQuery, new TermsSliceQuery("field2", 1, 10));
+        QueryUtils.checkUnequal(sliceQuery, new DocValuesSliceQuery("field", 1, 10));
+
+        sliceQuery = new DocValuesSliceQuery("field", 1, 10);
+        QueryUtils.check(sliceQuery);
+        QueryUtils.checkEqual(sliceQuery, new DocValuesSliceQuery("field", 1, 10));
+        QueryUtils.checkUnequal(sliceQuery, new DocValuesSliceQuery("field", 1, 11));
+    }
+
+    public void testSlicesPartitionTheDocuments() throws IOException {
+        try (Directory dir = newDirectory()) {
+            final int numDocs = randomIntBetween(100, 200);
+            try (RandomIndexWriter writer = new RandomIndexWriter(random(), dir)) {
+                for (int i = 0; i < numDocs; i++) {
+                    Document doc = new Document();
+                    doc.add(new StringField("uid", "type#" + i, Field.Store.NO));
+                    doc.add(new SortedNumericDocValuesField("number", i));
+                    writer.addDocument(doc);
+                }
+                writer.commit();
+            }
+            try (IndexReader reader = DirectoryReader.open(dir)) {
+                IndexSearcher searcher = newSearcher(reader);
+                int max = randomIntBetween(2, 10);
+                assertPartition(searcher, numDocs, max, id -> new TermsSliceQuery("uid", id, max));
+                assertPartition(searcher, numDocs, max, id -> new DocValuesSliceQuery("number", id, max));
+            }
+        }
+    }
+
+    private interface SliceQueryFactory {
+        Query create(int id);
+    }
+
+    private static void assertPartition(IndexSearcher searcher, int numDocs, int max, SliceQueryFactory factory) throws IOException {
+        FixedBitSet seen = new FixedBitSet(numDocs);
+        int total = 0;
+        for (int id = 0; id < max; id++) {
+            Query query = factory.create(id);
+            CollectDocs collector = new CollectDocs(numDocs);
+            searcher.search(query, collector);
+            // every document belongs to a single slice
+            assertFalse("documents are in several slices", seen.intersects(collector.docs));
+            seen.or(collector.docs);
+            total += collector.docs.cardinality();
+        }
+        assertEquals(numDocs, total);
+    }
+
+    private static final class CollectDocs extends SimpleCollector {
+        private final FixedBitSet docs;
+        private int docBase;
+
+        CollectDocs(int numDocs) {
+            this.docs = new FixedBitSet(numDocs);
+        }
+
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) throws IOException {
+            docBase = context.docBase;
+        }
+
+        @Override
+        public void collect(int doc) throws IOException {
+            docs.set(docBase + doc);
+        }
+
+        @Override
+        public boolean needsScores() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.transport.netty;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.test.ESTestCase;
+import org.jboss.netty.buffer.ChannelBuffer;
+
+public class CompositeBytesStreamOutputTests extends ESTestCase {
+
+    public void testLargeReferencesAreNotCopied() throws Exception {
+        CompositeBytesStreamOutput out = new CompositeBytesStreamOutput(BigArrays.NON_RECYCLING_INSTANCE);
+        out.skip(NettyHeader.HEADER_SIZE);
+        BytesReference small = new BytesArray(randomUnicodeOfLength(randomIntBetween(0, 100)));
+        BytesReference large = new BytesArray(randomUnicodeOfLength(CompositeBytesStreamOutput.MIN_REFERENCE_SIZE));
+        final int before = randomInt();
+        final String after = randomAsciiOfLength(randomIntBetween(1, 100));
+        out.writeInt(before);
+        out.writeBytesReference(large);
+        out.writeBytesReference(small);
+        out.writeBytesReference(large);
+        out.writeString(after);
+
+        assertEquals(2 * large.length(), out.referencedSize());
+        assertEquals(out.copiedSize() + out.referencedSize(), out.position());
+
+        ChannelBuffer buffer = out.toChannelBuffer();
+        assertEquals(out.position(), buffer.readableBytes());
+        buffer.skipBytes(NettyHeader.HEADER_SIZE);
+        StreamInput in = ChannelBufferStreamInputFactory.create(buffer);
+        assertEquals(before, in.readInt());
+        assertEquals(large, in.readBytesReference());
+        assertEquals(small, in.readBytesReference());
+        assertEquals(large, in.readBytesReference());
+        assertEquals(after, in.readString());
+        assertEquals(0, in.available());
+    }
+
+    public void testSeekAfterReferenceFails() throws Exception {
+        CompositeBytesStreamOutput out = new CompositeBytesStreamOutput(BigArrays.NON_RECYCLING_INSTANCE);
+        out.writeBytesReference(new BytesArray(new byte[CompositeBytesStreamOutput.MIN_REFERENCE_SIZE]));
+        IllegalStateException e = expectThrows(IllegalStateException.class, () -> out.seek(0));
+        assertEquals("can't seek after bytes references have been written", e.getMessage());
+        out.reset();
+        out.seek(0);
+        assertEquals(0, out.position());
+    }
+}
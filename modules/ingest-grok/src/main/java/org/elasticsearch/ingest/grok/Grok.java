@@ -19,6 +19,7 @@
 
 package org.elasticsearch.ingest.grok;
 
+import org.elasticsearch.ElasticsearchTimeoutException;
 import org.jcodings.specific.UTF8Encoding;
 import org.joni.Matcher;
 import org.joni.NameEntry;
@@ -29,8 +30,11 @@ import org.joni.Syntax;
 import org.joni.exception.ValueException;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -57,20 +61,28 @@ final class Grok {
     private final boolean namedCaptures;
     private final Regex compiledExpression;
     private final String expression;
+    private final List<String> requiredLiterals;
+    private final ThreadWatchdog threadWatchdog;
 
 
     public Grok(Map<String, String> patternBank, String grokPattern) {
         this(patternBank, grokPattern, true);
     }
 
-    @SuppressWarnings("unchecked")
     public Grok(Map<String, String> patternBank, String grokPattern, boolean namedCaptures) {
+        this(patternBank, grokPattern, namedCaptures, ThreadWatchdog.noop());
+    }
+
+    @SuppressWarnings("unchecked")
+    Grok(Map<String, String> patternBank, String grokPattern, boolean namedCaptures, ThreadWatchdog threadWatchdog) {
         this.patternBank = patternBank;
         this.namedCaptures = namedCaptures;
+        this.threadWatchdog = threadWatchdog;
 
         this.expression = toRegex(grokPattern);
         byte[] expressionBytes = expression.getBytes(StandardCharsets.UTF_8);
         this.compiledExpression = new Regex(expressionBytes, 0, expressionBytes.length, Option.DEFAULT, UTF8Encoding.INSTANCE);
+        this.requiredLiterals = requiredLiterals(grokPattern);
     }
 
 
@@ -123,9 +135,23 @@ final class Grok {
         return grokPattern;
     }
 
+    /**
+     * Checks whether the text contains all literals the expression requires, which is much cheaper than running the expression.
+     *
+     * @return <code>false</code> if the expression cannot match the text, <code>true</code> if it might
+     */
+    public boolean mayMatch(String text) {
+        for (String literal : requiredLiterals) {
+            if (text.indexOf(literal) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public boolean match(String text) {
         Matcher matcher = compiledExpression.matcher(text.getBytes(StandardCharsets.UTF_8));
-        int result = matcher.search(0, text.length(), Option.DEFAULT);
+        int result = search(matcher, text.length());
         return (result != -1);
     }
 
@@ -133,7 +159,7 @@ final class Grok {
         byte[] textAsBytes = text.getBytes(StandardCharsets.UTF_8);
         Map<String, Object> fields = new HashMap<>();
         Matcher matcher = compiledExpression.matcher(textAsBytes);
-        int result = matcher.search(0, textAsBytes.length, Option.DEFAULT);
+        int result = search(matcher, textAsBytes.length);
         if (result != -1 && compiledExpression.numberOfNames() > 0) {
             Region region = matcher.getEagerRegion();
             for (Iterator<NameEntry> entry = compiledExpression.namedBackrefIterator(); entry.hasNext();) {
@@ -154,5 +180,200 @@ final class Grok {
         }
         return null;
     }
+
+    private int search(Matcher matcher, int end) {
+        if (threadWatchdog.isEnabled() == false) {
+            return matcher.search(0, end, Option.DEFAULT);
+        }
+        threadWatchdog.register();
+        boolean interrupted = false;
+        try {
+            return matcher.searchInterruptible(0, end, Option.DEFAULT);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            if (threadWatchdog.unregister() == false && interrupted) {
+                // somebody else interrupted us, let them know we saw it
+                Thread.currentThread().interrupt();
+            }
+        }
+        throw new ElasticsearchTimeoutException("grok pattern matching was interrupted after [{}] ms",
+            threadWatchdog.maxExecutionTimeInMillis());
+    }
+
+    List<String> getRequiredLiterals() {
+        return requiredLiterals;
+    }
+
+    /**
+     * Extracts the literal strings every text matching the grok expression must contain. Only the expression itself is looked
+     * at, pattern references, groups, character classes and optional characters are skipped. If the expression has constructs
+     * whose literals cannot be safely determined, like a top level alternation or inline options, no literals are returned.
+     */
+    static List<String> requiredLiterals(String grokPattern) {
+        if (grokPattern.contains("(?i") || grokPattern.contains("(?m") || grokPattern.contains("(?x")
+            || grokPattern.contains("(?-") || grokPattern.contains("\\Q")) {
+            return Collections.emptyList();
+        }
+        List<String> literals = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        final int length = grokPattern.length();
+        while (i < length) {
+            char c = grokPattern.charAt(i);
+            boolean literal = false;
+            switch (c) {
+                case '%':
+                    if (i + 1 < length && grokPattern.charAt(i + 1) == '{') {
+                        int end = grokPattern.indexOf('}', i);
+                        if (end == -1) {
+                            return Collections.emptyList();
+                        }
+                        flush(current, literals);
+                        i = end + 1;
+                    } else {
+                        current.append(c);
+                        literal = true;
+                        i++;
+                    }
+                    break;
+                case '\\':
+                    if (i + 1 >= length) {
+                        return Collections.emptyList();
+                    }
+                    char escaped = grokPattern.charAt(i + 1);
+                    if (Character.isLetterOrDigit(escaped)) {
+                        // escapes taking arguments (like \x41 or \p{Alpha}) or back references would be mistaken for literals
+                        if ("dDsSwWhHbBAzZG".indexOf(escaped) == -1) {
+                            return Collections.emptyList();
+                        }
+                        flush(current, literals);
+                    } else {
+                        current.append(escaped);
+                        literal = true;
+                    }
+                    i += 2;
+                    break;
+                case '(':
+                case '[': {
+                    int end = c == '(' ? skipGroup(grokPattern, i) : skipCharacterClass(grokPattern, i);
+                    if (end == -1) {
+                        return Collections.emptyList();
+                    }
+                    flush(current, literals);
+                    i = end;
+                    break;
+                }
+                case '{': {
+                    // a repetition of whatever was skipped before
+                    int end = grokPattern.indexOf('}', i);
+                    if (end == -1) {
+                        return Collections.emptyList();
+                    }
+                    flush(current, literals);
+                    i = end + 1;
+                    break;
+                }
+                case '?':
+                case '*':
+                case '+':
+                case '.':
+                case '^':
+                case '$':
+                    flush(current, literals);
+                    i++;
+                    break;
+                case '|':
+                case ')':
+                case ']':
+                case '}':
+                    return Collections.emptyList();
+                default:
+                    current.append(c);
+                    literal = true;
+                    i++;
+            }
+            if (literal && i < length) {
+                char next = grokPattern.charAt(i);
+                if (next == '?' || next == '*' || next == '{') {
+                    // the literal character is optional
+                    current.setLength(current.length() - 1);
+                    flush(current, literals);
+                } else if (next == '+') {
+                    flush(current, literals);
+                }
+            }
+        }
+        flush(current, literals);
+        return Collections.unmodifiableList(literals);
+    }
+
+    private static void flush(StringBuilder current, List<String> literals) {
+        if (current.length() > 0) {
+            literals.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    /**
+     * @return the position after the group starting at the given position, or -1 if the group is not closed
+     */
+    private static int skipGroup(String pattern, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            } else if (c == '[') {
+                i = skipCharacterClass(pattern, i);
+                if (i == -1) {
+                    return -1;
+                }
+                continue;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the position after the character class starting at the given position, or -1 if the class is not closed
+     */
+    private static int skipCharacterClass(String pattern, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            } else if (c == '[') {
+                depth++;
+                // a closing bracket right after the opening one (or its negation) is a literal
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
 }
 
@@ -19,22 +19,34 @@
 
 package org.elasticsearch.ingest.grok;
 
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.ingest.IngestStats;
 import org.elasticsearch.ingest.core.AbstractProcessor;
 import org.elasticsearch.ingest.core.AbstractProcessorFactory;
 import org.elasticsearch.ingest.core.ConfigurationUtils;
 import org.elasticsearch.ingest.core.IngestDocument;
 
+import java.io.Closeable;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 
 import static org.elasticsearch.ingest.core.ConfigurationUtils.newConfigurationException;
 
-public final class GrokProcessor extends AbstractProcessor {
+public final class GrokProcessor extends AbstractProcessor implements IngestStats.ProcessorCountersProvider {
 
     public static final String TYPE = "grok";
 
     private final String matchField;
     private final Grok grok;
+    private final CounterMetric prefilterSkips = new CounterMetric();
+    private final CounterMetric timeouts = new CounterMetric();
 
     public GrokProcessor(String tag, Grok grok, String matchField) {
         super(tag);
@@ -45,7 +57,18 @@ public final class GrokProcessor extends AbstractProcessor {
     @Override
     public void execute(IngestDocument ingestDocument) throws Exception {
         String fieldValue = ingestDocument.getFieldValue(matchField, String.class);
-        Map<String, Object> matches = grok.captures(fieldValue);
+        final Map<String, Object> matches;
+        if (grok.mayMatch(fieldValue) == false) {
+            prefilterSkips.inc();
+            matches = null;
+        } else {
+            try {
+                matches = grok.captures(fieldValue);
+            } catch (ElasticsearchTimeoutException e) {
+                timeouts.inc();
+                throw e;
+            }
+        }
         if (matches != null) {
             matches.forEach((k, v) -> ingestDocument.setFieldValue(k, v));
         } else {
@@ -66,12 +89,37 @@ public final class GrokProcessor extends AbstractProcessor {
         return grok;
     }
 
-    public final static class Factory extends AbstractProcessorFactory<GrokProcessor> {
+    /**
+     * Reports <code>prefilter_skips</code>, the number of field values the expression was not run on because they lack
+     * literals the expression requires, and <code>timeouts</code>, the number of field values the expression took too long
+     * to match.
+     */
+    @Override
+    public Map<String, Long> counters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("prefilter_skips", prefilterSkips.count());
+        counters.put("timeouts", timeouts.count());
+        return counters;
+    }
+
+    public final static class Factory extends AbstractProcessorFactory<GrokProcessor> implements Closeable {
+
+        // compiling a grok expression is expensive, pipelines that use the same expression and definitions share it
+        private static final int MAX_CACHED_EXPRESSIONS = 1000;
 
         private final Map<String, String> builtinPatterns;
+        private final ThreadWatchdog threadWatchdog;
+        private final Cache<CacheKey, Grok> cache = CacheBuilder.<CacheKey, Grok>builder()
+            .setMaximumWeight(MAX_CACHED_EXPRESSIONS)
+            .build();
 
         public Factory(Map<String, String> builtinPatterns) {
+            this(builtinPatterns, ThreadWatchdog.noop());
+        }
+
+        Factory(Map<String, String> builtinPatterns, ThreadWatchdog threadWatchdog) {
             this.builtinPatterns = builtinPatterns;
+            this.threadWatchdog = threadWatchdog;
         }
 
         @Override
@@ -79,20 +127,62 @@ public final class GrokProcessor extends AbstractProcessor {
             String matchField = ConfigurationUtils.readStringProperty(TYPE, processorTag, config, "field");
             String matchPattern = ConfigurationUtils.readStringProperty(TYPE, processorTag, config, "pattern");
             Map<String, String> customPatternBank = ConfigurationUtils.readOptionalMap(TYPE, processorTag, config, "pattern_definitions");
-            Map<String, String> patternBank = new HashMap<>(builtinPatterns);
-            if (customPatternBank != null) {
-                patternBank.putAll(customPatternBank);
+            if (customPatternBank == null) {
+                customPatternBank = Collections.emptyMap();
             }
 
             Grok grok;
             try {
-                grok = new Grok(patternBank, matchPattern);
+                grok = cache.computeIfAbsent(new CacheKey(matchPattern, customPatternBank), key -> {
+                    Map<String, String> patternBank = new HashMap<>(builtinPatterns);
+                    patternBank.putAll(key.customPatternBank);
+                    return new Grok(patternBank, key.pattern, true, threadWatchdog);
+                });
+            } catch (ExecutionException e) {
+                throw newConfigurationException(TYPE, processorTag, "pattern", "Invalid regex pattern. " + e.getCause().getMessage());
             } catch (Exception e) {
                 throw newConfigurationException(TYPE, processorTag, "pattern", "Invalid regex pattern. " + e.getMessage());
             }
             return new GrokProcessor(processorTag, grok, matchField);
         }
 
+        // for testing
+        int cachedExpressions() {
+            return cache.count();
+        }
+
+        @Override
+        public void close() {
+            threadWatchdog.close();
+        }
+    }
+
+    private static final class CacheKey {
+        private final String pattern;
+        private final Map<String, String> customPatternBank;
+
+        CacheKey(String pattern, Map<String, String> customPatternBank) {
+            this.pattern = pattern;
+            this.customPatternBank = customPatternBank;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return Objects.equals(pattern, cacheKey.pattern) &&
+                Objects.equals(customPatternBank, cacheKey.customPatternBank);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pattern, customPatternBank);
+        }
     }
 
 }
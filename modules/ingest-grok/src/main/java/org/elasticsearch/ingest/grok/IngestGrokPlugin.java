@@ -19,8 +19,14 @@
 
 package org.elasticsearch.ingest.grok;
 
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.settings.SettingsModule;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.node.NodeModule;
 import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -39,9 +45,25 @@ public class IngestGrokPlugin extends Plugin {
         "postgresql", "rails", "redis", "ruby"
     };
 
+    /**
+     * How often running grok expressions are checked for exceeding their maximum execution time.
+     */
+    public static final Setting<TimeValue> WATCHDOG_INTERVAL_SETTING =
+        Setting.timeSetting("ingest.grok.watchdog.interval", TimeValue.timeValueSeconds(1), TimeValue.timeValueMillis(1),
+            Property.NodeScope);
+    /**
+     * The time a grok expression may take to match a single field value before it is interrupted, <code>0</code> disables
+     * the limit.
+     */
+    public static final Setting<TimeValue> WATCHDOG_MAX_EXECUTION_TIME_SETTING =
+        Setting.timeSetting("ingest.grok.watchdog.max_execution_time", TimeValue.timeValueSeconds(1), TimeValue.timeValueMillis(0),
+            Property.NodeScope);
+
+    private final Settings settings;
     private final Map<String, String> builtinPatterns;
 
-    public IngestGrokPlugin() throws IOException {
+    public IngestGrokPlugin(Settings settings) throws IOException {
+        this.settings = settings;
         this.builtinPatterns = loadBuiltinPatterns();
     }
 
@@ -55,8 +77,23 @@ public class IngestGrokPlugin extends Plugin {
         return "Ingest processor that uses grok patterns to split text";
     }
 
+    public void onModule(SettingsModule settingsModule) {
+        settingsModule.registerSetting(WATCHDOG_INTERVAL_SETTING);
+        settingsModule.registerSetting(WATCHDOG_MAX_EXECUTION_TIME_SETTING);
+    }
+
     public void onModule(NodeModule nodeModule) {
-        nodeModule.registerProcessor(GrokProcessor.TYPE, (templateService, registry) -> new GrokProcessor.Factory(builtinPatterns));
+        nodeModule.registerProcessor(GrokProcessor.TYPE,
+            (templateService, registry) -> new GrokProcessor.Factory(builtinPatterns,
+                createThreadWatchdog(settings, registry.getThreadPool())));
+    }
+
+    static ThreadWatchdog createThreadWatchdog(Settings settings, ThreadPool threadPool) {
+        TimeValue maxExecutionTime = WATCHDOG_MAX_EXECUTION_TIME_SETTING.get(settings);
+        if (maxExecutionTime.millis() == 0) {
+            return ThreadWatchdog.noop();
+        }
+        return new ThreadWatchdog(threadPool, WATCHDOG_INTERVAL_SETTING.get(settings), maxExecutionTime);
     }
 
     public static Map<String, String> loadBuiltinPatterns() throws IOException {
@@ -0,0 +1,114 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest.grok;
+
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.io.Closeable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interrupts threads that are registered for longer than the maximum execution time, so that a pathological grok expression
+ * cannot hang an ingest thread forever. Registered threads are checked once per interval, so an execution may take up to the
+ * maximum execution time plus the interval before it gets interrupted. The check runs on the scheduler thread of the node's
+ * thread pool, it only walks the registered threads and never blocks.
+ */
+final class ThreadWatchdog implements Closeable {
+
+    // marks a registered thread that has been interrupted
+    private static final long INTERRUPTED = -1;
+
+    private final long maxExecutionTimeInNanos;
+    private final ConcurrentMap<Thread, Long> registry = ConcurrentCollections.newConcurrentMap();
+    // the periodic check, null if this watchdog never interrupts any thread
+    private final ScheduledFuture<?> check;
+
+    private ThreadWatchdog() {
+        this.maxExecutionTimeInNanos = 0;
+        this.check = null;
+    }
+
+    ThreadWatchdog(ThreadPool threadPool, TimeValue interval, TimeValue maxExecutionTime) {
+        this.maxExecutionTimeInNanos = maxExecutionTime.nanos();
+        this.check = threadPool.scheduleWithFixedDelay(this::interruptLongRunningExecutions, interval);
+    }
+
+    /**
+     * Returns a watchdog that never interrupts any thread.
+     */
+    static ThreadWatchdog noop() {
+        return new ThreadWatchdog();
+    }
+
+    boolean isEnabled() {
+        return check != null;
+    }
+
+    long maxExecutionTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxExecutionTimeInNanos);
+    }
+
+    /**
+     * Registers the current thread, which is interrupted if it is not unregistered in time.
+     */
+    void register() {
+        registry.put(Thread.currentThread(), System.nanoTime());
+    }
+
+    /**
+     * Unregisters the current thread.
+     *
+     * @return whether the thread was interrupted by this watchdog while it was registered
+     */
+    boolean unregister() {
+        Long start = registry.remove(Thread.currentThread());
+        if (start != null && start == INTERRUPTED) {
+            // the interrupt may have arrived after the execution completed, it must not leak into whatever the thread does next
+            Thread.interrupted();
+            return true;
+        }
+        return false;
+    }
+
+    void interruptLongRunningExecutions() {
+        final long now = System.nanoTime();
+        for (Thread thread : registry.keySet()) {
+            // computing under the key makes sure the thread is still registered while it gets interrupted
+            registry.computeIfPresent(thread, (t, start) -> {
+                if (start != INTERRUPTED && now - start > maxExecutionTimeInNanos) {
+                    t.interrupt();
+                    return INTERRUPTED;
+                }
+                return start;
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        if (check != null) {
+            check.cancel(false);
+        }
+    }
+}
@@ -28,7 +28,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class GrokProcessorFactoryTests extends ESTestCase {
 
@@ -46,6 +48,31 @@ public class GrokProcessorFactoryTests extends ESTestCase {
         assertThat(processor.getGrok(), notNullValue());
     }
 
+    public void testCompiledExpressionsAreShared() throws Exception {
+        GrokProcessor.Factory factory = new GrokProcessor.Factory(Collections.emptyMap());
+        GrokProcessor first = factory.create(config("(?<foo>\\w+)", null));
+        GrokProcessor second = factory.create(config("(?<foo>\\w+)", null));
+        assertThat(second.getGrok(), sameInstance(first.getGrok()));
+        assertThat(factory.cachedExpressions(), equalTo(1));
+
+        // different definitions lead to a different expression
+        GrokProcessor withDefinitions = factory.create(config("%{MY_PATTERN:name}", Collections.singletonMap("MY_PATTERN", "foo")));
+        assertThat(withDefinitions.getGrok(), not(sameInstance(first.getGrok())));
+        GrokProcessor otherDefinitions = factory.create(config("%{MY_PATTERN:name}", Collections.singletonMap("MY_PATTERN", "bar")));
+        assertThat(otherDefinitions.getGrok(), not(sameInstance(withDefinitions.getGrok())));
+        assertThat(factory.cachedExpressions(), equalTo(3));
+    }
+
+    private static Map<String, Object> config(String pattern, Map<String, String> patternDefinitions) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("field", "_field");
+        config.put("pattern", pattern);
+        if (patternDefinitions != null) {
+            config.put("pattern_definitions", patternDefinitions);
+        }
+        return config;
+    }
+
     public void testBuildMissingField() throws Exception {
         GrokProcessor.Factory factory = new GrokProcessor.Factory(Collections.emptyMap());
         Map<String, Object> config = new HashMap<>();
@@ -57,6 +57,22 @@ public class GrokProcessorTests extends ESTestCase {
         }
     }
 
+    public void testNoMatchSkippedByPrefilter() {
+        String fieldName = RandomDocumentPicks.randomFieldName(random());
+        IngestDocument doc = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        doc.setFieldValue(fieldName, "user 23");
+        Grok grok = new Grok(Collections.singletonMap("NUMBER", "\\d+"), "id=%{NUMBER:id}");
+        GrokProcessor processor = new GrokProcessor(randomAsciiOfLength(10), grok, fieldName);
+        try {
+            processor.execute(doc);
+            fail();
+        } catch (Exception e) {
+            assertThat(e.getMessage(), equalTo("Grok expression does not match field value: [user 23]"));
+        }
+        assertThat(processor.counters().get("prefilter_skips"), equalTo(1L));
+        assertThat(processor.counters().get("timeouts"), equalTo(0L));
+    }
+
     public void testMatchWithoutCaptures() throws Exception {
         String fieldName = "value";
         IngestDocument originalDoc = new IngestDocument(new HashMap<>(), new HashMap<>());
@@ -19,15 +19,22 @@
 
 package org.elasticsearch.ingest.grok;
 
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.junit.Before;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
@@ -282,4 +289,65 @@ public class GrokTests extends ESTestCase {
         Grok grok = new Grok(bank, "%{MONTHDAY:greatday}");
         assertThat(grok.captures("nomatch"), nullValue());
     }
+
+    public void testRequiredLiterals() {
+        assertThat(Grok.requiredLiterals("%{IP:client} [%{HTTPDATE:timestamp}]"), equalTo(Collections.singletonList(" ")));
+        assertThat(Grok.requiredLiterals("%{IP:client} \\[%{HTTPDATE:timestamp}\\] \"%{WORD:verb}"),
+            equalTo(Arrays.asList(" [", "] \"")));
+        assertThat(Grok.requiredLiterals("GET %{URIPATH:path} HTTP/1.1"), equalTo(Arrays.asList("GET ", " HTTP/1", "1")));
+        assertThat(Grok.requiredLiterals("status=%{NUMBER:status}s?,"), equalTo(Arrays.asList("status=", ",")));
+        assertThat(Grok.requiredLiterals("id:+%{NUMBER:id}"), equalTo(Collections.singletonList("id:")));
+        assertThat(Grok.requiredLiterals("a(?:b|c)d\\s+e[fg]h\\d{2}i"), equalTo(Arrays.asList("a", "d", "e", "h", "i")));
+        // constructs that make it impossible to tell which literals are required
+        assertThat(Grok.requiredLiterals("foo|bar"), empty());
+        assertThat(Grok.requiredLiterals("(?i)foo"), empty());
+        assertThat(Grok.requiredLiterals("\\x41BC"), empty());
+        assertThat(Grok.requiredLiterals("foo)"), empty());
+    }
+
+    public void testMayMatch() {
+        Grok grok = new Grok(basePatterns, "%{IP:client} \\[%{HTTPDATE:timestamp}\\]");
+        String line = "55.3.244.1 [07/Mar/2004:16:45:56 -0800]";
+        assertTrue(grok.mayMatch(line));
+        assertNotNull(grok.captures(line));
+        assertFalse(grok.mayMatch("55.3.244.1 07/Mar/2004:16:45:56 -0800"));
+        assertNull(grok.captures("55.3.244.1 07/Mar/2004:16:45:56 -0800"));
+    }
+
+    public void testMayMatchNeverSkipsMatchingText() {
+        String[] patterns = {"%{SYSLOGLINE}", "%{COMBINEDAPACHELOG}", "%{WORD:verb} %{NOTSPACE:path}\\?%{NOTSPACE:query}"};
+        String[] lines = {
+            "Mar 16 00:01:25 evita postfix/smtpd[1713]: connect from camomile.cloud9.net[168.100.1.3]",
+            "83.149.9.216 - - [17/May/2015:10:05:03 +0000] \"GET /presentations/logstash-monitorama-2013/images/kibana-search.png " +
+                "HTTP/1.1\" 200 203023 \"http://semicomplete.com/presentations/logstash-monitorama-2013/\" \"Mozilla/5.0\"",
+            "GET /search?q=grok"
+        };
+        for (int i = 0; i < patterns.length; i++) {
+            Grok grok = new Grok(basePatterns, patterns[i]);
+            assertTrue(grok.mayMatch(lines[i]));
+            assertNotNull(grok.captures(lines[i]));
+        }
+    }
+
+    public void testExponentialExpressionsAreInterrupted() throws Exception {
+        ThreadPool threadPool = new ThreadPool(getTestName());
+        try (ThreadWatchdog watchdog = new ThreadWatchdog(threadPool, TimeValue.timeValueMillis(10), TimeValue.timeValueMillis(100))) {
+            String grokPattern = "Bonsuche mit folgender Anfrage: Belegart->\\[%{WORD:param2},(?<param5>(\\s*%{NOTSPACE})*)\\] " +
+                "Zustand->ABGESCHLOSSEN Kassennummer->%{WORD:param9} Bonnummer->%{WORD:param10} Datum->%{DATESTAMP_OTHER:param11}";
+            String logLine = "Bonsuche mit folgender Anfrage: Belegart->[EINGESCHRANKTER_VERKAUF, VERKAUF, NACHERFASSUNG] " +
+                "Zustand->ABGESCHLOSSEN Kassennummer->2 Bonnummer->6362 Datum->Mon Jan 08 00:00:00 UTC 2018";
+            Grok grok = new Grok(basePatterns, grokPattern, true, watchdog);
+            // the prefilter cannot help here, all literals are present
+            assertTrue(grok.mayMatch(logLine));
+            try {
+                grok.captures(logLine);
+                fail("expected the expression to be interrupted");
+            } catch (ElasticsearchTimeoutException e) {
+                assertThat(e.getMessage(), containsString("grok pattern matching was interrupted after [100] ms"));
+            }
+            assertFalse(Thread.currentThread().isInterrupted());
+        } finally {
+            ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest.geoip;
+
+import com.maxmind.geoip2.DatabaseReader;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.ingest.IngestStats;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * A node level LRU cache of geoip lookups, shared by all geoip processors. Entries are keyed by the database and the ip
+ * address that was looked up, so that processors using the same database share their results.
+ */
+final class GeoIpCache {
+
+    private final Cache<CacheKey, Map<GeoIpProcessor.Property, Object>> cache;
+
+    GeoIpCache(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("geoip max cache size must be 0 or greater");
+        }
+        this.cache = maxSize == 0 ? null : CacheBuilder.<CacheKey, Map<GeoIpProcessor.Property, Object>>builder()
+            .setMaximumWeight(maxSize)
+            .build();
+    }
+
+    /**
+     * Returns the cached result of looking up the ip in the database, or computes it with the retrieve function and caches
+     * it if there is none. Callers must not modify the returned map.
+     */
+    Map<GeoIpProcessor.Property, Object> putIfAbsent(DatabaseReader databaseReader, String ip,
+                                                     Function<String, Map<GeoIpProcessor.Property, Object>> retrieveFunction) {
+        if (cache == null) {
+            return retrieveFunction.apply(ip);
+        }
+        try {
+            return cache.computeIfAbsent(new CacheKey(databaseReader, ip), key -> retrieveFunction.apply(key.ip));
+        } catch (ExecutionException e) {
+            throw ExceptionsHelper.convertToRuntime(e.getCause());
+        }
+    }
+
+    IngestStats.CacheStats stats() {
+        if (cache == null) {
+            return new IngestStats.CacheStats(0, 0, 0, 0);
+        }
+        Cache.CacheStats stats = cache.stats();
+        return new IngestStats.CacheStats(cache.count(), stats.getHits(), stats.getMisses(), stats.getEvictions());
+    }
+
+    private static final class CacheKey {
+
+        // database readers don't implement equals, so lookups are cached per reader instance
+        private final DatabaseReader databaseReader;
+        private final String ip;
+
+        CacheKey(DatabaseReader databaseReader, String ip) {
+            this.databaseReader = databaseReader;
+            this.ip = ip;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return databaseReader == cacheKey.databaseReader && Objects.equals(ip, cacheKey.ip);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(databaseReader) + ip.hashCode();
+        }
+    }
+}
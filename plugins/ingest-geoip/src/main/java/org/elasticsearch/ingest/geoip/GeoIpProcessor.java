@@ -33,6 +33,7 @@ import org.elasticsearch.ElasticsearchParseException;
 import org.elasticsearch.SpecialPermission;
 import org.elasticsearch.common.network.InetAddresses;
 import org.elasticsearch.common.network.NetworkAddress;
+import org.elasticsearch.ingest.IngestStats;
 import org.elasticsearch.ingest.core.AbstractProcessor;
 import org.elasticsearch.ingest.core.AbstractProcessorFactory;
 import org.elasticsearch.ingest.core.IngestDocument;
@@ -44,6 +45,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -65,39 +67,49 @@ public final class GeoIpProcessor extends AbstractProcessor {
     private final String targetField;
     private final DatabaseReader dbReader;
     private final Set<Property> properties;
+    private final GeoIpCache cache;
 
     GeoIpProcessor(String tag, String field, DatabaseReader dbReader, String targetField, Set<Property> properties) throws IOException {
+        this(tag, field, dbReader, targetField, properties, new GeoIpCache(0));
+    }
+
+    GeoIpProcessor(String tag, String field, DatabaseReader dbReader, String targetField, Set<Property> properties,
+                   GeoIpCache cache) throws IOException {
         super(tag);
         this.field = field;
         this.targetField = targetField;
         this.dbReader = dbReader;
         this.properties = properties;
+        this.cache = cache;
     }
 
     @Override
     public void execute(IngestDocument ingestDocument) {
         String ip = ingestDocument.getFieldValue(field, String.class);
-        final InetAddress ipAddress = InetAddresses.forString(ip);
 
-        Map<String, Object> geoData;
+        Map<Property, Object> cachedGeoData;
         switch (dbReader.getMetadata().getDatabaseType()) {
             case CITY_DB_TYPE:
-                try {
-                    geoData = retrieveCityGeoData(ipAddress);
-                } catch (AddressNotFoundRuntimeException e) {
-                    geoData = Collections.emptyMap();
-                }
+                cachedGeoData = cache.putIfAbsent(dbReader, ip, this::retrieveCityGeoData);
                 break;
             case COUNTRY_DB_TYPE:
-                try {
-                    geoData = retrieveCountryGeoData(ipAddress);
-                } catch (AddressNotFoundRuntimeException e) {
-                    geoData = Collections.emptyMap();
-                }
+                cachedGeoData = cache.putIfAbsent(dbReader, ip, this::retrieveCountryGeoData);
                 break;
             default:
                 throw new ElasticsearchParseException("Unsupported database type [" + dbReader.getMetadata().getDatabaseType() + "]", new IllegalStateException());
         }
+
+        // cached lookups are shared between documents, so only copies end up in the document
+        Map<String, Object> geoData = new HashMap<>();
+        for (Property property : this.properties) {
+            if (cachedGeoData.containsKey(property)) {
+                Object value = cachedGeoData.get(property);
+                if (value instanceof Map) {
+                    value = new HashMap<>((Map<?, ?>) value);
+                }
+                geoData.put(property.fieldName(), value);
+            }
+        }
         ingestDocument.setFieldValue(targetField, geoData);
     }
 
@@ -122,20 +134,26 @@ public final class GeoIpProcessor extends AbstractProcessor {
         return properties;
     }
 
-    private Map<String, Object> retrieveCityGeoData(InetAddress ipAddress) {
+    private Map<Property, Object> retrieveCityGeoData(String ip) {
+        final InetAddress ipAddress = InetAddresses.forString(ip);
         SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
             sm.checkPermission(new SpecialPermission());
         }
-        CityResponse response = AccessController.doPrivileged((PrivilegedAction<CityResponse>) () -> {
-            try {
-                return dbReader.city(ipAddress);
-            } catch (AddressNotFoundException e) {
-                throw new AddressNotFoundRuntimeException(e);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
+        CityResponse response;
+        try {
+            response = AccessController.doPrivileged((PrivilegedAction<CityResponse>) () -> {
+                try {
+                    return dbReader.city(ipAddress);
+                } catch (AddressNotFoundException e) {
+                    throw new AddressNotFoundRuntimeException(e);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        } catch (AddressNotFoundRuntimeException e) {
+            return Collections.emptyMap();
+        }
 
         Country country = response.getCountry();
         City city = response.getCity();
@@ -143,80 +161,56 @@ public final class GeoIpProcessor extends AbstractProcessor {
         Continent continent = response.getContinent();
         Subdivision subdivision = response.getMostSpecificSubdivision();
 
-        Map<String, Object> geoData = new HashMap<>();
-        for (Property property : this.properties) {
-            switch (property) {
-                case IP:
-                    geoData.put("ip", NetworkAddress.format(ipAddress));
-                    break;
-                case COUNTRY_ISO_CODE:
-                    geoData.put("country_iso_code", country.getIsoCode());
-                    break;
-                case COUNTRY_NAME:
-                    geoData.put("country_name", country.getName());
-                    break;
-                case CONTINENT_NAME:
-                    geoData.put("continent_name", continent.getName());
-                    break;
-                case REGION_NAME:
-                    geoData.put("region_name", subdivision.getName());
-                    break;
-                case CITY_NAME:
-                    geoData.put("city_name", city.getName());
-                    break;
-                case TIMEZONE:
-                    geoData.put("timezone", location.getTimeZone());
-                    break;
-                case LOCATION:
-                    Map<String, Object> locationObject = new HashMap<>();
-                    locationObject.put("lat", location.getLatitude());
-                    locationObject.put("lon", location.getLongitude());
-                    geoData.put("location", locationObject);
-                    break;
-            }
-        }
-        return geoData;
+        // all properties are looked up, the cached result is shared by processors that are configured with different properties
+        Map<Property, Object> geoData = new EnumMap<>(Property.class);
+        geoData.put(Property.IP, NetworkAddress.format(ipAddress));
+        geoData.put(Property.COUNTRY_ISO_CODE, country.getIsoCode());
+        geoData.put(Property.COUNTRY_NAME, country.getName());
+        geoData.put(Property.CONTINENT_NAME, continent.getName());
+        geoData.put(Property.REGION_NAME, subdivision.getName());
+        geoData.put(Property.CITY_NAME, city.getName());
+        geoData.put(Property.TIMEZONE, location.getTimeZone());
+        Map<String, Object> locationObject = new HashMap<>();
+        locationObject.put("lat", location.getLatitude());
+        locationObject.put("lon", location.getLongitude());
+        geoData.put(Property.LOCATION, Collections.unmodifiableMap(locationObject));
+        return Collections.unmodifiableMap(geoData);
     }
 
-    private Map<String, Object> retrieveCountryGeoData(InetAddress ipAddress) {
+    private Map<Property, Object> retrieveCountryGeoData(String ip) {
+        final InetAddress ipAddress = InetAddresses.forString(ip);
         SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
             sm.checkPermission(new SpecialPermission());
         }
-        CountryResponse response = AccessController.doPrivileged((PrivilegedAction<CountryResponse>) () -> {
-            try {
-                return dbReader.country(ipAddress);
-            } catch (AddressNotFoundException e) {
-                throw new AddressNotFoundRuntimeException(e);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
+        CountryResponse response;
+        try {
+            response = AccessController.doPrivileged((PrivilegedAction<CountryResponse>) () -> {
+                try {
+                    return dbReader.country(ipAddress);
+                } catch (AddressNotFoundException e) {
+                    throw new AddressNotFoundRuntimeException(e);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        } catch (AddressNotFoundRuntimeException e) {
+            return Collections.emptyMap();
+        }
 
         Country country = response.getCountry();
         Continent continent = response.getContinent();
 
-        Map<String, Object> geoData = new HashMap<>();
-        for (Property property : this.properties) {
-            switch (property) {
-                case IP:
-                    geoData.put("ip", NetworkAddress.format(ipAddress));
-                    break;
-                case COUNTRY_ISO_CODE:
-                    geoData.put("country_iso_code", country.getIsoCode());
-                    break;
-                case COUNTRY_NAME:
-                    geoData.put("country_name", country.getName());
-                    break;
-                case CONTINENT_NAME:
-                    geoData.put("continent_name", continent.getName());
-                    break;
-            }
-        }
-        return geoData;
+        Map<Property, Object> geoData = new EnumMap<>(Property.class);
+        geoData.put(Property.IP, NetworkAddress.format(ipAddress));
+        geoData.put(Property.COUNTRY_ISO_CODE, country.getIsoCode());
+        geoData.put(Property.COUNTRY_NAME, country.getName());
+        geoData.put(Property.CONTINENT_NAME, continent.getName());
+        return Collections.unmodifiableMap(geoData);
     }
 
-    public static final class Factory extends AbstractProcessorFactory<GeoIpProcessor> implements Closeable {
+    public static final class Factory extends AbstractProcessorFactory<GeoIpProcessor> implements Closeable,
+        IngestStats.CacheStatsProvider {
         static final Set<Property> DEFAULT_CITY_PROPERTIES = EnumSet.of(
             Property.CONTINENT_NAME, Property.COUNTRY_ISO_CODE, Property.REGION_NAME,
             Property.CITY_NAME, Property.LOCATION
@@ -224,9 +218,15 @@ public final class GeoIpProcessor extends AbstractProcessor {
         static final Set<Property> DEFAULT_COUNTRY_PROPERTIES = EnumSet.of(Property.CONTINENT_NAME, Property.COUNTRY_ISO_CODE);
 
         private final Map<String, DatabaseReader> databaseReaders;
+        private final GeoIpCache cache;
 
         public Factory(Map<String, DatabaseReader> databaseReaders) {
+            this(databaseReaders, new GeoIpCache(0));
+        }
+
+        Factory(Map<String, DatabaseReader> databaseReaders, GeoIpCache cache) {
             this.databaseReaders = databaseReaders;
+            this.cache = cache;
         }
 
         @Override
@@ -263,7 +263,12 @@ public final class GeoIpProcessor extends AbstractProcessor {
                 }
             }
 
-            return new GeoIpProcessor(processorTag, ipField, databaseReader, targetField, properties);
+            return new GeoIpProcessor(processorTag, ipField, databaseReader, targetField, properties, cache);
+        }
+
+        @Override
+        public IngestStats.CacheStats cacheStats() {
+            return cache.stats();
         }
 
         @Override
@@ -297,6 +302,13 @@ public final class GeoIpProcessor extends AbstractProcessor {
         static final EnumSet<Property> ALL_COUNTRY_PROPERTIES = EnumSet.of(Property.IP, Property.CONTINENT_NAME,
             Property.COUNTRY_NAME, Property.COUNTRY_ISO_CODE);
 
+        /**
+         * The name of the field under the target field that holds this property.
+         */
+        String fieldName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
         public static Property parseProperty(String databaseType, String value) {
             Set<Property> validProperties = EnumSet.noneOf(Property.class);
             if (CITY_DB_TYPE.equals(databaseType)) {
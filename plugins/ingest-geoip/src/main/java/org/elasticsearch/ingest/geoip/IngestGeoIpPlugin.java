@@ -20,6 +20,10 @@
 package org.elasticsearch.ingest.geoip;
 
 import com.maxmind.geoip2.DatabaseReader;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.settings.SettingsModule;
 import org.elasticsearch.node.NodeModule;
 import org.elasticsearch.plugins.Plugin;
 
@@ -37,6 +41,18 @@ import java.util.stream.Stream;
 
 public class IngestGeoIpPlugin extends Plugin {
 
+    /**
+     * The maximum number of geoip lookups that are cached on a node, <code>0</code> disables the cache.
+     */
+    public static final Setting<Long> CACHE_SIZE_SETTING =
+        Setting.longSetting("ingest.geoip.cache_size", 1000, 0, Property.NodeScope);
+
+    private final Settings settings;
+
+    public IngestGeoIpPlugin(Settings settings) {
+        this.settings = settings;
+    }
+
     @Override
     public String name() {
         return "ingest-geoip";
@@ -47,10 +63,15 @@ public class IngestGeoIpPlugin extends Plugin {
         return "Ingest processor that adds information about the geographical location of ip addresses";
     }
 
+    public void onModule(SettingsModule settingsModule) {
+        settingsModule.registerSetting(CACHE_SIZE_SETTING);
+    }
+
     public void onModule(NodeModule nodeModule) throws IOException {
         Path geoIpConfigDirectory = nodeModule.getNode().getEnvironment().configFile().resolve("ingest-geoip");
         Map<String, DatabaseReader> databaseReaders = loadDatabaseReaders(geoIpConfigDirectory);
-        nodeModule.registerProcessor(GeoIpProcessor.TYPE, (templateService, registry) -> new GeoIpProcessor.Factory(databaseReaders));
+        GeoIpCache cache = new GeoIpCache(CACHE_SIZE_SETTING.get(settings));
+        nodeModule.registerProcessor(GeoIpProcessor.TYPE, (templateService, registry) -> new GeoIpProcessor.Factory(databaseReaders, cache));
     }
 
     public static Map<String, DatabaseReader> loadDatabaseReaders(Path geoIpConfigDirectory) throws IOException {
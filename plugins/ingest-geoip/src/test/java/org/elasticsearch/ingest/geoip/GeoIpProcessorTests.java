@@ -25,6 +25,7 @@ import org.elasticsearch.ingest.core.IngestDocument;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
@@ -109,4 +110,47 @@ public class GeoIpProcessorTests extends ESTestCase {
         }
     }
 
+    public void testCachedLookups() throws Exception {
+        InputStream database = GeoIpProcessor.class.getResourceAsStream("/GeoLite2-City.mmdb");
+        DatabaseReader databaseReader = new DatabaseReader.Builder(database).build();
+        GeoIpCache cache = new GeoIpCache(10);
+        GeoIpProcessor cityProcessor = new GeoIpProcessor(randomAsciiOfLength(10), "source_field", databaseReader, "target_field",
+            EnumSet.of(GeoIpProcessor.Property.CITY_NAME, GeoIpProcessor.Property.LOCATION), cache);
+        GeoIpProcessor countryProcessor = new GeoIpProcessor(randomAsciiOfLength(10), "source_field", databaseReader, "target_field",
+            EnumSet.of(GeoIpProcessor.Property.COUNTRY_ISO_CODE), cache);
+
+        IngestDocument first = RandomDocumentPicks.randomIngestDocument(random(), Collections.singletonMap("source_field", "82.170.213.79"));
+        cityProcessor.execute(first);
+        assertThat(cache.stats().getMisses(), equalTo(1L));
+        assertThat(cache.stats().getHits(), equalTo(0L));
+        assertThat(cache.stats().getCount(), equalTo(1L));
+
+        // a processor with different properties is served from the same cached lookup
+        IngestDocument second = RandomDocumentPicks.randomIngestDocument(random(), Collections.singletonMap("source_field", "82.170.213.79"));
+        countryProcessor.execute(second);
+        assertThat(cache.stats().getMisses(), equalTo(1L));
+        assertThat(cache.stats().getHits(), equalTo(1L));
+        assertThat(second.getFieldValue("target_field", Map.class), equalTo(Collections.singletonMap("country_iso_code", "NL")));
+
+        // modifying the geo data of one document must not leak into documents enriched later
+        first.setFieldValue("target_field.location.lat", 0d);
+        first.setFieldValue("target_field.city_name", "Rotterdam");
+        IngestDocument third = RandomDocumentPicks.randomIngestDocument(random(), Collections.singletonMap("source_field", "82.170.213.79"));
+        cityProcessor.execute(third);
+        assertThat(cache.stats().getHits(), equalTo(2L));
+        assertThat(third.getFieldValue("target_field.city_name", String.class), equalTo("Amsterdam"));
+        assertThat(third.getFieldValue("target_field.location.lat", Double.class), equalTo(52.374d));
+
+        // addresses that are not in the database are cached too
+        IngestDocument notFound = RandomDocumentPicks.randomIngestDocument(random(), Collections.singletonMap("source_field", "202.45.11.11"));
+        cityProcessor.execute(notFound);
+        assertThat(notFound.getFieldValue("target_field", Map.class).size(), equalTo(0));
+        assertThat(cache.stats().getMisses(), equalTo(2L));
+        assertThat(cache.stats().getCount(), equalTo(2L));
+
+        IngestDocument invalid = RandomDocumentPicks.randomIngestDocument(random(), Collections.singletonMap("source_field", "www.google.com"));
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> cityProcessor.execute(invalid));
+        assertThat(e.getMessage(), containsString("not an IP string literal"));
+        assertThat(cache.stats().getCount(), equalTo(2L));
+    }
 }